@@ -0,0 +1,98 @@
+package com.assignment.todo.loadtest;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.util.DescriptionCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the todo_items table with synthetic items
+ * <p>Due dates spread from 90 days ago to 180 days ahead. About a third of the items are done.
+ * The items not done are 'past due' when their due date has passed, as the scheduler would have set them.
+ * The same seed gives the same items relative to the time of the run.</p>
+ */
+@Slf4j
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String INSERT = "INSERT INTO todo_items "
+            + "(description, description_preview, status, due_date_time, done_at, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final long seed;
+
+    public DatasetGenerator(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+    }
+
+    /**
+     * Insert items in batches of {@value BATCH_SIZE}, committing each batch
+     *
+     * @param rows  number of items to insert
+     * @return highest item id after the insert
+     */
+    public long generate(long rows) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            connection.setAutoCommit(false);
+            for (long row = 1; row <= rows; row++) {
+                LocalDateTime dueDateTime = now.plusMinutes(random.nextLong(-90L * 24 * 60, 180L * 24 * 60));
+                LocalDateTime createdAt = dueDateTime.minusMinutes(random.nextLong(60, 30L * 24 * 60));
+                if (createdAt.isAfter(now)) {
+                    createdAt = now.minusMinutes(random.nextLong(1, 7L * 24 * 60));
+                }
+                boolean done = random.nextInt(3) == 0;
+                LocalDateTime doneAt = null;
+                TodoItemStatus status;
+                if (done) {
+                    status = TodoItemStatus.DONE;
+                    doneAt = createdAt.plusMinutes(random.nextLong(1, Math.max(2, ChronoUnit.MINUTES.between(createdAt, now))));
+                } else {
+                    status = dueDateTime.isBefore(now) ? TodoItemStatus.PAST_DUE : TodoItemStatus.NOT_DONE;
+                }
+                String description = Descriptions.random(random);
+                statement.setBytes(1, DescriptionCodec.encode(description));
+                statement.setString(2, DescriptionCodec.preview(description));
+                statement.setString(3, status.name());
+                statement.setTimestamp(4, Timestamp.valueOf(dueDateTime));
+                statement.setTimestamp(5, doneAt != null ? Timestamp.valueOf(doneAt) : null);
+                statement.setTimestamp(6, Timestamp.valueOf(createdAt));
+                statement.setTimestamp(7, Timestamp.valueOf(doneAt != null ? doneAt : createdAt));
+                statement.addBatch();
+                if (row % BATCH_SIZE == 0 || row == rows) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+                if (row % 1_000_000 == 0) {
+                    log.info("Generated {} of {} items", row, rows);
+                }
+            }
+        }
+        log.info("Generated {} items in {} s", rows, (System.nanoTime() - start) / 1_000_000_000);
+        return maxId();
+    }
+
+    private long maxId() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM todo_items");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.assignment.todo.loadtest;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Realistic looking descriptions of todo items
+ */
+final class Descriptions {
+
+    private static final String[] VERBS = {
+            "Buy", "Call", "Email", "Fix", "Book", "Pay", "Review", "Clean", "Renew", "Schedule",
+            "Pick up", "Return", "Prepare", "Update", "Cancel", "Order", "Plan", "Water", "Write", "Check"};
+    private static final String[] OBJECTS = {
+            "groceries", "the dentist", "the landlord", "the bike tyre", "train tickets", "the electricity bill",
+            "the quarterly report", "the garage", "my passport", "a haircut", "the parcel", "library books",
+            "slides for Monday", "the insurance policy", "the gym membership", "birthday present for Sam",
+            "the holiday", "the plants", "a thank you note", "the car service", "the team retro notes",
+            "flat white beans", "the broken lamp", "the tax return"};
+    private static final String[] SUFFIXES = {
+            "", "", "", " before the weekend", " after work", " tomorrow morning", " (urgent)",
+            " - ask about discount", " and confirm by email", " for the trip"};
+
+    private Descriptions() {
+    }
+
+    static String random(RandomGenerator random) {
+        return VERBS[random.nextInt(VERBS.length)] + " "
+                + OBJECTS[random.nextInt(OBJECTS.length)]
+                + SUFFIXES[random.nextInt(SUFFIXES.length)];
+    }
+
+}
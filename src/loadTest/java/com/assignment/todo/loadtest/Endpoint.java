@@ -0,0 +1,81 @@
+package com.assignment.todo.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Endpoints of the TodoItemController exercised by the load driver
+ */
+public enum Endpoint {
+
+    LIST ("list"),
+    LIST_ALL ("list-all"),
+    GET ("get"),
+    ADD ("add"),
+    UPDATE ("update"),
+    MARK_DONE ("done"),
+    MARK_NOT_DONE ("not-done"),
+    DELETE ("delete");
+
+    private static final String JSON = "application/json";
+
+    private final String value;
+
+    Endpoint(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public static Endpoint from(String input) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.value.equalsIgnoreCase(input)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + input);
+    }
+
+    /**
+     * Build a request to this endpoint
+     *
+     * @param baseUri  URI of the todos resource, e.g. http://localhost:8080/todo/api/v1/todos
+     * @param maxId  highest item id to pick ids from
+     * @param random  source of ids and payloads
+     * @return the request
+     */
+    public HttpRequest request(URI baseUri, long maxId, RandomGenerator random) {
+        String base = baseUri.toString();
+        String item = base + "/" + random.nextLong(1, maxId + 1);
+        return switch (this) {
+            case LIST -> HttpRequest.newBuilder(URI.create(base)).GET().build();
+            case LIST_ALL -> HttpRequest.newBuilder(URI.create(base + "?includeAll=true")).GET().build();
+            case GET -> HttpRequest.newBuilder(URI.create(item)).GET().build();
+            case ADD -> HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", JSON)
+                    .POST(HttpRequest.BodyPublishers.ofString(body(random)))
+                    .build();
+            case UPDATE -> HttpRequest.newBuilder(URI.create(item))
+                    .header("Content-Type", JSON)
+                    .PUT(HttpRequest.BodyPublishers.ofString(body(random)))
+                    .build();
+            case MARK_DONE -> HttpRequest.newBuilder(URI.create(item + "/done"))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            case MARK_NOT_DONE -> HttpRequest.newBuilder(URI.create(item + "/not-done"))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            case DELETE -> HttpRequest.newBuilder(URI.create(item)).DELETE().build();
+        };
+    }
+
+    private static String body(RandomGenerator random) {
+        LocalDateTime dueDateTime = LocalDateTime.now().plusMinutes(random.nextInt(10, 60 * 24 * 90))
+                .truncatedTo(ChronoUnit.SECONDS);
+        return "{\"description\":\"" + Descriptions.random(random) + "\",\"dueDateTime\":\"" + dueDateTime + "\"}";
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.assignment.todo.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted mix of endpoints, e.g. {@code get=50,add=15,list=1}
+ */
+public class EndpointMix {
+
+    public static final String DEFAULT = "get=50,add=15,update=10,done=10,not-done=5,delete=5,list=3,list-all=2";
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final Map<Endpoint, Integer> weights;
+
+    private EndpointMix(Map<Endpoint, Integer> weights) {
+        this.weights = weights;
+        this.endpoints = weights.keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += weights.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("The endpoint mix needs at least one positive weight");
+        }
+    }
+
+    public static EndpointMix parse(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            if (weight > 0) {
+                weights.put(Endpoint.from(parts[0].trim()), weight);
+            }
+        }
+        return new EndpointMix(weights);
+    }
+
+    public Endpoint pick(RandomGenerator random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Weight out of range");
+    }
+
+    public Map<Endpoint, Integer> getWeights() {
+        return weights;
+    }
+
+}
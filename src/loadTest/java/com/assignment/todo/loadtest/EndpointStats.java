@@ -0,0 +1,68 @@
+package com.assignment.todo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and response status counts of one endpoint, or of all of them
+ */
+public class EndpointStats {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Record a response
+     *
+     * @param latencyNanos  time from the intended send time to the response
+     * @param status  HTTP status, or 0 if the request failed without a response
+     */
+    public void record(long latencyNanos, int status) {
+        latencies.recordValue(latencyNanos);
+        String statusClass = status == 0 ? "error" : (status / 100) + "xx";
+        statuses.computeIfAbsent(statusClass, key -> new LongAdder()).increment();
+    }
+
+    public long getRequests() {
+        return latencies.getTotalCount();
+    }
+
+    /**
+     * Summary of the recorded responses, with latencies in milliseconds
+     *
+     * @param seconds  length of the measured period
+     * @return summary, ready to be written as JSON
+     */
+    public Map<String, Object> summary(double seconds) {
+        Map<String, Object> summary = new TreeMap<>();
+        summary.put("requests", getRequests());
+        summary.put("throughput", getRequests() / seconds);
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((statusClass, count) -> statusCounts.put(statusClass, count.sum()));
+        summary.put("status", statusCounts);
+        Map<String, Double> latencyMillis = new TreeMap<>();
+        if (getRequests() > 0) {
+            for (double percentile : PERCENTILES) {
+                latencyMillis.put("p" + String.valueOf(percentile).replace(".0", ""),
+                        millis(latencies.getValueAtPercentile(percentile)));
+            }
+            latencyMillis.put("mean", latencies.getMean() / TimeUnit.MILLISECONDS.toNanos(1));
+            latencyMillis.put("max", millis(latencies.getMaxValue()));
+        }
+        summary.put("latencyMs", latencyMillis);
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.assignment.todo.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends a mix of requests to the todos endpoints and records their latencies
+ * <p>The closed model runs a fixed number of users, each sending its next request when the previous one
+ * was answered. The open model sends requests at a fixed rate whatever the response times. Its latencies
+ * are measured from the time a request was due to be sent, so a stalled service is not hidden by the driver
+ * waiting for it (coordinated omission).</p>
+ */
+@Slf4j
+public class LoadDriver {
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final long maxId;
+    private final EndpointMix mix;
+    private final SplittableRandom random;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final EndpointStats total = new EndpointStats();
+
+    public LoadDriver(HttpClient httpClient, URI baseUri, long maxId, EndpointMix mix, long seed) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.maxId = maxId;
+        this.mix = mix;
+        this.random = new SplittableRandom(seed);
+        for (Endpoint endpoint : mix.getWeights().keySet()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    /**
+     * Run the closed model
+     *
+     * @param users  number of concurrent users
+     * @param warmup  period not measured
+     * @param duration  measured period
+     * @return summary of the measured period
+     */
+    public Map<String, Object> runClosed(int users, Duration warmup, Duration duration) throws InterruptedException {
+        long measureStart = System.nanoTime() + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        for (int user = 0; user < users; user++) {
+            SplittableRandom userRandom = random.split();
+            executor.execute(() -> {
+                while (System.nanoTime() < end) {
+                    Endpoint endpoint = mix.pick(userRandom);
+                    HttpRequest request = endpoint.request(baseUri, maxId, userRandom);
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        status = 0;
+                    }
+                    if (start >= measureStart) {
+                        record(endpoint, System.nanoTime() - start, status);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmup.plus(duration).toSeconds() + 60, TimeUnit.SECONDS);
+        return summary(duration);
+    }
+
+    /**
+     * Run the open model
+     *
+     * @param rate  requests per second
+     * @param maxOutstanding  requests waiting for a response before the driver stops sending,
+     *                        the time waiting still counts in the latencies
+     * @param warmup  period not measured
+     * @param duration  measured period
+     * @return summary of the measured period
+     */
+    public Map<String, Object> runOpen(double rate, int maxOutstanding, Duration warmup, Duration duration)
+            throws InterruptedException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        Semaphore outstanding = new Semaphore(maxOutstanding);
+        for (long i = 0; start + i * interval < end; i++) {
+            long intended = start + i * interval;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            outstanding.acquire();
+            Endpoint endpoint = mix.pick(random);
+            boolean measured = intended >= measureStart;
+            httpClient.sendAsync(endpoint.request(baseUri, maxId, random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        outstanding.release();
+                        if (measured) {
+                            record(endpoint, System.nanoTime() - intended, response != null ? response.statusCode() : 0);
+                        }
+                    });
+        }
+        if (!outstanding.tryAcquire(maxOutstanding, 60, TimeUnit.SECONDS)) {
+            log.warn("{} requests still outstanding at the end of the run", maxOutstanding - outstanding.availablePermits());
+        }
+        return summary(duration);
+    }
+
+    private void record(Endpoint endpoint, long latencyNanos, int status) {
+        stats.get(endpoint).record(latencyNanos, status);
+        total.record(latencyNanos, status);
+    }
+
+    private Map<String, Object> summary(Duration duration) {
+        double seconds = duration.toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> endpoints.put(endpoint.value(), endpointStats.summary(seconds)));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", total.summary(seconds));
+        summary.put("endpoints", endpoints);
+        return summary;
+    }
+
+}
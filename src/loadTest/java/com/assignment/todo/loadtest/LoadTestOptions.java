@@ -0,0 +1,62 @@
+package com.assignment.todo.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options of a load test run, parsed from {@code --name=value} arguments
+ */
+@Getter
+public class LoadTestOptions {
+
+    public enum Model { CLOSED, OPEN }
+
+    private final long rows;
+    private final long seed;
+    private final Model model;
+    private final int users;
+    private final double rate;
+    private final int maxOutstanding;
+    private final Duration warmup;
+    private final Duration duration;
+    private final EndpointMix mix;
+    private final String output;
+    private final String target;
+
+    private LoadTestOptions(Map<String, String> options) {
+        this.rows = Long.parseLong(options.getOrDefault("rows", "1000000"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.model = Model.valueOf(options.getOrDefault("model", "closed").toUpperCase());
+        this.users = Integer.parseInt(options.getOrDefault("users", "32"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "500"));
+        this.maxOutstanding = Integer.parseInt(options.getOrDefault("max-outstanding", "1000"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        this.mix = EndpointMix.parse(options.getOrDefault("mix", EndpointMix.DEFAULT));
+        this.output = options.getOrDefault("output", "result.json");
+        this.target = options.get("target");
+    }
+
+    /**
+     * Parse the options
+     *
+     * @param args  arguments in {@code --name=value} form
+     * @return the options, with defaults for the ones not given
+     */
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(options);
+    }
+
+}
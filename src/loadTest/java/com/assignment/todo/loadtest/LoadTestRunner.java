@@ -0,0 +1,118 @@
+package com.assignment.todo.loadtest;
+
+import com.assignment.todo.SimpleTodoListApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates a synthetic dataset in the embedded service and load tests it, writing the results as JSON
+ * <p>Run with {@code ./gradlew loadTest --args="--rows=1000000 --model=open --rate=500"}. Options:</p>
+ * <ul>
+ *     <li>{@code rows}: items to generate, 1000000 by default</li>
+ *     <li>{@code seed}: seed of the dataset and of the requests, 42 by default</li>
+ *     <li>{@code model}: {@code closed} (default) or {@code open}</li>
+ *     <li>{@code users}: concurrent users of the closed model, 32 by default</li>
+ *     <li>{@code rate}: requests per second of the open model, 500 by default</li>
+ *     <li>{@code max-outstanding}: requests of the open model waiting for a response, 1000 by default</li>
+ *     <li>{@code warmup} and {@code duration}: 10s and 60s by default</li>
+ *     <li>{@code mix}: endpoint weights, {@value EndpointMix#DEFAULT} by default</li>
+ *     <li>{@code output}: result file, result.json in build/load-test by default</li>
+ *     <li>{@code target}: URL of an already running service to test instead, as in
+ *     http://localhost:8080/todo/api/v1/todos; no dataset is generated then</li>
+ * </ul>
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        URI baseUri;
+        long maxId;
+        if (options.getTarget() == null) {
+            context = startService();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUri = URI.create("http://localhost:" + port + "/todo/api/v1/todos");
+            maxId = new DatasetGenerator(context.getBean(DataSource.class), options.getSeed()).generate(options.getRows());
+        } else {
+            baseUri = URI.create(options.getTarget());
+            maxId = options.getRows();
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LoadDriver driver = new LoadDriver(httpClient, baseUri, maxId, options.getMix(), options.getSeed());
+        log.info("Running the {} model against {} for {} after {} of warmup",
+                options.getModel(), baseUri, options.getDuration(), options.getWarmup());
+        Map<String, Object> summary = switch (options.getModel()) {
+            case CLOSED -> driver.runClosed(options.getUsers(), options.getWarmup(), options.getDuration());
+            case OPEN -> driver.runOpen(options.getRate(), options.getMaxOutstanding(),
+                    options.getWarmup(), options.getDuration());
+        };
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("options", describe(options));
+        result.putAll(summary);
+        File output = new File(options.getOutput());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, result);
+        log.info("Results written to {}", output.getAbsolutePath());
+
+        if (context != null) {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Start the service on a random port, with its own in-memory database and without admission control,
+     * so the load driver measures the service and not the rate limits
+     */
+    private static ConfigurableApplicationContext startService() {
+        return new SpringApplicationBuilder(SimpleTodoListApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;QUERY_CACHE_SIZE=64;DB_CLOSE_DELAY=-1",
+                        "todo.admission.enabled=false",
+                        "spring.h2.console.enabled=false",
+                        "springdoc.api-docs.enabled=false",
+                        "logging.level.com.assignment.todo=WARN",
+                        "logging.level.com.assignment.todo.loadtest=INFO")
+                .run();
+    }
+
+    private static Map<String, Object> describe(LoadTestOptions options) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("model", options.getModel().name().toLowerCase());
+        description.put("rows", options.getRows());
+        description.put("seed", options.getSeed());
+        if (options.getModel() == LoadTestOptions.Model.CLOSED) {
+            description.put("users", options.getUsers());
+        } else {
+            description.put("rate", options.getRate());
+            description.put("maxOutstanding", options.getMaxOutstanding());
+        }
+        description.put("warmupSeconds", options.getWarmup().toSeconds());
+        description.put("durationSeconds", options.getDuration().toSeconds());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.getMix().getWeights().forEach((endpoint, weight) -> mix.put(endpoint.value(), weight));
+        description.put("mix", mix);
+        return description;
+    }
+
+}
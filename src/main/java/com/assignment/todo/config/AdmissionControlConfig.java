@@ -0,0 +1,47 @@
+package com.assignment.todo.config;
+
+import com.assignment.todo.filter.AdmissionControlFilter;
+import com.assignment.todo.util.AdaptiveConcurrencyLimiter;
+import com.assignment.todo.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "todo.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(
+            ObjectMapper objectMapper,
+            @Value("${todo.admission.rate-per-second:50}") double ratePerSecond,
+            @Value("${todo.admission.burst:100}") double burst,
+            @Value("${todo.admission.max-clients:10000}") int maxClients,
+            @Value("${todo.admission.max-client-ids-per-address:16}") int maxClientIdsPerAddress,
+            @Value("${todo.admission.initial-limit:20}") int initialLimit,
+            @Value("${todo.admission.min-limit:4}") int minLimit,
+            @Value("${todo.admission.max-limit:200}") int maxLimit,
+            @Value("${todo.admission.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${todo.admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${todo.admission.low-priority-share:0.75}") double lowPriorityShare) {
+        return new AdmissionControlFilter(
+                new TokenBucketRateLimiter(ratePerSecond, burst, maxClients, maxClientIdsPerAddress),
+                new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                        latencyTolerance, backoffRatio, lowPriorityShare),
+                objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(
+            AdmissionControlFilter admissionControlFilter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(admissionControlFilter);
+        // Reject before any other filter spends time on the request, the JFR request event filter aside
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+}
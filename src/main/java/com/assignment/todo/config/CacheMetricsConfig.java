@@ -0,0 +1,40 @@
+package com.assignment.todo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hit ratio of the Hibernate second level cache regions
+ * <p>Request, hit, miss and put counters per region are published by hibernate-micrometer
+ * as {@code hibernate.second.level.cache.*}, this adds the derived hit ratio of each region.
+ * The entry count and size of a region aren't published: hibernate-jcache regions don't report them
+ * to Hibernate, and Ehcache doesn't expose its own tier statistics through JCache.</p>
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheRegionMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("todo.cache.region.hit-ratio", statistics, stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+                        .description("Share of second level cache lookups served from the region")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? 0 : (double) region.getHitCount() / lookups;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.assignment.todo.config;
+
+import com.assignment.todo.constants.ClockMode;
+import com.assignment.todo.util.CoarseClock;
+import com.assignment.todo.util.SimulatedClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.validation.ValidationConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Clock the services read the time from, instead of reading the system clock on their own
+ * <p>- system, the system clock
+ * <br>- coarse, the system clock cached for {@code todo.clock.resolution}, for hot paths
+ * <br>- simulated, a {@link SimulatedClock} only moving when advanced, to replay traffic over weeks in seconds.
+ * The scheduled jobs still run on wall clock delays, simulations drive the sweeps themselves.</p>
+ */
+@Slf4j
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock(@Value("${todo.clock.mode:system}") String mode,
+                       @Value("${todo.clock.resolution:10ms}") Duration resolution) {
+        Clock system = Clock.systemDefaultZone();
+        ClockMode clockMode = ClockMode.from(mode);
+        log.info("Reading the time from the {} clock", clockMode.value());
+        return switch (clockMode) {
+            case SYSTEM -> system;
+            case COARSE -> new CoarseClock(system, resolution);
+            case SIMULATED -> new SimulatedClock(system.instant(), system.getZone());
+        };
+    }
+
+    /**
+     * Validate {@code @Future} and {@code @Past} against the same clock, e.g. the due date of new items
+     */
+    @Bean
+    public ValidationConfigurationCustomizer clockProviderCustomizer(Clock clock) {
+        return configuration -> configuration.clockProvider(() -> clock);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.assignment.todo.config;
+
+import com.assignment.todo.dal.datasource.ConnectionPoolTuner;
+import com.assignment.todo.dal.datasource.InstrumentedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Wrap the pooled DataSource to time connection acquisition per operation
+     */
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "todo.datasource.tuning.enabled", havingValue = "true")
+    public ConnectionPoolTuner connectionPoolTuner(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${todo.datasource.tuning.min-pool-size:2}") int minPoolSize,
+            @Value("${todo.datasource.tuning.max-pool-size:50}") int maxPoolSize,
+            @Value("${todo.datasource.tuning.target-acquire-time:5ms}") Duration targetAcquireTime,
+            @Value("${todo.datasource.tuning.window:30}") int window) throws SQLException {
+        return new ConnectionPoolTuner(
+                dataSource.unwrap(HikariDataSource.class),
+                dataSource.unwrap(InstrumentedDataSource.class),
+                meterRegistry, minPoolSize, maxPoolSize, targetAcquireTime, window);
+    }
+
+}
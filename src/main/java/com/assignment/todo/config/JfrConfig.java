@@ -0,0 +1,67 @@
+package com.assignment.todo.config;
+
+import com.assignment.todo.filter.RequestEventFilter;
+import com.assignment.todo.jfr.HttpRequestEvent;
+import com.assignment.todo.jfr.PastDueSweepEvent;
+import com.assignment.todo.jfr.ServiceOperationEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+@Slf4j
+@org.springframework.context.annotation.Configuration
+public class JfrConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestEventFilter> requestEventFilterRegistration() {
+        FilterRegistrationBean<RequestEventFilter> registration = new FilterRegistrationBean<>(new RequestEventFilter());
+        // Outermost, so requests rejected by admission control are recorded too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Continuous flight recording, started with the jfr profile
+     * <p>Recorded to disk and rotated by age and size, so the last hours are always available,
+     * with {@code jcmd <pid> JFR.dump name=todo-list} or on exit to the configured destination.</p>
+     */
+    @Bean(destroyMethod = "close")
+    @Profile("jfr")
+    public Recording continuousRecording(
+            @Value("${todo.jfr.recording.settings:default}") String settings,
+            @Value("${todo.jfr.recording.max-age:6h}") Duration maxAge,
+            @Value("${todo.jfr.recording.max-size:250MB}") DataSize maxSize,
+            @Value("${todo.jfr.recording.threshold:0ms}") Duration threshold,
+            @Value("${todo.jfr.recording.destination:recordings/todo-list.jfr}") Path destination)
+            throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName("todo-list");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDumpOnExit(true);
+        if (destination.getParent() != null) {
+            Files.createDirectories(destination.getParent());
+        }
+        recording.setDestination(destination);
+        recording.enable(ServiceOperationEvent.class).withThreshold(threshold);
+        recording.enable(HttpRequestEvent.class).withThreshold(threshold);
+        recording.enable(PastDueSweepEvent.class);
+        recording.start();
+        log.info("Started continuous flight recording with {} settings, keeping {} or {}", settings, maxAge, maxSize);
+        return recording;
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.assignment.todo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the application once it is ready when {@code todo.startup.training-run} is set,
+ * so the JVM can write the class data sharing archive on exit.
+ * <p>The property is read at runtime rather than with a condition, as conditions are evaluated
+ * at build time when the application is processed ahead of time.</p>
+ */
+@Slf4j
+@Component
+public class TrainingRunListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    public static final String TRAINING_RUN_PROPERTY = "todo.startup.training-run";
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (event.getApplicationContext().getEnvironment().getProperty(TRAINING_RUN_PROPERTY, Boolean.class, false)) {
+            log.info("Training run finished in {} ms, exiting", event.getTimeTaken().toMillis());
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+}
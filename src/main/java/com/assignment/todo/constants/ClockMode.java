@@ -0,0 +1,31 @@
+package com.assignment.todo.constants;
+
+/**
+ * Clocks the service can read the time from, see {@code todo.clock.mode}
+ */
+public enum ClockMode {
+
+    SYSTEM ("system"),
+    COARSE ("coarse"),
+    SIMULATED ("simulated");
+
+    private final String value;
+
+    ClockMode(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public static ClockMode from(String input) {
+        for (ClockMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(input)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown clock mode: " + input);
+    }
+
+}
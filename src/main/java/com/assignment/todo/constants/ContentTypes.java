@@ -0,0 +1,17 @@
+package com.assignment.todo.constants;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types served by the API besides JSON
+ */
+public final class ContentTypes {
+
+    public static final String APPLICATION_CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_NDJSON_VALUE = MediaType.APPLICATION_NDJSON_VALUE;
+
+    private ContentTypes() {
+    }
+
+}
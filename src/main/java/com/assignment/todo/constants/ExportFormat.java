@@ -0,0 +1,38 @@
+package com.assignment.todo.constants;
+
+import com.assignment.todo.exception.InvalidRequestException;
+
+/**
+ * Formats of the TodoItems export
+ */
+public enum ExportFormat {
+
+    NDJSON ("ndjson", ContentTypes.APPLICATION_NDJSON_VALUE),
+    CSV ("csv", "text/csv");
+
+    private final String value;
+    private final String contentType;
+
+    ExportFormat(String value, String contentType) {
+        this.value = value;
+        this.contentType = contentType;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static ExportFormat from(String input) throws InvalidRequestException {
+        for (ExportFormat format : values()) {
+            if (format.value.equalsIgnoreCase(input)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unknown export format: " + input + ", expected ndjson or csv");
+    }
+
+}
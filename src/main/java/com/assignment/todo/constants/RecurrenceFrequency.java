@@ -0,0 +1,39 @@
+package com.assignment.todo.constants;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Represents how often a recurring TodoItem repeats
+ */
+public enum RecurrenceFrequency {
+
+    DAILY ("daily", ChronoUnit.DAYS),
+    WEEKLY ("weekly", ChronoUnit.WEEKS),
+    MONTHLY ("monthly", ChronoUnit.MONTHS);
+
+    private final String value;
+    private final ChronoUnit unit;
+
+    RecurrenceFrequency(String value, ChronoUnit unit) {
+        this.value = value;
+        this.unit = unit;
+    }
+
+    public String value() {
+        return this.value;
+    }
+
+    public ChronoUnit unit() {
+        return this.unit;
+    }
+
+    public static RecurrenceFrequency from(String input) {
+        for (RecurrenceFrequency frequency : values()) {
+            if (frequency.value.equalsIgnoreCase(input)) {
+                return frequency;
+            }
+        }
+        throw new IllegalArgumentException("Unknown label: " + input);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.assignment.todo.constants;
+
+/**
+ * Admission priority of an API request
+ */
+public enum RequestPriority {
+
+    HIGH ("high"), // writes and single item reads
+    LOW ("low"); // full list scans
+
+    private final String value;
+
+    RequestPriority(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return this.value;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.assignment.todo.constants;
+
+/**
+ * Represents the kinds of changes recorded in the history of a TodoItem
+ */
+public enum TodoItemEventType {
+
+    CREATED ("created"),
+    UPDATED ("updated"),
+    DONE ("done"),
+    NOT_DONE ("not done"),
+    PAST_DUE ("past due"),
+    DELETED ("deleted");
+
+    private final String value;
+
+    TodoItemEventType(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return this.value;
+    }
+
+}
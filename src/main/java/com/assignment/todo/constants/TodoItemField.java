@@ -0,0 +1,61 @@
+package com.assignment.todo.constants;
+
+import com.assignment.todo.exception.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of a TodoItem which can be requested with a sparse fieldset,
+ * named as in the API and as the attributes of the TodoItem entities
+ */
+public enum TodoItemField {
+
+    ID ("id"),
+    DESCRIPTION ("description"),
+    STATUS ("status"),
+    PRIORITY ("priority"),
+    DUE_DATE_TIME ("dueDateTime"),
+    DONE_AT ("doneAt"),
+    CREATED_AT ("createdAt");
+
+    private final String value;
+
+    TodoItemField(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public static TodoItemField from(String input) throws InvalidRequestException {
+        for (TodoItemField field : values()) {
+            if (field.value.equals(input)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unknown field: " + input + ", expected one of "
+                + Arrays.stream(values()).map(TodoItemField::value).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Parse a comma separated list of fields, the id is always included
+     *
+     * @param input  comma separated field names, e.g. "status,dueDateTime"
+     * @return the requested fields in the order of the TodoItem
+     * @throws InvalidRequestException if a field is unknown
+     */
+    public static Set<TodoItemField> parse(String input) throws InvalidRequestException {
+        Set<TodoItemField> fields = EnumSet.of(ID);
+        for (String name : input.split(",")) {
+            if (!name.isBlank()) {
+                fields.add(from(name.trim()));
+            }
+        }
+        return fields;
+    }
+
+}
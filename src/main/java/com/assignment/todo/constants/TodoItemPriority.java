@@ -0,0 +1,49 @@
+package com.assignment.todo.constants;
+
+/**
+ * Represents all possible priorities of a TodoItem, stored as their rank, the most urgent first
+ */
+public enum TodoItemPriority {
+
+    HIGH ("high", 1),
+    MEDIUM ("medium", 2),
+    LOW ("low", 3);
+
+    // for request validation, case insensitive like from()
+    public static final String PATTERN = "(?i)high|medium|low";
+
+    private final String value;
+    private final int rank;
+
+    TodoItemPriority(String value, int rank) {
+        this.value = value;
+        this.rank = rank;
+    }
+
+    public String value() {
+        return this.value;
+    }
+
+    public int rank() {
+        return this.rank;
+    }
+
+    public static TodoItemPriority from(String input) {
+        for (TodoItemPriority priority : values()) {
+            if (priority.value.equalsIgnoreCase(input)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown label: " + input);
+    }
+
+    public static TodoItemPriority fromRank(int rank) {
+        for (TodoItemPriority priority : values()) {
+            if (priority.rank == rank) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rank: " + rank);
+    }
+
+}
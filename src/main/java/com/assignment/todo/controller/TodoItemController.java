@@ -1,11 +1,22 @@
 package com.assignment.todo.controller;
 
+import com.assignment.todo.constants.ContentTypes;
+import com.assignment.todo.constants.ExportFormat;
+import com.assignment.todo.constants.TodoItemField;
 import com.assignment.todo.dto.CreateTodoItemRequest;
 import com.assignment.todo.dto.ErrorResponse;
+import com.assignment.todo.dto.ImportSummary;
 import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.dto.TodoItemFilter;
+import com.assignment.todo.dto.TodoItemHistory;
 import com.assignment.todo.dto.UpdateTodoItemRequest;
 import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.InvalidRequestException;
 import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.service.IdempotencyService;
+import com.assignment.todo.service.TodoItemExportService;
+import com.assignment.todo.service.TodoItemHistoryService;
+import com.assignment.todo.service.TodoItemImportService;
 import com.assignment.todo.service.TodoItemService;
 import com.assignment.todo.util.TodoItemMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,14 +25,24 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -29,36 +50,158 @@ import java.util.stream.Collectors;
 @Validated
 public class TodoItemController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TodoItemService todoItemService;
+    private final IdempotencyService idempotencyService;
+    private final TodoItemExportService todoItemExportService;
+    private final TodoItemImportService todoItemImportService;
+    private final TodoItemHistoryService todoItemHistoryService;
 
     @Autowired
-    public TodoItemController(TodoItemService todoItemService) {
+    public TodoItemController(TodoItemService todoItemService, IdempotencyService idempotencyService,
+                              TodoItemExportService todoItemExportService,
+                              TodoItemImportService todoItemImportService,
+                              TodoItemHistoryService todoItemHistoryService) {
         this.todoItemService = todoItemService;
+        this.idempotencyService = idempotencyService;
+        this.todoItemExportService = todoItemExportService;
+        this.todoItemImportService = todoItemImportService;
+        this.todoItemHistoryService = todoItemHistoryService;
     }
 
     /**
      * Get all the pending TodoItems with an option to retrieve all items
+     * <p>Served as JSON by default, or as CBOR / Smile when requested with the Accept header.
+     * Filtering on tags or status is answered from the in-memory index and leaves the archived items out.</p>
      *
      * @param includeAll  fetch all the TodoItems if set to true,
      *                    otherwise fetch the TodoItems which are not done by default
-     *
+     * @param includeArchived  also fetch the archived TodoItems, with includeAll
+     * @param tags  comma separated tags the TodoItems must have, '-' prefixed for the ones they must not have
+     * @param status  comma separated statuses of the TodoItems, or a '-' prefixed status to leave out
      * @return List of {@link TodoItem}
+     * @throws InvalidRequestException if a tag or a status is not valid
      */
-    @Operation(summary = "Get all the pending TodoItems with an option to retrieve all items")
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get all the pending TodoItems with an option to retrieve all items",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The TodoItems"),
+                    @ApiResponse(responseCode = "400", description = "Invalid tag or status",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
+            ContentTypes.APPLICATION_CBOR_VALUE, ContentTypes.APPLICATION_SMILE_VALUE})
     public List<TodoItem> getAllNotDoneItems(
             @Parameter(description = "- true, get all the TodoItems \n" +
                     "- false, get all the TodoItems which are not done")
-            @RequestParam(required = false, defaultValue = "false") boolean includeAll) {
-        return todoItemService.getAllItems(includeAll).stream()
+            @RequestParam(required = false, defaultValue = "false") boolean includeAll,
+            @Parameter(description = "- true, also get the archived TodoItems when getting all the TodoItems")
+            @RequestParam(required = false, defaultValue = "false") boolean includeArchived,
+            @Parameter(description = "Comma separated tags, e.g. work,urgent,-someday")
+            @RequestParam(required = false) String tags,
+            @Parameter(description = "Comma separated statuses, e.g. not done,past due, or -done")
+            @RequestParam(required = false) String status) throws InvalidRequestException {
+        List<TodoItem> items = isFiltered(tags, status)
+                ? todoItemService.getItems(TodoItemFilter.from(tags, status, includeAll)).stream()
+                        .map(TodoItemMapper::toDto)
+                        .collect(Collectors.toList())
+                : todoItemService.getAllItems(includeAll, includeArchived).stream()
+                        .map(TodoItemMapper::toDto)
+                        .collect(Collectors.toList());
+        return withTags(items);
+    }
+
+    /**
+     * Get the requested fields of the pending TodoItems, or of all items
+     * <p>Only the requested columns are read, the id is always included.</p>
+     *
+     * @param includeAll  fetch all the TodoItems if set to true,
+     *                    otherwise fetch the TodoItems which are not done by default
+     * @param includeArchived  also fetch the archived TodoItems, with includeAll
+     * @param tags  comma separated tags the TodoItems must have, '-' prefixed for the ones they must not have
+     * @param status  comma separated statuses of the TodoItems, or a '-' prefixed status to leave out
+     * @param fields  comma separated names of the TodoItem fields to return
+     * @return the requested fields of each TodoItem
+     * @throws InvalidRequestException if a field, a tag or a status is not valid
+     */
+    @Operation(summary = "Get the requested fields of the pending TodoItems, or of all items",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Requested fields of the TodoItems"),
+                    @ApiResponse(responseCode = "400", description = "Unknown field, invalid tag or status",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @GetMapping(params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ContentTypes.APPLICATION_CBOR_VALUE, ContentTypes.APPLICATION_SMILE_VALUE})
+    public List<Map<String, Object>> getAllNotDoneItemFields(
+            @Parameter(description = "- true, get all the TodoItems \n" +
+                    "- false, get all the TodoItems which are not done")
+            @RequestParam(required = false, defaultValue = "false") boolean includeAll,
+            @Parameter(description = "- true, also get the archived TodoItems when getting all the TodoItems")
+            @RequestParam(required = false, defaultValue = "false") boolean includeArchived,
+            @Parameter(description = "Comma separated tags, e.g. work,urgent,-someday")
+            @RequestParam(required = false) String tags,
+            @Parameter(description = "Comma separated statuses, e.g. not done,past due, or -done")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Comma separated TodoItem fields, e.g. status,dueDateTime")
+            @RequestParam String fields) throws InvalidRequestException {
+        if (isFiltered(tags, status)) {
+            return todoItemService.getItems(TodoItemFilter.from(tags, status, includeAll), TodoItemField.parse(fields));
+        }
+        return todoItemService.getAllItems(includeAll, includeArchived, TodoItemField.parse(fields));
+    }
+
+    /**
+     * Get the most urgent pending TodoItems, by priority then due date
+     * <p>Read from an index kept in that order, so the cost depends on the limit only.</p>
+     *
+     * @param limit  maximum number of TodoItems
+     * @return List of {@link TodoItem}, the most urgent first
+     */
+    @Operation(summary = "Get the most urgent pending TodoItems, by priority then due date")
+    @GetMapping(value = "/next", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ContentTypes.APPLICATION_CBOR_VALUE, ContentTypes.APPLICATION_SMILE_VALUE})
+    public List<TodoItem> getNextItems(
+            @Parameter(description = "Maximum number of TodoItems")
+            @RequestParam(required = false, defaultValue = "10") @Min(1) @Max(100) int limit) {
+        return withTags(todoItemService.getNextItems(limit).stream()
                 .map(TodoItemMapper::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Export all the TodoItems
+     * <p>Items are streamed from the database to the response as they are read,
+     * so the export starts right away and doesn't hold the items in memory.</p>
+     *
+     * @param format  ndjson (default) or csv
+     * @param includeArchived  also export the archived TodoItems, true by default
+     * @return the TodoItems, one per line
+     * @throws InvalidRequestException if the format is not supported
+     */
+    @Operation(summary = "Export all the TodoItems as NDJSON or CSV",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Streaming the TodoItems"),
+                    @ApiResponse(responseCode = "400", description = "Unsupported format",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTodoItems(
+            @Parameter(description = "- ndjson, one JSON TodoItem per line \n" +
+                    "- csv, with a header row")
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @Parameter(description = "- true, also export the archived TodoItems")
+            @RequestParam(required = false, defaultValue = "true") boolean includeArchived)
+            throws InvalidRequestException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = output -> todoItemExportService.exportItems(exportFormat, includeArchived, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos." + exportFormat.value() + "\"")
+                .body(body);
     }
 
     /**
      * Get the details of a TodoItem
      *
      * @param id  ID of the TodoItem
+     * @param includeArchived  look for the TodoItem in the archive as well
      * @return {@link TodoItem} for the input ID
      * @throws ItemNotFoundException if an item for the input id doesn't exist
      */
@@ -66,25 +209,111 @@ public class TodoItemController {
         responses = {@ApiResponse(responseCode = "200", description = "Found the TodoItem"),
             @ApiResponse(responseCode = "404", description = "TodoItem not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ContentTypes.APPLICATION_CBOR_VALUE, ContentTypes.APPLICATION_SMILE_VALUE})
     public TodoItem getTodoItemDetails(
-            @Parameter(description = "ID of the TodoItem") @PathVariable @Min(1) Integer id)
+            @Parameter(description = "ID of the TodoItem") @PathVariable @Min(1) Integer id,
+            @Parameter(description = "- true, look for the TodoItem in the archive as well")
+            @RequestParam(required = false, defaultValue = "false") boolean includeArchived)
             throws ItemNotFoundException {
-        return TodoItemMapper.toDto(todoItemService.getItemDetails(id));
+        return withTags(TodoItemMapper.toDto(todoItemService.getItemDetails(id, includeArchived)));
+    }
+
+    /**
+     * Get the requested fields of a TodoItem
+     * <p>Only the requested columns are read, the id is always included.</p>
+     *
+     * @param id  ID of the TodoItem
+     * @param includeArchived  look for the TodoItem in the archive as well
+     * @param fields  comma separated names of the TodoItem fields to return
+     * @return the requested fields of the TodoItem
+     * @throws ItemNotFoundException if an item for the input id doesn't exist
+     * @throws InvalidRequestException if a field is unknown
+     */
+    @Operation(summary = "Get the requested fields of a TodoItem",
+            responses = {@ApiResponse(responseCode = "200", description = "Found the TodoItem"),
+                    @ApiResponse(responseCode = "400", description = "Unknown field",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "TodoItem not found",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @GetMapping(value = "/{id}", params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE,
+            ContentTypes.APPLICATION_CBOR_VALUE, ContentTypes.APPLICATION_SMILE_VALUE})
+    public Map<String, Object> getTodoItemFields(
+            @Parameter(description = "ID of the TodoItem") @PathVariable @Min(1) Integer id,
+            @Parameter(description = "- true, look for the TodoItem in the archive as well")
+            @RequestParam(required = false, defaultValue = "false") boolean includeArchived,
+            @Parameter(description = "Comma separated TodoItem fields, e.g. status,dueDateTime")
+            @RequestParam String fields) throws ItemNotFoundException, InvalidRequestException {
+        return todoItemService.getItemDetails(id, includeArchived, TodoItemField.parse(fields));
+    }
+
+    /**
+     * Get the changes made to a TodoItem, oldest first
+     * <p>Changes are written in the background and show up shortly after they are made.
+     * The history of a deleted TodoItem is kept.</p>
+     *
+     * @param id  ID of the TodoItem
+     * @param page  zero based page number
+     * @param size  number of changes per page
+     * @return {@link TodoItemHistory}
+     */
+    @Operation(summary = "Get the changes made to a TodoItem",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page of the changes, empty if there is none") })
+    @GetMapping(value = "/{id}/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TodoItemHistory getTodoItemHistory(
+            @Parameter(description = "ID of the TodoItem") @PathVariable @Min(1) Integer id,
+            @Parameter(description = "Zero based page number")
+            @RequestParam(required = false, defaultValue = "0") @Min(0) int page,
+            @Parameter(description = "Number of changes per page")
+            @RequestParam(required = false, defaultValue = "20") @Min(1) @Max(100) int size) {
+        return todoItemHistoryService.getHistory(id, page, size);
     }
 
     /**
      * Add a new TodoItem to the list
+     * <p>Retries carrying the same idempotency key return the TodoItem created by the first request.</p>
      *
      * @param item  {@link CreateTodoItemRequest}
+     * @param idempotencyKey  optional key identifying retries of the same request
      * @return newly added {@link TodoItem}
+     * @throws ActionNotAllowedException if the idempotency key was already used for a different request
      */
-    @Operation(summary = "Add a new TodoItem to the list")
+    @Operation(summary = "Add a new TodoItem to the list",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Added the TodoItem"),
+                    @ApiResponse(responseCode = "409", description = "Idempotency key reused for a different request",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public TodoItem addTodoItem(
-            @Valid @RequestBody CreateTodoItemRequest item) {
-        return TodoItemMapper.toDto(todoItemService.addItem(item));
+            @Valid @RequestBody CreateTodoItemRequest item,
+            @Parameter(description = "Key identifying retries of the same request")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255) String idempotencyKey)
+            throws ActionNotAllowedException {
+        if (!StringUtils.hasText(idempotencyKey)) {
+            return withTags(TodoItemMapper.toDto(todoItemService.addItem(item)));
+        }
+        return idempotencyService.execute(idempotencyKey, item,
+                () -> withTags(TodoItemMapper.toDto(todoItemService.addItem(item))));
+    }
+
+    /**
+     * Add TodoItems in bulk from NDJSON, one {@link CreateTodoItemRequest} per line
+     * <p>The body is read and inserted in batches as it arrives. Invalid lines are skipped
+     * and reported in the summary, the other lines are added.</p>
+     *
+     * @param body  NDJSON request body
+     * @return {@link ImportSummary} with the counts, the rejected lines and the throughput
+     * @throws IOException if the request body can't be read
+     */
+    @Operation(summary = "Add TodoItems in bulk from NDJSON, one TodoItem per line",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Imported the valid TodoItems") })
+    @PostMapping(value = "/import", consumes = ContentTypes.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ImportSummary importTodoItems(InputStream body) throws IOException {
+        return todoItemImportService.importItems(body);
     }
 
     /**
@@ -106,7 +335,7 @@ public class TodoItemController {
     public TodoItem updateTodoItem(
             @Parameter(description = "ID of the TodoItem") @PathVariable @Min(1) Integer id,
             @Valid @RequestBody UpdateTodoItemRequest item) throws ActionNotAllowedException, ItemNotFoundException {
-        return TodoItemMapper.toDto(todoItemService.updateItem(id, item));
+        return withTags(TodoItemMapper.toDto(todoItemService.updateItem(id, item)));
     }
 
     /**
@@ -125,11 +354,12 @@ public class TodoItemController {
     public TodoItem markAsDone(
             @Parameter(description = "ID of the TodoItem") @PathVariable @Min(1) Integer id)
             throws ItemNotFoundException {
-        return TodoItemMapper.toDto(todoItemService.markAsDone(id));
+        return withTags(TodoItemMapper.toDto(todoItemService.markAsDone(id)));
     }
 
     /**
      * Mark a TodoItem as 'NOT DONE'
+     * <p>Archived TodoItems are restored to the list.</p>
      *
      * @param id  ID of the TodoItem
      * @return updated {@link TodoItem}
@@ -147,7 +377,7 @@ public class TodoItemController {
     public TodoItem markAsNotDone(
             @Parameter(description = "ID of the TodoItem") @PathVariable @Min(1) Integer id)
             throws ActionNotAllowedException, ItemNotFoundException {
-        return TodoItemMapper.toDto(todoItemService.markAsNotDone(id));
+        return withTags(TodoItemMapper.toDto(todoItemService.markAsNotDone(id)));
     }
 
     /**
@@ -168,4 +398,18 @@ public class TodoItemController {
         todoItemService.deleteItem(id);
     }
 
+    private static boolean isFiltered(String tags, String status) {
+        return StringUtils.hasText(tags) || StringUtils.hasText(status);
+    }
+
+    private TodoItem withTags(TodoItem item) {
+        return withTags(List.of(item)).get(0);
+    }
+
+    private List<TodoItem> withTags(List<TodoItem> items) {
+        Map<Integer, Set<String>> tags = todoItemService.getTags(items.stream().map(TodoItem::getId).toList());
+        items.forEach(item -> item.setTags(tags.getOrDefault(item.getId(), Set.of())));
+        return items;
+    }
+
 }
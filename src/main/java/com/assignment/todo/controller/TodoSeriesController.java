@@ -0,0 +1,185 @@
+package com.assignment.todo.controller;
+
+import com.assignment.todo.dto.CreateTodoSeriesRequest;
+import com.assignment.todo.dto.ErrorResponse;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.dto.TodoOccurrence;
+import com.assignment.todo.dto.TodoSeries;
+import com.assignment.todo.dto.UpdateTodoItemRequest;
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.exception.SeriesNotFoundException;
+import com.assignment.todo.service.TodoSeriesService;
+import com.assignment.todo.util.TodoItemMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/series")
+@Validated
+public class TodoSeriesController {
+
+    private final TodoSeriesService todoSeriesService;
+
+    @Autowired
+    public TodoSeriesController(TodoSeriesService todoSeriesService) {
+        this.todoSeriesService = todoSeriesService;
+    }
+
+    /**
+     * Get all the recurring TodoItems
+     *
+     * @return List of {@link TodoSeries}
+     */
+    @Operation(summary = "Get all the recurring TodoItems")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<TodoSeries> getAllSeries() {
+        return todoSeriesService.getAll();
+    }
+
+    /**
+     * Add a recurring TodoItem, its occurrences are expanded when they are read
+     *
+     * @param request  {@link CreateTodoSeriesRequest}
+     * @return the added {@link TodoSeries}
+     * @throws InvalidRequestException if the recurrence rule is invalid
+     */
+    @Operation(summary = "Add a recurring TodoItem",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Added the series"),
+                    @ApiResponse(responseCode = "400", description = "Invalid recurrence rule",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public TodoSeries addSeries(@Valid @RequestBody CreateTodoSeriesRequest request) throws InvalidRequestException {
+        return todoSeriesService.create(request);
+    }
+
+    /**
+     * Get the occurrences of all the recurring TodoItems in a window
+     *
+     * @param from  start of the window, inclusive
+     * @param to  end of the window, exclusive
+     * @return List of {@link TodoOccurrence} ordered by occurrence
+     * @throws InvalidRequestException if the window is empty or too long
+     */
+    @Operation(summary = "Get the occurrences of all the recurring TodoItems in a window",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Occurrences in the window"),
+                    @ApiResponse(responseCode = "400", description = "Empty or too long window",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @GetMapping(value = "/occurrences", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<TodoOccurrence> getOccurrences(
+            @Parameter(description = "Start of the window, inclusive")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the window, exclusive")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to)
+            throws InvalidRequestException {
+        return todoSeriesService.getOccurrences(from, to);
+    }
+
+    /**
+     * Get a recurring TodoItem
+     *
+     * @param id  ID of the series
+     * @return {@link TodoSeries}
+     * @throws SeriesNotFoundException if a series for the input id doesn't exist
+     */
+    @Operation(summary = "Get a recurring TodoItem",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Found the series"),
+                    @ApiResponse(responseCode = "404", description = "Series not found",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TodoSeries getSeries(
+            @Parameter(description = "ID of the series") @PathVariable @Min(1) Integer id)
+            throws SeriesNotFoundException {
+        return todoSeriesService.get(id);
+    }
+
+    /**
+     * Delete a recurring TodoItem, the occurrences stored as TodoItems are kept
+     *
+     * @param id  ID of the series
+     * @throws SeriesNotFoundException if a series for the input id doesn't exist
+     */
+    @Operation(summary = "Delete a recurring TodoItem",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Deleted the series"),
+                    @ApiResponse(responseCode = "404", description = "Series not found",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class))) })
+    @DeleteMapping("/{id}")
+    public void deleteSeries(
+            @Parameter(description = "ID of the series") @PathVariable @Min(1) Integer id)
+            throws SeriesNotFoundException {
+        todoSeriesService.delete(id);
+    }
+
+    /**
+     * Mark an occurrence of a recurring TodoItem as 'DONE'
+     *
+     * @param id  ID of the series
+     * @param occurrenceAt  due date the occurrence was created for
+     * @return the {@link TodoItem} the occurrence is stored as
+     * @throws SeriesNotFoundException if the series doesn't exist or has no occurrence at that date
+     * @throws ItemNotFoundException if the stored occurrence was deleted meanwhile
+     */
+    @Operation(summary = "Mark an occurrence of a recurring TodoItem as 'DONE'",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Marked the occurrence as done"),
+                    @ApiResponse(responseCode = "404", description = "Series or occurrence not found",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @PatchMapping(value = "/{id}/occurrences/{occurrenceAt}/done", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TodoItem markOccurrenceAsDone(
+            @Parameter(description = "ID of the series") @PathVariable @Min(1) Integer id,
+            @Parameter(description = "Due date the occurrence was created for")
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceAt)
+            throws SeriesNotFoundException, ItemNotFoundException {
+        return TodoItemMapper.toDto(todoSeriesService.markOccurrenceAsDone(id, occurrenceAt));
+    }
+
+    /**
+     * Update the description or the due date of an occurrence of a recurring TodoItem
+     *
+     * @param id  ID of the series
+     * @param occurrenceAt  due date the occurrence was created for
+     * @param item  {@link UpdateTodoItemRequest}
+     * @return the {@link TodoItem} the occurrence is stored as
+     * @throws SeriesNotFoundException if the series doesn't exist or has no occurrence at that date
+     * @throws ItemNotFoundException if the stored occurrence was deleted meanwhile
+     * @throws ActionNotAllowedException if the occurrence is done or past due
+     */
+    @Operation(summary = "Update an occurrence of a recurring TodoItem",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Updated the occurrence"),
+                    @ApiResponse(responseCode = "404", description = "Series or occurrence not found",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+                    @ApiResponse(responseCode = "409", description = "Occurrence is done or past due",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @PutMapping(value = "/{id}/occurrences/{occurrenceAt}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TodoItem updateOccurrence(
+            @Parameter(description = "ID of the series") @PathVariable @Min(1) Integer id,
+            @Parameter(description = "Due date the occurrence was created for")
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceAt,
+            @Valid @RequestBody UpdateTodoItemRequest item)
+            throws SeriesNotFoundException, ItemNotFoundException, ActionNotAllowedException {
+        return TodoItemMapper.toDto(todoSeriesService.updateOccurrence(id, occurrenceAt, item));
+    }
+
+}
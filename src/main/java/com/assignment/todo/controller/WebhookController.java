@@ -0,0 +1,86 @@
+package com.assignment.todo.controller;
+
+import com.assignment.todo.dto.CreateWebhookEndpointRequest;
+import com.assignment.todo.dto.ErrorResponse;
+import com.assignment.todo.dto.WebhookEndpoint;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.WebhookNotFoundException;
+import com.assignment.todo.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/webhooks")
+@Validated
+public class WebhookController {
+
+    private final WebhookService webhookService;
+
+    @Autowired
+    public WebhookController(WebhookService webhookService) {
+        this.webhookService = webhookService;
+    }
+
+    /**
+     * Get all the registered webhooks
+     *
+     * @return List of {@link WebhookEndpoint}
+     */
+    @Operation(summary = "Get all the registered webhooks")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<WebhookEndpoint> getAllWebhooks() {
+        return webhookService.getAll();
+    }
+
+    /**
+     * Register a webhook, notified with a JSON array of status change events
+     * when TodoItems become done or past due
+     *
+     * @param request  {@link CreateWebhookEndpointRequest}
+     * @return the registered {@link WebhookEndpoint}
+     * @throws InvalidRequestException if a status is not one that is notified
+     */
+    @Operation(summary = "Register a webhook notified when TodoItems become done or past due",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Registered the webhook"),
+                    @ApiResponse(responseCode = "400", description = "Invalid URL or statuses",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))) })
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public WebhookEndpoint registerWebhook(@Valid @RequestBody CreateWebhookEndpointRequest request)
+            throws InvalidRequestException {
+        return webhookService.register(request);
+    }
+
+    /**
+     * Delete a webhook
+     *
+     * @param id  ID of the webhook
+     * @throws WebhookNotFoundException if a webhook for the input id doesn't exist
+     */
+    @Operation(summary = "Delete a webhook",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Deleted the webhook"),
+                    @ApiResponse(responseCode = "404", description = "Webhook not found",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponse.class))) })
+    @DeleteMapping("/{id}")
+    public void deleteWebhook(
+            @Parameter(description = "ID of the webhook") @PathVariable @Min(1) Integer id)
+            throws WebhookNotFoundException {
+        webhookService.delete(id);
+    }
+
+}
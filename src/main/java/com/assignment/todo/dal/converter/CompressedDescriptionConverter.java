@@ -0,0 +1,23 @@
+package com.assignment.todo.dal.converter;
+
+import com.assignment.todo.util.DescriptionCodec;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps descriptions to their stored form, gzipped when they are large
+ */
+@Converter
+public class CompressedDescriptionConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String description) {
+        return DescriptionCodec.encode(description);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return DescriptionCodec.decode(stored);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyEntityRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    @Modifying
+    @Query("delete from idempotency_keys k where k.createdAt < :createdAt")
+    int deleteAllByCreatedAtBefore(@Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Store the response of a key, unlike save which would overwrite the row of a key already stored
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key is stored already
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, response, created_at) "
+            + "VALUES (:key, :requestHash, :response, :createdAt)")
+    int insert(@Param("key") String key, @Param("requestHash") int requestHash, @Param("response") String response,
+               @Param("createdAt") LocalDateTime createdAt);
+
+}
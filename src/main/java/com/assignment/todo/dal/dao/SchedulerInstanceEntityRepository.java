@@ -0,0 +1,21 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.SchedulerInstanceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerInstanceEntityRepository extends JpaRepository<SchedulerInstanceEntity, String> {
+
+    long countByLastSeenAtAfter(LocalDateTime lastSeenAt);
+
+    @Modifying
+    @Query("update scheduler_instances i set i.lastSeenAt = :lastSeenAt where i.instanceId = :instanceId")
+    int heartbeat(@Param("instanceId") String instanceId, @Param("lastSeenAt") LocalDateTime lastSeenAt);
+
+}
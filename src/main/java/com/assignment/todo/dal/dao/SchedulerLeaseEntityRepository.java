@@ -0,0 +1,43 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.SchedulerLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SchedulerLeaseEntityRepository extends JpaRepository<SchedulerLeaseEntity, Integer> {
+
+    List<SchedulerLeaseEntity> findAllByPartitionIdLessThanOrderByPartitionId(Integer partitions);
+
+    /**
+     * Take or renew the lease of a partition, only succeeds if the lease is free,
+     * expired or already held by the owner
+     *
+     * @return 1 if the lease is now held by the owner, 0 otherwise
+     */
+    @Modifying
+    @Query("update scheduler_leases l set l.owner = :owner, l.expiresAt = :expiresAt "
+            + "where l.partitionId = :partitionId "
+            + "and (l.owner is null or l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("partitionId") Integer partitionId, @Param("owner") String owner,
+                @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update scheduler_leases l set l.owner = null, l.expiresAt = :now "
+            + "where l.partitionId = :partitionId and l.owner = :owner")
+    int release(@Param("partitionId") Integer partitionId, @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update scheduler_leases l set l.owner = null, l.expiresAt = :now where l.owner = :owner")
+    int releaseAll(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+}
@@ -0,0 +1,71 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.TodoItemArchiveEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface TodoItemArchiveEntityRepository extends JpaRepository<TodoItemArchiveEntity, Integer> {
+
+    String SELECT_VIEW = "select new com.assignment.todo.dal.projection.TodoItemView("
+            + "a.id, a.description, a.status, a.dueDateTime, a.doneAt, a.createdAt, a.priority) from todo_items_archive a";
+    // lists read the preview, not the full, possibly compressed, description
+    String SELECT_PREVIEW = "select new com.assignment.todo.dal.projection.TodoItemView("
+            + "a.id, a.descriptionPreview, a.status, a.dueDateTime, a.doneAt, a.createdAt, a.priority) from todo_items_archive a";
+
+    @Query(SELECT_PREVIEW)
+    List<TodoItemView> findAllViews();
+
+    /**
+     * Stream all the items from a forward-only cursor, for exports
+     * <p>Has to be consumed, and closed, inside a transaction.</p>
+     */
+    @Query(SELECT_VIEW + " order by a.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<TodoItemView> streamAllViews();
+
+    @Query(SELECT_VIEW + " where a.id = :id")
+    Optional<TodoItemView> findViewById(@Param("id") Integer id);
+
+    /**
+     * Archived occurrences of series in a window
+     */
+    @Query("select a from todo_items_archive a where a.seriesId in :seriesIds "
+            + "and a.occurrenceAt >= :from and a.occurrenceAt < :to")
+    List<TodoItemArchiveEntity> findOccurrences(@Param("seriesIds") List<Integer> seriesIds,
+                                                @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    Optional<TodoItemArchiveEntity> findBySeriesIdAndOccurrenceAt(Integer seriesId, LocalDateTime occurrenceAt);
+
+    /**
+     * Copy items from todo_items into the archive
+     *
+     * @return number of items copied
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO todo_items_archive "
+            + "(id, description, description_preview, status, priority, due_date_time, done_at, created_at, updated_at, "
+            + "series_id, occurrence_at, archived_at) "
+            + "SELECT id, description, description_preview, status, priority, due_date_time, done_at, created_at, updated_at, "
+            + "series_id, occurrence_at, "
+            + "CAST(:archivedAt AS TIMESTAMP) "
+            + "FROM todo_items WHERE id IN (:ids)")
+    int archive(@Param("ids") List<Integer> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+}
@@ -1,17 +1,90 @@
 package com.assignment.todo.dal.dao;
 
 import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TodoItemEntityRepository extends JpaRepository<TodoItemEntity, Integer> {
 
-    List<TodoItemEntity> findAllByStatusAndDueDateTimeLessThan(String status, LocalDateTime dueDateTime);
+    String SELECT_VIEW = "select new com.assignment.todo.dal.projection.TodoItemView("
+            + "t.id, t.description, t.status, t.dueDateTime, t.doneAt, t.createdAt, t.priority) from todo_items t";
+    // lists read the preview, not the full, possibly compressed, description
+    String SELECT_PREVIEW = "select new com.assignment.todo.dal.projection.TodoItemView("
+            + "t.id, t.descriptionPreview, t.status, t.dueDateTime, t.doneAt, t.createdAt, t.priority) from todo_items t";
 
-    List<TodoItemEntity> findAllByStatusNot(String status);
+    @Query(SELECT_PREVIEW)
+    List<TodoItemView> findAllViews();
+
+    /**
+     * Stream all the items from a forward-only cursor, for exports
+     * <p>Has to be consumed, and closed, inside a transaction.</p>
+     */
+    @Query(SELECT_VIEW + " order by t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<TodoItemView> streamAllViews();
+
+    @Query(SELECT_PREVIEW + " where t.id in :ids order by t.id")
+    List<TodoItemView> findAllViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(SELECT_PREVIEW + " where t.status <> :status")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<TodoItemView> findAllViewsByStatusNot(@Param("status") String status);
+
+    @Query(SELECT_VIEW + " where t.id = :id")
+    Optional<TodoItemView> findViewById(@Param("id") Integer id);
+
+    /**
+     * Stored occurrences of series in a window
+     */
+    @Query("select t from todo_items t where t.seriesId in :seriesIds "
+            + "and t.occurrenceAt >= :from and t.occurrenceAt < :to")
+    List<TodoItemEntity> findOccurrences(@Param("seriesIds") List<Integer> seriesIds,
+                                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    Optional<TodoItemEntity> findBySeriesIdAndOccurrenceAt(Integer seriesId, LocalDateTime occurrenceAt);
+
+    /**
+     * Ids of items in a status since before a time, locked until the end of the transaction
+     */
+    @Query(nativeQuery = true, value = "SELECT id FROM todo_items WHERE status = :status AND done_at < :doneBefore "
+            + "ORDER BY id LIMIT :limit FOR UPDATE")
+    List<Integer> findIdsForArchival(@Param("status") String status, @Param("doneBefore") LocalDateTime doneBefore,
+                                     @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from todo_items t where t.id in :ids")
+    int deleteAllByIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * Move an archived item back to todo_items under its original id, with a new status
+     *
+     * @return number of items restored
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO todo_items "
+            + "(id, description, description_preview, status, priority, due_date_time, done_at, created_at, updated_at, "
+            + "series_id, occurrence_at) "
+            + "SELECT id, description, description_preview, CAST(:status AS VARCHAR(255)), priority, due_date_time, NULL, created_at, "
+            + "CAST(:now AS TIMESTAMP), series_id, occurrence_at "
+            + "FROM todo_items_archive WHERE id = :id")
+    int restoreFromArchive(@Param("id") Integer id, @Param("status") String status, @Param("now") LocalDateTime now);
 
 }
@@ -0,0 +1,14 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.TodoItemEventEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TodoItemEventEntityRepository extends JpaRepository<TodoItemEventEntity, Long> {
+
+    Page<TodoItemEventEntity> findAllByItemId(Integer itemId, Pageable pageable);
+
+}
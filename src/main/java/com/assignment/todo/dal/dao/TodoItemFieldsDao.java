@@ -0,0 +1,84 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.constants.TodoItemField;
+import com.assignment.todo.dal.entity.TodoItemArchiveEntity;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads of the requested fields of the TodoItems only, for sparse fieldsets
+ * <p>The select list is built from the fields, so columns that aren't requested aren't read.
+ * Each tuple element is aliased with the {@link TodoItemField#value()} it was selected for.
+ * Lists read the description preview, like {@link TodoItemEntityRepository#findAllViews()},
+ * details read the whole description.</p>
+ */
+@Repository
+public class TodoItemFieldsDao {
+
+    private static final String DESCRIPTION_PREVIEW = "descriptionPreview";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<Tuple> findAll(Set<TodoItemField> fields) {
+        return entityManager.createQuery(select(TodoItemEntity.class, fields, true)).getResultList();
+    }
+
+    public List<Tuple> findAllByStatusNot(Set<TodoItemField> fields, String status) {
+        CriteriaQuery<Tuple> query = select(TodoItemEntity.class, fields, true);
+        Root<?> root = query.getRoots().iterator().next();
+        query.where(entityManager.getCriteriaBuilder().notEqual(root.get("status"), status));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    public List<Tuple> findAllByIdIn(Set<TodoItemField> fields, Collection<Integer> ids) {
+        CriteriaQuery<Tuple> query = select(TodoItemEntity.class, fields, true);
+        Root<?> root = query.getRoots().iterator().next();
+        query.where(root.get("id").in(ids)).orderBy(entityManager.getCriteriaBuilder().asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    public List<Tuple> findAllArchived(Set<TodoItemField> fields) {
+        return entityManager.createQuery(select(TodoItemArchiveEntity.class, fields, true)).getResultList();
+    }
+
+    public Optional<Tuple> findById(Set<TodoItemField> fields, Integer id) {
+        return findById(TodoItemEntity.class, fields, id);
+    }
+
+    public Optional<Tuple> findArchivedById(Set<TodoItemField> fields, Integer id) {
+        return findById(TodoItemArchiveEntity.class, fields, id);
+    }
+
+    private Optional<Tuple> findById(Class<?> entityType, Set<TodoItemField> fields, Integer id) {
+        CriteriaQuery<Tuple> query = select(entityType, fields, false);
+        Root<?> root = query.getRoots().iterator().next();
+        query.where(entityManager.getCriteriaBuilder().equal(root.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+
+    private CriteriaQuery<Tuple> select(Class<?> entityType, Set<TodoItemField> fields, boolean preview) {
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<?> root = query.from(entityType);
+        return query.multiselect(selections(root, fields, preview));
+    }
+
+    private static List<Selection<?>> selections(Root<?> root, Set<TodoItemField> fields, boolean preview) {
+        return fields.stream()
+                .<Selection<?>>map(field -> root.get(preview && field == TodoItemField.DESCRIPTION
+                        ? DESCRIPTION_PREVIEW : field.value()).alias(field.value()))
+                .toList();
+    }
+
+}
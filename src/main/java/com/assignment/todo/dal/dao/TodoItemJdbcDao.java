@@ -0,0 +1,417 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.constants.TodoItemPriority;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoItemEventEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
+import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.util.DescriptionCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Plain JDBC access to todo_items, their events, their outbox events and their tags,
+ * for bulk writes that JPA can't batch,
+ * status transitions done in a single statement, the reads rebuilding the in-memory index
+ * and the most urgent items read from the ordered index
+ * <p>IDENTITY ids make Hibernate insert entities one statement at a time.
+ * Writes here bypass the second level cache, callers have to evict what they change.
+ * Descriptions are written in their stored form, see {@link DescriptionCodec}, with their preview.</p>
+ */
+@Repository
+public class TodoItemJdbcDao {
+
+    // partitions of the sweep are ranges of a multiple of this many ids, so instances sweeping at the same time
+    // split the ids the same way, unless the ids have just outgrown the ranges
+    private static final int PARTITION_ID_BLOCK = 1024;
+
+    private static final String INSERT = "INSERT INTO todo_items "
+            + "(description, description_preview, status, priority, due_date_time, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // H2 data change delta table, the rows as they were before the update
+    private static final String SELECT_OLD = "SELECT id, description, description_preview, status, priority, "
+            + "due_date_time, done_at, created_at, updated_at FROM OLD TABLE (";
+    private static final String MARK_AS_DONE = SELECT_OLD
+            + "UPDATE todo_items SET status = ?, done_at = ?, updated_at = ? WHERE id = ? AND status <> ?)";
+    private static final String MARK_AS_NOT_DONE = SELECT_OLD
+            + "UPDATE todo_items SET status = ?, done_at = NULL, updated_at = ? "
+            + "WHERE id = ? AND status = ? AND due_date_time >= ?)";
+    private static final String DELETE = SELECT_OLD + "DELETE FROM todo_items WHERE id = ?)";
+    private static final String DELETE_ARCHIVED = SELECT_OLD + "DELETE FROM todo_items_archive WHERE id = ?)";
+    // H2 data change delta table, the rows as they are after the change, here the ids of the rows changed.
+    // A partition is a range of ids, read from idx_todo_items_status_id
+    private static final String MARK_AS_PAST_DUE = "SELECT id FROM FINAL TABLE ("
+            + "UPDATE todo_items SET status = ?, updated_at = ? "
+            + "WHERE status = ? AND id > ? AND id <= ? AND due_date_time < ?)";
+    private static final String MAX_ID = "SELECT COALESCE(MAX(id), 0) FROM todo_items";
+    // one row per occurrence of the array, due at the occurrence
+    private static final String INSERT_OCCURRENCES = "SELECT id FROM FINAL TABLE (INSERT INTO todo_items "
+            + "(description, description_preview, status, due_date_time, created_at, updated_at, series_id, occurrence_at) "
+            + "SELECT ?, ?, ?, o.occurrence_at, ?, ?, ?, o.occurrence_at FROM UNNEST(?) AS o(occurrence_at))";
+    private static final String INSERT_STATUS_CHANGES = "INSERT INTO todo_item_outbox "
+            + "(item_id, status, occurred_at, attempts, available_at) "
+            + "SELECT i.item_id, ?, ?, 0, ? FROM UNNEST(?) AS i(item_id)";
+    private static final String INSERT_TAG = "INSERT INTO todo_item_tags (item_id, tag) VALUES (?, ?)";
+    private static final String DELETE_TAGS = "DELETE FROM todo_item_tags WHERE item_id = ?";
+    private static final String SELECT_TAGS = "SELECT tag FROM todo_item_tags WHERE item_id = ? ORDER BY tag";
+    private static final String SELECT_TAGS_OF_ITEMS = "SELECT item_id, tag FROM todo_item_tags "
+            + "WHERE item_id = ANY(?) ORDER BY item_id, tag";
+    // tags of the items in todo_items only, archived items aren't indexed
+    private static final String SELECT_INDEXED_TAGS = "SELECT t.item_id, t.tag FROM todo_item_tags t "
+            + "JOIN todo_items i ON i.id = t.item_id WHERE t.item_id > ?";
+    private static final String SELECT_STATUSES = "SELECT id, status FROM todo_items WHERE id > ?";
+    private static final String DELETE_ORPHAN_TAGS = "DELETE FROM todo_item_tags t "
+            + "WHERE NOT EXISTS (SELECT 1 FROM todo_items i WHERE i.id = t.item_id) "
+            + "AND NOT EXISTS (SELECT 1 FROM todo_items_archive a WHERE a.id = t.item_id)";
+    // the first rows of each pending status in idx_todo_items_status_priority, merged. Ordering by the status too
+    // makes the order by match the index, so each range is read in order and stops after the limit
+    private static final String NEXT_OF_STATUS = "(SELECT id, description_preview, status, due_date_time, done_at, "
+            + "created_at, priority FROM todo_items WHERE status = ? "
+            + "ORDER BY status, priority, due_date_time, id LIMIT ?)";
+    private static final String SELECT_NEXT = "SELECT * FROM (" + NEXT_OF_STATUS + " UNION ALL " + NEXT_OF_STATUS
+            + ") n ORDER BY priority, due_date_time, id LIMIT ?";
+    // H2 session setting, a lazy query returns rows as they are read instead of reading them all first
+    private static final String SET_LAZY_QUERY_EXECUTION = "SET LAZY_QUERY_EXECUTION ";
+    private static final String INSERT_EVENT = "INSERT INTO todo_item_events "
+            + "(item_id, event_type, actor, old_values, new_values, changed_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<TodoItemEntity> ITEM_MAPPER = (resultSet, row) -> TodoItemEntity.builder()
+            .id(resultSet.getInt("id"))
+            .description(DescriptionCodec.decode(resultSet.getBytes("description")))
+            .descriptionPreview(resultSet.getString("description_preview"))
+            .status(resultSet.getString("status"))
+            .priority(resultSet.getInt("priority"))
+            .dueDateTime(resultSet.getObject("due_date_time", LocalDateTime.class))
+            .doneAt(resultSet.getObject("done_at", LocalDateTime.class))
+            .createdAt(resultSet.getObject("created_at", LocalDateTime.class))
+            .updatedAt(resultSet.getObject("updated_at", LocalDateTime.class))
+            .build();
+
+    private static final RowMapper<TodoItemView> VIEW_MAPPER = (resultSet, row) -> new TodoItemView(
+            resultSet.getInt("id"),
+            resultSet.getString("description_preview"),
+            resultSet.getString("status"),
+            resultSet.getObject("due_date_time", LocalDateTime.class),
+            resultSet.getObject("done_at", LocalDateTime.class),
+            resultSet.getObject("created_at", LocalDateTime.class),
+            resultSet.getInt("priority"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TodoItemJdbcDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert new 'NOT DONE' items in one JDBC batch
+     *
+     * @param items  items to insert
+     * @param now  creation time of the items
+     * @return number of items inserted
+     */
+    public int insertAll(List<CreateTodoItemRequest> items, LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT, items, items.size(), (statement, item) -> {
+            statement.setBytes(1, DescriptionCodec.encode(item.getDescription()));
+            statement.setString(2, DescriptionCodec.preview(item.getDescription()));
+            statement.setString(3, TodoItemStatus.NOT_DONE.name());
+            statement.setInt(4, item.getPriority() == null ? TodoItemPriority.MEDIUM.rank()
+                    : TodoItemPriority.from(item.getPriority()).rank());
+            statement.setTimestamp(5, Timestamp.valueOf(item.getDueDateTime()));
+            statement.setTimestamp(6, createdAt);
+            statement.setTimestamp(7, createdAt);
+        });
+        return count(counts);
+    }
+
+    /**
+     * Store occurrences of a series in a single statement, due at their occurrence
+     *
+     * @param seriesId  ID of the series
+     * @param description  description of the series
+     * @param status  status of the stored occurrences
+     * @param occurrences  due dates of the occurrences
+     * @param now  creation time of the items
+     * @return ids of the items stored
+     */
+    public List<Integer> insertOccurrences(Integer seriesId, String description, TodoItemStatus status,
+                                           List<LocalDateTime> occurrences, LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Timestamp[] occurrencesAt = occurrences.stream().map(Timestamp::valueOf).toArray(Timestamp[]::new);
+        return jdbcTemplate.queryForList(INSERT_OCCURRENCES, Integer.class,
+                DescriptionCodec.encode(description), DescriptionCodec.preview(description), status.name(),
+                createdAt, createdAt, seriesId, occurrencesAt);
+    }
+
+    /**
+     * Add a status change event to the outbox for each item, in a single statement
+     *
+     * @param ids  IDs of the items
+     * @param status  status the items were changed to
+     * @param occurredAt  time of the change, the events are available for delivery from then on
+     * @return number of events added
+     */
+    public int insertStatusChanges(Collection<Integer> ids, TodoItemStatus status, LocalDateTime occurredAt) {
+        Timestamp at = Timestamp.valueOf(occurredAt);
+        return jdbcTemplate.update(INSERT_STATUS_CHANGES, status.name(), at, at, ids.toArray(new Integer[0]));
+    }
+
+    /**
+     * Insert TodoItem events in one JDBC batch
+     *
+     * @param events  events to insert, their ids are ignored
+     * @return number of events inserted
+     */
+    public int insertEvents(List<TodoItemEventEntity> events) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setInt(1, event.getItemId());
+            statement.setString(2, event.getEventType());
+            statement.setString(3, event.getActor());
+            statement.setString(4, event.getOldValues());
+            statement.setString(5, event.getNewValues());
+            statement.setTimestamp(6, Timestamp.valueOf(event.getChangedAt()));
+        });
+        return count(counts);
+    }
+
+    /**
+     * Mark an item as 'DONE' unless it already is
+     *
+     * @param id  ID of the item
+     * @param now  done time of the item
+     * @return the item as it was before, empty if it doesn't exist or is already done
+     */
+    public Optional<TodoItemEntity> markAsDone(Integer id, LocalDateTime now) {
+        Timestamp doneAt = Timestamp.valueOf(now);
+        return first(jdbcTemplate.query(MARK_AS_DONE, ITEM_MAPPER,
+                TodoItemStatus.DONE.name(), doneAt, doneAt, id, TodoItemStatus.DONE.name()));
+    }
+
+    /**
+     * Mark a 'DONE' item as 'NOT DONE' unless it's past its due date
+     *
+     * @param id  ID of the item
+     * @param now  update time of the item, compared to its due date
+     * @return the item as it was before, empty if it doesn't exist, isn't done or is past due
+     */
+    public Optional<TodoItemEntity> markAsNotDone(Integer id, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        return first(jdbcTemplate.query(MARK_AS_NOT_DONE, ITEM_MAPPER,
+                TodoItemStatus.NOT_DONE.name(), updatedAt, id, TodoItemStatus.DONE.name(), updatedAt));
+    }
+
+    /**
+     * Update the description, the due date and/or the priority of a 'NOT DONE' item that isn't past its due date
+     *
+     * @param id  ID of the item
+     * @param description  new description, null to keep it
+     * @param dueDateTime  new due date, null to keep it
+     * @param priority  new priority, null to keep it
+     * @param now  update time of the item, compared to its due date
+     * @return the item as it was before, empty if it doesn't exist, is done or is past due
+     */
+    public Optional<TodoItemEntity> update(Integer id, String description, LocalDateTime dueDateTime,
+                                           TodoItemPriority priority, LocalDateTime now) {
+        StringBuilder sql = new StringBuilder(SELECT_OLD).append("UPDATE todo_items SET ");
+        List<Object> args = new ArrayList<>();
+        if (description != null) {
+            sql.append("description = ?, description_preview = ?, ");
+            args.add(DescriptionCodec.encode(description));
+            args.add(DescriptionCodec.preview(description));
+        }
+        if (dueDateTime != null) {
+            sql.append("due_date_time = ?, ");
+            args.add(Timestamp.valueOf(dueDateTime));
+        }
+        if (priority != null) {
+            sql.append("priority = ?, ");
+            args.add(priority.rank());
+        }
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        sql.append("updated_at = ? WHERE id = ? AND status = ? AND due_date_time >= ?)");
+        args.addAll(List.of(updatedAt, id, TodoItemStatus.NOT_DONE.name(), updatedAt));
+        return first(jdbcTemplate.query(sql.toString(), ITEM_MAPPER, args.toArray()));
+    }
+
+    /**
+     * Find the most urgent pending items, by priority then due date
+     * <p>Reads at most limit rows from each pending status, however many items are pending.</p>
+     *
+     * @param limit  maximum number of items
+     * @return the items, with the preview of their description
+     */
+    public List<TodoItemView> findNext(int limit) {
+        return jdbcTemplate.query(SELECT_NEXT, VIEW_MAPPER,
+                TodoItemStatus.NOT_DONE.name(), limit, TodoItemStatus.PAST_DUE.name(), limit, limit);
+    }
+
+    /**
+     * Delete an item
+     *
+     * @param id  ID of the item
+     * @return the item as it was, empty if it doesn't exist
+     */
+    public Optional<TodoItemEntity> delete(Integer id) {
+        return first(jdbcTemplate.query(DELETE, ITEM_MAPPER, id));
+    }
+
+    /**
+     * Delete an archived item
+     *
+     * @param id  ID of the item
+     * @return the item as it was in the archive, empty if it isn't archived
+     */
+    public Optional<TodoItemEntity> deleteArchived(Integer id) {
+        return first(jdbcTemplate.query(DELETE_ARCHIVED, ITEM_MAPPER, id));
+    }
+
+    /**
+     * Add tags to an item in one JDBC batch
+     *
+     * @param id  ID of the item
+     * @param tags  tags to add
+     */
+    public void insertTags(Integer id, Collection<String> tags) {
+        jdbcTemplate.batchUpdate(INSERT_TAG, tags, tags.size(), (statement, tag) -> {
+            statement.setInt(1, id);
+            statement.setString(2, tag);
+        });
+    }
+
+    /**
+     * Replace the tags of an item
+     *
+     * @param id  ID of the item
+     * @param tags  new tags of the item, empty to remove them all
+     */
+    public void replaceTags(Integer id, Collection<String> tags) {
+        jdbcTemplate.update(DELETE_TAGS, id);
+        if (!tags.isEmpty()) {
+            insertTags(id, tags);
+        }
+    }
+
+    public List<String> findTags(Integer id) {
+        return jdbcTemplate.queryForList(SELECT_TAGS, String.class, id);
+    }
+
+    /**
+     * Read the tags of items in one statement, whether they are archived or not
+     *
+     * @param ids  IDs of the items
+     * @param consumer  called with the id of the item and the tag, for every tag, by id then tag
+     */
+    public void forEachTag(Collection<Integer> ids, BiConsumer<Integer, String> consumer) {
+        jdbcTemplate.query(SELECT_TAGS_OF_ITEMS,
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getInt(1), resultSet.getString(2)),
+                (Object) ids.toArray(new Integer[0]));
+    }
+
+    /**
+     * Read the status of the items in todo_items, streamed from the result set
+     *
+     * @param afterId  only read the items with a greater id, 0 to read them all
+     * @param consumer  called with the id and the status of every item
+     */
+    public void forEachStatus(int afterId, BiConsumer<Integer, String> consumer) {
+        jdbcTemplate.query(SELECT_STATUSES,
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getInt(1), resultSet.getString(2)), afterId);
+    }
+
+    /**
+     * Read the tags of the items in todo_items, streamed from the result set
+     *
+     * @param afterId  only read the tags of the items with a greater id, 0 to read them all
+     * @param consumer  called with the id of the item and the tag, for every tag
+     */
+    public void forEachTag(int afterId, BiConsumer<Integer, String> consumer) {
+        jdbcTemplate.query(SELECT_INDEXED_TAGS,
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getInt(1), resultSet.getString(2)), afterId);
+    }
+
+    /**
+     * Update the status of the 'NOT DONE' items of a partition that went past their due date
+     * <p>The update returns the ids it changed, so the changes can be followed up without finding them again.
+     * A partition is a contiguous range of ids, see {@link #partitionIds(int, int, int)}, so the update reads
+     * the 'NOT DONE' items of its partition only.</p>
+     *
+     * @param now  time of the sweep, items due before are past due
+     * @param partition  partition of the items
+     * @param partitions  number of partitions
+     * @return ids of the items updated
+     */
+    public List<Integer> markAsPastDue(LocalDateTime now, int partition, int partitions) {
+        Timestamp at = Timestamp.valueOf(now);
+        long[] ids = partitionIds(jdbcTemplate.queryForObject(MAX_ID, Integer.class), partition, partitions);
+        return jdbcTemplate.queryForList(MARK_AS_PAST_DUE, Integer.class, TodoItemStatus.PAST_DUE.name(), at,
+                TodoItemStatus.NOT_DONE.name(), ids[0], ids[1], at);
+    }
+
+    /**
+     * Range of the ids of a partition of the sweep
+     * <p>The ids up to the highest one are split into ranges of a multiple of {@value #PARTITION_ID_BLOCK} ids.
+     * The last range has no upper bound, so items added since the highest id was read are swept too.
+     * An instance reading another highest id may split the ids differently, an item left out of the ranges
+     * by that is swept on the next run.</p>
+     *
+     * @param maxId  highest id of the items
+     * @param partition  partition of the items
+     * @param partitions  number of partitions
+     * @return lower bound, exclusive, and upper bound, inclusive, of the ids
+     */
+    static long[] partitionIds(int maxId, int partition, int partitions) {
+        long blocks = Math.max(1, ((long) maxId + PARTITION_ID_BLOCK - 1) / PARTITION_ID_BLOCK);
+        long width = (blocks + partitions - 1) / partitions * PARTITION_ID_BLOCK;
+        long to = partition == partitions - 1 ? Long.MAX_VALUE : (partition + 1) * width;
+        return new long[]{partition * width, to};
+    }
+
+    /**
+     * Delete the tags of the items which are neither in todo_items nor archived
+     *
+     * @return number of tags deleted
+     */
+    public int deleteOrphanTags() {
+        return jdbcTemplate.update(DELETE_ORPHAN_TAGS);
+    }
+
+    private static Optional<TodoItemEntity> first(List<TodoItemEntity> items) {
+        return items.stream().findFirst();
+    }
+
+    private static int count(int[][] counts) {
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // drivers may answer SUCCESS_NO_INFO (-2) for batched statements
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Turn H2 lazy query execution on or off for the connection of the current transaction
+     * <p>It is a session setting, it stays on the pooled connection until it is turned off again.</p>
+     *
+     * @param lazy  true to execute the following queries lazily
+     */
+    public void setLazyQueryExecution(boolean lazy) {
+        jdbcTemplate.execute(SET_LAZY_QUERY_EXECUTION + (lazy ? 1 : 0));
+    }
+
+}
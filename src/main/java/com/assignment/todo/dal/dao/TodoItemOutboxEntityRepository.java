@@ -0,0 +1,47 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.TodoItemOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TodoItemOutboxEntityRepository extends JpaRepository<TodoItemOutboxEntity, Long> {
+
+    /**
+     * Oldest events available for delivery, locked until the end of the transaction
+     * <p>Rows locked by another relay are skipped rather than waited for,
+     * so concurrent relays claim disjoint batches.</p>
+     */
+    @Query(nativeQuery = true, value = "SELECT * FROM todo_item_outbox WHERE available_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED")
+    List<TodoItemOutboxEntity> findForDelivery(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Claim events for a delivery attempt, hiding them from other relays until the given time
+     *
+     * @return number of events claimed
+     */
+    @Modifying
+    @Query("update todo_item_outbox o set o.attempts = o.attempts + 1, o.availableAt = :until where o.id in :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    /**
+     * Make events available again at the given time, after a failed delivery
+     *
+     * @return number of events rescheduled
+     */
+    @Modifying
+    @Query("update todo_item_outbox o set o.availableAt = :availableAt where o.id in :ids")
+    int reschedule(@Param("ids") List<Long> ids, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("delete from todo_item_outbox o where o.id in :ids")
+    int deleteAllByIds(@Param("ids") List<Long> ids);
+
+}
@@ -0,0 +1,36 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.TodoSeriesEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TodoSeriesEntityRepository extends JpaRepository<TodoSeriesEntity, Integer> {
+
+    /**
+     * Series with occurrences that may fall in a window
+     */
+    @Query("select s from todo_series s where s.firstDueDateTime < :to "
+            + "and (s.untilDateTime is null or s.untilDateTime >= :from) order by s.id")
+    List<TodoSeriesEntity> findAllOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Series in a partition with occurrences that may have gone past due since they were last swept
+     */
+    @Query("select s from todo_series s where s.sweptUntil < :now and s.firstDueDateTime < :now "
+            + "and (s.untilDateTime is null or s.sweptUntil <= s.untilDateTime) "
+            + "and mod(s.id, :partitions) = :partition order by s.id")
+    List<TodoSeriesEntity> findAllToSweep(@Param("now") LocalDateTime now,
+                                          @Param("partition") int partition, @Param("partitions") int partitions);
+
+    @Modifying
+    @Query("update todo_series s set s.sweptUntil = :sweptUntil where s.id in :ids")
+    int updateSweptUntil(@Param("ids") List<Integer> ids, @Param("sweptUntil") LocalDateTime sweptUntil);
+
+}
@@ -0,0 +1,9 @@
+package com.assignment.todo.dal.dao;
+
+import com.assignment.todo.dal.entity.WebhookDeadLetterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WebhookDeadLetterEntityRepository extends JpaRepository<WebhookDeadLetterEntity, Long> {
+}
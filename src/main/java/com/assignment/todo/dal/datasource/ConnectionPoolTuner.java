@@ -0,0 +1,97 @@
+package com.assignment.todo.dal.datasource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Adjusts the maximum size of the Hikari pool to the observed load
+ * <p>The pool grows when threads wait for connections or the mean acquire time goes over the target.
+ * It shrinks towards the 95th percentile of active connections over the sample window, plus headroom,
+ * once a full window has been observed without waiting.</p>
+ */
+@Slf4j
+public class ConnectionPoolTuner {
+
+    private static final int HEADROOM = 2;
+
+    private final HikariDataSource dataSource;
+    private final InstrumentedDataSource instrumentedDataSource;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final long targetAcquireNanos;
+    private final int window;
+    private final DistributionSummary activeConnections;
+    private final Deque<Integer> activeSamples = new ArrayDeque<>();
+
+    public ConnectionPoolTuner(HikariDataSource dataSource, InstrumentedDataSource instrumentedDataSource,
+                               MeterRegistry meterRegistry, int minPoolSize, int maxPoolSize,
+                               Duration targetAcquireTime, int window) {
+        this.dataSource = dataSource;
+        this.instrumentedDataSource = instrumentedDataSource;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.targetAcquireNanos = targetAcquireTime.toNanos();
+        this.window = window;
+        this.activeConnections = DistributionSummary.builder("todo.datasource.pool.active")
+                .description("Active connections sampled by the pool tuner")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sample the pool and resize it if needed
+     *
+     * @return maximum pool size after tuning
+     */
+    public synchronized int tune() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+        if (pool == null) {
+            return current; // pool not started yet
+        }
+        int active = pool.getActiveConnections();
+        int waiting = pool.getThreadsAwaitingConnection();
+        long meanAcquireNanos = instrumentedDataSource.drainMeanAcquireNanos();
+        activeConnections.record(active);
+        activeSamples.addLast(active);
+        while (activeSamples.size() > window) {
+            activeSamples.removeFirst();
+        }
+
+        int target = current;
+        if (waiting > 0 || meanAcquireNanos > targetAcquireNanos) {
+            target = Math.min(maxPoolSize, current + Math.max(1, waiting));
+            // Start a new window, the samples before growing don't describe the new size
+            activeSamples.clear();
+        } else if (activeSamples.size() >= window) {
+            target = Math.max(minPoolSize, Math.min(current, percentile95() + HEADROOM));
+        }
+
+        if (target != current) {
+            log.info("Resizing connection pool from {} to {} (active {}, waiting {}, mean acquire {} us)",
+                    current, target, active, waiting, meanAcquireNanos / 1000);
+            if (config.getMinimumIdle() > target) {
+                config.setMinimumIdle(target);
+            }
+            config.setMaximumPoolSize(target);
+        }
+        return target;
+    }
+
+    private int percentile95() {
+        int[] sorted = activeSamples.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+    }
+
+}
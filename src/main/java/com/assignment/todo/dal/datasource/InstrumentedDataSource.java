@@ -0,0 +1,77 @@
+package com.assignment.todo.dal.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times how long it takes to get a connection from the pool,
+ * per operation from {@link RepositoryOperationContext}
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+
+    public InstrumentedDataSource(DataSource targetDataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Mean connection acquire time since the last call
+     *
+     * @return mean acquire time in nanoseconds, 0 if no connection was acquired
+     */
+    public long drainMeanAcquireNanos() {
+        long count = acquireCount.sumThenReset();
+        long nanos = acquireNanos.sumThenReset();
+        return count == 0 ? 0 : nanos / count;
+    }
+
+    private void record(long nanos) {
+        acquireCount.increment();
+        acquireNanos.add(nanos);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            timers.computeIfAbsent(RepositoryOperationContext.current(), operation -> Timer.builder("todo.datasource.acquire")
+                            .description("Time waiting for a pooled connection")
+                            .tag("operation", operation)
+                            .publishPercentiles(0.5, 0.95, 0.99)
+                            .register(registry))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.assignment.todo.dal.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Names the service and repository operations running on the current thread,
+ * so connection acquire time can be attributed to them, and times repository calls.
+ * <p>Runs outside the transaction interceptor, as that is where connections are acquired.</p>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RepositoryOperationAspect {
+
+    private static final String APPLICATION_PACKAGE = "com.assignment.todo";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RepositoryOperationAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.assignment.todo.service.*Service.*(..))")
+    public Object aroundService(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        boolean outermost = RepositoryOperationContext.enter(operation);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (outermost) {
+                RepositoryOperationContext.exit();
+            }
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object aroundRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName();
+        boolean outermost = RepositoryOperationContext.enter(operation);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(Timer.builder("todo.repository.duration")
+                    .description("Time spent in repository methods, including connection acquire")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+            if (outermost) {
+                RepositoryOperationContext.exit();
+            }
+        }
+    }
+
+    private static String repositoryName(Object proxy) {
+        for (Class<?> type : ClassUtils.getAllInterfacesAsSet(proxy)) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith(APPLICATION_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.assignment.todo.dal.datasource;
+
+/**
+ * Name of the service or repository operation running on the current thread
+ * <p>The outermost operation wins, as the connection used by nested repository calls
+ * is acquired when the outermost transaction starts.</p>
+ */
+public final class RepositoryOperationContext {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryOperationContext() {
+    }
+
+    /**
+     * Enter an operation
+     *
+     * @param operation  name of the operation
+     * @return true if this is the outermost operation, which then has to {@link #exit()}
+     */
+    public static boolean enter(String operation) {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(operation);
+        return true;
+    }
+
+    public static void exit() {
+        CURRENT.remove();
+    }
+
+    public static String current() {
+        String operation = CURRENT.get();
+        return operation != null ? operation : UNKNOWN;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "idempotency_keys")
+public class IdempotencyKeyEntity {
+
+    @Id
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private int requestHash;
+
+    @Column(nullable = false)
+    private String response; // serialized TodoItem returned for the key
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+}
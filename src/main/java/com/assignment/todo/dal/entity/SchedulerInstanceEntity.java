@@ -0,0 +1,26 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "scheduler_instances")
+public class SchedulerInstanceEntity {
+
+    @Id
+    private String instanceId;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSeenAt;
+
+}
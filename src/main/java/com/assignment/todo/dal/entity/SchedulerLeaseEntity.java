@@ -0,0 +1,28 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "scheduler_leases")
+public class SchedulerLeaseEntity {
+
+    @Id
+    private Integer partitionId;
+
+    private String owner; // instance id holding the lease, null if released
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,69 @@
+package com.assignment.todo.dal.entity;
+
+import com.assignment.todo.constants.TodoItemPriority;
+import com.assignment.todo.dal.converter.CompressedDescriptionConverter;
+import com.assignment.todo.util.DescriptionCodec;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A done TodoItem moved out of todo_items by the archiver, keeping its original id
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "todo_items_archive")
+public class TodoItemArchiveEntity {
+
+    @Id
+    private Integer id;
+
+    // archived items are read one at a time, the description is loaded with them
+    @Convert(converter = CompressedDescriptionConverter.class)
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false, length = DescriptionCodec.PREVIEW_LENGTH)
+    private String descriptionPreview;
+
+    private String status;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer priority = TodoItemPriority.MEDIUM.rank();
+
+    private LocalDateTime dueDateTime;
+
+    private LocalDateTime doneAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    private Integer seriesId;
+
+    private LocalDateTime occurrenceAt;
+
+    @PrePersist
+    void previewDescription() {
+        if (descriptionPreview == null) {
+            descriptionPreview = DescriptionCodec.preview(description);
+        }
+    }
+
+}
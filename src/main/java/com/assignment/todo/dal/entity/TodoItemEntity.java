@@ -1,28 +1,51 @@
 package com.assignment.todo.dal.entity;
 
+import com.assignment.todo.constants.TodoItemPriority;
+import com.assignment.todo.dal.converter.CompressedDescriptionConverter;
+import com.assignment.todo.util.DescriptionCodec;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity(name = "todo_items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class TodoItemEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    // Gzipped when large, and only loaded when read (the class is bytecode enhanced for it)
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedDescriptionConverter.class)
+    @Column(nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String description;
 
+    // what lists show, set from the description when the item is added
+    @Column(nullable = false, length = DescriptionCodec.PREVIEW_LENGTH)
+    private String descriptionPreview;
+
     private String status; // "not done", "done", "past due"
 
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer priority = TodoItemPriority.MEDIUM.rank(); // rank of the TodoItemPriority, 1 is high
+
     private LocalDateTime dueDateTime;
 
     private LocalDateTime doneAt;
@@ -33,4 +56,16 @@ public class TodoItemEntity {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // set on the stored occurrences of a series, with the due date they were created for
+    @Column(updatable = false)
+    private Integer seriesId;
+
+    @Column(updatable = false)
+    private LocalDateTime occurrenceAt;
+
+    @PrePersist
+    void previewDescription() {
+        descriptionPreview = DescriptionCodec.preview(description);
+    }
+
 }
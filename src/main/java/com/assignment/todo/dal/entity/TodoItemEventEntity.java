@@ -0,0 +1,46 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change made to a TodoItem, with the values of the changed fields before and after it as JSON
+ * <p>Events are kept after their item is deleted.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "todo_item_events")
+public class TodoItemEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer itemId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String actor;
+
+    private String oldValues;
+
+    private String newValues;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+}
@@ -0,0 +1,46 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A status change of a TodoItem waiting to be delivered downstream
+ * <p>Written in the transaction of the change and deleted once delivered.
+ * A row is claimed by pushing its availability past the delivery timeout,
+ * so a relay that dies mid delivery leaves it to be delivered again.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "todo_item_outbox")
+public class TodoItemOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer itemId;
+
+    @Column(nullable = false)
+    private String status; // "DONE" or "PAST_DUE"
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+}
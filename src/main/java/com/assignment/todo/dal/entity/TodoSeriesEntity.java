@@ -0,0 +1,53 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A recurring TodoItem, its occurrences are only stored in todo_items
+ * once they are done, updated or past due
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "todo_series")
+public class TodoSeriesEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false)
+    private String frequency; // "DAILY", "WEEKLY", "MONTHLY"
+
+    @Column(nullable = false)
+    private Integer recurrenceInterval;
+
+    private String daysOfWeek; // comma separated day names, "MONDAY,THURSDAY", weekly series only
+
+    @Column(nullable = false)
+    private LocalDateTime firstDueDateTime;
+
+    private LocalDateTime untilDateTime;
+
+    // occurrences due before this were stored as past due, if not done or updated before
+    @Column(nullable = false)
+    private LocalDateTime sweptUntil;
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+}
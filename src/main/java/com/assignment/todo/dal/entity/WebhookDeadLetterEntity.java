@@ -0,0 +1,48 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A batch of status change events a webhook never accepted, kept as it was sent so it can be replayed
+ * <p>Their outbox rows were deleted when the events were handed to the webhooks, this is the only copy left.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "webhook_dead_letters")
+public class WebhookDeadLetterEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer webhookId;
+
+    @Column(nullable = false)
+    private String events; // JSON array, the body of the batch
+
+    @Column(nullable = false)
+    private Integer eventCount;
+
+    @Column(nullable = false)
+    private String reason; // retries-exhausted, deleted or shutdown
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+
+}
@@ -0,0 +1,38 @@
+package com.assignment.todo.dal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A URL notified when TodoItems reach some statuses
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "webhook_endpoints")
+public class WebhookEndpointEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String url;
+
+    @Column(nullable = false)
+    private String statuses; // comma separated status names, "DONE,PAST_DUE"
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,18 @@
+package com.assignment.todo.dal.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a TodoItem
+ * <p>Queried straight from the todo_items table with a constructor expression,
+ * so reads don't hydrate managed entities into the persistence context.</p>
+ */
+public record TodoItemView(
+        Integer id,
+        String description, // the preview in lists
+        String status, // "NOT_DONE", "DONE", "PAST_DUE"
+        LocalDateTime dueDateTime,
+        LocalDateTime doneAt,
+        LocalDateTime createdAt,
+        Integer priority) { // rank of the TodoItemPriority
+}
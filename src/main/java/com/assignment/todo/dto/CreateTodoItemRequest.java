@@ -1,18 +1,24 @@
 package com.assignment.todo.dto;
 
+import com.assignment.todo.constants.TodoItemPriority;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Represent a request body for creating a TodoItem
  */
 @Data
 @Builder
+@Jacksonized
 public class CreateTodoItemRequest {
 
     @NotBlank
@@ -22,4 +28,10 @@ public class CreateTodoItemRequest {
     @Future
     private LocalDateTime dueDateTime;
 
+    @Pattern(regexp = TodoItemPriority.PATTERN)
+    private String priority; // "high", "medium" (default), "low"
+
+    @Size(max = TodoItemFilter.MAX_TAGS)
+    private Set<@Pattern(regexp = TodoItemFilter.TAG_PATTERN) String> tags;
+
 }
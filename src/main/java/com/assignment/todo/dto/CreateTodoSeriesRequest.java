@@ -0,0 +1,42 @@
+package com.assignment.todo.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Represent a request body for creating a recurring TodoItem
+ */
+@Data
+@Builder
+@Jacksonized
+public class CreateTodoSeriesRequest {
+
+    @NotBlank
+    private String description;
+
+    @NotNull
+    @Future
+    private LocalDateTime firstDueDateTime;
+
+    @NotBlank
+    private String frequency; // "daily", "weekly", "monthly"
+
+    @Min(1)
+    @Max(1000)
+    @Builder.Default
+    private int interval = 1;
+
+    private List<String> daysOfWeek; // "monday", ..., weekly series only
+
+    private LocalDateTime until;
+
+}
@@ -0,0 +1,29 @@
+package com.assignment.todo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+/**
+ * Represent a request body for registering a webhook
+ */
+@Data
+@Builder
+@Jacksonized
+public class CreateWebhookEndpointRequest {
+
+    @NotBlank
+    @Size(max = 2048)
+    @Pattern(regexp = "https?://.+", message = "must be an http or https URL")
+    private String url;
+
+    @NotEmpty
+    private List<String> statuses; // "done", "past due"
+
+}
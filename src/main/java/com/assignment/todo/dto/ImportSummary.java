@@ -0,0 +1,35 @@
+package com.assignment.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import
+ */
+@Data
+@Builder
+public class ImportSummary {
+
+    private long received; // non blank lines
+    private long imported;
+    private long failed;
+    private long durationMillis;
+    private double itemsPerSecond;
+    private List<ImportError> errors; // first errors only, up to the configured maximum
+    private boolean errorsTruncated;
+
+    /**
+     * A line of the import that was rejected
+     */
+    @Data
+    @Builder
+    public static class ImportError {
+
+        private long line;
+        private List<String> messages;
+
+    }
+
+}
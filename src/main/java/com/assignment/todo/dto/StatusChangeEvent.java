@@ -0,0 +1,21 @@
+package com.assignment.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+
+/**
+ * A TodoItem becoming done or past due, as delivered downstream
+ * <p>Events are delivered at least once, the id is the same on every delivery of an event.</p>
+ */
+@Data
+@Builder
+@Jacksonized
+public class StatusChangeEvent {
+    private Long id;
+    private Integer itemId;
+    private String status; // "done", "past due"
+    private LocalDateTime occurredAt;
+}
@@ -1,20 +1,27 @@
 package com.assignment.todo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Representation of a TodoItem
  */
 @Data
 @Builder
+@Jacksonized
 public class TodoItem {
     private Integer id;
     private String description;
     private String status; // "not done", "done", "past due"
+    private String priority; // "high", "medium", "low"
     private LocalDateTime dueDateTime;
     private LocalDateTime doneAt;
     private LocalDateTime createdAt;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Set<String> tags;
 }
@@ -0,0 +1,24 @@
+package com.assignment.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change made to a TodoItem
+ */
+@Data
+@Builder
+public class TodoItemChange {
+
+    private String type; // "created", "updated", "done", "not done", "deleted"
+    private String actor; // client id of the request, "system" for scheduled jobs
+    private LocalDateTime changedAt;
+    @JsonRawValue
+    private String oldValues; // changed fields before the change, stored as JSON
+    @JsonRawValue
+    private String newValues; // changed fields after the change, stored as JSON
+
+}
@@ -0,0 +1,84 @@
+package com.assignment.todo.dto;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.exception.InvalidRequestException;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Filter of the TodoItems on their tags and status, answered from the in-memory index
+ * <p>Items have all the tags, none of the excluded tags, and any of the statuses.</p>
+ */
+@Data
+@Builder
+public class TodoItemFilter {
+
+    public static final String TAG_PATTERN = "[a-z0-9][a-z0-9_-]{0,49}";
+    public static final int MAX_TAGS = 20;
+
+    private Set<String> tags;
+    private Set<String> excludedTags;
+    private Set<TodoItemStatus> statuses;
+
+    /**
+     * Parse the filter of the list of TodoItems
+     *
+     * @param tags  comma separated tags the items must have, prefixed with '-' for the ones they must not have
+     * @param status  comma separated statuses, e.g. "not done,past due", or a status prefixed with '-' to exclude it.
+     *                Without statuses, all the items if includeAll, otherwise the items which are not done
+     * @param includeAll  filter all the items rather than the pending ones, when no status is given
+     * @return the filter
+     * @throws InvalidRequestException if a tag or a status is not valid
+     */
+    public static TodoItemFilter from(String tags, String status, boolean includeAll) throws InvalidRequestException {
+        Set<String> required = new LinkedHashSet<>();
+        Set<String> excluded = new LinkedHashSet<>();
+        for (String tag : split(tags)) {
+            boolean exclude = tag.startsWith("-");
+            String name = exclude ? tag.substring(1) : tag;
+            if (!name.matches(TAG_PATTERN)) {
+                throw new InvalidRequestException("Invalid tag: " + name + ", expected lower case letters, "
+                        + "digits, '-' or '_', up to 50 characters");
+            }
+            (exclude ? excluded : required).add(name);
+        }
+        Set<TodoItemStatus> statuses;
+        if (status == null || status.isBlank()) {
+            statuses = includeAll ? EnumSet.allOf(TodoItemStatus.class)
+                    : EnumSet.complementOf(EnumSet.of(TodoItemStatus.DONE));
+        } else {
+            statuses = EnumSet.noneOf(TodoItemStatus.class);
+            Set<TodoItemStatus> excludedStatuses = EnumSet.noneOf(TodoItemStatus.class);
+            for (String label : split(status)) {
+                boolean exclude = label.startsWith("-");
+                (exclude ? excludedStatuses : statuses).add(statusOf(exclude ? label.substring(1) : label));
+            }
+            if (statuses.isEmpty()) {
+                statuses = EnumSet.allOf(TodoItemStatus.class);
+            }
+            statuses.removeAll(excludedStatuses);
+        }
+        return TodoItemFilter.builder()
+                .tags(required)
+                .excludedTags(excluded)
+                .statuses(statuses)
+                .build();
+    }
+
+    private static String[] split(String values) {
+        return values == null || values.isBlank() ? new String[0] : values.trim().split("\\s*,\\s*");
+    }
+
+    private static TodoItemStatus statusOf(String label) throws InvalidRequestException {
+        try {
+            return TodoItemStatus.from(label);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown status: " + label + ", expected not done, done or past due");
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.assignment.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of the changes made to a TodoItem, oldest first
+ */
+@Data
+@Builder
+public class TodoItemHistory {
+
+    private Integer id;
+    private int page;
+    private int size;
+    private long totalChanges;
+    private int totalPages;
+    private List<TodoItemChange> changes;
+
+}
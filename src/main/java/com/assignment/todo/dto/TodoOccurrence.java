@@ -0,0 +1,23 @@
+package com.assignment.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representation of an occurrence of a recurring TodoItem
+ * <p>The id is only set once the occurrence is stored as a TodoItem,
+ * when it's done, updated or past due.</p>
+ */
+@Data
+@Builder
+public class TodoOccurrence {
+    private Integer seriesId;
+    private LocalDateTime occurrenceAt;
+    private Integer id;
+    private String description; // the preview, the full description is on the item
+    private String status; // "not done", "done", "past due"
+    private LocalDateTime dueDateTime;
+    private LocalDateTime doneAt;
+}
@@ -0,0 +1,23 @@
+package com.assignment.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Representation of a recurring TodoItem
+ */
+@Data
+@Builder
+public class TodoSeries {
+    private Integer id;
+    private String description;
+    private String frequency; // "daily", "weekly", "monthly"
+    private int interval;
+    private List<String> daysOfWeek; // "monday", ...
+    private LocalDateTime firstDueDateTime;
+    private LocalDateTime until;
+    private LocalDateTime createdAt;
+}
@@ -1,12 +1,16 @@
 package com.assignment.todo.dto;
 
+import com.assignment.todo.constants.TodoItemPriority;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Represent a request body for updating a TodoItem
@@ -20,4 +24,11 @@ public class UpdateTodoItemRequest {
     @Future
     private LocalDateTime dueDateTime;
 
+    @Pattern(regexp = TodoItemPriority.PATTERN)
+    private String priority; // "high", "medium", "low"
+
+    // replaces the tags of the item when set, an empty set removes them
+    @Size(max = TodoItemFilter.MAX_TAGS)
+    private Set<@Pattern(regexp = TodoItemFilter.TAG_PATTERN) String> tags;
+
 }
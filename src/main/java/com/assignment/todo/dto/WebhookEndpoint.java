@@ -0,0 +1,19 @@
+package com.assignment.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Representation of a registered webhook
+ */
+@Data
+@Builder
+public class WebhookEndpoint {
+    private Integer id;
+    private String url;
+    private List<String> statuses; // "done", "past due"
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,9 @@
+package com.assignment.todo.exception;
+
+public class EventDeliveryException extends Exception {
+
+    public EventDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
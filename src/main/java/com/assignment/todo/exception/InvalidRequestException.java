@@ -0,0 +1,9 @@
+package com.assignment.todo.exception;
+
+public class InvalidRequestException extends Exception {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+}
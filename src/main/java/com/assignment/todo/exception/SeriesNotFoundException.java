@@ -0,0 +1,15 @@
+package com.assignment.todo.exception;
+
+import java.time.LocalDateTime;
+
+public class SeriesNotFoundException extends Exception {
+
+    public SeriesNotFoundException(final Integer id) {
+        super("Series id " + id + " not found");
+    }
+
+    public SeriesNotFoundException(final Integer id, final LocalDateTime occurrenceAt) {
+        super("Series id " + id + " has no occurrence at " + occurrenceAt);
+    }
+
+}
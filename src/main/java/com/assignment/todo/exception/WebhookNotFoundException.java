@@ -0,0 +1,9 @@
+package com.assignment.todo.exception;
+
+public class WebhookNotFoundException extends Exception {
+
+    public WebhookNotFoundException(final Integer id) {
+        super("Webhook id " + id + " not found");
+    }
+
+}
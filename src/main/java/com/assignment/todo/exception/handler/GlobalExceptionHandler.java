@@ -2,7 +2,10 @@ package com.assignment.todo.exception.handler;
 
 import com.assignment.todo.dto.ErrorResponse;
 import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.InvalidRequestException;
 import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.exception.SeriesNotFoundException;
+import com.assignment.todo.exception.WebhookNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
@@ -53,7 +56,9 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(value = {
-            ItemNotFoundException.class
+            ItemNotFoundException.class,
+            SeriesNotFoundException.class,
+            WebhookNotFoundException.class
     })
     public ResponseEntity<ErrorResponse> handleNotFoundException(
             final Exception exception, final HttpServletRequest request) {
@@ -81,4 +86,16 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    @ExceptionHandler(value = {
+            InvalidRequestException.class
+    })
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(
+            final Exception exception, final HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.builder()
+                        .path(request.getRequestURI())
+                        .message(exception.getMessage())
+                        .build());
+    }
+
 }
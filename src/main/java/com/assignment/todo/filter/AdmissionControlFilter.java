@@ -0,0 +1,230 @@
+package com.assignment.todo.filter;
+
+import com.assignment.todo.constants.RequestPriority;
+import com.assignment.todo.dto.ErrorResponse;
+import com.assignment.todo.util.AdaptiveConcurrencyLimiter;
+import com.assignment.todo.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control for the REST API
+ * <p>Requests are first charged against the token bucket of their client, by remote address and
+ * {@value #CLIENT_ID_HEADER} header, and rejected with 429 when it is empty. They then have to fit in the adaptive concurrency limit, and are rejected
+ * with 503 when it is reached instead of queueing for threads and connections.
+ * Full list scans, exports and bulk imports are {@link RequestPriority#LOW}
+ * and may only use part of the limit.</p>
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final String API_PATH = "/api/";
+    private static final String LIST_PATH = "/api/v1/todos";
+    private static final String EXPORT_PATH = "/api/v1/todos/export";
+    private static final String IMPORT_PATH = "/api/v1/todos/import";
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+
+    private final Map<RequestPriority, Counter> rateLimited = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> overloaded = new EnumMap<>(RequestPriority.class);
+
+    public AdmissionControlFilter(TokenBucketRateLimiter rateLimiter,
+                                  AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.admission.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("todo.admission.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .register(registry);
+        Gauge.builder("todo.admission.clients", rateLimiter, TokenBucketRateLimiter::trackedClients)
+                .description("Clients with a tracked token bucket")
+                .register(registry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rateLimited.put(priority, Counter.builder("todo.admission.rejected")
+                    .tag("reason", "rate-limited")
+                    .tag("priority", priority.value())
+                    .register(registry));
+            overloaded.put(priority, Counter.builder("todo.admission.rejected")
+                    .tag("reason", "overloaded")
+                    .tag("priority", priority.value())
+                    .register(registry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !pathWithinApplication(request).startsWith(API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = priorityOf(request);
+
+        if (!rateLimiter.tryAcquire(request.getRemoteAddr(), clientIdOf(request))) {
+            increment(rateLimited, priority);
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, slow down");
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire(priority)) {
+            increment(overloaded, priority);
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Service overloaded, try again later");
+            return;
+        }
+
+        // Exports and imports take as long as their data, their latency says nothing about queueing
+        String route = isTransfer(request) ? null : routeOf(request);
+        int inFlightAtStart = concurrencyLimiter.getInFlight();
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Streamed responses hold their slot until the last byte is written
+                request.getAsyncContext().addListener(new ReleaseListener(route, start, inFlightAtStart));
+            } else {
+                release(route, start, inFlightAtStart);
+            }
+        }
+    }
+
+    private void release(String route, long start, int inFlightAtStart) {
+        if (route == null) {
+            concurrencyLimiter.release();
+        } else {
+            concurrencyLimiter.release(route, System.nanoTime() - start, inFlightAtStart);
+        }
+    }
+
+    /**
+     * Full list scans, exports and bulk imports are the most expensive requests and the first ones to shed,
+     * writes and single item reads are kept as long as possible.
+     */
+    private static RequestPriority priorityOf(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        boolean bulk = HttpMethod.GET.matches(request.getMethod()) && (LIST_PATH.equals(path) || EXPORT_PATH.equals(path))
+                || HttpMethod.POST.matches(request.getMethod()) && IMPORT_PATH.equals(path);
+        return bulk ? RequestPriority.LOW : RequestPriority.HIGH;
+    }
+
+    private static boolean isTransfer(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        return HttpMethod.GET.matches(request.getMethod()) && EXPORT_PATH.equals(path)
+                || HttpMethod.POST.matches(request.getMethod()) && IMPORT_PATH.equals(path);
+    }
+
+    /**
+     * Method and path of the request with its ids replaced, as in {@code GET /api/v1/todos/{id}}
+     */
+    private static String routeOf(HttpServletRequest request) {
+        return request.getMethod() + " " + ID_SEGMENT.matcher(pathWithinApplication(request)).replaceAll("/{id}");
+    }
+
+    private static String clientIdOf(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return StringUtils.hasText(clientId) ? clientId : null;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void increment(Map<RequestPriority, Counter> counters, RequestPriority priority) {
+        Counter counter = counters.get(priority);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        log.warn("Rejected {} {} with {}", request.getMethod(), request.getRequestURI(), status.value());
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .path(request.getRequestURI())
+                .message(message)
+                .build());
+    }
+
+    private final class ReleaseListener implements AsyncListener {
+
+        private final String route;
+        private final long start;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseListener(String route, long start, int inFlightAtStart) {
+            this.route = route;
+            this.start = start;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // keep listening to the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                AdmissionControlFilter.this.release(route, start, inFlightAtStart);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.assignment.todo.jfr;
+
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.ItemNotFoundException;
+
+/**
+ * Outcomes recorded in the JFR events
+ */
+public final class EventOutcome {
+
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not found";
+    public static final String NOT_ALLOWED = "not allowed";
+    public static final String FAILED = "failed";
+
+    private EventOutcome() {
+    }
+
+    public static String of(Throwable error) {
+        if (error instanceof ItemNotFoundException) {
+            return NOT_FOUND;
+        } else if (error instanceof ActionNotAllowedException) {
+            return NOT_ALLOWED;
+        }
+        return FAILED;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.assignment.todo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a REST API request
+ */
+@Name("com.assignment.todo.HttpRequest")
+@Label("HTTP Request")
+@Category({"Todo List", "HTTP"})
+@Description("A request to the REST API, until its handler returns")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Route")
+    @Description("Matched route pattern, or the path when no route matched")
+    private String route;
+
+    @Label("Status")
+    private int status;
+
+    @Label("Client Id")
+    private String clientId;
+
+    /**
+     * End the event and commit it if it's enabled and above its threshold
+     */
+    public void complete(String method, String route, int status, String clientId) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.route = route;
+            this.status = status;
+            this.clientId = clientId;
+            commit();
+        }
+    }
+
+}
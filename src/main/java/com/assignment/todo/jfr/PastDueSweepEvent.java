@@ -0,0 +1,49 @@
+package com.assignment.todo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the past due sweep of one partition
+ */
+@Name("com.assignment.todo.PastDueSweep")
+@Label("Past Due Sweep")
+@Category({"Todo List", "Scheduler"})
+@Description("A run of the past due sweep over one partition of the items")
+@StackTrace(false)
+public class PastDueSweepEvent extends Event {
+
+    @Label("Partition")
+    private int partition;
+
+    @Label("Partitions")
+    private int partitions;
+
+    @Label("Rows Updated")
+    private int updated;
+
+    @Label("Outcome")
+    private String outcome;
+
+    public PastDueSweepEvent(int partition, int partitions) {
+        this.partition = partition;
+        this.partitions = partitions;
+    }
+
+    /**
+     * End the event and commit it if it's enabled and above its threshold
+     */
+    public void complete(int updated, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.updated = updated;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.assignment.todo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a {@link com.assignment.todo.service.TodoItemService} method call
+ */
+@Name("com.assignment.todo.ServiceOperation")
+@Label("TodoItem Service Operation")
+@Category({"Todo List", "Service"})
+@Description("A call to a TodoItemService method")
+@StackTrace(false)
+public class ServiceOperationEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Item Id")
+    @Description("Id of the TodoItem, 0 when the operation is not about a single item")
+    private int itemId;
+
+    @Label("Outcome")
+    @Description("success, not found, not allowed or failed")
+    private String outcome;
+
+    /**
+     * End the event and commit it if it's enabled and above its threshold
+     */
+    public void complete(String operation, int itemId, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.itemId = itemId;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.assignment.todo.jfr;
+
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records a {@link ServiceOperationEvent} for every TodoItemService call
+ * <p>Runs outside the transaction interceptor, so the events include the flush and the commit.</p>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServiceOperationEventAspect {
+
+    private static final String ID_PARAMETER = "id";
+
+    @Around("execution(* com.assignment.todo.service.TodoItemService.*(..))")
+    public Object aroundTodoItemService(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceOperationEvent event = new ServiceOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.complete(signature.getName(), itemId(signature, joinPoint.getArgs(), result), EventOutcome.SUCCESS);
+            return result;
+        } catch (Throwable e) {
+            event.complete(signature.getName(), itemId(signature, joinPoint.getArgs(), null), EventOutcome.of(e));
+            throw e;
+        }
+    }
+
+    /**
+     * The id argument of the operation, or the id of the item it returns, 0 if there is none
+     */
+    private static int itemId(MethodSignature signature, Object[] args, Object result) {
+        String[] names = signature.getParameterNames();
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (ID_PARAMETER.equals(names[i]) && args[i] instanceof Integer id) {
+                    return id;
+                }
+            }
+        }
+        if (result instanceof TodoItemEntity item && item.getId() != null) {
+            return item.getId();
+        }
+        return 0;
+    }
+
+}
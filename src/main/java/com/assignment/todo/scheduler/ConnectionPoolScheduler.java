@@ -0,0 +1,28 @@
+package com.assignment.todo.scheduler;
+
+import com.assignment.todo.dal.datasource.ConnectionPoolTuner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "todo.datasource.tuning.enabled", havingValue = "true")
+public class ConnectionPoolScheduler {
+
+    private final ConnectionPoolTuner connectionPoolTuner;
+
+    @Autowired
+    public ConnectionPoolScheduler(ConnectionPoolTuner connectionPoolTuner) {
+        this.connectionPoolTuner = connectionPoolTuner;
+    }
+
+    /**
+     * Scheduled job to sample the connection pool and resize it to the observed load
+     */
+    @Scheduled(fixedDelayString = "${todo.datasource.tuning.interval:10000}")
+    public void tuneConnectionPool() {
+        connectionPoolTuner.tune();
+    }
+
+}
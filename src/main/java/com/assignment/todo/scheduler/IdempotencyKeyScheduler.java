@@ -0,0 +1,32 @@
+package com.assignment.todo.scheduler;
+
+import com.assignment.todo.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.idempotency.persist", havingValue = "true")
+public class IdempotencyKeyScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    @Autowired
+    public IdempotencyKeyScheduler(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    /**
+     * Scheduled job to run every hour
+     * <p>Removes persisted idempotency keys that are older than the configured TTL.</p>
+     */
+    @Scheduled(fixedDelay = 3600000) // Every hour
+    public void purgeExpiredIdempotencyKeys() {
+        log.info("Scheduled job to purge expired idempotency keys starting");
+        idempotencyService.purgeExpiredKeys();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.assignment.todo.scheduler;
+
+import com.assignment.todo.service.StatusEventRelayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "todo.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class StatusEventRelayScheduler {
+
+    private final StatusEventRelayService statusEventRelayService;
+
+    @Autowired
+    public StatusEventRelayScheduler(StatusEventRelayService statusEventRelayService) {
+        this.statusEventRelayService = statusEventRelayService;
+    }
+
+    /**
+     * Scheduled job to run every second by default
+     * <p>Delivers the status change events written to the outbox since the last run.
+     * Runs on every instance, they claim different batches.</p>
+     */
+    @Scheduled(fixedDelayString = "${todo.outbox.interval:1000}")
+    public void relayStatusEvents() {
+        statusEventRelayService.relay();
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.assignment.todo.scheduler;
+
+import com.assignment.todo.service.TodoItemArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TodoItemArchiveScheduler {
+
+    private final TodoItemArchiveService todoItemArchiveService;
+
+    @Autowired
+    public TodoItemArchiveScheduler(TodoItemArchiveService todoItemArchiveService) {
+        this.todoItemArchiveService = todoItemArchiveService;
+    }
+
+    /**
+     * Scheduled job to run every hour by default
+     * <p>Moves TodoItems that were done before the configured age to the archive.</p>
+     */
+    @Scheduled(fixedDelayString = "${todo.archive.interval:3600000}")
+    public void archiveDoneItems() {
+        log.info("Scheduled job to archive DONE items starting");
+        todoItemArchiveService.archiveDoneItems();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.assignment.todo.scheduler;
+
+import com.assignment.todo.service.TodoItemHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TodoItemHistoryScheduler {
+
+    private final TodoItemHistoryService todoItemHistoryService;
+
+    @Autowired
+    public TodoItemHistoryScheduler(TodoItemHistoryService todoItemHistoryService) {
+        this.todoItemHistoryService = todoItemHistoryService;
+    }
+
+    /**
+     * Scheduled job to run every 200 milliseconds by default
+     * <p>Writes the changes recorded since the last run to the history, in batches.
+     * Runs on every instance, as each one only writes its own queue.</p>
+     */
+    @Scheduled(fixedDelayString = "${todo.history.flush-interval:200}")
+    public void flushHistory() {
+        todoItemHistoryService.flush();
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.assignment.todo.scheduler;
+
+import com.assignment.todo.service.TodoItemIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.index.enabled", havingValue = "true", matchIfMissing = true)
+public class TodoItemIndexScheduler {
+
+    private final TodoItemIndexService todoItemIndexService;
+
+    @Autowired
+    public TodoItemIndexScheduler(TodoItemIndexService todoItemIndexService) {
+        this.todoItemIndexService = todoItemIndexService;
+    }
+
+    /**
+     * Scheduled job to run every hour by default
+     * <p>Rebuilds the tag and status index from the database, and purges the tags of deleted TodoItems.</p>
+     */
+    @Scheduled(fixedDelayString = "${todo.index.rebuild-interval:3600000}", initialDelayString = "${todo.index.rebuild-interval:3600000}")
+    public void rebuildIndex() {
+        log.info("Scheduled job to rebuild the TodoItem index starting");
+        todoItemIndexService.rebuild();
+    }
+
+}
@@ -1,32 +1,60 @@
 package com.assignment.todo.scheduler;
 
+import com.assignment.todo.jfr.EventOutcome;
+import com.assignment.todo.jfr.PastDueSweepEvent;
+import com.assignment.todo.service.SchedulerLeaseService;
 import com.assignment.todo.service.TodoItemService;
+import com.assignment.todo.service.TodoSeriesService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "todo.scheduler.past-due.enabled", havingValue = "true", matchIfMissing = true)
 public class TodoItemScheduler {
 
     private final TodoItemService todoItemService;
+    private final TodoSeriesService todoSeriesService;
+    private final SchedulerLeaseService schedulerLeaseService;
 
     @Autowired
-    public TodoItemScheduler(TodoItemService todoItemService) {
+    public TodoItemScheduler(TodoItemService todoItemService, TodoSeriesService todoSeriesService,
+                             SchedulerLeaseService schedulerLeaseService) {
         this.todoItemService = todoItemService;
+        this.todoSeriesService = todoSeriesService;
+        this.schedulerLeaseService = schedulerLeaseService;
     }
 
     /**
      * Scheduled job to run every minute
-     * <p>Checks all TodoItems that are not in 'DONE' state,
-     * and updates their state to 'PAST DUE' if it's past their due date.</p>
+     * <p>Checks all TodoItems that are not in 'DONE' state in the partitions leased by this instance,
+     * and updates their state to 'PAST DUE' if it's past their due date.
+     * The occurrences of recurring TodoItems that went past due are stored as 'PAST DUE' TodoItems.</p>
      */
     //@Scheduled(cron = "0 * * * * *") // Runs every minute, adjust as necessary
     @Scheduled(fixedDelay = 60000) // Every minute
     public void updatePastDueItemsStatus() {
         log.info("Scheduled job to update PAST_DUE items starting");
-        todoItemService.checkAndUpdateStatusForPastDueItems();
+        List<Integer> partitions = schedulerLeaseService.acquirePartitions();
+        int partitionCount = schedulerLeaseService.getPartitionCount();
+        log.info("Instance {} holds partitions {} of {}", schedulerLeaseService.getInstanceId(), partitions, partitionCount);
+        for (Integer partition : partitions) {
+            PastDueSweepEvent event = new PastDueSweepEvent(partition, partitionCount);
+            event.begin();
+            try {
+                int updated = todoItemService.checkAndUpdateStatusForPastDueItems(partition, partitionCount)
+                        + todoSeriesService.storePastDueOccurrences(partition, partitionCount);
+                event.complete(updated, EventOutcome.SUCCESS);
+            } catch (RuntimeException e) {
+                event.complete(0, EventOutcome.FAILED);
+                throw e;
+            }
+        }
     }
 
 }
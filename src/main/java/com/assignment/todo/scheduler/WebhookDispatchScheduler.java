@@ -0,0 +1,29 @@
+package com.assignment.todo.scheduler;
+
+import com.assignment.todo.service.WebhookDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "webhook")
+public class WebhookDispatchScheduler {
+
+    private final WebhookDispatcher webhookDispatcher;
+
+    @Autowired
+    public WebhookDispatchScheduler(WebhookDispatcher webhookDispatcher) {
+        this.webhookDispatcher = webhookDispatcher;
+    }
+
+    /**
+     * Scheduled job to run every 200 milliseconds by default
+     * <p>Hands the queued status change events to the webhooks, without waiting for them to answer.</p>
+     */
+    @Scheduled(fixedDelayString = "${todo.webhooks.interval:200}")
+    public void dispatchWebhooks() {
+        webhookDispatcher.dispatch();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.exception.ActionNotAllowedException;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Run the create action at most once for an idempotency key
+     * <p>Concurrent requests with the same key wait for the first one to finish
+     * and get its response, later retries get the stored response.</p>
+     *
+     * @param key  idempotency key sent by the client
+     * @param request  {@link CreateTodoItemRequest} the key was sent with
+     * @param action  creates the TodoItem, only invoked for the first request of a key
+     * @return {@link TodoItem} created for the key
+     * @throws ActionNotAllowedException if the key was already used for a different request
+     */
+    TodoItem execute(String key, CreateTodoItemRequest request, Supplier<TodoItem> action)
+            throws ActionNotAllowedException;
+
+    /**
+     * Remove persisted idempotency keys that are older than the configured TTL
+     */
+    void purgeExpiredKeys();
+
+}
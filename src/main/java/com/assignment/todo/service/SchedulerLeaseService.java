@@ -0,0 +1,31 @@
+package com.assignment.todo.service;
+
+import java.util.List;
+
+public interface SchedulerLeaseService {
+
+    /**
+     * Acquire or renew the leases of the past due sweep partitions this instance should work on
+     * <p>Each live instance takes a fair share of the partitions, partitions of instances that
+     * stopped renewing their leases are taken over once the leases expire.</p>
+     *
+     * @return partitions leased by this instance
+     */
+    List<Integer> acquirePartitions();
+
+    /**
+     * Release all leases held by this instance, so other instances can take them over right away
+     */
+    void releasePartitions();
+
+    /**
+     * @return number of partitions the past due sweep is split into
+     */
+    int getPartitionCount();
+
+    /**
+     * @return identifier of this instance in the lease table
+     */
+    String getInstanceId();
+
+}
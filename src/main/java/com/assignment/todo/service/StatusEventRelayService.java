@@ -0,0 +1,13 @@
+package com.assignment.todo.service;
+
+public interface StatusEventRelayService {
+
+    /**
+     * Deliver the status change events waiting in the outbox to the sink, in batches,
+     * until the outbox is drained, a delivery fails or the configured number of batches is reached
+     *
+     * @return number of events delivered
+     */
+    int relay();
+
+}
@@ -0,0 +1,21 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.exception.EventDeliveryException;
+
+import java.util.List;
+
+/**
+ * Destination of the status change events relayed from the outbox
+ */
+public interface StatusEventSink {
+
+    /**
+     * Deliver a batch of events, all or nothing
+     *
+     * @param events  events to deliver, oldest first
+     * @throws EventDeliveryException if the batch was not delivered, it's delivered again later
+     */
+    void deliver(List<StatusChangeEvent> events) throws EventDeliveryException;
+
+}
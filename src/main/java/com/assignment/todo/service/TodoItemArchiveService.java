@@ -0,0 +1,13 @@
+package com.assignment.todo.service;
+
+public interface TodoItemArchiveService {
+
+    /**
+     * Move the TodoItems done for longer than the configured age from todo_items to the archive,
+     * in batches at a limited rate
+     *
+     * @return number of items archived
+     */
+    int archiveDoneItems();
+
+}
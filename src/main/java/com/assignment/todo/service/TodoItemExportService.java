@@ -0,0 +1,20 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.constants.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TodoItemExportService {
+
+    /**
+     * Write all the TodoItems to an output stream as they are read from the database
+     *
+     * @param format  {@link ExportFormat} to write
+     * @param includeArchived  also export the archived TodoItems
+     * @param output  stream to write to, left open
+     * @return number of TodoItems written
+     */
+    long exportItems(ExportFormat format, boolean includeArchived, OutputStream output) throws IOException;
+
+}
@@ -0,0 +1,54 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.dto.TodoItemHistory;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface TodoItemHistoryService {
+
+    /**
+     * Record a change made to a TodoItem, without waiting for it to be written
+     * <p>Inside a transaction, the change is only recorded once the transaction commits.</p>
+     *
+     * @param id  ID of the TodoItem
+     * @param type  kind of change
+     * @param oldValues  changed fields before the change, null when the item is created
+     * @param newValues  changed fields after the change, null when the item is deleted
+     */
+    void record(Integer id, TodoItemEventType type, Map<String, Object> oldValues, Map<String, Object> newValues);
+
+    /**
+     * Record the same change made to many TodoItems at once, such as the past due sweep
+     * <p>Written in the current transaction in batches rather than queued, so a large change
+     * neither overflows the queue nor is recorded without being committed.</p>
+     *
+     * @param ids  IDs of the TodoItems
+     * @param type  kind of change
+     * @param oldValues  changed fields before the change
+     * @param newValues  changed fields after the change
+     * @return number of changes written
+     */
+    int recordAll(Collection<Integer> ids, TodoItemEventType type,
+                  Map<String, Object> oldValues, Map<String, Object> newValues);
+
+    /**
+     * Write the recorded changes waiting in the queue, in batches
+     *
+     * @return number of changes written
+     */
+    int flush();
+
+    /**
+     * Get a page of the changes made to a TodoItem, oldest first
+     * <p>Changes show up once they are written, shortly after they are made.</p>
+     *
+     * @param id  ID of the TodoItem, which may have been deleted since
+     * @param page  zero based page number
+     * @param size  number of changes per page
+     * @return {@link TodoItemHistory}
+     */
+    TodoItemHistory getHistory(Integer id, int page, int size);
+
+}
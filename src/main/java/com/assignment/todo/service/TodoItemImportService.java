@@ -0,0 +1,19 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.dto.ImportSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface TodoItemImportService {
+
+    /**
+     * Add the TodoItems of an NDJSON stream, one {@link com.assignment.todo.dto.CreateTodoItemRequest} per line
+     * <p>Lines that can't be parsed or are not valid are skipped and reported, the others are added.</p>
+     *
+     * @param input  NDJSON stream, read until its end
+     * @return {@link ImportSummary} of the import
+     */
+    ImportSummary importItems(InputStream input) throws IOException;
+
+}
@@ -0,0 +1,74 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dto.TodoItemFilter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface TodoItemIndexService {
+
+    /**
+     * Find the TodoItems matching a filter
+     *
+     * @param filter  {@link TodoItemFilter}
+     * @return ids of the matching TodoItems, in ascending order
+     */
+    int[] find(TodoItemFilter filter);
+
+    /**
+     * Get the tags of indexed TodoItems
+     *
+     * @param ids  IDs of the TodoItems
+     * @return the sorted tags of each indexed TodoItem by id, empty if it has none,
+     * the TodoItems which aren't indexed, such as archived ones, are left out
+     */
+    Map<Integer, Set<String>> tagsOf(Collection<Integer> ids);
+
+    /**
+     * Index a TodoItem added to todo_items, or restored from the archive
+     * <p>Changes made inside a transaction are indexed once the transaction commits, as are the ones below.</p>
+     *
+     * @param id  ID of the TodoItem
+     * @param status  its status
+     * @param tags  its tags
+     */
+    void add(Integer id, TodoItemStatus status, Collection<String> tags);
+
+    /**
+     * Replace the tags of an indexed TodoItem
+     *
+     * @param id  ID of the TodoItem
+     * @param tags  its new tags
+     */
+    void setTags(Integer id, Collection<String> tags);
+
+    /**
+     * Change the status of indexed TodoItems
+     *
+     * @param ids  IDs of the TodoItems
+     * @param status  their new status
+     */
+    void setStatus(Collection<Integer> ids, TodoItemStatus status);
+
+    /**
+     * Remove TodoItems deleted or archived from todo_items
+     *
+     * @param ids  IDs of the TodoItems
+     */
+    void remove(Collection<Integer> ids);
+
+    /**
+     * Index the TodoItems inserted in bulk since the last rebuild, e.g. imported items
+     */
+    void catchUp();
+
+    /**
+     * Rebuild the index from todo_items, and purge the tags of deleted TodoItems
+     *
+     * @return number of TodoItems indexed
+     */
+    int rebuild();
+
+}
@@ -1,12 +1,18 @@
 package com.assignment.todo.service;
 
+import com.assignment.todo.constants.TodoItemField;
 import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
 import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.TodoItemFilter;
 import com.assignment.todo.dto.UpdateTodoItemRequest;
 import com.assignment.todo.exception.ActionNotAllowedException;
 import com.assignment.todo.exception.ItemNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface TodoItemService {
 
@@ -15,17 +21,74 @@ public interface TodoItemService {
      *
      * @param includeAll  fetch all the TodoItems if set to true,
      *                    otherwise fetch the TodoItems which are not done by default
-     * @return List of {@link TodoItemEntity}
+     * @param includeArchived  also fetch the archived TodoItems when fetching all of them
+     * @return List of {@link TodoItemView}
      */
-    List<TodoItemEntity> getAllItems(boolean includeAll);
+    List<TodoItemView> getAllItems(boolean includeAll, boolean includeArchived);
+
+    /**
+     * Get the most urgent pending TodoItems, by priority then due date
+     *
+     * @param limit  maximum number of TodoItems
+     * @return List of {@link TodoItemView}, the most urgent first
+     */
+    List<TodoItemView> getNextItems(int limit);
+
+    /**
+     * Get the TodoItems matching a filter on their tags and status, archived items excluded
+     *
+     * @param filter  {@link TodoItemFilter}
+     * @return List of {@link TodoItemView}, by id
+     */
+    List<TodoItemView> getItems(TodoItemFilter filter);
+
+    /**
+     * Get the tags of TodoItems, archived or not
+     *
+     * @param ids  IDs of the TodoItems
+     * @return the sorted tags of each TodoItem by id, TodoItems without tags may be left out
+     */
+    Map<Integer, Set<String>> getTags(Collection<Integer> ids);
+
+    /**
+     * Get the requested fields of the TodoItems matching a filter on their tags and status
+     *
+     * @param filter  {@link TodoItemFilter}
+     * @param fields  {@link TodoItemField}s to fetch
+     * @return the field values of each TodoItem, by field name
+     */
+    List<Map<String, Object>> getItems(TodoItemFilter filter, Set<TodoItemField> fields);
 
     /**
      * Get the details of a TodoItem
      *
      * @param id  ID of the TodoItem
-     * @return {@link TodoItemEntity} for the input ID
+     * @param includeArchived  look for the TodoItem in the archive as well
+     * @return {@link TodoItemView} for the input ID
+     */
+    TodoItemView getItemDetails(Integer id, boolean includeArchived) throws ItemNotFoundException;
+
+    /**
+     * Get the requested fields of all the TodoItems, only these fields are read
+     *
+     * @param includeAll  fetch all the TodoItems if set to true,
+     *                    otherwise fetch the TodoItems which are not done by default
+     * @param includeArchived  also fetch the archived TodoItems when fetching all of them
+     * @param fields  {@link TodoItemField}s to fetch
+     * @return the field values of each TodoItem, by field name
+     */
+    List<Map<String, Object>> getAllItems(boolean includeAll, boolean includeArchived, Set<TodoItemField> fields);
+
+    /**
+     * Get the requested fields of a TodoItem, only these fields are read
+     *
+     * @param id  ID of the TodoItem
+     * @param includeArchived  look for the TodoItem in the archive as well
+     * @param fields  {@link TodoItemField}s to fetch
+     * @return the field values of the TodoItem, by field name
      */
-    TodoItemEntity getItemDetails(Integer id) throws ItemNotFoundException;
+    Map<String, Object> getItemDetails(Integer id, boolean includeArchived, Set<TodoItemField> fields)
+            throws ItemNotFoundException;
 
     /**
      * Add a new TodoItem to the list
@@ -67,9 +130,13 @@ public interface TodoItemService {
     void deleteItem(Integer id) throws ItemNotFoundException;
 
     /**
-     * Check for Due Date of TodoItems with status other than 'DONE'
+     * Check for Due Date of TodoItems with status other than 'DONE' in a partition of the items,
      * if it's past their due date, update their status to 'PAST DUE'
+     *
+     * @param partition  partition to check, a range of item ids
+     * @param partitions  number of partitions the items are split into
+     * @return number of items updated to 'PAST DUE'
      */
-    void checkAndUpdateStatusForPastDueItems();
+    int checkAndUpdateStatusForPastDueItems(int partition, int partitions);
 
 }
@@ -0,0 +1,86 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dto.CreateTodoSeriesRequest;
+import com.assignment.todo.dto.TodoOccurrence;
+import com.assignment.todo.dto.TodoSeries;
+import com.assignment.todo.dto.UpdateTodoItemRequest;
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.exception.SeriesNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TodoSeriesService {
+
+    /**
+     * Add a recurring TodoItem, none of its occurrences is stored
+     *
+     * @param request  {@link CreateTodoSeriesRequest}
+     * @return the added {@link TodoSeries}
+     * @throws InvalidRequestException if the frequency or a day of the week is unknown,
+     * or days of the week are given for a series that isn't weekly
+     */
+    TodoSeries create(CreateTodoSeriesRequest request) throws InvalidRequestException;
+
+    List<TodoSeries> getAll();
+
+    TodoSeries get(Integer id) throws SeriesNotFoundException;
+
+    /**
+     * Delete a recurring TodoItem, its stored occurrences are kept as TodoItems
+     *
+     * @param id  ID of the series
+     * @throws SeriesNotFoundException if a series for the input id doesn't exist
+     */
+    void delete(Integer id) throws SeriesNotFoundException;
+
+    /**
+     * Get the occurrences of all the series in a window, stored or not, ordered by occurrence
+     *
+     * @param from  start of the window, inclusive
+     * @param to  end of the window, exclusive
+     * @return List of {@link TodoOccurrence}
+     * @throws InvalidRequestException if the window is empty or longer than allowed
+     */
+    List<TodoOccurrence> getOccurrences(LocalDateTime from, LocalDateTime to) throws InvalidRequestException;
+
+    /**
+     * Mark an occurrence as 'DONE', storing it as a TodoItem first if it isn't
+     *
+     * @param id  ID of the series
+     * @param occurrenceAt  due date the occurrence was created for
+     * @return the updated {@link TodoItemEntity}
+     * @throws SeriesNotFoundException if the series doesn't exist or has no occurrence at that date
+     * @throws ItemNotFoundException if the stored occurrence was deleted meanwhile
+     */
+    TodoItemEntity markOccurrenceAsDone(Integer id, LocalDateTime occurrenceAt)
+            throws SeriesNotFoundException, ItemNotFoundException;
+
+    /**
+     * Update an occurrence, storing it as a TodoItem first if it isn't
+     *
+     * @param id  ID of the series
+     * @param occurrenceAt  due date the occurrence was created for
+     * @param request  {@link UpdateTodoItemRequest}
+     * @return the updated {@link TodoItemEntity}
+     * @throws SeriesNotFoundException if the series doesn't exist or has no occurrence at that date
+     * @throws ItemNotFoundException if the stored occurrence was deleted meanwhile
+     * @throws ActionNotAllowedException if the occurrence is done or past due
+     */
+    TodoItemEntity updateOccurrence(Integer id, LocalDateTime occurrenceAt, UpdateTodoItemRequest request)
+            throws SeriesNotFoundException, ItemNotFoundException, ActionNotAllowedException;
+
+    /**
+     * Store the occurrences of the series in a partition that went past their due date
+     * since the last run, as 'PAST DUE' TodoItems, unless they are stored already
+     *
+     * @param partition  partition to check, series whose id modulo partitions equals it
+     * @param partitions  number of partitions the series are split into
+     * @return number of occurrences stored
+     */
+    int storePastDueOccurrences(int partition, int partitions);
+
+}
@@ -0,0 +1,26 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.dto.StatusChangeEvent;
+
+import java.util.List;
+
+public interface WebhookDispatcher {
+
+    /**
+     * Queue status change events to be sent to the webhooks, without waiting for them to be sent
+     *
+     * @param events  events to send
+     * @return false if there is no room for all of them in the queue or in the backlog of a webhook,
+     * then none is queued
+     */
+    boolean submit(List<StatusChangeEvent> events);
+
+    /**
+     * Send the queued events to the webhooks registered for their status, in batches per webhook
+     * <p>Batches are sent asynchronously, this doesn't wait for the responses.</p>
+     *
+     * @return number of batches sent
+     */
+    int dispatch();
+
+}
@@ -0,0 +1,31 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.dto.CreateWebhookEndpointRequest;
+import com.assignment.todo.dto.WebhookEndpoint;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.WebhookNotFoundException;
+
+import java.util.List;
+
+public interface WebhookService {
+
+    /**
+     * Register a URL to be notified when TodoItems reach some statuses
+     *
+     * @param request  {@link CreateWebhookEndpointRequest}
+     * @return the registered {@link WebhookEndpoint}
+     * @throws InvalidRequestException if a status is not one that is notified, done or past due
+     */
+    WebhookEndpoint register(CreateWebhookEndpointRequest request) throws InvalidRequestException;
+
+    List<WebhookEndpoint> getAll();
+
+    /**
+     * Stop notifying a webhook, batches already being sent or retried for it are dead lettered
+     *
+     * @param id  ID of the webhook
+     * @throws WebhookNotFoundException if a webhook for the input id doesn't exist
+     */
+    void delete(Integer id) throws WebhookNotFoundException;
+
+}
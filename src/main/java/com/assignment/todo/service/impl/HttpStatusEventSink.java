@@ -0,0 +1,50 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.exception.EventDeliveryException;
+import com.assignment.todo.service.StatusEventSink;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch of status change events as a JSON array to a downstream URL
+ * <p>Any response other than 2xx fails the whole batch.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "http")
+public class HttpStatusEventSink implements StatusEventSink {
+
+    private final RestTemplate restTemplate;
+    private final URI url;
+
+    @Autowired
+    public HttpStatusEventSink(RestTemplateBuilder restTemplateBuilder,
+                               @Value("${todo.outbox.http.url}") URI url,
+                               @Value("${todo.outbox.http.connect-timeout:1s}") Duration connectTimeout,
+                               @Value("${todo.outbox.http.read-timeout:5s}") Duration readTimeout) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+        this.url = url;
+    }
+
+    @Override
+    public void deliver(List<StatusChangeEvent> events) throws EventDeliveryException {
+        try {
+            restTemplate.postForEntity(url, events, Void.class);
+        } catch (RestClientException e) {
+            throw new EventDeliveryException("Failed to deliver " + events.size() + " events to " + url, e);
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.dal.dao.IdempotencyKeyEntityRepository;
+import com.assignment.todo.dal.entity.IdempotencyKeyEntity;
+import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL evicting in-memory store of idempotency keys,
+ * optionally backed by the idempotency_keys table to survive restarts.
+ * <p>A persisted key is checked against the request like one in memory, and is only ever inserted,
+ * so a key stored by another instance in between is never overwritten.</p>
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyKeyEntityRepository idempotencyKeyEntityRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final boolean persist;
+
+    // Insertion ordered, so the eldest entry is always the first one to expire
+    private final LinkedHashMap<String, Entry> entries;
+
+    @Autowired
+    public IdempotencyServiceImpl(IdempotencyKeyEntityRepository idempotencyKeyEntityRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${todo.idempotency.max-entries:10000}") int maxEntries,
+                                  @Value("${todo.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${todo.idempotency.persist:false}") boolean persist) {
+        this.idempotencyKeyEntityRepository = idempotencyKeyEntityRepository;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.persist = persist;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyServiceImpl.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public TodoItem execute(String key, CreateTodoItemRequest request, Supplier<TodoItem> action)
+            throws ActionNotAllowedException {
+        final int requestHash = request.hashCode();
+        final Entry entry;
+        final boolean owner;
+        synchronized (entries) {
+            evictExpired(System.nanoTime());
+            Entry existing = entries.get(key);
+            if (existing == null) {
+                entry = new Entry(requestHash, new CompletableFuture<>(), System.nanoTime() + ttl.toNanos());
+                entries.put(key, entry);
+                owner = true;
+            } else {
+                entry = existing;
+                owner = false;
+            }
+        }
+        if (entry.requestHash() != requestHash) {
+            log.error("Idempotency key {} reused with a different request", key);
+            throw new ActionNotAllowedException("Idempotency key " + key + " was already used for a different request");
+        }
+        if (!owner) {
+            log.info("Returning stored response for idempotency key {}", key);
+            return await(entry.result());
+        }
+
+        try {
+            Optional<TodoItem> stored = findPersisted(key, requestHash);
+            TodoItem item;
+            if (stored.isPresent()) {
+                item = stored.get();
+            } else {
+                item = action.get();
+                persist(key, requestHash, item);
+            }
+            entry.result().complete(item);
+            return item;
+        } catch (RuntimeException | ActionNotAllowedException ex) {
+            // Don't remember failures, the client is expected to retry them
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Transactional
+    @Override
+    public void purgeExpiredKeys() {
+        if (persist) {
+            int deleted = idempotencyKeyEntityRepository.deleteAllByCreatedAtBefore(LocalDateTime.now().minus(ttl));
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private void evictExpired(long now) {
+        var iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest.expiresAt() - now > 0) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private Optional<TodoItem> findPersisted(String key, int requestHash) throws ActionNotAllowedException {
+        if (!persist) {
+            return Optional.empty();
+        }
+        Optional<IdempotencyKeyEntity> found = idempotencyKeyEntityRepository.findById(key);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyKeyEntity stored = found.get();
+        if (!stored.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl))) {
+            // Expired but not purged yet, the key can be used again
+            idempotencyKeyEntityRepository.delete(stored);
+            return Optional.empty();
+        }
+        if (stored.getRequestHash() != requestHash) {
+            log.error("Persisted idempotency key {} reused with a different request", key);
+            throw new ActionNotAllowedException("Idempotency key " + key + " was already used for a different request");
+        }
+        try {
+            return Optional.of(objectMapper.readValue(stored.getResponse(), TodoItem.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key " + key + " is unreadable", e);
+        }
+    }
+
+    private void persist(String key, int requestHash, TodoItem item) {
+        if (!persist) {
+            return;
+        }
+        try {
+            idempotencyKeyEntityRepository.insert(key, requestHash, objectMapper.writeValueAsString(item),
+                    LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            // The item is created already, losing the persisted copy only weakens retries after a restart
+            log.error("Could not persist response for idempotency key {}", key, e);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance ran a request with the same key meanwhile, its response is kept
+            log.error("Idempotency key {} was persisted concurrently, item id {} was created for it too", key, item.getId());
+        }
+    }
+
+    private static TodoItem await(CompletableFuture<TodoItem> result) throws ActionNotAllowedException {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof ActionNotAllowedException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(int requestHash, CompletableFuture<TodoItem> result, long expiresAt) {
+    }
+
+}
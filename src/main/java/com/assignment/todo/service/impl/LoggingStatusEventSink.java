@@ -0,0 +1,25 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.service.StatusEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Logs the status change events, when no downstream system is configured
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingStatusEventSink implements StatusEventSink {
+
+    @Override
+    public void deliver(List<StatusChangeEvent> events) {
+        events.forEach(event -> log.info("Item id {} became {} at {}",
+                event.getItemId(), event.getStatus(), event.getOccurredAt()));
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.dal.dao.SchedulerInstanceEntityRepository;
+import com.assignment.todo.dal.dao.SchedulerLeaseEntityRepository;
+import com.assignment.todo.dal.entity.SchedulerInstanceEntity;
+import com.assignment.todo.dal.entity.SchedulerLeaseEntity;
+import com.assignment.todo.service.SchedulerLeaseService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Coordinates the past due sweep of several instances through the scheduler_leases table
+ * <p>The sweep is split into partitions by item id. Every run, an instance renews its heartbeat,
+ * works out its fair share from the number of live instances, keeps or takes leases up to that share
+ * and releases the rest. Leases are taken with conditional updates, so only one instance
+ * can hold a partition at any time.</p>
+ */
+@Slf4j
+@Service
+public class SchedulerLeaseServiceImpl implements SchedulerLeaseService {
+
+    private final SchedulerLeaseEntityRepository schedulerLeaseEntityRepository;
+    private final SchedulerInstanceEntityRepository schedulerInstanceEntityRepository;
+    private final int partitions;
+    private final Duration leaseDuration;
+    private final String instanceId;
+
+    @Autowired
+    public SchedulerLeaseServiceImpl(SchedulerLeaseEntityRepository schedulerLeaseEntityRepository,
+                                     SchedulerInstanceEntityRepository schedulerInstanceEntityRepository,
+                                     @Value("${todo.scheduler.partitions:4}") int partitions,
+                                     @Value("${todo.scheduler.lease-duration:3m}") Duration leaseDuration,
+                                     @Value("${todo.scheduler.instance-id:}") String instanceId) {
+        this.schedulerLeaseEntityRepository = schedulerLeaseEntityRepository;
+        this.schedulerInstanceEntityRepository = schedulerInstanceEntityRepository;
+        this.partitions = partitions;
+        this.leaseDuration = leaseDuration;
+        this.instanceId = StringUtils.hasText(instanceId) ? instanceId : defaultInstanceId();
+    }
+
+    /**
+     * Create the lease rows of partitions that don't have one yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissingLeases() {
+        Set<Integer> existing = schedulerLeaseEntityRepository.findAllByPartitionIdLessThanOrderByPartitionId(partitions)
+                .stream()
+                .map(SchedulerLeaseEntity::getPartitionId)
+                .collect(Collectors.toSet());
+        for (int partition = 0; partition < partitions; partition++) {
+            if (!existing.contains(partition)) {
+                try {
+                    schedulerLeaseEntityRepository.save(SchedulerLeaseEntity.builder()
+                            .partitionId(partition)
+                            .expiresAt(LocalDateTime.now())
+                            .build());
+                } catch (DataIntegrityViolationException e) {
+                    log.info("Lease of partition {} was created by another instance", partition);
+                }
+            }
+        }
+        log.info("Instance {} sweeps past due items in {} partitions", instanceId, partitions);
+    }
+
+    @Transactional
+    @Override
+    public List<Integer> acquirePartitions() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+        heartbeat(now);
+
+        long liveInstances = Math.max(1, schedulerInstanceEntityRepository.countByLastSeenAtAfter(now.minus(leaseDuration)));
+        int fairShare = (int) Math.ceil(partitions / (double) liveInstances);
+
+        List<SchedulerLeaseEntity> leases =
+                schedulerLeaseEntityRepository.findAllByPartitionIdLessThanOrderByPartitionId(partitions);
+        List<Integer> owned = new ArrayList<>();
+        // Renew our own leases first, and hand back the ones over our share to instances that joined
+        for (SchedulerLeaseEntity lease : leases) {
+            if (instanceId.equals(lease.getOwner()) && !lease.getExpiresAt().isBefore(now)) {
+                if (owned.size() < fairShare
+                        && schedulerLeaseEntityRepository.acquire(lease.getPartitionId(), instanceId, expiresAt, now) == 1) {
+                    owned.add(lease.getPartitionId());
+                } else {
+                    schedulerLeaseEntityRepository.release(lease.getPartitionId(), instanceId, now);
+                }
+            }
+        }
+        // Then take free and expired leases, including those of instances that died
+        for (SchedulerLeaseEntity lease : leases) {
+            if (owned.size() >= fairShare) {
+                break;
+            }
+            if (!owned.contains(lease.getPartitionId())
+                    && (lease.getOwner() == null || lease.getExpiresAt().isBefore(now))
+                    && schedulerLeaseEntityRepository.acquire(lease.getPartitionId(), instanceId, expiresAt, now) == 1) {
+                if (lease.getOwner() != null && !instanceId.equals(lease.getOwner())) {
+                    log.info("Took over partition {} from instance {}", lease.getPartitionId(), lease.getOwner());
+                }
+                owned.add(lease.getPartitionId());
+            }
+        }
+        return owned;
+    }
+
+    @PreDestroy
+    @Override
+    public void releasePartitions() {
+        int released = schedulerLeaseEntityRepository.releaseAll(instanceId, LocalDateTime.now());
+        schedulerInstanceEntityRepository.deleteById(instanceId);
+        log.info("Instance {} released {} partitions", instanceId, released);
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return partitions;
+    }
+
+    @Override
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private void heartbeat(LocalDateTime now) {
+        if (schedulerInstanceEntityRepository.heartbeat(instanceId, now) == 0) {
+            schedulerInstanceEntityRepository.save(SchedulerInstanceEntity.builder()
+                    .instanceId(instanceId)
+                    .lastSeenAt(now)
+                    .build());
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+}
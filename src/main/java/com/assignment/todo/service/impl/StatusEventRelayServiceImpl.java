@@ -0,0 +1,174 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemOutboxEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemOutboxEntity;
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.exception.EventDeliveryException;
+import com.assignment.todo.service.StatusEventRelayService;
+import com.assignment.todo.service.StatusEventSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays the status change events from todo_item_outbox to the {@link StatusEventSink}
+ * <p>A batch is claimed in a short transaction, skipping rows locked by other relays, and delivered
+ * outside of it, so no lock or connection is held while waiting on the sink. Delivered events are deleted.
+ * Events of a failed delivery are retried with an exponential backoff, and events of a relay that died
+ * before deleting them are delivered again once their claim times out: delivery is at least once.</p>
+ */
+@Slf4j
+@Service
+public class StatusEventRelayServiceImpl implements StatusEventRelayService, MeterBinder {
+
+    private final TodoItemOutboxEntityRepository todoItemOutboxEntityRepository;
+    private final StatusEventSink statusEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration deliveryTimeout;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    private Counter delivered;
+    private Counter redelivered;
+    private Counter failed;
+    private Timer lag;
+    private Timer delivery;
+
+    @Autowired
+    public StatusEventRelayServiceImpl(TodoItemOutboxEntityRepository todoItemOutboxEntityRepository,
+                                       StatusEventSink statusEventSink,
+                                       PlatformTransactionManager transactionManager,
+                                       Clock clock,
+                                       @Value("${todo.outbox.batch-size:100}") int batchSize,
+                                       @Value("${todo.outbox.max-batches-per-run:100}") int maxBatchesPerRun,
+                                       @Value("${todo.outbox.delivery-timeout:30s}") Duration deliveryTimeout,
+                                       @Value("${todo.outbox.retry-backoff:1s}") Duration retryBackoff,
+                                       @Value("${todo.outbox.max-retry-backoff:5m}") Duration maxRetryBackoff) {
+        this.todoItemOutboxEntityRepository = todoItemOutboxEntityRepository;
+        this.statusEventSink = statusEventSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.deliveryTimeout = deliveryTimeout;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        delivered = Counter.builder("todo.outbox.delivered")
+                .description("Status change events delivered")
+                .register(registry);
+        redelivered = Counter.builder("todo.outbox.redelivered")
+                .description("Status change events delivered after a failed or timed out attempt")
+                .register(registry);
+        failed = Counter.builder("todo.outbox.failed")
+                .description("Status change events whose delivery failed, to be retried")
+                .register(registry);
+        lag = Timer.builder("todo.outbox.lag")
+                .description("Time from a status change to its event being delivered")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        delivery = Timer.builder("todo.outbox.delivery")
+                .description("Time taken by the sink to accept a batch")
+                .register(registry);
+    }
+
+    @Override
+    public int relay() {
+        int relayed = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<TodoItemOutboxEntity> claimed = transactionTemplate.execute(status -> claimBatch());
+            if (claimed == null || claimed.isEmpty()) {
+                break;
+            }
+            List<Long> ids = claimed.stream().map(TodoItemOutboxEntity::getId).toList();
+            long start = System.nanoTime();
+            try {
+                statusEventSink.deliver(claimed.stream().map(StatusEventRelayServiceImpl::toEvent).toList());
+            } catch (EventDeliveryException e) {
+                int attempts = claimed.stream().mapToInt(TodoItemOutboxEntity::getAttempts).max().orElse(0) + 1;
+                LocalDateTime retryAt = LocalDateTime.now(clock).plus(backoff(attempts));
+                transactionTemplate.executeWithoutResult(status -> todoItemOutboxEntityRepository.reschedule(ids, retryAt));
+                log.warn("Failed to deliver {} events on attempt {}, retrying at {}", ids.size(), attempts, retryAt, e);
+                increment(failed, ids.size());
+                break;
+            }
+            if (delivery != null) {
+                delivery.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            transactionTemplate.executeWithoutResult(status -> todoItemOutboxEntityRepository.deleteAllByIds(ids));
+            record(claimed);
+            relayed += ids.size();
+            if (claimed.size() < batchSize) {
+                break;
+            }
+        }
+        if (relayed > 0) {
+            log.info("Relayed {} status change events", relayed);
+        }
+        return relayed;
+    }
+
+    private List<TodoItemOutboxEntity> claimBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<TodoItemOutboxEntity> events = todoItemOutboxEntityRepository.findForDelivery(now, batchSize);
+        if (!events.isEmpty()) {
+            todoItemOutboxEntityRepository.claim(events.stream().map(TodoItemOutboxEntity::getId).toList(),
+                    now.plus(deliveryTimeout));
+        }
+        return events;
+    }
+
+    /**
+     * Backoff before the next attempt, doubling with every failed attempt up to the maximum
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    private void record(List<TodoItemOutboxEntity> events) {
+        increment(delivered, events.size());
+        // attempts were read before being claimed, so they count the earlier attempts
+        increment(redelivered, events.stream().filter(event -> event.getAttempts() > 0).count());
+        if (lag != null) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            events.forEach(event -> lag.record(Duration.between(event.getOccurredAt(), now)));
+        }
+    }
+
+    private static void increment(Counter counter, double amount) {
+        if (counter != null && amount > 0) {
+            counter.increment(amount);
+        }
+    }
+
+    private static StatusChangeEvent toEvent(TodoItemOutboxEntity entity) {
+        return StatusChangeEvent.builder()
+                .id(entity.getId())
+                .itemId(entity.getItemId())
+                .status(TodoItemStatus.valueOf(entity.getStatus()).value())
+                .occurredAt(entity.getOccurredAt())
+                .build();
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.service.TodoItemArchiveService;
+import com.assignment.todo.service.TodoItemIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves old done items to todo_items_archive, so todo_items only holds the items still worked on
+ * <p>Every batch is moved in its own transaction, with the rows locked from the select to the delete.
+ * Batches are spaced out to keep the archiver from competing with requests for the database.</p>
+ */
+@Slf4j
+@Service
+public class TodoItemArchiveServiceImpl implements TodoItemArchiveService {
+
+    private final TodoItemEntityRepository todoItemEntityRepository;
+    private final TodoItemArchiveEntityRepository todoItemArchiveEntityRepository;
+    private final TodoItemIndexService todoItemIndexService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration age;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final int maxBatchesPerRun;
+
+    @Autowired
+    public TodoItemArchiveServiceImpl(TodoItemEntityRepository todoItemEntityRepository,
+                                      TodoItemArchiveEntityRepository todoItemArchiveEntityRepository,
+                                      TodoItemIndexService todoItemIndexService,
+                                      PlatformTransactionManager transactionManager,
+                                      Clock clock,
+                                      @Value("${todo.archive.age:30d}") Duration age,
+                                      @Value("${todo.archive.batch-size:500}") int batchSize,
+                                      @Value("${todo.archive.batches-per-second:2}") double batchesPerSecond,
+                                      @Value("${todo.archive.max-batches-per-run:1000}") int maxBatchesPerRun) {
+        this.todoItemEntityRepository = todoItemEntityRepository;
+        this.todoItemArchiveEntityRepository = todoItemArchiveEntityRepository;
+        this.todoItemIndexService = todoItemIndexService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.age = age;
+        this.batchSize = batchSize;
+        this.pauseMillis = (long) (1000 / batchesPerSecond);
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Override
+    public int archiveDoneItems() {
+        LocalDateTime doneBefore = LocalDateTime.now(clock).minus(age);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved;
+            try {
+                moved = transactionTemplate.execute(status -> archiveBatch(doneBefore));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch already archived by another instance, stopping this run", e);
+                break;
+            }
+            archived += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("Archived {} items done before {}", archived, doneBefore);
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime doneBefore) {
+        List<Integer> ids = todoItemEntityRepository.findIdsForArchival(TodoItemStatus.DONE.name(), doneBefore, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        todoItemArchiveEntityRepository.archive(ids, LocalDateTime.now(clock));
+        todoItemEntityRepository.deleteAllByIds(ids);
+        todoItemIndexService.remove(ids);
+        return ids.size();
+    }
+
+}
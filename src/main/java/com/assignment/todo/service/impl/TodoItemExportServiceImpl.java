@@ -0,0 +1,187 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.ExportFormat;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.projection.TodoItemView;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.service.TodoItemExportService;
+import com.assignment.todo.util.TodoItemMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams TodoItems from the database to the response
+ * <p>Rows are read through a forward-only cursor and written one at a time, so memory use doesn't grow
+ * with the number of items. Rows are read as projections, which are never added to the persistence
+ * context, so it doesn't grow either. Queries of the export run with H2 lazy query execution, otherwise H2 reads
+ * the whole table into its result before the cursor returns the first row. Output is flushed after the first row,
+ * so the response starts right away, then every {@value FLUSH_EVERY} rows.</p>
+ */
+@Slf4j
+@Service
+public class TodoItemExportServiceImpl implements TodoItemExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER = "id,description,status,dueDateTime,doneAt,createdAt,priority";
+
+    private final TodoItemEntityRepository todoItemEntityRepository;
+    private final TodoItemArchiveEntityRepository todoItemArchiveEntityRepository;
+    private final TodoItemJdbcDao todoItemJdbcDao;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public TodoItemExportServiceImpl(TodoItemEntityRepository todoItemEntityRepository,
+                                     TodoItemArchiveEntityRepository todoItemArchiveEntityRepository,
+                                     TodoItemJdbcDao todoItemJdbcDao,
+                                     ObjectMapper objectMapper) {
+        this.todoItemEntityRepository = todoItemEntityRepository;
+        this.todoItemArchiveEntityRepository = todoItemArchiveEntityRepository;
+        this.todoItemJdbcDao = todoItemJdbcDao;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long exportItems(ExportFormat format, boolean includeArchived, OutputStream output) throws IOException {
+        log.info("Export items as {}, archived : {}", format.value(), includeArchived);
+        long start = System.nanoTime();
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(output) : new NdjsonRowWriter(output);
+        long rows;
+        todoItemJdbcDao.setLazyQueryExecution(true);
+        try {
+            try (Stream<TodoItemView> items = todoItemEntityRepository.streamAllViews()) {
+                rows = write(items, writer, 0);
+            }
+            if (includeArchived) {
+                try (Stream<TodoItemView> items = todoItemArchiveEntityRepository.streamAllViews()) {
+                    rows = write(items, writer, rows);
+                }
+            }
+        } finally {
+            todoItemJdbcDao.setLazyQueryExecution(false);
+        }
+        writer.flush();
+        log.info("Exported {} items in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private static long write(Stream<TodoItemView> items, RowWriter writer, long rows) throws IOException {
+        Iterator<TodoItemView> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            writer.write(TodoItemMapper.toDto(iterator.next()));
+            if (++rows == 1 || rows % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        return rows;
+    }
+
+    private interface RowWriter {
+
+        void write(TodoItem item) throws IOException;
+
+        void flush() throws IOException;
+
+    }
+
+    /**
+     * One JSON document per line, formatted like the API responses
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter itemWriter;
+
+        private NdjsonRowWriter(OutputStream output) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            this.itemWriter = objectMapper.writerFor(TodoItem.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(TodoItem item) throws IOException {
+            itemWriter.writeValue(generator, item);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+    }
+
+    /**
+     * RFC 4180 CSV with a header row, in UTF-8
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream output) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(TodoItem item) throws IOException {
+            writer.write(String.valueOf(item.getId()));
+            writer.write(',');
+            writer.write(escape(item.getDescription()));
+            writer.write(',');
+            writer.write(escape(item.getStatus()));
+            writer.write(',');
+            writer.write(format(item.getDueDateTime()));
+            writer.write(',');
+            writer.write(format(item.getDoneAt()));
+            writer.write(',');
+            writer.write(format(item.getCreatedAt()));
+            writer.write(',');
+            writer.write(escape(item.getPriority()));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String format(LocalDateTime dateTime) {
+            return dateTime != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime) : "";
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+    }
+
+}
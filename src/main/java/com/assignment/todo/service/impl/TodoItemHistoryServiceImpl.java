@@ -0,0 +1,263 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.dal.dao.TodoItemEventEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.entity.TodoItemEventEntity;
+import com.assignment.todo.dto.TodoItemHistory;
+import com.assignment.todo.filter.AdmissionControlFilter;
+import com.assignment.todo.service.TodoItemHistoryService;
+import com.assignment.todo.util.TodoItemMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the changes made to TodoItems in todo_item_events
+ * <p>Changes are put on a bounded in-memory queue by the request thread and written in JDBC batches
+ * by {@link #flush()}, called by a scheduled job, so requests don't wait for the audit writes.
+ * When the queue is full, changes are dropped and counted rather than slowing requests down.
+ * Queued changes are lost if the instance dies before they are written.</p>
+ */
+@Slf4j
+@Service
+public class TodoItemHistoryServiceImpl implements TodoItemHistoryService, MeterBinder {
+
+    public static final String SYSTEM_ACTOR = "system";
+
+    private final TodoItemEventEntityRepository todoItemEventEntityRepository;
+    private final TodoItemJdbcDao todoItemJdbcDao;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int batchSize;
+
+    private Counter dropped;
+    private Counter failed;
+    private Timer writeLag;
+
+    @Autowired
+    public TodoItemHistoryServiceImpl(TodoItemEventEntityRepository todoItemEventEntityRepository,
+                                      TodoItemJdbcDao todoItemJdbcDao,
+                                      PlatformTransactionManager transactionManager,
+                                      Clock clock,
+                                      ObjectMapper objectMapper,
+                                      @Value("${todo.history.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${todo.history.batch-size:500}") int batchSize) {
+        this.todoItemEventEntityRepository = todoItemEventEntityRepository;
+        this.todoItemJdbcDao = todoItemJdbcDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.history.queue.depth", queue, BlockingQueue::size)
+                .description("Changes waiting to be written to the history")
+                .register(registry);
+        dropped = Counter.builder("todo.history.dropped")
+                .description("Changes dropped because the history queue was full")
+                .register(registry);
+        failed = Counter.builder("todo.history.failed")
+                .description("Changes lost because their batch could not be written")
+                .register(registry);
+        writeLag = Timer.builder("todo.history.write.lag")
+                .description("Time from a change being recorded to it being written")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    public void record(Integer id, TodoItemEventType type, Map<String, Object> oldValues, Map<String, Object> newValues) {
+        PendingEvent event = new PendingEvent(id, type, currentActor(), oldValues, newValues, LocalDateTime.now(clock));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rolled back changes never happened
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    @Override
+    public int recordAll(Collection<Integer> ids, TodoItemEventType type,
+                         Map<String, Object> oldValues, Map<String, Object> newValues) {
+        String actor = currentActor();
+        String oldJson = toJson(oldValues);
+        String newJson = toJson(newValues);
+        LocalDateTime changedAt = LocalDateTime.now(clock);
+        int written = 0;
+        List<TodoItemEventEntity> events = new ArrayList<>(Math.min(batchSize, ids.size()));
+        for (Integer id : ids) {
+            events.add(TodoItemEventEntity.builder()
+                    .itemId(id)
+                    .eventType(type.name())
+                    .actor(actor)
+                    .oldValues(oldJson)
+                    .newValues(newJson)
+                    .changedAt(changedAt)
+                    .build());
+            if (events.size() == batchSize) {
+                written += todoItemJdbcDao.insertEvents(events);
+                events = new ArrayList<>(batchSize);
+            }
+        }
+        if (!events.isEmpty()) {
+            written += todoItemJdbcDao.insertEvents(events);
+        }
+        return written;
+    }
+
+    @Override
+    public synchronized int flush() {
+        int written = 0;
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            written += write(batch);
+            batch.clear();
+        }
+        if (written > 0) {
+            log.debug("Wrote {} changes to the history", written);
+        }
+        return written;
+    }
+
+    /**
+     * Write what is still queued when the application stops
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        log.info("Wrote {} queued changes to the history on shutdown", written);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public TodoItemHistory getHistory(Integer id, int page, int size) {
+        log.info("Get history for item id {}, page {} of size {}", id, page, size);
+        Page<TodoItemEventEntity> events = todoItemEventEntityRepository.findAllByItemId(id,
+                PageRequest.of(page, size, Sort.by("id")));
+        return TodoItemHistory.builder()
+                .id(id)
+                .page(page)
+                .size(size)
+                .totalChanges(events.getTotalElements())
+                .totalPages(events.getTotalPages())
+                .changes(events.map(TodoItemMapper::toDto).getContent())
+                .build();
+    }
+
+    private void enqueue(PendingEvent event) {
+        if (!queue.offer(event)) {
+            log.warn("History queue full, dropped the {} change of item id {}", event.type(), event.itemId());
+            if (dropped != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private int write(List<PendingEvent> batch) {
+        List<TodoItemEventEntity> events = new ArrayList<>(batch.size());
+        for (PendingEvent event : batch) {
+            events.add(TodoItemEventEntity.builder()
+                    .itemId(event.itemId())
+                    .eventType(event.type().name())
+                    .actor(event.actor())
+                    .oldValues(toJson(event.oldValues()))
+                    .newValues(toJson(event.newValues()))
+                    .changedAt(event.changedAt())
+                    .build());
+        }
+        try {
+            Integer written = transactionTemplate.execute(status -> todoItemJdbcDao.insertEvents(events));
+            if (writeLag != null) {
+                long now = System.nanoTime();
+                batch.forEach(event -> writeLag.record(now - event.recordedAtNanos(), TimeUnit.NANOSECONDS));
+            }
+            return written != null ? written : 0;
+        } catch (DataAccessException e) {
+            log.error("Failed to write {} changes to the history", batch.size(), e);
+            if (failed != null) {
+                failed.increment(batch.size());
+            }
+            return 0;
+        }
+    }
+
+    private String toJson(Map<String, Object> values) {
+        if (values == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the values of a change", e);
+        }
+    }
+
+    /**
+     * Client id of the current request, as used for admission control, or the system for scheduled jobs
+     */
+    private static String currentActor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            String clientId = request.getHeader(AdmissionControlFilter.CLIENT_ID_HEADER);
+            return StringUtils.hasText(clientId) ? clientId : request.getRemoteAddr();
+        }
+        return SYSTEM_ACTOR;
+    }
+
+    private record PendingEvent(Integer itemId, TodoItemEventType type, String actor,
+                                Map<String, Object> oldValues, Map<String, Object> newValues,
+                                LocalDateTime changedAt, long recordedAtNanos) {
+
+        private PendingEvent(Integer itemId, TodoItemEventType type, String actor,
+                             Map<String, Object> oldValues, Map<String, Object> newValues, LocalDateTime changedAt) {
+            this(itemId, type, actor, oldValues, newValues, changedAt, System.nanoTime());
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.ImportSummary;
+import com.assignment.todo.service.TodoItemImportService;
+import com.assignment.todo.service.TodoItemIndexService;
+import com.assignment.todo.util.BoundedLineReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports TodoItems from NDJSON, reading, validating and inserting one batch at a time
+ * <p>A batch is inserted before the next lines are read, so a client sending faster than the database
+ * can insert is held back by the request stream itself, and only one batch is ever held in memory.
+ * Lines longer than {@code maxLineLength} characters are rejected without being buffered.
+ * Every batch is inserted with a single JDBC batch in its own transaction.</p>
+ */
+@Slf4j
+@Service
+public class TodoItemImportServiceImpl implements TodoItemImportService {
+
+    private final TodoItemJdbcDao todoItemJdbcDao;
+    private final TodoItemIndexService todoItemIndexService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int maxLineLength;
+
+    @Autowired
+    public TodoItemImportServiceImpl(TodoItemJdbcDao todoItemJdbcDao,
+                                     TodoItemIndexService todoItemIndexService,
+                                     PlatformTransactionManager transactionManager,
+                                     EntityManagerFactory entityManagerFactory,
+                                     Validator validator,
+                                     ObjectMapper objectMapper,
+                                     Clock clock,
+                                     @Value("${todo.import.batch-size:1000}") int batchSize,
+                                     @Value("${todo.import.max-errors:100}") int maxErrors,
+                                     @Value("${todo.import.max-line-length:1048576}") int maxLineLength) {
+        this.todoItemJdbcDao = todoItemJdbcDao;
+        this.todoItemIndexService = todoItemIndexService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(CreateTodoItemRequest.class);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public ImportSummary importItems(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<CreateTodoItemRequest> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(input, StandardCharsets.UTF_8), maxLineLength);
+        long lineNumber = 0;
+        while (reader.next()) {
+            lineNumber++;
+            if (reader.isTooLong()) {
+                progress.received++;
+                progress.fail(lineNumber, List.of("Line longer than " + maxLineLength + " characters"));
+                continue;
+            }
+            String line = reader.line();
+            if (!StringUtils.hasText(line)) {
+                continue;
+            }
+            progress.received++;
+            CreateTodoItemRequest item;
+            try {
+                item = requestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                progress.fail(lineNumber, List.of("Invalid JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+            Set<ConstraintViolation<CreateTodoItemRequest>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                progress.fail(lineNumber, violations.stream()
+                        .map(cv -> cv.getPropertyPath() + ": '" + cv.getMessage() + "'")
+                        .sorted()
+                        .toList());
+                continue;
+            }
+            batch.add(item);
+            batchLines.add(lineNumber);
+            if (batch.size() >= batchSize) {
+                insert(batch, batchLines, progress);
+            }
+        }
+        insert(batch, batchLines, progress);
+
+        long durationNanos = System.nanoTime() - start;
+        double seconds = durationNanos / 1_000_000_000d;
+        log.info("Imported {} of {} items in {} ms, {} failed",
+                progress.imported, progress.received, durationNanos / 1_000_000, progress.failed);
+        return ImportSummary.builder()
+                .received(progress.received)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .durationMillis(durationNanos / 1_000_000)
+                .itemsPerSecond(seconds > 0 ? progress.imported / seconds : 0)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    private void insert(List<CreateTodoItemRequest> batch, List<Long> batchLines, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            Integer inserted = transactionTemplate.execute(status -> todoItemJdbcDao.insertAll(batch, LocalDateTime.now(clock)));
+            progress.imported += inserted != null ? inserted : 0;
+            // Inserted behind Hibernate's back, cached lists of pending items are stale now
+            entityManagerFactory.getCache().unwrap(Cache.class).evictDefaultQueryRegion();
+            todoItemIndexService.catchUp();
+        } catch (DataAccessException e) {
+            log.error("Failed to insert the batch of lines {} to {}", batchLines.get(0), batchLines.get(batchLines.size() - 1), e);
+            for (Long line : batchLines) {
+                progress.fail(line, List.of("Not inserted: " + e.getMostSpecificCause().getMessage()));
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private final class Progress {
+
+        private long received;
+        private long imported;
+        private long failed;
+        private final List<ImportSummary.ImportError> errors = new ArrayList<>();
+
+        private void fail(long line, List<String> messages) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(ImportSummary.ImportError.builder().line(line).messages(messages).build());
+            }
+        }
+
+    }
+
+}
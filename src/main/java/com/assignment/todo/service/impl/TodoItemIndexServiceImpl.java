@@ -0,0 +1,335 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dto.TodoItemFilter;
+import com.assignment.todo.service.TodoItemIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of the items in todo_items: a compressed bitmap of item ids per tag and per status
+ * <p>Filters are answered by combining the bitmaps, without reading the database. The tags of each item
+ * are also kept by id, so the tags of a page of items are read without scanning the tag bitmaps.
+ * The service methods keep the index up to date as they change items, once their transaction commits.
+ * Items inserted in bulk are indexed by {@link #catchUp()}, and the index is rebuilt from the database
+ * on startup and periodically, to pick up what a crash between a commit and its indexing missed.</p>
+ */
+@Slf4j
+@Service
+public class TodoItemIndexServiceImpl implements TodoItemIndexService, SmartInitializingSingleton {
+
+    private final TodoItemJdbcDao todoItemJdbcDao;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by the lock
+    private Bitmaps bitmaps = new Bitmaps();
+    // changes made while rebuilding, replayed on the rebuilt bitmaps, null when not rebuilding
+    private List<Consumer<Bitmaps>> journal;
+    // highest id read from the database by the last rebuild or catch up
+    private int indexedUpTo;
+
+    @Autowired
+    public TodoItemIndexServiceImpl(TodoItemJdbcDao todoItemJdbcDao) {
+        this.todoItemJdbcDao = todoItemJdbcDao;
+    }
+
+    /**
+     * Build the index before the application serves requests
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public int[] find(TodoItemFilter filter) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> statuses = filter.getStatuses().stream().map(bitmaps.statuses::get).toList();
+            RoaringBitmap matching = FastAggregation.or(statuses.iterator());
+            if (!filter.getTags().isEmpty()) {
+                List<RoaringBitmap> tags = new ArrayList<>();
+                for (String tag : filter.getTags()) {
+                    RoaringBitmap tagged = bitmaps.tags.get(tag);
+                    if (tagged == null) {
+                        return new int[0];
+                    }
+                    tags.add(tagged);
+                }
+                tags.add(matching);
+                matching = FastAggregation.and(tags.iterator());
+            }
+            for (String tag : filter.getExcludedTags()) {
+                RoaringBitmap tagged = bitmaps.tags.get(tag);
+                if (tagged != null) {
+                    matching.andNot(tagged);
+                }
+            }
+            return matching.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Set<String>> tagsOf(Collection<Integer> ids) {
+        Map<Integer, Set<String>> tagsById = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Integer id : ids) {
+                if (bitmaps.all.contains(id)) {
+                    String[] tags = bitmaps.tagsById.get(id);
+                    tagsById.put(id, tags == null ? Set.of() : new TreeSet<>(Arrays.asList(tags)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return tagsById;
+    }
+
+    @Override
+    public void add(Integer id, TodoItemStatus status, Collection<String> tags) {
+        List<String> added = List.copyOf(tags);
+        afterCommit(indexed -> {
+            indexed.setStatus(id, status);
+            indexed.setTags(id, added);
+        });
+    }
+
+    @Override
+    public void setTags(Integer id, Collection<String> tags) {
+        List<String> replaced = List.copyOf(tags);
+        afterCommit(indexed -> indexed.setTags(id, replaced));
+    }
+
+    @Override
+    public void setStatus(Collection<Integer> ids, TodoItemStatus status) {
+        List<Integer> changed = List.copyOf(ids);
+        afterCommit(indexed -> changed.forEach(id -> indexed.setStatus(id, status)));
+    }
+
+    @Override
+    public void remove(Collection<Integer> ids) {
+        List<Integer> removed = List.copyOf(ids);
+        afterCommit(indexed -> removed.forEach(indexed::remove));
+    }
+
+    @Override
+    public void catchUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readNewItems();
+                }
+            });
+        } else {
+            readNewItems();
+        }
+    }
+
+    /**
+     * Read the items with an id greater than the ones already read, their status then their tags
+     */
+    private synchronized void readNewItems() {
+        int from;
+        lock.readLock().lock();
+        try {
+            from = indexedUpTo;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Bitmaps read = read(from);
+        int upTo = read.all.isEmpty() ? from : read.all.last();
+        apply(indexed -> indexed.addAll(read));
+        lock.writeLock().lock();
+        try {
+            indexedUpTo = Math.max(indexedUpTo, upTo);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} items inserted after item id {}", read.all.getCardinality(), from);
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        int purged = todoItemJdbcDao.deleteOrphanTags();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Bitmaps rebuilt;
+        try {
+            rebuilt = read(0);
+            rebuilt.optimize();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        // read before the journal is replayed, items added since may have greater ids than uncommitted ones
+        int upTo = rebuilt.all.isEmpty() ? 0 : rebuilt.all.last();
+        lock.writeLock().lock();
+        try {
+            journal.forEach(change -> change.accept(rebuilt));
+            journal = null;
+            bitmaps = rebuilt;
+            indexedUpTo = upTo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} items with {} tags, purged {} tags of deleted items",
+                rebuilt.all.getCardinality(), rebuilt.tags.size(), purged);
+        return rebuilt.all.getCardinality();
+    }
+
+    private Bitmaps read(int afterId) {
+        Bitmaps read = new Bitmaps();
+        todoItemJdbcDao.forEachStatus(afterId, (id, status) -> read.setStatus(id, TodoItemStatus.valueOf(status)));
+        todoItemJdbcDao.forEachTag(afterId, read::addTag);
+        return read;
+    }
+
+    /**
+     * Apply a change to the index once the current transaction commits, right away outside of transactions
+     */
+    private void afterCommit(Consumer<Bitmaps> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(bitmaps);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the indexed items, of the items per status and of the items per tag, and the sorted tags per item id
+     */
+    private static final class Bitmaps {
+
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<TodoItemStatus, RoaringBitmap> statuses = new EnumMap<>(TodoItemStatus.class);
+        private final Map<String, RoaringBitmap> tags = new HashMap<>();
+        // only the items with tags, which share the tag strings
+        private final Map<Integer, String[]> tagsById = new HashMap<>();
+
+        private Bitmaps() {
+            for (TodoItemStatus status : TodoItemStatus.values()) {
+                statuses.put(status, new RoaringBitmap());
+            }
+        }
+
+        private void setStatus(int id, TodoItemStatus status) {
+            all.add(id);
+            statuses.forEach((indexed, items) -> {
+                if (indexed == status) {
+                    items.add(id);
+                } else {
+                    items.remove(id);
+                }
+            });
+        }
+
+        private void addTag(int id, String tag) {
+            tags.computeIfAbsent(tag, name -> new RoaringBitmap()).add(id);
+            String[] current = tagsById.get(id);
+            if (current == null) {
+                tagsById.put(id, new String[] {tag.intern()});
+            } else if (Arrays.binarySearch(current, tag) < 0) {
+                String[] added = Arrays.copyOf(current, current.length + 1);
+                added[current.length] = tag.intern();
+                Arrays.sort(added);
+                tagsById.put(id, added);
+            }
+        }
+
+        private void setTags(int id, Collection<String> replaced) {
+            removeTags(id, tag -> !replaced.contains(tag));
+            tagsById.remove(id);
+            replaced.forEach(tag -> addTag(id, tag));
+        }
+
+        private void remove(int id) {
+            all.remove(id);
+            statuses.values().forEach(items -> items.remove(id));
+            removeTags(id, tag -> true);
+            tagsById.remove(id);
+        }
+
+        private void removeTags(int id, Predicate<String> removed) {
+            String[] current = tagsById.get(id);
+            if (current == null) {
+                return;
+            }
+            for (String tag : current) {
+                RoaringBitmap tagged = tags.get(tag);
+                if (tagged != null && removed.test(tag)) {
+                    tagged.remove(id);
+                    if (tagged.isEmpty()) {
+                        tags.remove(tag);
+                    }
+                }
+            }
+        }
+
+        private void addAll(Bitmaps read) {
+            read.statuses.forEach((status, items) -> items.forEach((int id) -> setStatus(id, status)));
+            read.tagsById.forEach((id, added) -> {
+                for (String tag : added) {
+                    addTag(id, tag);
+                }
+            });
+        }
+
+        private void optimize() {
+            all.runOptimize();
+            statuses.values().forEach(RoaringBitmap::runOptimize);
+            tags.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+    }
+
+}
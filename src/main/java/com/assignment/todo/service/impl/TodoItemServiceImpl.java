@@ -1,22 +1,51 @@
 package com.assignment.todo.service.impl;
 
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.constants.TodoItemField;
+import com.assignment.todo.constants.TodoItemPriority;
 import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
 import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemFieldsDao;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.dao.TodoItemOutboxEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemArchiveEntity;
 import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoItemOutboxEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
 import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.TodoItemFilter;
 import com.assignment.todo.dto.UpdateTodoItemRequest;
 import com.assignment.todo.exception.ActionNotAllowedException;
 import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.service.TodoItemHistoryService;
+import com.assignment.todo.service.TodoItemIndexService;
 import com.assignment.todo.service.TodoItemService;
+import com.assignment.todo.util.TodoItemMapper;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
 @Slf4j
@@ -28,17 +57,51 @@ public class TodoItemServiceImpl implements TodoItemService {
      after the last scheduled job run (say 10 seconds before)
      Note: This is precautionary as currently, the input accepts
      */
-    private static final Predicate<TodoItemEntity> isPastDueItem = item ->
+    private static final BiPredicate<TodoItemEntity, LocalDateTime> isPastDueItem = (item, now) ->
             TodoItemStatus.PAST_DUE.name().contentEquals(item.getStatus())
-                    || item.getDueDateTime().isBefore(LocalDateTime.now());
+                    || item.getDueDateTime().isBefore(now);
     private static final Predicate<TodoItemEntity> isDoneItem = item ->
             TodoItemStatus.DONE.name().contentEquals(item.getStatus());
 
+    // names of the fields recorded in the history, as in the API
+    private static final String DESCRIPTION = "description";
+    private static final String DUE_DATE_TIME = "dueDateTime";
+    private static final String PRIORITY = "priority";
+    private static final String STATUS = "status";
+    private static final String DONE_AT = "doneAt";
+    private static final String TAGS = "tags";
+    // ids of the items matching a filter are read this many at a time
+    private static final int ID_CHUNK_SIZE = 1000;
+
     private final TodoItemEntityRepository todoItemEntityRepository;
+    private final TodoItemArchiveEntityRepository todoItemArchiveEntityRepository;
+    private final TodoItemOutboxEntityRepository todoItemOutboxEntityRepository;
+    private final TodoItemJdbcDao todoItemJdbcDao;
+    private final TodoItemFieldsDao todoItemFieldsDao;
+    private final TodoItemHistoryService todoItemHistoryService;
+    private final TodoItemIndexService todoItemIndexService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Clock clock;
 
     @Autowired
-    public TodoItemServiceImpl(TodoItemEntityRepository todoItemEntityRepository) {
+    public TodoItemServiceImpl(TodoItemEntityRepository todoItemEntityRepository,
+                               TodoItemArchiveEntityRepository todoItemArchiveEntityRepository,
+                               TodoItemOutboxEntityRepository todoItemOutboxEntityRepository,
+                               TodoItemJdbcDao todoItemJdbcDao,
+                               TodoItemFieldsDao todoItemFieldsDao,
+                               TodoItemHistoryService todoItemHistoryService,
+                               TodoItemIndexService todoItemIndexService,
+                               EntityManagerFactory entityManagerFactory,
+                               Clock clock) {
         this.todoItemEntityRepository = todoItemEntityRepository;
+        this.todoItemArchiveEntityRepository = todoItemArchiveEntityRepository;
+        this.todoItemOutboxEntityRepository = todoItemOutboxEntityRepository;
+        this.todoItemJdbcDao = todoItemJdbcDao;
+        this.todoItemFieldsDao = todoItemFieldsDao;
+        this.todoItemHistoryService = todoItemHistoryService;
+        this.todoItemIndexService = todoItemIndexService;
+        this.entityManagerFactory = entityManagerFactory;
+        this.clock = clock;
     }
 
     /**
@@ -46,30 +109,162 @@ public class TodoItemServiceImpl implements TodoItemService {
      *
      * @param includeAll  fetch all the TodoItems if set to true,
      *                    otherwise fetch the TodoItems which are not done by default
-     * @return List of {@link TodoItemEntity}
+     * @param includeArchived  also fetch the archived TodoItems when fetching all of them,
+     *                         archived items are all done so they are never pending
+     * @return List of {@link TodoItemView}
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<TodoItemEntity> getAllItems(final boolean includeAll) {
-        log.info("Get All Items : {}", includeAll);
-        if (includeAll) {
-            return todoItemEntityRepository.findAll();
+    public List<TodoItemView> getAllItems(final boolean includeAll, final boolean includeArchived) {
+        log.info("Get All Items : {}, archived : {}", includeAll, includeArchived);
+        if (includeAll && includeArchived) {
+            List<TodoItemView> items = new ArrayList<>(todoItemEntityRepository.findAllViews());
+            items.addAll(todoItemArchiveEntityRepository.findAllViews());
+            return items;
+        } else if (includeAll) {
+            return todoItemEntityRepository.findAllViews();
         } else {
-            return todoItemEntityRepository.findAllByStatusNot(TodoItemStatus.DONE.name());
+            return todoItemEntityRepository.findAllViewsByStatusNot(TodoItemStatus.DONE.name());
+        }
+    }
+
+    /**
+     * Get the most urgent pending TodoItems, by priority then due date
+     * <p>Read from the first entries of the (status, priority, due date) index, so the cost depends
+     * on the limit, not on the number of pending items. The index is kept in order by the database
+     * as items are added, updated, done or swept past due.</p>
+     *
+     * @param limit  maximum number of TodoItems
+     * @return List of {@link TodoItemView}, the most urgent first
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<TodoItemView> getNextItems(int limit) {
+        log.info("Get the next {} items", limit);
+        return todoItemJdbcDao.findNext(limit);
+    }
+
+    /**
+     * Get the TodoItems matching a filter on their tags and status
+     * <p>The ids are found in the in-memory index, only the matching items are read.</p>
+     *
+     * @param filter  {@link TodoItemFilter}
+     * @return List of {@link TodoItemView}, by id
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<TodoItemView> getItems(TodoItemFilter filter) {
+        log.info("Get items matching {}", filter);
+        List<TodoItemView> items = new ArrayList<>();
+        for (List<Integer> ids : chunks(todoItemIndexService.find(filter))) {
+            items.addAll(todoItemEntityRepository.findAllViewsByIdIn(ids));
+        }
+        return items;
+    }
+
+    /**
+     * Get the tags of TodoItems, archived or not
+     * <p>The tags of the items in todo_items are read from the index. Archived items aren't indexed,
+     * their tags are read from the database in one statement.</p>
+     *
+     * @param ids  IDs of the TodoItems
+     * @return the sorted tags of each TodoItem by id, TodoItems without tags may be left out
+     */
+    @Override
+    public Map<Integer, Set<String>> getTags(Collection<Integer> ids) {
+        Map<Integer, Set<String>> tags = new HashMap<>(todoItemIndexService.tagsOf(ids));
+        List<Integer> notIndexed = ids.stream().filter(id -> !tags.containsKey(id)).toList();
+        if (!notIndexed.isEmpty()) {
+            todoItemJdbcDao.forEachTag(notIndexed, (id, tag) -> tags.computeIfAbsent(id, key -> new TreeSet<>()).add(tag));
         }
+        return tags;
+    }
+
+    /**
+     * Get the requested fields of the TodoItems matching a filter on their tags and status
+     *
+     * @param filter  {@link TodoItemFilter}
+     * @param fields  {@link TodoItemField}s to fetch, the other columns aren't read
+     * @return the field values of each TodoItem, by field name
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<Map<String, Object>> getItems(TodoItemFilter filter, Set<TodoItemField> fields) {
+        log.info("Get items matching {}, fields : {}", filter, fields);
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (List<Integer> ids : chunks(todoItemIndexService.find(filter))) {
+            todoItemFieldsDao.findAllByIdIn(fields, ids)
+                    .forEach(item -> items.add(TodoItemMapper.toMap(item, fields)));
+        }
+        return items;
     }
 
     /**
      * Get the details of a TodoItem
      *
      * @param id  ID of the TodoItem
-     * @return {@link TodoItemEntity} for the input id
+     * @param includeArchived  look for the TodoItem in the archive if it's not in todo_items
+     * @return {@link TodoItemView} for the input id
      * @throws ItemNotFoundException if an item for the input id doesn't exist
      */
+    @Transactional(readOnly = true)
     @Override
-    public TodoItemEntity getItemDetails(Integer id) throws ItemNotFoundException {
-        log.info("Get details for item id {}", id);
-        return todoItemEntityRepository.findById(id)
-                .orElseThrow(() -> new ItemNotFoundException(id));
+    public TodoItemView getItemDetails(Integer id, boolean includeArchived) throws ItemNotFoundException {
+        log.info("Get details for item id {}, archived : {}", id, includeArchived);
+        Optional<TodoItemView> item = todoItemEntityRepository.findViewById(id);
+        if (item.isEmpty() && includeArchived) {
+            item = todoItemArchiveEntityRepository.findViewById(id);
+        }
+        return item.orElseThrow(() -> new ItemNotFoundException(id));
+    }
+
+    /**
+     * Get the requested fields of all pending TodoItems OR of all items
+     *
+     * @param includeAll  fetch all the TodoItems if set to true,
+     *                    otherwise fetch the TodoItems which are not done by default
+     * @param includeArchived  also fetch the archived TodoItems when fetching all of them
+     * @param fields  {@link TodoItemField}s to fetch, the other columns aren't read
+     * @return the field values of each TodoItem, by field name
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<Map<String, Object>> getAllItems(final boolean includeAll, final boolean includeArchived,
+                                                 final Set<TodoItemField> fields) {
+        log.info("Get All Items : {}, archived : {}, fields : {}", includeAll, includeArchived, fields);
+        List<Tuple> items;
+        if (includeAll && includeArchived) {
+            items = new ArrayList<>(todoItemFieldsDao.findAll(fields));
+            items.addAll(todoItemFieldsDao.findAllArchived(fields));
+        } else if (includeAll) {
+            items = todoItemFieldsDao.findAll(fields);
+        } else {
+            items = todoItemFieldsDao.findAllByStatusNot(fields, TodoItemStatus.DONE.name());
+        }
+        return items.stream()
+                .map(item -> TodoItemMapper.toMap(item, fields))
+                .toList();
+    }
+
+    /**
+     * Get the requested fields of a TodoItem
+     *
+     * @param id  ID of the TodoItem
+     * @param includeArchived  look for the TodoItem in the archive if it's not in todo_items
+     * @param fields  {@link TodoItemField}s to fetch, the other columns aren't read
+     * @return the field values of the TodoItem, by field name
+     * @throws ItemNotFoundException if an item for the input id doesn't exist
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Map<String, Object> getItemDetails(Integer id, boolean includeArchived, Set<TodoItemField> fields)
+            throws ItemNotFoundException {
+        log.info("Get details for item id {}, archived : {}, fields : {}", id, includeArchived, fields);
+        Optional<Tuple> item = todoItemFieldsDao.findById(fields, id);
+        if (item.isEmpty() && includeArchived) {
+            item = todoItemFieldsDao.findArchivedById(fields, id);
+        }
+        return TodoItemMapper.toMap(item.orElseThrow(() -> new ItemNotFoundException(id)), fields);
     }
 
     /**
@@ -78,21 +273,34 @@ public class TodoItemServiceImpl implements TodoItemService {
      * @param item  {@link CreateTodoItemRequest}
      * @return newly added {@link TodoItemEntity}
      */
+    @Transactional
     @Override
     public TodoItemEntity addItem(CreateTodoItemRequest item) {
         log.info("Add new item with description : {}", item.getDescription());
-        return todoItemEntityRepository.save(
-                TodoItemEntity.builder()
-                        .description(item.getDescription())
-                        .dueDateTime(item.getDueDateTime())
-                        .status(TodoItemStatus.NOT_DONE.name())
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build());
+        LocalDateTime now = LocalDateTime.now(clock);
+        TodoItemEntity newItem = TodoItemEntity.builder()
+                .description(item.getDescription())
+                .dueDateTime(item.getDueDateTime())
+                .status(TodoItemStatus.NOT_DONE.name())
+                .priority(item.getPriority() == null ? TodoItemPriority.MEDIUM.rank()
+                        : TodoItemPriority.from(item.getPriority()).rank())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        TodoItemEntity added = todoItemEntityRepository.save(newItem);
+        Set<String> tags = tagsOf(item.getTags());
+        if (!tags.isEmpty()) {
+            todoItemJdbcDao.insertTags(added.getId(), tags);
+        }
+        todoItemIndexService.add(added.getId(), TodoItemStatus.NOT_DONE, tags);
+        todoItemHistoryService.record(added.getId(), TodoItemEventType.CREATED, null, valuesOf(newItem));
+        return added;
     }
 
     /**
      * Update a TodoItem in the list
+     * <p>The item is updated in a single statement, only if it's not done and not past due.
+     * It's read only to find out why it wasn't updated.</p>
      *
      * @param request  {@link UpdateTodoItemRequest}
      * @return updated {@link TodoItemEntity}
@@ -103,43 +311,62 @@ public class TodoItemServiceImpl implements TodoItemService {
     @Override
     public TodoItemEntity updateItem(Integer id, UpdateTodoItemRequest request) throws ItemNotFoundException, ActionNotAllowedException {
         log.info("Update item id {}", id);
-        TodoItemEntity item = todoItemEntityRepository.findById(id)
-                .orElseThrow(() -> new ItemNotFoundException(id));
-
-        if (isDoneItem.test(item)) {
-            // updates on DONE items not allowed
-            log.error("Attempted to update a done TodoItem id {} with done date {}", id, item.getDoneAt());
-            throw new ActionNotAllowedException("Updates on Todo item with id " + id + " is not allowed because it's already done");
-
-        } else if (isPastDueItem.test(item)) {
-            // updates on PAST_DUE items not allowed
-            log.error("Attempted to update a past due TodoItem id {} with due date {}", id, request.getDueDateTime());
-            throw new ActionNotAllowedException("Updates on Todo item with id " + id + " is not allowed because it's past due");
-        }
-        boolean updated = false;
-        if (StringUtils.hasText(request.getDescription())) {
-            log.info("Updating description of item id {}", id);
-            item.setDescription(request.getDescription());
-            updated = true;
-        }
-        if (Objects.nonNull(request.getDueDateTime())) {
-            log.info("Updating due date time of item id {}", id);
-            item.setDueDateTime(request.getDueDateTime());
-            updated = true;
-        }
-        if (updated) {
-            item.setUpdatedAt(LocalDateTime.now());
-            return todoItemEntityRepository.save(item);
-        } else {
+        String description = StringUtils.hasText(request.getDescription()) ? request.getDescription() : null;
+        LocalDateTime now = LocalDateTime.now(clock);
+        TodoItemPriority priority = request.getPriority() == null ? null : TodoItemPriority.from(request.getPriority());
+        if (description == null && Objects.isNull(request.getDueDateTime()) && priority == null
+                && request.getTags() == null) {
+            TodoItemEntity item = findItemOrArchivedItem(id);
+            checkUpdateAllowed(id, item, now);
             log.info("Nothing to update for item id {}", id);
             // TODO: Add a constraint to the request to check
             //  if the request has any data to update, if not, return 400
             return item; // for now returning the item as fetched
         }
+        Optional<TodoItemEntity> old = todoItemJdbcDao.update(id, description, request.getDueDateTime(), priority, now);
+        if (old.isEmpty()) {
+            checkUpdateAllowed(id, findItemOrArchivedItem(id), now);
+            // allowed now, but it wasn't when it was updated
+            throw new ActionNotAllowedException("Updates on Todo item with id " + id + " is not allowed because it was changed concurrently");
+        }
+        evict(id);
+        TodoItemEntity.TodoItemEntityBuilder updated = old.get().toBuilder().updatedAt(now);
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        if (description != null) {
+            log.info("Updated description of item id {}", id);
+            oldValues.put(DESCRIPTION, old.get().getDescription());
+            newValues.put(DESCRIPTION, description);
+            updated.description(description);
+        }
+        if (Objects.nonNull(request.getDueDateTime())) {
+            log.info("Updated due date time of item id {}", id);
+            oldValues.put(DUE_DATE_TIME, old.get().getDueDateTime());
+            newValues.put(DUE_DATE_TIME, request.getDueDateTime());
+            updated.dueDateTime(request.getDueDateTime());
+        }
+        if (priority != null) {
+            log.info("Updated priority of item id {}", id);
+            oldValues.put(PRIORITY, TodoItemPriority.fromRank(old.get().getPriority()).value());
+            newValues.put(PRIORITY, priority.value());
+            updated.priority(priority.rank());
+        }
+        if (request.getTags() != null) {
+            log.info("Updated tags of item id {}", id);
+            Set<String> tags = tagsOf(request.getTags());
+            oldValues.put(TAGS, todoItemIndexService.tagsOf(id));
+            newValues.put(TAGS, tags);
+            todoItemJdbcDao.replaceTags(id, tags);
+            todoItemIndexService.setTags(id, tags);
+        }
+        todoItemHistoryService.record(id, TodoItemEventType.UPDATED, oldValues, newValues);
+        return updated.build();
     }
 
     /**
      * Mark a TodoItem as 'DONE'
+     * <p>The item is updated in a single statement unless it's already done.
+     * The status change event is added to the outbox in the same transaction.</p>
      *
      * @param id  ID of the TodoItem
      * @return updated {@link TodoItemEntity}
@@ -148,23 +375,37 @@ public class TodoItemServiceImpl implements TodoItemService {
     @Transactional
     @Override
     public TodoItemEntity markAsDone(Integer id) throws ItemNotFoundException {
-        TodoItemEntity item = todoItemEntityRepository.findById(id)
-                .orElseThrow(() -> new ItemNotFoundException(id));
-        if (!item.getStatus().contentEquals(TodoItemStatus.DONE.name())) {
-            item.setStatus(TodoItemStatus.DONE.name());
-            item.setDoneAt(LocalDateTime.now());
-            item.setUpdatedAt(LocalDateTime.now());
-            log.info("Item id {} marked as DONE at {}", id, item.getDoneAt());
-            return todoItemEntityRepository.save(item);
-        } else {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Optional<TodoItemEntity> old = todoItemJdbcDao.markAsDone(id, now);
+        if (old.isEmpty()) {
+            // Archived items are all done, they are returned as they are
+            TodoItemEntity item = findItemOrArchivedItem(id);
             log.info("Item id {} was already marked as DONE ", id);
             // Return the item as fetched without performing any update
             return item;
         }
+        evict(id);
+        todoItemIndexService.setStatus(List.of(id), TodoItemStatus.DONE);
+        TodoItemEntity item = old.get().toBuilder()
+                .status(TodoItemStatus.DONE.name())
+                .doneAt(now)
+                .updatedAt(now)
+                .build();
+        log.info("Item id {} marked as DONE at {}", id, item.getDoneAt());
+        todoItemOutboxEntityRepository.save(TodoItemOutboxEntity.builder()
+                .itemId(id)
+                .status(TodoItemStatus.DONE.name())
+                .occurredAt(item.getDoneAt())
+                .availableAt(item.getDoneAt())
+                .build());
+        todoItemHistoryService.record(id, TodoItemEventType.DONE, statusOf(old.get()), statusOf(item));
+        return item;
     }
 
     /**
      * Mark a TodoItem as 'NOT DONE'
+     * <p>Done items are updated in a single statement unless they are past due.
+     * Archived items are moved back to todo_items.</p>
      *
      * @param id  ID of the TodoItem
      * @return updated {@link TodoItemEntity}
@@ -174,59 +415,216 @@ public class TodoItemServiceImpl implements TodoItemService {
     @Transactional
     @Override
     public TodoItemEntity markAsNotDone(Integer id) throws ItemNotFoundException, ActionNotAllowedException {
-        TodoItemEntity item = todoItemEntityRepository.findById(id)
-                .orElseThrow(() -> new ItemNotFoundException(id));
+        LocalDateTime now = LocalDateTime.now(clock);
+        Optional<TodoItemEntity> old = todoItemJdbcDao.markAsNotDone(id, now);
+        if (old.isPresent()) {
+            evict(id);
+            todoItemIndexService.setStatus(List.of(id), TodoItemStatus.NOT_DONE);
+            TodoItemEntity item = old.get().toBuilder()
+                    .status(TodoItemStatus.NOT_DONE.name())
+                    .doneAt(null) // Clear the done date-time
+                    .updatedAt(now)
+                    .build();
+            log.info("Item id {} marked as NOT_DONE at {}", id, item.getUpdatedAt());
+            todoItemHistoryService.record(id, TodoItemEventType.NOT_DONE, statusOf(old.get()), statusOf(item));
+            return item;
+        }
+        // Not updated, the item is archived, past due, not done or doesn't exist
+        Optional<TodoItemEntity> hotItem = findItem(id);
+        TodoItemEntity item = hotItem.isPresent() ? hotItem.get() : findArchivedItem(id);
         // Don't allow PAST_DUE items to be marked as NOT_DONE
-        if (isPastDueItem.test(item)) {
+        if (isPastDueItem.test(item, now)) {
             log.error("Attempted to mark a past due TodoItem id {} with due date {} as NOT DONE", id, item.getDueDateTime());
             throw new ActionNotAllowedException("Todo item with id " + id + " can't be marked as NOT DONE because it's past due");
         }
-        if (item.getStatus().contentEquals(TodoItemStatus.DONE.name())) {
-            item.setStatus(TodoItemStatus.NOT_DONE.name());
-            item.setDoneAt(null); // Clear the done date-time
-            item.setUpdatedAt(LocalDateTime.now());
-            log.info("Item id {} marked as NOT_DONE at {}", id, item.getUpdatedAt());
-            return todoItemEntityRepository.save(item);
-        } else {
-            log.info("Item id {} with status {} cannot be marked as NOT_DONE ", id, item.getStatus());
-            // Return the item as fetched without performing any update
-            return item;
+        if (hotItem.isEmpty()) {
+            todoItemEntityRepository.restoreFromArchive(id, TodoItemStatus.NOT_DONE.name(), now);
+            todoItemArchiveEntityRepository.deleteById(id);
+            todoItemIndexService.add(id, TodoItemStatus.NOT_DONE, todoItemJdbcDao.findTags(id));
+            log.info("Archived item id {} restored and marked as NOT_DONE", id);
+            TodoItemEntity restored = findItem(id)
+                    .orElseThrow(() -> new ItemNotFoundException(id));
+            todoItemHistoryService.record(id, TodoItemEventType.NOT_DONE, statusOf(item), statusOf(restored));
+            return restored;
         }
+        log.info("Item id {} with status {} cannot be marked as NOT_DONE ", id, item.getStatus());
+        // Return the item as fetched without performing any update
+        return item;
     }
 
     /**
-     * Delete a TodoItem
+     * Delete a TodoItem, archived or not
+     * <p>The item is deleted in a single statement that returns it as it was, for its history,
+     * so its description isn't loaded on its own. Archived items are deleted the same way.</p>
      *
      * @param id  ID of the TodoItem
      */
+    @Transactional
     @Override
     public void deleteItem(Integer id) throws ItemNotFoundException {
         log.info("Deleting item id {}", id);
-        TodoItemEntity item = todoItemEntityRepository.findById(id)
-                .orElseThrow(() -> new ItemNotFoundException(id));
-        todoItemEntityRepository.deleteById(id);
+        Optional<TodoItemEntity> item = todoItemJdbcDao.delete(id);
+        if (item.isPresent()) {
+            evict(id);
+            // its tags are purged with the next rebuild of the index
+            todoItemIndexService.remove(List.of(id));
+            todoItemHistoryService.record(id, TodoItemEventType.DELETED, valuesOf(item.get()), null);
+        } else {
+            TodoItemEntity archived = todoItemJdbcDao.deleteArchived(id).orElseThrow(() -> new ItemNotFoundException(id));
+            evict(id);
+            todoItemHistoryService.record(id, TodoItemEventType.DELETED, valuesOf(archived), null);
+        }
     }
 
     /**
-     * Check for Due Date of TodoItems with status other than 'DONE'
+     * Check for Due Date of TodoItems with status other than 'DONE' in a partition of the items,
      * if it's past their due date, update their status to 'PAST DUE'
+     * <p>The update returns the ids of the items it changed. A status change event is added to the outbox,
+     * and a change to the history, for every one of them, in the same transaction.</p>
+     *
+     * @param partition  partition to check, a range of item ids
+     * @param partitions  number of partitions the items are split into
+     * @return number of items updated to 'PAST DUE'
      */
     @Transactional
     @Override
-    public void checkAndUpdateStatusForPastDueItems() {
+    public int checkAndUpdateStatusForPastDueItems(int partition, int partitions) {
         // TODO: If more statuses are introduced,
         //  the query might benefit from status not in (done, past_due) or a status in (not_done, etc)
-        List<TodoItemEntity> items = todoItemEntityRepository.findAllByStatusAndDueDateTimeLessThan(
-                TodoItemStatus.NOT_DONE.name(), LocalDateTime.now());
-        items.forEach(item -> {
-            item.setStatus(TodoItemStatus.PAST_DUE.name());
-            item.setUpdatedAt(LocalDateTime.now());
-        });
-        // TODO: This log can be updated to print all the IDs
-        log.info("Updating {} items to PAST_DUE", items.size());
-        if (items.size() > 0) {
-            todoItemEntityRepository.saveAll(items);
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Integer> ids = todoItemJdbcDao.markAsPastDue(now, partition, partitions);
+        if (!ids.isEmpty()) {
+            evictAll();
+            todoItemJdbcDao.insertStatusChanges(ids, TodoItemStatus.PAST_DUE, now);
+            todoItemIndexService.setStatus(ids, TodoItemStatus.PAST_DUE);
+            todoItemHistoryService.recordAll(ids, TodoItemEventType.PAST_DUE,
+                    statusOf(TodoItemStatus.NOT_DONE, null), statusOf(TodoItemStatus.PAST_DUE, null));
         }
+        log.info("Updated {} items to PAST_DUE in partition {} of {}", ids.size(), partition, partitions);
+        return ids.size();
+    }
+
+    /**
+     * Fields of an item recorded in its history, with the status as shown in the API,
+     * also for the occurrences stored by {@link TodoSeriesServiceImpl}
+     */
+    static Map<String, Object> valuesOf(TodoItemEntity item) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(DESCRIPTION, item.getDescription());
+        values.put(DUE_DATE_TIME, item.getDueDateTime());
+        if (item.getPriority() != null) {
+            values.put(PRIORITY, TodoItemPriority.fromRank(item.getPriority()).value());
+        }
+        values.putAll(statusOf(item));
+        return values;
+    }
+
+    private static Set<String> tagsOf(Set<String> requested) {
+        return requested == null ? Set.of() : new TreeSet<>(requested);
+    }
+
+    private static List<List<Integer>> chunks(int[] ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.length; from += ID_CHUNK_SIZE) {
+            List<Integer> chunk = new ArrayList<>(Math.min(ID_CHUNK_SIZE, ids.length - from));
+            for (int i = from; i < Math.min(from + ID_CHUNK_SIZE, ids.length); i++) {
+                chunk.add(ids[i]);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static Map<String, Object> statusOf(TodoItemEntity item) {
+        return statusOf(TodoItemStatus.valueOf(item.getStatus()), item.getDoneAt());
+    }
+
+    static Map<String, Object> statusOf(TodoItemStatus status, LocalDateTime doneAt) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(STATUS, status.value());
+        values.put(DONE_AT, doneAt);
+        return values;
+    }
+
+    private static void checkUpdateAllowed(Integer id, TodoItemEntity item, LocalDateTime now) throws ActionNotAllowedException {
+        if (isDoneItem.test(item)) {
+            // updates on DONE items not allowed
+            log.error("Attempted to update a done TodoItem id {} with done date {}", id, item.getDoneAt());
+            throw new ActionNotAllowedException("Updates on Todo item with id " + id + " is not allowed because it's already done");
+
+        } else if (isPastDueItem.test(item, now)) {
+            // updates on PAST_DUE items not allowed
+            log.error("Attempted to update a past due TodoItem id {} with due date {}", id, item.getDueDateTime());
+            throw new ActionNotAllowedException("Updates on Todo item with id " + id + " is not allowed because it's past due");
+        }
+    }
+
+    /**
+     * Evict an item updated with plain JDBC from the second level cache, with the cached lists of items.
+     * Evicted again after commit, in case a concurrent read cached it in between.
+     */
+    private void evict(Integer id) {
+        evictNow(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evict every item from the second level cache after a bulk update with plain JDBC,
+     * as Hibernate does for its own bulk updates. Evicted again after commit, as for a single item.
+     */
+    private void evictAll() {
+        evictAllNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAllNow();
+                }
+            });
+        }
+    }
+
+    private void evictAllNow() {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(TodoItemEntity.class);
+        cache.unwrap(org.hibernate.Cache.class).evictDefaultQueryRegion();
+    }
+
+    private void evictNow(Integer id) {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(TodoItemEntity.class, id);
+        cache.unwrap(org.hibernate.Cache.class).evictDefaultQueryRegion();
+    }
+
+    /**
+     * Find a TodoItem with its description, which is lazily loaded,
+     * as it's returned once the session may be closed
+     */
+    private Optional<TodoItemEntity> findItem(Integer id) {
+        Optional<TodoItemEntity> item = todoItemEntityRepository.findById(id);
+        item.ifPresent(TodoItemEntity::getDescription);
+        return item;
+    }
+
+    private TodoItemEntity findItemOrArchivedItem(Integer id) throws ItemNotFoundException {
+        Optional<TodoItemEntity> item = findItem(id);
+        return item.isPresent() ? item.get() : findArchivedItem(id);
+    }
+
+    /**
+     * Find an archived item, as a detached {@link TodoItemEntity} that must not be saved
+     */
+    private TodoItemEntity findArchivedItem(Integer id) throws ItemNotFoundException {
+        TodoItemArchiveEntity archived = todoItemArchiveEntityRepository.findById(id)
+                .orElseThrow(() -> new ItemNotFoundException(id));
+        return TodoItemMapper.toEntity(archived);
     }
 
 }
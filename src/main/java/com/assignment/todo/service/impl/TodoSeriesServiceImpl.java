@@ -0,0 +1,364 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.RecurrenceFrequency;
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.dao.TodoSeriesEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemArchiveEntity;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoSeriesEntity;
+import com.assignment.todo.dto.CreateTodoSeriesRequest;
+import com.assignment.todo.dto.TodoOccurrence;
+import com.assignment.todo.dto.TodoSeries;
+import com.assignment.todo.dto.UpdateTodoItemRequest;
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.exception.SeriesNotFoundException;
+import com.assignment.todo.service.TodoItemHistoryService;
+import com.assignment.todo.service.TodoItemIndexService;
+import com.assignment.todo.service.TodoItemService;
+import com.assignment.todo.service.TodoSeriesService;
+import com.assignment.todo.util.DescriptionCodec;
+import com.assignment.todo.util.RecurrenceRule;
+import com.assignment.todo.util.TodoItemMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring TodoItems, their occurrences are expanded from the recurrence rule when they are read
+ * <p>An occurrence is only stored as a TodoItem, under its series and its original due date,
+ * when it's done, updated or past due. Reading a window costs the same however long the series has been running,
+ * and the past due sweep only stores the occurrences due since it last ran.</p>
+ */
+@Slf4j
+@Service
+public class TodoSeriesServiceImpl implements TodoSeriesService {
+
+    private final TodoSeriesEntityRepository todoSeriesEntityRepository;
+    private final TodoItemEntityRepository todoItemEntityRepository;
+    private final TodoItemArchiveEntityRepository todoItemArchiveEntityRepository;
+    private final TodoItemJdbcDao todoItemJdbcDao;
+    private final TodoItemService todoItemService;
+    private final TodoItemIndexService todoItemIndexService;
+    private final TodoItemHistoryService todoItemHistoryService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration maxWindow;
+
+    private record OccurrenceKey(Integer seriesId, LocalDateTime occurrenceAt) {
+    }
+
+    @Autowired
+    public TodoSeriesServiceImpl(TodoSeriesEntityRepository todoSeriesEntityRepository,
+                                 TodoItemEntityRepository todoItemEntityRepository,
+                                 TodoItemArchiveEntityRepository todoItemArchiveEntityRepository,
+                                 TodoItemJdbcDao todoItemJdbcDao,
+                                 TodoItemService todoItemService,
+                                 TodoItemIndexService todoItemIndexService,
+                                 TodoItemHistoryService todoItemHistoryService,
+                                 EntityManagerFactory entityManagerFactory,
+                                 PlatformTransactionManager transactionManager,
+                                 Clock clock,
+                                 @Value("${todo.series.max-window:366d}") Duration maxWindow) {
+        this.todoSeriesEntityRepository = todoSeriesEntityRepository;
+        this.todoItemEntityRepository = todoItemEntityRepository;
+        this.todoItemArchiveEntityRepository = todoItemArchiveEntityRepository;
+        this.todoItemJdbcDao = todoItemJdbcDao;
+        this.todoItemService = todoItemService;
+        this.todoItemIndexService = todoItemIndexService;
+        this.todoItemHistoryService = todoItemHistoryService;
+        this.entityManagerFactory = entityManagerFactory;
+        // an occurrence is stored on its own, so a duplicate doesn't roll back the caller
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxWindow = maxWindow;
+    }
+
+    /**
+     * Add a recurring TodoItem
+     * <p>Due dates are kept to the second, so occurrences can be addressed by their due date.</p>
+     */
+    @Override
+    public TodoSeries create(CreateTodoSeriesRequest request) throws InvalidRequestException {
+        RecurrenceFrequency frequency;
+        try {
+            frequency = RecurrenceFrequency.from(request.getFrequency());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown frequency '" + request.getFrequency() + "'");
+        }
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (!CollectionUtils.isEmpty(request.getDaysOfWeek())) {
+            if (frequency != RecurrenceFrequency.WEEKLY) {
+                throw new InvalidRequestException("Days of the week are only allowed for weekly series");
+            }
+            for (String day : request.getDaysOfWeek()) {
+                try {
+                    days.add(DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidRequestException("Unknown day of the week '" + day + "'");
+                }
+            }
+        }
+        LocalDateTime firstDueDateTime = request.getFirstDueDateTime().truncatedTo(ChronoUnit.SECONDS);
+        if (request.getUntil() != null && request.getUntil().isBefore(firstDueDateTime)) {
+            throw new InvalidRequestException("The series must end after its first due date");
+        }
+        log.info("Add {} series with description : {}", frequency, request.getDescription());
+        LocalDateTime now = LocalDateTime.now(clock);
+        return toDto(todoSeriesEntityRepository.save(TodoSeriesEntity.builder()
+                .description(request.getDescription())
+                .frequency(frequency.name())
+                .recurrenceInterval(request.getInterval())
+                .daysOfWeek(days.isEmpty() ? null : days.stream().map(DayOfWeek::name).collect(Collectors.joining(",")))
+                .firstDueDateTime(firstDueDateTime)
+                .untilDateTime(request.getUntil())
+                // swept from its first occurrence, so occurrences shown as past due are all stored by the sweep,
+                // even if the first due date was already past when the series was created
+                .sweptUntil(firstDueDateTime)
+                .createdAt(now)
+                .build()));
+    }
+
+    @Override
+    public List<TodoSeries> getAll() {
+        return todoSeriesEntityRepository.findAll().stream()
+                .map(TodoSeriesServiceImpl::toDto)
+                .toList();
+    }
+
+    @Override
+    public TodoSeries get(Integer id) throws SeriesNotFoundException {
+        return toDto(findSeries(id));
+    }
+
+    @Override
+    public void delete(Integer id) throws SeriesNotFoundException {
+        log.info("Deleting series id {}", id);
+        if (!todoSeriesEntityRepository.existsById(id)) {
+            throw new SeriesNotFoundException(id);
+        }
+        todoSeriesEntityRepository.deleteById(id);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<TodoOccurrence> getOccurrences(LocalDateTime from, LocalDateTime to) throws InvalidRequestException {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(maxWindow) > 0) {
+            throw new InvalidRequestException("The window must end after it starts and be at most " + maxWindow.toDays() + " days long");
+        }
+        List<TodoSeriesEntity> series = todoSeriesEntityRepository.findAllOverlapping(from, to);
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        Map<OccurrenceKey, TodoItemEntity> stored = findStored(series, from, to);
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<TodoOccurrence> occurrences = new ArrayList<>();
+        for (TodoSeriesEntity oneSeries : series) {
+            for (LocalDateTime occurrenceAt : ruleOf(oneSeries).occurrences(from, to)) {
+                TodoItemEntity item = stored.get(new OccurrenceKey(oneSeries.getId(), occurrenceAt));
+                occurrences.add(item != null ? toOccurrence(item) : toOccurrence(oneSeries, occurrenceAt, now));
+            }
+        }
+        occurrences.sort(Comparator.comparing(TodoOccurrence::getOccurrenceAt).thenComparing(TodoOccurrence::getSeriesId));
+        return occurrences;
+    }
+
+    @Override
+    public TodoItemEntity markOccurrenceAsDone(Integer id, LocalDateTime occurrenceAt)
+            throws SeriesNotFoundException, ItemNotFoundException {
+        return todoItemService.markAsDone(store(id, occurrenceAt));
+    }
+
+    @Override
+    public TodoItemEntity updateOccurrence(Integer id, LocalDateTime occurrenceAt, UpdateTodoItemRequest request)
+            throws SeriesNotFoundException, ItemNotFoundException, ActionNotAllowedException {
+        return todoItemService.updateItem(store(id, occurrenceAt), request);
+    }
+
+    /**
+     * Store the occurrences that went past due, a status change event is added to the outbox and to the history
+     * for each of them in the same transaction
+     */
+    @Transactional
+    @Override
+    public int storePastDueOccurrences(int partition, int partitions) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<TodoSeriesEntity> series = todoSeriesEntityRepository.findAllToSweep(now, partition, partitions);
+        if (series.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime from = series.stream().map(TodoSeriesEntity::getSweptUntil).min(Comparator.naturalOrder()).orElse(now);
+        Set<OccurrenceKey> stored = findStored(series, from, now).keySet();
+        List<Integer> added = new ArrayList<>();
+        for (TodoSeriesEntity oneSeries : series) {
+            List<LocalDateTime> pastDue = ruleOf(oneSeries).occurrences(oneSeries.getSweptUntil(), now).stream()
+                    .filter(occurrenceAt -> !stored.contains(new OccurrenceKey(oneSeries.getId(), occurrenceAt)))
+                    .toList();
+            if (!pastDue.isEmpty()) {
+                added.addAll(todoItemJdbcDao.insertOccurrences(oneSeries.getId(), oneSeries.getDescription(),
+                        TodoItemStatus.PAST_DUE, pastDue, now));
+            }
+        }
+        List<Integer> ids = series.stream().map(TodoSeriesEntity::getId).toList();
+        if (!added.isEmpty()) {
+            todoItemJdbcDao.insertStatusChanges(added, TodoItemStatus.PAST_DUE, now);
+            // the history shows them going past due from not done, as for the stored items
+            todoItemHistoryService.recordAll(added, TodoItemEventType.PAST_DUE,
+                    TodoItemServiceImpl.statusOf(TodoItemStatus.NOT_DONE, null),
+                    TodoItemServiceImpl.statusOf(TodoItemStatus.PAST_DUE, null));
+            // Inserted behind Hibernate's back, cached lists of pending items are stale now
+            entityManagerFactory.getCache().unwrap(Cache.class).evictDefaultQueryRegion();
+            todoItemIndexService.catchUp();
+        }
+        todoSeriesEntityRepository.updateSweptUntil(ids, now);
+        log.info("Stored {} past due occurrences of {} series in partition {} of {}", added.size(), ids.size(),
+                partition, partitions);
+        return added.size();
+    }
+
+    /**
+     * Find the TodoItem an occurrence is stored as, storing it as 'NOT DONE' if it isn't
+     *
+     * @return ID of the TodoItem
+     */
+    private Integer store(Integer id, LocalDateTime occurrenceAt) throws SeriesNotFoundException {
+        TodoSeriesEntity series = findSeries(id);
+        if (!ruleOf(series).isOccurrence(occurrenceAt)) {
+            throw new SeriesNotFoundException(id, occurrenceAt);
+        }
+        Optional<Integer> storedId = findStoredId(id, occurrenceAt);
+        if (storedId.isPresent()) {
+            return storedId.get();
+        }
+        try {
+            log.info("Storing occurrence {} of series id {}", occurrenceAt, id);
+            LocalDateTime now = LocalDateTime.now(clock);
+            return transactionTemplate.execute(status -> {
+                TodoItemEntity occurrence = todoItemEntityRepository.save(TodoItemEntity.builder()
+                        .description(series.getDescription())
+                        .dueDateTime(occurrenceAt)
+                        .status(TodoItemStatus.NOT_DONE.name())
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .seriesId(id)
+                        .occurrenceAt(occurrenceAt)
+                        .build());
+                todoItemIndexService.add(occurrence.getId(), TodoItemStatus.NOT_DONE, List.of());
+                todoItemHistoryService.record(occurrence.getId(), TodoItemEventType.CREATED, null,
+                        TodoItemServiceImpl.valuesOf(occurrence));
+                return occurrence.getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // stored meanwhile by another request or the past due sweep
+            return findStoredId(id, occurrenceAt).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<Integer> findStoredId(Integer id, LocalDateTime occurrenceAt) {
+        Optional<TodoItemEntity> item = todoItemEntityRepository.findBySeriesIdAndOccurrenceAt(id, occurrenceAt);
+        if (item.isPresent()) {
+            return item.map(TodoItemEntity::getId);
+        }
+        return todoItemArchiveEntityRepository.findBySeriesIdAndOccurrenceAt(id, occurrenceAt)
+                .map(TodoItemArchiveEntity::getId);
+    }
+
+    private Map<OccurrenceKey, TodoItemEntity> findStored(List<TodoSeriesEntity> series, LocalDateTime from, LocalDateTime to) {
+        List<Integer> ids = series.stream().map(TodoSeriesEntity::getId).toList();
+        Map<OccurrenceKey, TodoItemEntity> stored = new HashMap<>();
+        todoItemEntityRepository.findOccurrences(ids, from, to)
+                .forEach(item -> stored.put(new OccurrenceKey(item.getSeriesId(), item.getOccurrenceAt()), item));
+        todoItemArchiveEntityRepository.findOccurrences(ids, from, to)
+                .forEach(archived -> stored.putIfAbsent(new OccurrenceKey(archived.getSeriesId(), archived.getOccurrenceAt()),
+                        TodoItemMapper.toEntity(archived)));
+        return stored;
+    }
+
+    private TodoSeriesEntity findSeries(Integer id) throws SeriesNotFoundException {
+        return todoSeriesEntityRepository.findById(id).orElseThrow(() -> new SeriesNotFoundException(id));
+    }
+
+    private static RecurrenceRule ruleOf(TodoSeriesEntity series) {
+        return new RecurrenceRule(RecurrenceFrequency.valueOf(series.getFrequency()), series.getRecurrenceInterval(),
+                daysOf(series), series.getFirstDueDateTime(), series.getUntilDateTime());
+    }
+
+    private static Set<DayOfWeek> daysOf(TodoSeriesEntity series) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (series.getDaysOfWeek() != null) {
+            Arrays.stream(series.getDaysOfWeek().split(",")).map(DayOfWeek::valueOf).forEach(days::add);
+        }
+        return days;
+    }
+
+    private static TodoSeries toDto(TodoSeriesEntity entity) {
+        return TodoSeries.builder()
+                .id(entity.getId())
+                .description(entity.getDescription())
+                .frequency(RecurrenceFrequency.valueOf(entity.getFrequency()).value())
+                .interval(entity.getRecurrenceInterval())
+                .daysOfWeek(daysOf(entity).stream().map(day -> day.name().toLowerCase(Locale.ROOT)).toList())
+                .firstDueDateTime(entity.getFirstDueDateTime())
+                .until(entity.getUntilDateTime())
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+
+    private static TodoOccurrence toOccurrence(TodoItemEntity item) {
+        return TodoOccurrence.builder()
+                .seriesId(item.getSeriesId())
+                .occurrenceAt(item.getOccurrenceAt())
+                .id(item.getId())
+                .description(item.getDescriptionPreview())
+                .status(TodoItemStatus.valueOf(item.getStatus()).value())
+                .dueDateTime(item.getDueDateTime())
+                .doneAt(item.getDoneAt())
+                .build();
+    }
+
+    private static TodoOccurrence toOccurrence(TodoSeriesEntity series, LocalDateTime occurrenceAt, LocalDateTime now) {
+        // not stored yet, past due ones are stored by the next sweep
+        TodoItemStatus status = occurrenceAt.isBefore(now) ? TodoItemStatus.PAST_DUE : TodoItemStatus.NOT_DONE;
+        return TodoOccurrence.builder()
+                .seriesId(series.getId())
+                .occurrenceAt(occurrenceAt)
+                .description(DescriptionCodec.preview(series.getDescription()))
+                .status(status.value())
+                .dueDateTime(occurrenceAt)
+                .build();
+    }
+
+}
@@ -0,0 +1,397 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.WebhookDeadLetterEntityRepository;
+import com.assignment.todo.dal.dao.WebhookEndpointEntityRepository;
+import com.assignment.todo.dal.entity.WebhookDeadLetterEntity;
+import com.assignment.todo.dal.entity.WebhookEndpointEntity;
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.service.WebhookDispatcher;
+import com.assignment.todo.util.CircuitBreaker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends status change events to the registered webhooks
+ * <p>Events wait in a bounded in-memory queue and are sent as JSON arrays of up to {@code batch-size} events
+ * per webhook, with the asynchronous JDK HTTP client, which keeps its connections to every webhook open
+ * between batches. A failed batch is retried with an exponential backoff, up to {@code max-attempts}.
+ * Every webhook has its own circuit breaker: once open, its batches wait for it to let a trial through
+ * instead of being sent. A webhook holds at most {@code max-pending-batches} batches queued, being sent or retried:
+ * events that would go over it are refused, and stay in the outbox, so a dead webhook can't use up the memory
+ * nor slow the others down. Batches that are given up, once their attempts are exhausted or on shutdown,
+ * are written to {@code webhook_dead_letters}, as their outbox rows are gone by then.</p>
+ */
+@Slf4j
+@Service
+public class WebhookDispatcherImpl implements WebhookDispatcher, MeterBinder {
+
+    public static final String ATTEMPT_HEADER = "X-Webhook-Attempt";
+
+    private final WebhookEndpointEntityRepository webhookEndpointEntityRepository;
+    private final WebhookDeadLetterEntityRepository webhookDeadLetterEntityRepository;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService retryExecutor;
+    private final BlockingQueue<StatusChangeEvent> queue;
+    private final Map<Integer, Webhook> webhooks = new ConcurrentHashMap<>();
+    private final Set<Retry> retries = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int maxPendingBatches;
+    private final Duration requestTimeout;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private MeterRegistry registry;
+    private Counter delivered;
+    private Counter failed;
+    private Counter rejected;
+    private Timer delivery;
+
+    @Autowired
+    public WebhookDispatcherImpl(WebhookEndpointEntityRepository webhookEndpointEntityRepository,
+                                 WebhookDeadLetterEntityRepository webhookDeadLetterEntityRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${todo.webhooks.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${todo.webhooks.batch-size:100}") int batchSize,
+                                 @Value("${todo.webhooks.max-attempts:5}") int maxAttempts,
+                                 @Value("${todo.webhooks.max-pending-batches:100}") int maxPendingBatches,
+                                 @Value("${todo.webhooks.connect-timeout:1s}") Duration connectTimeout,
+                                 @Value("${todo.webhooks.request-timeout:5s}") Duration requestTimeout,
+                                 @Value("${todo.webhooks.retry-backoff:1s}") Duration retryBackoff,
+                                 @Value("${todo.webhooks.max-retry-backoff:1m}") Duration maxRetryBackoff,
+                                 @Value("${todo.webhooks.circuit.failure-threshold:5}") int failureThreshold,
+                                 @Value("${todo.webhooks.circuit.open-duration:30s}") Duration openDuration) {
+        this.webhookEndpointEntityRepository = webhookEndpointEntityRepository;
+        this.webhookDeadLetterEntityRepository = webhookDeadLetterEntityRepository;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.maxPendingBatches = maxPendingBatches;
+        this.requestTimeout = requestTimeout;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("todo.webhooks.queue.depth", queue, BlockingQueue::size)
+                .description("Events waiting to be sent to the webhooks")
+                .register(registry);
+        Gauge.builder("todo.webhooks.circuits.open", webhooks,
+                        hooks -> hooks.values().stream().filter(webhook -> webhook.breaker.isOpen()).count())
+                .description("Webhooks whose circuit breaker is open")
+                .register(registry);
+        delivered = Counter.builder("todo.webhooks.delivered")
+                .description("Events accepted by a webhook")
+                .register(registry);
+        failed = Counter.builder("todo.webhooks.failed")
+                .description("Batch deliveries that failed, retried or not")
+                .register(registry);
+        rejected = Counter.builder("todo.webhooks.rejected")
+                .description("Events refused because the queue or the backlog of a webhook was full, left in the outbox")
+                .register(registry);
+        delivery = Timer.builder("todo.webhooks.delivery")
+                .description("Time taken by a webhook to answer a batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The batches the events will make up are reserved with the webhooks they go to, so that they are refused
+     * here rather than dropped once their outbox rows are deleted.</p>
+     */
+    @Override
+    public synchronized boolean submit(List<StatusChangeEvent> events) {
+        if (queue.remainingCapacity() < events.size()) {
+            increment(rejected, events.size());
+            return false;
+        }
+        refreshWebhooks();
+        Map<Webhook, Integer> reservations = new HashMap<>();
+        for (Webhook webhook : webhooks.values()) {
+            long matching = events.stream().filter(event -> webhook.statuses.contains(event.getStatus())).count();
+            if (matching == 0) {
+                continue;
+            }
+            int batches = (int) ((matching + batchSize - 1) / batchSize);
+            int backlog = webhook.pendingBatches.get() + webhook.reservedBatches;
+            // an idle webhook takes the events however many batches they make up
+            if (backlog > 0 && backlog + batches > maxPendingBatches) {
+                log.warn("Webhook id {} has {} batches pending, {} events left in the outbox", webhook.id, backlog,
+                        events.size());
+                increment(rejected, events.size());
+                return false;
+            }
+            reservations.put(webhook, batches);
+        }
+        reservations.forEach((webhook, batches) -> webhook.reservedBatches += batches);
+        queue.addAll(events);
+        return true;
+    }
+
+    @Override
+    public int dispatch() {
+        List<Batch> batches = takeQueued();
+        for (Batch batch : batches) {
+            send(batch.webhook, batch.body, batch.events, 1);
+        }
+        return batches.size();
+    }
+
+    /**
+     * Stop retrying, the batches waiting for a retry and the events still queued are dead lettered
+     */
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdownNow();
+        for (Retry retry : retries) {
+            if (retries.remove(retry)) {
+                giveUp(retry.webhook, retry.body, retry.events, retry.attempt - 1, "shutdown");
+            }
+        }
+        for (Batch batch : takeQueued()) {
+            giveUp(batch.webhook, batch.body, batch.events, 0, "shutdown");
+        }
+    }
+
+    /**
+     * Take the queued events as batches per webhook, their reservations become pending batches
+     */
+    private synchronized List<Batch> takeQueued() {
+        List<StatusChangeEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        List<Batch> batches = new ArrayList<>();
+        for (Webhook webhook : webhooks.values()) {
+            List<StatusChangeEvent> matching = events.stream()
+                    .filter(event -> webhook.statuses.contains(event.getStatus()))
+                    .toList();
+            for (int from = 0; from < matching.size(); from += batchSize) {
+                List<StatusChangeEvent> batch = matching.subList(from, Math.min(from + batchSize, matching.size()));
+                webhook.pendingBatches.incrementAndGet();
+                batches.add(new Batch(webhook, toJson(batch), batch.size()));
+            }
+            webhook.reservedBatches = 0;
+        }
+        return batches;
+    }
+
+    /**
+     * Keep the state of the webhooks still registered, and start tracking the new ones
+     */
+    private void refreshWebhooks() {
+        List<WebhookEndpointEntity> registered = webhookEndpointEntityRepository.findAll();
+        Set<Integer> ids = registered.stream().map(WebhookEndpointEntity::getId).collect(Collectors.toSet());
+        webhooks.keySet().retainAll(ids);
+        for (WebhookEndpointEntity entity : registered) {
+            webhooks.computeIfAbsent(entity.getId(), id -> new Webhook(entity,
+                    new CircuitBreaker(failureThreshold, openDuration)));
+        }
+    }
+
+    private void send(Webhook webhook, byte[] body, int events, int attempt) {
+        if (webhooks.get(webhook.id) != webhook) {
+            giveUp(webhook, body, events, attempt - 1, "deleted");
+            return;
+        }
+        if (!webhook.breaker.tryAcquire()) {
+            // Waiting for the circuit doesn't use up an attempt
+            schedule(new Retry(webhook, body, events, attempt), openDuration);
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(webhook.uri)
+                .timeout(requestTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(ATTEMPT_HEADER, String.valueOf(attempt))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        long start = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (delivery != null) {
+                delivery.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (error == null && response.statusCode() / 100 == 2) {
+                webhook.breaker.onSuccess();
+                webhook.pendingBatches.decrementAndGet();
+                increment(delivered, events);
+                return;
+            }
+            webhook.breaker.onFailure();
+            increment(failed, 1);
+            log.warn("Attempt {} to send {} events to webhook id {} failed with {}", attempt, events, webhook.id,
+                    error != null ? error.toString() : "status " + response.statusCode());
+            if (attempt >= maxAttempts) {
+                giveUp(webhook, body, events, attempt, "retries-exhausted");
+            } else {
+                schedule(new Retry(webhook, body, events, attempt + 1), backoff(attempt));
+            }
+        });
+    }
+
+    private void schedule(Retry retry, Duration delay) {
+        retries.add(retry);
+        try {
+            retryExecutor.schedule(retry, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (retries.remove(retry)) {
+                giveUp(retry.webhook, retry.body, retry.events, retry.attempt - 1, "shutdown");
+            }
+        }
+    }
+
+    /**
+     * Backoff before the next attempt, doubling with every failed attempt up to the maximum
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    /**
+     * Stop sending a pending batch and write it to the dead letters
+     */
+    private void giveUp(Webhook webhook, byte[] body, int events, int attempts, String reason) {
+        webhook.pendingBatches.decrementAndGet();
+        log.error("Gave up on {} events for webhook id {} after {} attempts, {}", events, webhook.id, attempts, reason);
+        boolean saved = true;
+        try {
+            webhookDeadLetterEntityRepository.save(WebhookDeadLetterEntity.builder()
+                    .webhookId(webhook.id)
+                    .events(new String(body, StandardCharsets.UTF_8))
+                    .eventCount(events)
+                    .reason(reason)
+                    .attempts(attempts)
+                    .failedAt(LocalDateTime.now())
+                    .build());
+        } catch (DataAccessException e) {
+            log.error("Lost {} events for webhook id {}, they could not be dead lettered", events, webhook.id, e);
+            saved = false;
+        }
+        if (registry != null) {
+            Counter.builder("todo.webhooks.dead-lettered")
+                    .description("Events never delivered to a webhook, written to the dead letters unless lost")
+                    .tag("reason", saved ? reason : "lost")
+                    .register(registry)
+                    .increment(events);
+        }
+    }
+
+    private byte[] toJson(List<StatusChangeEvent> batch) {
+        try {
+            return objectMapper.writeValueAsBytes(batch);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize status change events", e);
+        }
+    }
+
+    private static void increment(Counter counter, double amount) {
+        if (counter != null) {
+            counter.increment(amount);
+        }
+    }
+
+    private static final class Webhook {
+
+        private final Integer id;
+        private final URI uri;
+        private final Set<String> statuses; // as in the events, "done", "past due"
+        private final CircuitBreaker breaker;
+        private final AtomicInteger pendingBatches = new AtomicInteger();
+        // batches of the queued events, guarded by the dispatcher
+        private int reservedBatches;
+
+        private Webhook(WebhookEndpointEntity entity, CircuitBreaker breaker) {
+            this.id = entity.getId();
+            this.uri = URI.create(entity.getUrl());
+            this.statuses = Arrays.stream(entity.getStatuses().split(","))
+                    .map(status -> TodoItemStatus.valueOf(status).value())
+                    .collect(Collectors.toSet());
+            this.breaker = breaker;
+        }
+
+    }
+
+    private record Batch(Webhook webhook, byte[] body, int events) {
+    }
+
+    /**
+     * A pending batch waiting for its next attempt
+     */
+    private final class Retry implements Runnable {
+
+        private final Webhook webhook;
+        private final byte[] body;
+        private final int events;
+        private final int attempt;
+
+        private Retry(Webhook webhook, byte[] body, int events, int attempt) {
+            this.webhook = webhook;
+            this.body = body;
+            this.events = events;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void run() {
+            // not run if dead lettered by the shutdown
+            if (retries.remove(this)) {
+                send(webhook, body, events, attempt);
+            }
+        }
+
+    }
+
+}
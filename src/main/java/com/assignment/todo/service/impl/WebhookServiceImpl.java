@@ -0,0 +1,84 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.WebhookEndpointEntityRepository;
+import com.assignment.todo.dal.entity.WebhookEndpointEntity;
+import com.assignment.todo.dto.CreateWebhookEndpointRequest;
+import com.assignment.todo.dto.WebhookEndpoint;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.WebhookNotFoundException;
+import com.assignment.todo.service.WebhookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class WebhookServiceImpl implements WebhookService {
+
+    private static final Set<TodoItemStatus> NOTIFIED = Set.of(TodoItemStatus.DONE, TodoItemStatus.PAST_DUE);
+
+    private final WebhookEndpointEntityRepository webhookEndpointEntityRepository;
+
+    @Autowired
+    public WebhookServiceImpl(WebhookEndpointEntityRepository webhookEndpointEntityRepository) {
+        this.webhookEndpointEntityRepository = webhookEndpointEntityRepository;
+    }
+
+    @Override
+    public WebhookEndpoint register(CreateWebhookEndpointRequest request) throws InvalidRequestException {
+        Set<String> statuses = new LinkedHashSet<>();
+        for (String value : request.getStatuses()) {
+            TodoItemStatus status;
+            try {
+                status = TodoItemStatus.from(value);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("Unknown status '" + value + "'");
+            }
+            if (!NOTIFIED.contains(status)) {
+                throw new InvalidRequestException("Webhooks are only notified of done and past due items, not '" + value + "'");
+            }
+            statuses.add(status.name());
+        }
+        log.info("Register webhook {} for {}", request.getUrl(), statuses);
+        return toDto(webhookEndpointEntityRepository.save(WebhookEndpointEntity.builder()
+                .url(request.getUrl())
+                .statuses(String.join(",", statuses))
+                .createdAt(LocalDateTime.now())
+                .build()));
+    }
+
+    @Override
+    public List<WebhookEndpoint> getAll() {
+        return webhookEndpointEntityRepository.findAll().stream()
+                .map(WebhookServiceImpl::toDto)
+                .toList();
+    }
+
+    @Override
+    public void delete(Integer id) throws WebhookNotFoundException {
+        log.info("Deleting webhook id {}", id);
+        if (!webhookEndpointEntityRepository.existsById(id)) {
+            throw new WebhookNotFoundException(id);
+        }
+        webhookEndpointEntityRepository.deleteById(id);
+    }
+
+    private static WebhookEndpoint toDto(WebhookEndpointEntity entity) {
+        return WebhookEndpoint.builder()
+                .id(entity.getId())
+                .url(entity.getUrl())
+                .statuses(Arrays.stream(entity.getStatuses().split(","))
+                        .map(status -> TodoItemStatus.valueOf(status).value())
+                        .toList())
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+
+}
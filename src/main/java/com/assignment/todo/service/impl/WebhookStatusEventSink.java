@@ -0,0 +1,35 @@
+package com.assignment.todo.service.impl;
+
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.exception.EventDeliveryException;
+import com.assignment.todo.service.StatusEventSink;
+import com.assignment.todo.service.WebhookDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Hands the status change events relayed from the outbox to the {@link WebhookDispatcher}
+ * <p>When its queue is full, the events stay in the outbox and are relayed again later.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "webhook")
+public class WebhookStatusEventSink implements StatusEventSink {
+
+    private final WebhookDispatcher webhookDispatcher;
+
+    @Autowired
+    public WebhookStatusEventSink(WebhookDispatcher webhookDispatcher) {
+        this.webhookDispatcher = webhookDispatcher;
+    }
+
+    @Override
+    public void deliver(List<StatusChangeEvent> events) throws EventDeliveryException {
+        if (!webhookDispatcher.submit(events)) {
+            throw new EventDeliveryException("Webhook queue full, " + events.size() + " events left in the outbox", null);
+        }
+    }
+
+}
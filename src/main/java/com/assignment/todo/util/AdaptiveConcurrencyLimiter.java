@@ -0,0 +1,148 @@
+package com.assignment.todo.util;
+
+import com.assignment.todo.constants.RequestPriority;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the measured latency, in the spirit of TCP Vegas / AIMD
+ * <p>Every route keeps its own no-queueing latency, the lowest seen in a window of its samples, so that
+ * a list scan is not compared with a single item read. Each sample is turned into the ratio of its latency
+ * to the baseline of its route, and the ratios are smoothed. When the smoothed ratio goes over
+ * {@code tolerance}, requests are queueing and the limit is cut multiplicatively, at most once per
+ * {@value #BACKOFF_INTERVAL} samples. Otherwise, if the limit is actually being used, it grows by one.
+ * A single slow request does not move the limit.</p>
+ * <p>{@link RequestPriority#LOW} requests may only use a share of the limit,
+ * leaving the rest as headroom for {@link RequestPriority#HIGH} requests.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_RTT_WINDOW = 1000;
+    private static final double SMOOTHING = 0.05;
+    private static final int BACKOFF_INTERVAL = 20;
+    // routes are method and path templates, unknown paths beyond this are not sampled
+    private static final int MAX_ROUTES = 256;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final double lowPriorityShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private double smoothedRatio = 1.0;
+    private int samplesSinceBackoff;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double backoffRatio, double lowPriorityShare) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.lowPriorityShare = lowPriorityShare;
+    }
+
+    /**
+     * Admit a request if the limit for its priority is not reached
+     *
+     * @param priority  {@link RequestPriority} of the request
+     * @return true if the request was admitted, it must then be released with {@link #release(String, long, int)}
+     * or {@link #release()}
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int currentLimit = priority == RequestPriority.LOW
+                ? Math.max(1, (int) (limit * lowPriorityShare))
+                : limit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and feed its latency into the limit
+     *
+     * @param route  method and path template of the request, latencies are only compared within a route
+     * @param rttNanos  time the request took
+     * @param inFlightAtStart  number of requests in flight when it was admitted
+     */
+    public void release(String route, long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(route, rttNanos, inFlightAtStart);
+    }
+
+    /**
+     * Release an admitted request whose latency says nothing about queueing, such as an export or an import
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(String route, long rttNanos, int inFlightAtStart) {
+        Baseline baseline = baselines.get(route);
+        if (baseline == null) {
+            if (baselines.size() >= MAX_ROUTES) {
+                return;
+            }
+            baseline = new Baseline();
+            baselines.put(route, baseline);
+        }
+        long minRttNanos = baseline.add(rttNanos);
+        double ratio = (double) rttNanos / Math.max(1, minRttNanos);
+        smoothedRatio += SMOOTHING * (ratio - smoothedRatio);
+        samplesSinceBackoff++;
+
+        if (smoothedRatio > tolerance) {
+            if (samplesSinceBackoff >= BACKOFF_INTERVAL) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                samplesSinceBackoff = 0;
+            }
+        } else if (inFlightAtStart * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * No-queueing latency of a route
+     */
+    private static final class Baseline {
+
+        private long minRttNanos = Long.MAX_VALUE;
+        private long windowMinRttNanos = Long.MAX_VALUE;
+        private int windowSamples;
+
+        private long add(long rttNanos) {
+            // Track the minimum per window so the baseline follows slow drifts of the service time
+            windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+            if (++windowSamples >= MIN_RTT_WINDOW) {
+                minRttNanos = windowMinRttNanos;
+                windowMinRttNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+            return minRttNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.assignment.todo.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines of text of at most {@code maxLineLength} characters
+ * <p>Lines end with {@code \n}, a {@code \r} before it is dropped. A longer line isn't buffered: the reader
+ * reports it as too long and skips its characters up to the next {@code \n}, so memory use doesn't depend on
+ * what the input holds.</p>
+ */
+public class BoundedLineReader {
+
+    private final Reader reader;
+    private final int maxLineLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private final StringBuilder line = new StringBuilder();
+    private boolean tooLong;
+
+    public BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Read the next line
+     *
+     * @return false at the end of the input, otherwise the line is read or was too long
+     */
+    public boolean next() throws IOException {
+        line.setLength(0);
+        tooLong = false;
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    return read && finish();
+                }
+            }
+            read = true;
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            append(start, position);
+            if (position < limit) {
+                // skip the \n
+                position++;
+                return finish();
+            }
+        }
+    }
+
+    /**
+     * Line read by the last call to {@link #next()}, without its line break
+     *
+     * @return the line, null if it was too long
+     */
+    public String line() {
+        return tooLong ? null : line.toString();
+    }
+
+    public boolean isTooLong() {
+        return tooLong;
+    }
+
+    private boolean finish() {
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        if (line.length() > maxLineLength) {
+            tooLong = true;
+            line.setLength(0);
+        }
+        return true;
+    }
+
+    private void append(int start, int end) {
+        if (tooLong) {
+            return;
+        }
+        // one more character than allowed, for the \r of a line of the maximum length
+        if (line.length() + end - start > maxLineLength + 1) {
+            tooLong = true;
+            line.setLength(0);
+            return;
+        }
+        line.append(buffer, start, end - start);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.assignment.todo.util;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive failures circuit breaker
+ * <p>Opens after {@code failureThreshold} failures in a row and rejects calls for {@code openDuration}.
+ * It then lets a single trial call through, which closes it on success or opens it again on failure.</p>
+ */
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Ask for a call to go through
+     *
+     * @return true if the call may be made, its outcome then has to be reported
+     */
+    public synchronized boolean tryAcquire() {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        if (!trialInFlight && nanoClock.getAsLong() - openedAt >= openNanos) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (consecutiveFailures >= failureThreshold) {
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return consecutiveFailures >= failureThreshold;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.assignment.todo.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clock caching the time of another clock, refreshed once per resolution by a daemon thread
+ * <p>Reading the time is a volatile read, for hot paths reading it for every item or request.
+ * The time is at most a resolution behind the source, and never goes backwards.</p>
+ */
+public final class CoarseClock extends Clock implements AutoCloseable {
+
+    private final Clock source;
+    private final ZoneId zone;
+    private final AtomicReference<Instant> instant;
+    private final ScheduledExecutorService refresher;
+
+    public CoarseClock(Clock source, Duration resolution) {
+        this.source = source;
+        this.zone = source.getZone();
+        this.instant = new AtomicReference<>(source.instant());
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long nanos = resolution.toNanos();
+        refresher.scheduleAtFixedRate(this::refresh, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private CoarseClock(CoarseClock clock, ZoneId zone) {
+        this.source = clock.source;
+        this.zone = zone;
+        this.instant = clock.instant;
+        this.refresher = clock.refresher;
+    }
+
+    void refresh() {
+        Instant now = source.instant();
+        instant.accumulateAndGet(now, (cached, read) -> read.isAfter(cached) ? read : cached);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+
+    @Override
+    public long millis() {
+        return instant.get().toEpochMilli();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CoarseClock(this, zone);
+    }
+
+    /**
+     * Stop refreshing the time, for this clock and the clocks it was derived from or to
+     */
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.assignment.todo.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stored form of TodoItem descriptions
+ * <p>Descriptions are stored as UTF-8, gzipped when they are large enough for it to pay off.
+ * Gzip data starts with bytes that no UTF-8 text starts with, so both forms can be told apart
+ * without a flag, and rows written as plain text by SQL scripts read back as they are.</p>
+ * <p>Lists only read the preview, the start of the description on one line.</p>
+ */
+public final class DescriptionCodec {
+
+    public static final int PREVIEW_LENGTH = 200;
+    // smaller descriptions don't shrink enough to be worth the gzip header and the CPU
+    static final int COMPRESSION_THRESHOLD = 512;
+
+    private static final String ELLIPSIS = "\u2026";
+
+    private DescriptionCodec() {
+    }
+
+    public static byte[] encode(String description) {
+        if (description == null) {
+            return null;
+        }
+        byte[] text = description.getBytes(StandardCharsets.UTF_8);
+        if (text.length < COMPRESSION_THRESHOLD) {
+            return text;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(text.length / 2);
+        try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.size() < text.length ? compressed.toByteArray() : text;
+    }
+
+    public static String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (!isCompressed(stored)) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stored))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Start of a description, up to its first line break and at most {@value PREVIEW_LENGTH} characters,
+     * ending with an ellipsis when it's cut
+     */
+    public static String preview(String description) {
+        if (description == null) {
+            return null;
+        }
+        int end = description.length();
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (c == '\n' || c == '\r') {
+                end = i;
+                break;
+            }
+        }
+        if (end == description.length() && end <= PREVIEW_LENGTH) {
+            return description;
+        }
+        end = Math.min(end, PREVIEW_LENGTH - ELLIPSIS.length());
+        if (end > 0 && Character.isHighSurrogate(description.charAt(end - 1))) {
+            // don't split a character outside the basic plane
+            end--;
+        }
+        return description.substring(0, end).stripTrailing() + ELLIPSIS;
+    }
+
+    static boolean isCompressed(byte[] stored) {
+        return stored.length > 1 && stored[0] == (byte) GZIPInputStream.GZIP_MAGIC
+                && stored[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.assignment.todo.util;
+
+import com.assignment.todo.constants.RecurrenceFrequency;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * When a recurring TodoItem is due, every interval days, weeks or months from its first due date,
+ * on some days of the week for weekly ones, until an optional end
+ * <p>Occurrences are computed for a window, starting from the period the window starts in,
+ * so the cost depends on the window and not on how long the series has been running.</p>
+ */
+public final class RecurrenceRule {
+
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> daysOfWeek;
+    private final LocalDateTime firstDueDateTime;
+    private final LocalDateTime until;
+
+    /**
+     * @param frequency  unit of the interval
+     * @param interval  number of days, weeks or months between two periods, at least 1
+     * @param daysOfWeek  days of the week of weekly occurrences, empty for the day of the first one
+     * @param firstDueDateTime  due date of the first occurrence, the time of day of all of them
+     * @param until  no occurrence after this, null for a series without end
+     */
+    public RecurrenceRule(RecurrenceFrequency frequency, int interval, Set<DayOfWeek> daysOfWeek,
+                          LocalDateTime firstDueDateTime, LocalDateTime until) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1, not " + interval);
+        }
+        this.frequency = Objects.requireNonNull(frequency);
+        this.interval = interval;
+        this.daysOfWeek = daysOfWeek.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(daysOfWeek);
+        this.firstDueDateTime = Objects.requireNonNull(firstDueDateTime);
+        this.until = until;
+    }
+
+    /**
+     * Due dates of the occurrences in a window, in order
+     *
+     * @param from  start of the window, inclusive
+     * @param to  end of the window, exclusive
+     * @return due dates of the occurrences
+     */
+    public List<LocalDateTime> occurrences(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        boolean byDay = frequency == RecurrenceFrequency.WEEKLY && !daysOfWeek.isEmpty();
+        // weeks on given days are counted from the monday of the first week
+        LocalDateTime anchor = byDay ? firstDueDateTime.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : firstDueDateTime;
+        long periods = from.isAfter(anchor) ? frequency.unit().between(anchor, from) / interval : 0;
+        for (long period = periods; ; period++) {
+            // from the anchor every time, so monthly ones on the 31st stay on the last day of shorter months
+            LocalDateTime periodStart = anchor.plus(period * interval, frequency.unit());
+            if (!periodStart.isBefore(to) || (until != null && periodStart.isAfter(until))) {
+                return occurrences;
+            }
+            if (byDay) {
+                for (DayOfWeek day : daysOfWeek) {
+                    add(occurrences, periodStart.plusDays(day.ordinal()), from, to);
+                }
+            } else {
+                add(occurrences, periodStart, from, to);
+            }
+        }
+    }
+
+    /**
+     * Check if an occurrence is due at a date
+     */
+    public boolean isOccurrence(LocalDateTime dueDateTime) {
+        return occurrences(dueDateTime, dueDateTime.plusNanos(1)).contains(dueDateTime);
+    }
+
+    private void add(List<LocalDateTime> occurrences, LocalDateTime occurrence, LocalDateTime from, LocalDateTime to) {
+        if (!occurrence.isBefore(firstDueDateTime) && !occurrence.isBefore(from) && occurrence.isBefore(to)
+                && (until == null || !occurrence.isAfter(until))) {
+            occurrences.add(occurrence);
+        }
+    }
+
+}
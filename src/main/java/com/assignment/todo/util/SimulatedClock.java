@@ -0,0 +1,64 @@
+package com.assignment.todo.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clock whose time only moves when it's advanced, to replay weeks of traffic in seconds
+ * <p>Clocks derived with {@link #withZone(ZoneId)} share the time of this clock.</p>
+ */
+public final class SimulatedClock extends Clock {
+
+    private final AtomicReference<Instant> instant;
+    private final ZoneId zone;
+
+    public SimulatedClock(Instant start, ZoneId zone) {
+        this(new AtomicReference<>(start), zone);
+    }
+
+    private SimulatedClock(AtomicReference<Instant> instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Move the time forward
+     *
+     * @param duration  time to move forward by, not negative
+     * @return the new time
+     */
+    public Instant advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Simulated time can't go backwards: " + duration);
+        }
+        return instant.updateAndGet(now -> now.plus(duration));
+    }
+
+    /**
+     * Set the time, e.g. to start a simulation at a given date
+     *
+     * @param time  the new time
+     */
+    public void set(Instant time) {
+        instant.set(time);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new SimulatedClock(instant, zone);
+    }
+
+}
@@ -1,8 +1,20 @@
 package com.assignment.todo.util;
 
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.constants.TodoItemField;
+import com.assignment.todo.constants.TodoItemPriority;
 import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.entity.TodoItemArchiveEntity;
 import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoItemEventEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
 import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.dto.TodoItemChange;
+import jakarta.persistence.Tuple;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 public class TodoItemMapper {
 
@@ -17,11 +29,88 @@ public class TodoItemMapper {
                 .id(entity.getId())
                 .description(entity.getDescription())
                 .status(TodoItemStatus.valueOf(entity.getStatus()).value())
+                .priority(TodoItemPriority.fromRank(entity.getPriority()).value())
                 .dueDateTime(entity.getDueDateTime())
                 .doneAt(entity.getDoneAt())
                 .createdAt(entity.getCreatedAt())
                 .build();
     }
 
+    /**
+     * Map TodoItem read projection to DTO
+     *
+     * @param view  {@link TodoItemView} to map
+     * @return {@link TodoItem}
+     */
+    public static TodoItem toDto(final TodoItemView view) {
+        return TodoItem.builder()
+                .id(view.id())
+                .description(view.description())
+                .status(TodoItemStatus.valueOf(view.status()).value())
+                .priority(TodoItemPriority.fromRank(view.priority()).value())
+                .dueDateTime(view.dueDateTime())
+                .doneAt(view.doneAt())
+                .createdAt(view.createdAt())
+                .build();
+    }
+
+    /**
+     * Map the requested fields of a TodoItem to its sparse representation
+     *
+     * @param tuple  values read for the fields, aliased with the field names
+     * @param fields  requested {@link TodoItemField}s
+     * @return the field values by field name, in the order of the fields
+     */
+    public static Map<String, Object> toMap(final Tuple tuple, final Set<TodoItemField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (TodoItemField field : fields) {
+            Object value = tuple.get(field.value());
+            if (field == TodoItemField.STATUS) {
+                value = TodoItemStatus.valueOf((String) value).value();
+            } else if (field == TodoItemField.PRIORITY) {
+                value = TodoItemPriority.fromRank((Integer) value).value();
+            }
+            values.put(field.value(), value);
+        }
+        return values;
+    }
+
+    /**
+     * Map an archived TodoItem to a detached TodoItem Entity
+     *
+     * @param archived  {@link TodoItemArchiveEntity} to map
+     * @return {@link TodoItemEntity}
+     */
+    public static TodoItemEntity toEntity(final TodoItemArchiveEntity archived) {
+        return TodoItemEntity.builder()
+                .id(archived.getId())
+                .description(archived.getDescription())
+                .descriptionPreview(archived.getDescriptionPreview())
+                .status(archived.getStatus())
+                .priority(archived.getPriority())
+                .dueDateTime(archived.getDueDateTime())
+                .doneAt(archived.getDoneAt())
+                .createdAt(archived.getCreatedAt())
+                .updatedAt(archived.getUpdatedAt())
+                .seriesId(archived.getSeriesId())
+                .occurrenceAt(archived.getOccurrenceAt())
+                .build();
+    }
+
+    /**
+     * Map TodoItem event Entity to DTO
+     *
+     * @param event  {@link TodoItemEventEntity} to map
+     * @return {@link TodoItemChange}
+     */
+    public static TodoItemChange toDto(final TodoItemEventEntity event) {
+        return TodoItemChange.builder()
+                .type(TodoItemEventType.valueOf(event.getEventType()).value())
+                .actor(event.getActor())
+                .changedAt(event.getChangedAt())
+                .oldValues(event.getOldValues())
+                .newValues(event.getNewValues())
+                .build();
+    }
 
 }
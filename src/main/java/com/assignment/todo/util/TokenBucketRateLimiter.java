@@ -0,0 +1,105 @@
+package com.assignment.todo.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per client token bucket
+ * <p>Every client gets a bucket of {@code burst} tokens refilled at {@code ratePerSecond}. Clients are
+ * identified by their remote address. A client id sent by the client only tells apart clients behind the same
+ * address, up to {@code maxClientIdsPerAddress} of them: further ids share the bucket of their address,
+ * so rotating the id doesn't get fresh buckets. At most {@code maxClients} buckets are tracked,
+ * the least recently used one is dropped to make room.</p>
+ */
+public class TokenBucketRateLimiter {
+
+    private final double ratePerNano;
+    private final double burst;
+    private final int maxClientIdsPerAddress;
+    // Guarded by this, in access order
+    private final Map<String, Bucket> buckets;
+    private final Map<String, Integer> clientIdsPerAddress = new HashMap<>();
+
+    public TokenBucketRateLimiter(double ratePerSecond, double burst, int maxClients, int maxClientIdsPerAddress) {
+        this.ratePerNano = ratePerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.maxClientIdsPerAddress = maxClientIdsPerAddress;
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                if (size() <= maxClients) {
+                    return false;
+                }
+                String address = eldest.getValue().address;
+                if (address != null) {
+                    clientIdsPerAddress.computeIfPresent(address, (key, count) -> count > 1 ? count - 1 : null);
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Take a token from the bucket of a client
+     *
+     * @param address  remote address of the client
+     * @param clientId  identifier sent by the client, null if none
+     * @return true if a token was available
+     */
+    public boolean tryAcquire(String address, String clientId) {
+        long now = System.nanoTime();
+        Bucket bucket;
+        synchronized (this) {
+            bucket = bucketOf(address, clientId, now);
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    private Bucket bucketOf(String address, String clientId, long now) {
+        if (clientId != null) {
+            String key = address + '#' + clientId;
+            Bucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (clientIdsPerAddress.getOrDefault(address, 0) < maxClientIdsPerAddress) {
+                clientIdsPerAddress.merge(address, 1, Integer::sum);
+                bucket = new Bucket(address, now);
+                buckets.put(key, bucket);
+                return bucket;
+            }
+        }
+        return buckets.computeIfAbsent(address, key -> new Bucket(null, now));
+    }
+
+    public synchronized int trackedClients() {
+        return buckets.size();
+    }
+
+    private final class Bucket {
+
+        // address the client id of this bucket is counted against, null for the bucket of an address
+        private final String address;
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(String address, long refilledAt) {
+            this.address = address;
+            this.tokens = burst;
+            this.refilledAt = refilledAt;
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+}
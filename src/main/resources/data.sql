@@ -1,5 +1,5 @@
-INSERT INTO todo_items (description, due_date_time) VALUES
-            ('Test Todo 0', '2024-03-06T22:11:02.021Z'),
-            ('Test Todo 1', '2024-03-08T15:11:02.021Z'),
-            ('Test Todo 2', '2024-03-09T15:11:02.021Z'),
-            ('Test Todo 3', '2024-03-06T09:11:02.021Z');
\ No newline at end of file
+INSERT INTO todo_items (description, description_preview, due_date_time) VALUES
+            (STRINGTOUTF8('Test Todo 0'), 'Test Todo 0', '2024-03-06T22:11:02.021Z'),
+            (STRINGTOUTF8('Test Todo 1'), 'Test Todo 1', '2024-03-08T15:11:02.021Z'),
+            (STRINGTOUTF8('Test Todo 2'), 'Test Todo 2', '2024-03-09T15:11:02.021Z'),
+            (STRINGTOUTF8('Test Todo 3'), 'Test Todo 3', '2024-03-06T09:11:02.021Z');
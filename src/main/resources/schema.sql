@@ -1,9 +1,120 @@
+-- description is UTF-8, gzipped when large, lists only read description_preview
 CREATE TABLE todo_items (
     id INT AUTO_INCREMENT PRIMARY KEY,
-    description TEXT NOT NULL,
+    description VARBINARY NOT NULL,
+    description_preview VARCHAR(200) NOT NULL,
     status VARCHAR(255) NOT NULL DEFAULT 'NOT_DONE',
+    priority SMALLINT NOT NULL DEFAULT 2, -- rank of TodoItemPriority, 1 is high
     due_date_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     done_at DATETIME,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    series_id INT,
+    occurrence_at DATETIME
+);
+
+CREATE INDEX idx_todo_items_status_done_at ON todo_items (status, done_at);
+
+-- a partition of the past due sweep is a range of ids, read within the items of a status
+CREATE INDEX idx_todo_items_status_id ON todo_items (status, id);
+
+-- the most urgent items of a status are the first entries of its range, read in order without sorting
+CREATE INDEX idx_todo_items_status_priority ON todo_items (status, priority, due_date_time, id);
+
+-- an occurrence of a series is stored once, items outside a series have null in both
+CREATE UNIQUE INDEX idx_todo_items_series_occurrence ON todo_items (series_id, occurrence_at);
+
+-- tags of the items, archived or not, filtered with the in-memory bitmaps of TodoItemIndexService.
+-- Tags of deleted items are purged when the index is rebuilt, ids aren't reused
+CREATE TABLE todo_item_tags (
+    item_id INT NOT NULL,
+    tag VARCHAR(50) NOT NULL,
+    PRIMARY KEY (item_id, tag)
+);
+
+CREATE TABLE todo_items_archive (
+    id INT PRIMARY KEY,
+    description VARBINARY NOT NULL,
+    description_preview VARCHAR(200) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    priority SMALLINT NOT NULL DEFAULT 2,
+    due_date_time DATETIME NOT NULL,
+    done_at DATETIME,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    series_id INT,
+    occurrence_at DATETIME,
+    archived_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_todo_items_archive_series_occurrence ON todo_items_archive (series_id, occurrence_at);
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash INT NOT NULL,
+    response TEXT NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE scheduler_leases (
+    partition_id INT PRIMARY KEY,
+    owner VARCHAR(255),
+    expires_at DATETIME NOT NULL
+);
+
+CREATE TABLE scheduler_instances (
+    instance_id VARCHAR(255) PRIMARY KEY,
+    last_seen_at DATETIME NOT NULL
+);
+
+CREATE TABLE todo_item_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_id INT NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    actor VARCHAR(255) NOT NULL,
+    old_values TEXT,
+    new_values TEXT,
+    changed_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_todo_item_events_item_id ON todo_item_events (item_id, id);
+
+CREATE TABLE todo_item_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_id INT NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    occurred_at DATETIME NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    available_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_todo_item_outbox_available_at ON todo_item_outbox (available_at, id);
+
+CREATE TABLE webhook_endpoints (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    url VARCHAR(2048) NOT NULL,
+    statuses VARCHAR(255) NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE webhook_dead_letters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    webhook_id INT NOT NULL,
+    events TEXT NOT NULL,
+    event_count INT NOT NULL,
+    reason VARCHAR(255) NOT NULL,
+    attempts INT NOT NULL,
+    failed_at DATETIME NOT NULL
+);
+
+CREATE TABLE todo_series (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    description TEXT NOT NULL,
+    frequency VARCHAR(255) NOT NULL,
+    recurrence_interval INT NOT NULL DEFAULT 1,
+    days_of_week VARCHAR(255),
+    first_due_date_time DATETIME NOT NULL,
+    until_date_time DATETIME,
+    swept_until DATETIME NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
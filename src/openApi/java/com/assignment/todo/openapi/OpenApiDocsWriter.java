@@ -0,0 +1,75 @@
+package com.assignment.todo.openapi;
+
+import com.assignment.todo.SimpleTodoListApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Writes the OpenAPI document of the service to the file given as first argument
+ * <p>Starts the service once with springdoc scanning the controllers, on a random port and without its schedulers,
+ * and saves what {@code /v3/api-docs} answers. Run by {@code ./gradlew openApiDocs}, the document is packaged
+ * in the jars and served as a static file when runtime scanning is turned off by the {@code prod} profile.</p>
+ */
+@Slf4j
+public class OpenApiDocsWriter {
+
+    private static final String CONTEXT_PATH = "/todo";
+
+    public static void main(String[] args) throws Exception {
+        File output = new File(args[0]);
+        ConfigurableApplicationContext context = startService();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + CONTEXT_PATH + "/v3/api-docs"))
+                .GET()
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("OpenAPI document answered with " + response.statusCode());
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode document = (ObjectNode) objectMapper.readTree(response.body());
+        // the scanned document points at the random port, the static one is relative to where it is served
+        document.putArray("servers").addObject().put("url", CONTEXT_PATH);
+        output.getParentFile().mkdirs();
+        objectMapper.writeValue(output, document);
+        log.info("OpenAPI document with {} paths written to {}", document.path("paths").size(), output.getAbsolutePath());
+
+        context.close();
+        System.exit(0);
+    }
+
+    /**
+     * Start the service on a random port, with its own in-memory database and none of its background work,
+     * sorting the document so it only changes with the API
+     */
+    private static ConfigurableApplicationContext startService() {
+        return new SpringApplicationBuilder(SimpleTodoListApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:openapi",
+                        "spring.h2.console.enabled=false",
+                        "springdoc.api-docs.enabled=true",
+                        "springdoc.writer-with-order-by-keys=true",
+                        "todo.admission.enabled=false",
+                        "todo.scheduler.past-due.enabled=false",
+                        "todo.archive.enabled=false",
+                        "todo.outbox.enabled=false",
+                        "todo.index.enabled=false",
+                        "logging.level.com.assignment.todo=WARN",
+                        "logging.level.com.assignment.todo.openapi=INFO")
+                .run();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.assignment.todo;
+
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP stub of a downstream system or webhook receiving status change events
+ * <p>Records the events it accepts, and answers 503 to the next requests when asked to fail.</p>
+ */
+public class StatusEventStubServer implements AutoCloseable {
+
+    public static final String PATH = "/events";
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<StatusChangeEvent> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    public StatusEventStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(PATH, exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                if (failuresLeft.getAndUpdate(left -> Math.max(left - 1, 0)) > 0) {
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+                received.addAll(objectMapper.readValue(body, new TypeReference<List<StatusChangeEvent>>() { }));
+                exchange.sendResponseHeaders(204, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + PATH;
+    }
+
+    public List<StatusChangeEvent> received() {
+        return received;
+    }
+
+    public void failNext(int requests) {
+        failuresLeft.set(requests);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+}
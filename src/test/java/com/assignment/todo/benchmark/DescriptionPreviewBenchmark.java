@@ -0,0 +1,158 @@
+package com.assignment.todo.benchmark;
+
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.projection.TodoItemView;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.util.DescriptionCodec;
+import com.assignment.todo.util.TodoItemMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the list read with full descriptions, as it was, and with their previews,
+ * on items with pasted multi-kilobyte notes: heap allocated by the read, size of the JSON response,
+ * and bytes stored for the descriptions
+ * <p>Run with {@code ./gradlew benchmark}</p>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:descriptionbenchmark",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+public class DescriptionPreviewBenchmark {
+
+    private static final int ITEMS = 20_000;
+    private static final int ROUNDS = 5;
+    private static final String[] LINES = {
+            "Follow up with the team about the release checklist",
+            "- check the migration scripts against a copy of production",
+            "- update the runbook with the new rollback steps",
+            "Links: https://example.com/wiki/release-process and the dashboard",
+            "Open question: who owns the on-call rotation next week?"
+    };
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void insertItems() {
+        if (todoItemEntityRepository.count() >= ITEMS) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            // a third of the items carry notes of 2 to 8 KB, the others a single line
+            String description = i % 3 == 0 ? notes(random) : LINES[i % LINES.length];
+            rows.add(new Object[] {DescriptionCodec.encode(description), DescriptionCodec.preview(description),
+                    "NOT_DONE", Timestamp.valueOf(now.plusDays(1).plusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO todo_items (description, description_preview, status, due_date_time) "
+                + "VALUES (?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void compareFullDescriptionsAndPreviews() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // the list as it was read before, with the full descriptions
+        Supplier<List<TodoItem>> full = () -> readOnly.execute(status -> {
+            try (Stream<TodoItemView> items = todoItemEntityRepository.streamAllViews()) {
+                return items.map(TodoItemMapper::toDto).collect(Collectors.toList());
+            }
+        });
+        Supplier<List<TodoItem>> previews = () -> readOnly.execute(status -> todoItemEntityRepository.findAllViews().stream()
+                .map(TodoItemMapper::toDto)
+                .collect(Collectors.toList()));
+
+        long fullBytes = measure("full", full);
+        long previewBytes = measure("preview", previews);
+        long fullResponse = response("full", full.get());
+        long previewResponse = response("preview", previews.get());
+        long stored = jdbcTemplate.queryForObject("SELECT SUM(OCTET_LENGTH(description)) FROM todo_items", Long.class);
+        long previewsStored = jdbcTemplate.queryForObject(
+                "SELECT SUM(OCTET_LENGTH(description_preview)) FROM todo_items", Long.class);
+
+        System.out.printf("previews allocate %.1f%% of the full read, and take %.1f%% of the response%n",
+                100d * previewBytes / fullBytes, 100d * previewResponse / fullResponse);
+        System.out.printf("descriptions stored in %,d bytes, previews in %,d bytes%n", stored, previewsStored);
+        assertThat(previewBytes).isLessThan(fullBytes);
+        assertThat(previewResponse).isLessThan(fullResponse);
+    }
+
+    private static String notes(SplittableRandom random) {
+        StringBuilder notes = new StringBuilder();
+        int size = random.nextInt(2048, 8192);
+        while (notes.length() < size) {
+            notes.append(LINES[random.nextInt(LINES.length)]).append('\n');
+        }
+        return notes.toString();
+    }
+
+    private long response(String name, List<TodoItem> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            System.out.printf("%-8s %,14d bytes of JSON %,12d bytes gzipped%n", name, json.length, compressed.size());
+            return json.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long measure(String name, Supplier<List<TodoItem>> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long best = Long.MAX_VALUE;
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            int size = read.get().size();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            best = Math.min(best, threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+            assertThat(size).isGreaterThanOrEqualTo(ITEMS);
+        }
+        System.out.printf("%-8s %,14d bytes %,10d bytes/item %8.1f ms%n", name, best, best / ITEMS, bestNanos / 1e6);
+        return best;
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.assignment.todo.benchmark;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.service.TodoItemService;
+import com.assignment.todo.util.DescriptionCodec;
+import com.assignment.todo.util.SimulatedClock;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays weeks of traffic on millions of items in seconds with the simulated clock:
+ * items are created, marked as done and go past due while the clock moves an hour at a time,
+ * with the past due sweep run after every hour over all the partitions.
+ * Reports the sweep cost and the latency of the transitions per simulated day.
+ * <p>Run with {@code ./gradlew benchmark}, sized with the system properties
+ * todo.simulation.items, todo.simulation.days, todo.simulation.created-per-hour
+ * and todo.simulation.done-per-hour.</p>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lifecyclesimulation",
+        "todo.clock.mode=simulated",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+public class LifecycleSimulationBenchmark {
+
+    private static final int ITEMS = Integer.getInteger("todo.simulation.items", 1_000_000);
+    private static final int DAYS = Integer.getInteger("todo.simulation.days", 28);
+    private static final int CREATED_PER_HOUR = Integer.getInteger("todo.simulation.created-per-hour", 50);
+    private static final int DONE_PER_HOUR = Integer.getInteger("todo.simulation.done-per-hour", 100);
+    private static final int BATCH_SIZE = 10_000;
+    private static final Duration STEP = Duration.ofHours(1);
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${todo.scheduler.partitions:4}")
+    private int partitions;
+
+    @Test
+    void simulateWeeksOfTraffic() throws ItemNotFoundException {
+        SimulatedClock simulatedClock = (SimulatedClock) clock;
+        simulatedClock.set(clock.instant().truncatedTo(ChronoUnit.HOURS));
+        LocalDateTime start = LocalDateTime.now(clock);
+        SplittableRandom random = new SplittableRandom(42);
+
+        long insertStart = System.nanoTime();
+        insertItems(start, random);
+        System.out.printf("inserted %,d items due over %d days in %.1f s%n",
+                ITEMS, DAYS, (System.nanoTime() - insertStart) / 1e9);
+
+        long simulationStart = System.nanoTime();
+        int maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM todo_items", Integer.class);
+        System.out.printf("%4s %10s %10s %10s %10s %10s %10s %10s%n", "day", "swept", "sweep ms",
+                "max ms", "done p50", "done p99", "add p50", "add p99");
+        for (int day = 1; day <= DAYS; day++) {
+            Latencies done = new Latencies();
+            Latencies added = new Latencies();
+            Latencies sweeps = new Latencies();
+            int swept = 0;
+            for (int hour = 0; hour < 24; hour++) {
+                simulatedClock.advance(STEP);
+                LocalDateTime now = LocalDateTime.now(clock);
+                for (int i = 0; i < CREATED_PER_HOUR; i++) {
+                    CreateTodoItemRequest request = CreateTodoItemRequest.builder()
+                            .description("Simulated item")
+                            .dueDateTime(now.plusMinutes(random.nextInt(60, 7 * 24 * 60)))
+                            .build();
+                    long begin = System.nanoTime();
+                    maxId = Math.max(maxId, todoItemService.addItem(request).getId());
+                    added.add(System.nanoTime() - begin);
+                }
+                for (int i = 0; i < DONE_PER_HOUR; i++) {
+                    int id = random.nextInt(1, maxId + 1);
+                    long begin = System.nanoTime();
+                    todoItemService.markAsDone(id);
+                    done.add(System.nanoTime() - begin);
+                }
+                for (int partition = 0; partition < partitions; partition++) {
+                    long begin = System.nanoTime();
+                    swept += todoItemService.checkAndUpdateStatusForPastDueItems(partition, partitions);
+                    sweeps.add(System.nanoTime() - begin);
+                }
+            }
+            System.out.printf("%4d %,10d %10.1f %10.2f %10.3f %10.3f %10.3f %10.3f%n", day, swept,
+                    sweeps.total() / 1e6, sweeps.percentile(1) / 1e6, done.percentile(0.5) / 1e6,
+                    done.percentile(0.99) / 1e6, added.percentile(0.5) / 1e6, added.percentile(0.99) / 1e6);
+        }
+        double seconds = (System.nanoTime() - simulationStart) / 1e9;
+        System.out.printf("simulated %d days in %.1f s, %,.0f simulated seconds per second%n",
+                DAYS, seconds, Duration.ofDays(DAYS).toSeconds() / seconds);
+
+        Integer overdue = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todo_items WHERE status = ? "
+                        + "AND due_date_time < ?", Integer.class,
+                TodoItemStatus.NOT_DONE.name(), Timestamp.valueOf(LocalDateTime.now(clock)));
+        assertThat(overdue).isZero();
+    }
+
+    private void insertItems(LocalDateTime start, SplittableRandom random) {
+        byte[] description = DescriptionCodec.encode("Simulated item");
+        String preview = DescriptionCodec.preview("Simulated item");
+        Timestamp createdAt = Timestamp.valueOf(start);
+        long window = Duration.ofDays(DAYS).toMinutes();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < ITEMS; i++) {
+            rows.add(new Object[] {description, preview, TodoItemStatus.NOT_DONE.name(),
+                    Timestamp.valueOf(start.plusMinutes(random.nextLong(1, window))), createdAt, createdAt});
+            if (rows.size() == BATCH_SIZE || i == ITEMS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO todo_items (description, description_preview, status, "
+                        + "due_date_time, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * Durations recorded over a simulated day
+     */
+    private static final class Latencies {
+
+        private long[] nanos = new long[1024];
+        private int size;
+
+        void add(long duration) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = duration;
+        }
+
+        long total() {
+            return Arrays.stream(nanos, 0, size).sum();
+        }
+
+        long percentile(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.max(0, Math.min(size - 1, Math.ceil(percentile * size) - 1))];
+        }
+
+    }
+
+}
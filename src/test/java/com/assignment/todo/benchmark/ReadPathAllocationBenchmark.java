@@ -0,0 +1,98 @@
+package com.assignment.todo.benchmark;
+
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.util.DescriptionCodec;
+import com.assignment.todo.util.TodoItemMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares allocation of the full list read through managed entities and through the
+ * {@link com.assignment.todo.dal.projection.TodoItemView} projection
+ * <p>Run with {@code ./gradlew benchmark}</p>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:readpathbenchmark")
+public class ReadPathAllocationBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void insertItems() {
+        if (todoItemEntityRepository.count() >= ITEMS) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            String description = "Todo item number " + i;
+            rows.add(new Object[] {DescriptionCodec.encode(description), description, "NOT_DONE",
+                    Timestamp.valueOf(now.plusDays(1).plusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO todo_items (description, description_preview, status, due_date_time) "
+                + "VALUES (?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void compareEntityAndProjectionReads() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<TodoItem>> entities = () -> readOnly.execute(status -> todoItemEntityRepository.findAll().stream()
+                .map(TodoItemMapper::toDto)
+                .collect(Collectors.toList()));
+        Supplier<List<TodoItem>> views = () -> readOnly.execute(status -> todoItemEntityRepository.findAllViews().stream()
+                .map(TodoItemMapper::toDto)
+                .collect(Collectors.toList()));
+
+        long entityBytes = measure("entities", entities);
+        long viewBytes = measure("projection", views);
+
+        System.out.printf("projection allocates %.1f%% of the entity read%n", 100d * viewBytes / entityBytes);
+        assertThat(viewBytes).isLessThan(entityBytes);
+    }
+
+    private static long measure(String name, Supplier<List<TodoItem>> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long best = Long.MAX_VALUE;
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            int size = read.get().size();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            best = Math.min(best, threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+            assertThat(size).isGreaterThanOrEqualTo(ITEMS);
+        }
+        System.out.printf("%-10s %,14d bytes %,10d bytes/item %8.1f ms%n", name, best, best / ITEMS, bestNanos / 1e6);
+        return best;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.assignment.todo.benchmark;
+
+import com.assignment.todo.dto.TodoItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and serialization CPU of the list response per format
+ * <p>Run with {@code ./gradlew benchmark}</p>
+ */
+@Tag("benchmark")
+public class ResponseFormatBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    void compareListResponseFormats() throws IOException {
+        List<TodoItem> items = items();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", new ObjectMapper().findAndRegisterModules());
+        mappers.put("smile", new SmileMapper().findAndRegisterModules());
+        mappers.put("cbor", new CBORMapper().findAndRegisterModules());
+
+        System.out.printf("%-6s %12s %12s %14s %14s%n", "format", "bytes", "gzip bytes", "serialize ms", "gzip ms");
+        for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                gzip(mapper.getValue().writeValueAsBytes(items));
+            }
+            long serializeNanos = Long.MAX_VALUE;
+            long gzipNanos = Long.MAX_VALUE;
+            byte[] payload = null;
+            byte[] compressed = null;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                payload = mapper.getValue().writeValueAsBytes(items);
+                long serialized = System.nanoTime();
+                compressed = gzip(payload);
+                serializeNanos = Math.min(serializeNanos, serialized - start);
+                gzipNanos = Math.min(gzipNanos, System.nanoTime() - serialized);
+            }
+            System.out.printf("%-6s %12d %12d %14.1f %14.1f%n", mapper.getKey(), payload.length, compressed.length,
+                    serializeNanos / 1e6, gzipNanos / 1e6);
+            assertThat(payload).isNotEmpty();
+        }
+    }
+
+    private static List<TodoItem> items() {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 6, 22, 11, 2);
+        String[] statuses = {"not done", "done", "past due"};
+        List<TodoItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(TodoItem.builder()
+                    .id(i + 1)
+                    .description("Todo item number " + i)
+                    .status(statuses[i % statuses.length])
+                    .dueDateTime(base.plusMinutes(i))
+                    .doneAt(i % 3 == 1 ? base.plusMinutes(i - 10) : null)
+                    .createdAt(base.minusDays(1).plusSeconds(i))
+                    .build());
+        }
+        return items;
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.assignment.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the time from launching the service to the first successful {@code GET /api/v1/todos},
+ * then to its first OpenAPI document, and the heap left in use after a full collection
+ * <p>Compares the Spring Boot jar with springdoc scanning the controllers at runtime, the same jar with the
+ * {@code prod} profile serving the document generated at build time, and the AOT processed jar running on
+ * a class data sharing archive. Build the jars first with {@code ./gradlew -Paot bootJar cdsJar},
+ * then run with {@code ./gradlew benchmark}</p>
+ */
+@Tag("benchmark")
+public class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    private static final String AOT_INITIALIZER = "com/assignment/todo/SimpleTodoListApplication__ApplicationContextInitializer.class";
+    private static final String PROD_PROFILE = "--spring.profiles.active=prod";
+    private static final String SCANNED_DOCS = "/v3/api-docs";
+    private static final String STATIC_DOCS = "/openapi.json";
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final Path jcmd = Path.of(System.getProperty("java.home"), "bin", "jcmd");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareTimeToFirstRequest() throws Exception {
+        File bootJar = new File(System.getProperty("todo.benchmark.boot-jar", "build/libs/todo-list-0.0.1-SNAPSHOT.jar"));
+        File cdsJar = new File(System.getProperty("todo.benchmark.cds-jar", "build/cds/todo-list.jar"));
+        Assumptions.assumeTrue(bootJar.isFile() || cdsJar.isFile(), "Build the jars with ./gradlew -Paot bootJar cdsJar");
+
+        System.out.printf("%-12s %10s %10s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms", "docs ms", "heap MB");
+        if (bootJar.isFile()) {
+            report("boot jar", List.of(java, "-jar", bootJar.getAbsolutePath()), SCANNED_DOCS);
+            report("boot prod", List.of(java, "-jar", bootJar.getAbsolutePath(), PROD_PROFILE), STATIC_DOCS);
+        }
+        if (cdsJar.isFile()) {
+            List<String> command = new ArrayList<>(List.of(java));
+            if (isAotProcessed(cdsJar)) {
+                command.add("-Dspring.aot.enabled=true");
+            }
+            File archive = new File(cdsJar.getParentFile(), "todo-list.jsa");
+            if (!archive.isFile()) {
+                trainingRun(command, archive, cdsJar);
+            }
+            command.addAll(List.of("-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-XX:TieredStopAtLevel=1",
+                    "-jar", cdsJar.getAbsolutePath(), PROD_PROFILE));
+            report(isAotProcessed(cdsJar) ? "aot + cds" : "cds", command, STATIC_DOCS);
+        }
+    }
+
+    /**
+     * Milliseconds to the first request and to the first OpenAPI document, heap bytes used after a full collection
+     */
+    private record Startup(long millis, long docsMillis, long heapBytes) {
+    }
+
+    private void report(String mode, List<String> command, String docsPath) throws Exception {
+        List<Startup> startups = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            startups.add(measure(command, docsPath));
+        }
+        long[] millis = startups.stream().mapToLong(Startup::millis).sorted().toArray();
+        long[] docsMillis = startups.stream().mapToLong(Startup::docsMillis).sorted().toArray();
+        long[] heapBytes = startups.stream().mapToLong(Startup::heapBytes).sorted().toArray();
+        System.out.printf("%-12s %10d %10d %10d %10d %10.1f%n", mode, millis[0], millis[RUNS / 2], millis[RUNS - 1],
+                docsMillis[RUNS / 2], heapBytes[RUNS / 2] / (1024.0 * 1024.0));
+    }
+
+    private Startup measure(List<String> command, String docsPath) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        String baseUrl = "http://localhost:" + port + "/todo";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/todos")).GET().build();
+
+        long start = System.nanoTime();
+        Process process = start(withPort);
+        try {
+            long millis = timeToFirstRequest(process, request, start);
+            long docsStart = System.nanoTime();
+            HttpResponse<Void> docs = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + docsPath)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertThat(docs.statusCode()).as("OpenAPI document at " + docsPath).isEqualTo(200);
+            long docsMillis = Duration.ofNanos(System.nanoTime() - docsStart).toMillis();
+            return new Startup(millis, docsMillis, heapUsedAfterGc(process, baseUrl));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private long timeToFirstRequest(Process process, HttpRequest request, long start) throws Exception {
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            assertThat(process.isAlive()).as("service exited during startup").isTrue();
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("service did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Heap in use once a full collection has left only what the service keeps, as reported by its metrics
+     */
+    private long heapUsedAfterGc(Process process, String baseUrl) throws Exception {
+        Process gc = new ProcessBuilder(jcmd.toString(), String.valueOf(process.pid()), "GC.run")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        assertThat(gc.waitFor()).as("jcmd GC.run exit code").isZero();
+        HttpResponse<String> metric = httpClient.send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/actuator/metrics/jvm.memory.used?tag=area:heap")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(metric.statusCode()).as("heap metric").isEqualTo(200);
+        return (long) objectMapper.readTree(metric.body()).at("/measurements/0/value").asDouble();
+    }
+
+    private void trainingRun(List<String> command, File archive, File jar) throws Exception {
+        List<String> training = new ArrayList<>(command);
+        training.addAll(List.of("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath(),
+                "-Dtodo.startup.training-run=true", "-jar", jar.getAbsolutePath(), PROD_PROFILE, "--server.port=" + freePort()));
+        Process process = start(training);
+        assertThat(process.waitFor()).as("training run exit code").isZero();
+        assertThat(archive).isFile();
+    }
+
+    private static Process start(List<String> command) throws IOException {
+        // Run in a scratch directory, the service writes its logs to ./logs
+        return new ProcessBuilder(command)
+                .directory(Files.createTempDirectory("todo-startup").toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static boolean isAotProcessed(File jar) throws IOException {
+        try (JarFile jarFile = new JarFile(jar)) {
+            return jarFile.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
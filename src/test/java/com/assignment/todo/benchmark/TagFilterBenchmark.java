@@ -0,0 +1,95 @@
+package com.assignment.todo.benchmark;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dto.TodoItemFilter;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.service.impl.TodoItemIndexServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Times tag and status filters answered by the in-memory index over 1M items
+ * with tags of skewed popularity
+ * <p>Run with {@code ./gradlew benchmark}</p>
+ */
+@Tag("benchmark")
+public class TagFilterBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int TAGS = 200;
+    private static final int TAGS_PER_ITEM = 3;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void timeTagFilters() throws InvalidRequestException {
+        TodoItemJdbcDao todoItemJdbcDao = mock(TodoItemJdbcDao.class);
+        doAnswer(invocation -> {
+            BiConsumer<Integer, String> consumer = invocation.getArgument(1);
+            SplittableRandom random = new SplittableRandom(42);
+            TodoItemStatus[] statuses = TodoItemStatus.values();
+            for (int id = 1; id <= ITEMS; id++) {
+                consumer.accept(id, statuses[random.nextInt(statuses.length)].name());
+            }
+            return null;
+        }).when(todoItemJdbcDao).forEachStatus(anyInt(), any());
+        doAnswer(invocation -> {
+            BiConsumer<Integer, String> consumer = invocation.getArgument(1);
+            SplittableRandom random = new SplittableRandom(43);
+            for (int id = 1; id <= ITEMS; id++) {
+                for (int i = 0; i < TAGS_PER_ITEM; i++) {
+                    // squared so the first tags are much more common than the last ones
+                    double skewed = random.nextDouble() * random.nextDouble();
+                    consumer.accept(id, "tag-" + (int) (skewed * TAGS));
+                }
+            }
+            return null;
+        }).when(todoItemJdbcDao).forEachTag(anyInt(), any());
+
+        TodoItemIndexServiceImpl index = new TodoItemIndexServiceImpl(todoItemJdbcDao);
+        long rebuildStart = System.nanoTime();
+        index.rebuild();
+        System.out.printf("indexed %,d items with %d tags in %.1f s%n", ITEMS, TAGS,
+                (System.nanoTime() - rebuildStart) / 1e9);
+
+        Map<String, TodoItemFilter> filters = new LinkedHashMap<>();
+        filters.put("common tag", TodoItemFilter.from("tag-0", null, true));
+        filters.put("rare tag", TodoItemFilter.from("tag-150", null, true));
+        filters.put("two tags, not done", TodoItemFilter.from("tag-0,tag-1", null, false));
+        filters.put("tag, excluded tag", TodoItemFilter.from("tag-2,-tag-0", "-done", false));
+        filters.put("status only", TodoItemFilter.from(null, "past due", false));
+
+        System.out.printf("%-20s %10s %10s %10s%n", "filter", "matches", "p50 ms", "p99 ms");
+        for (Map.Entry<String, TodoItemFilter> filter : filters.entrySet()) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                index.find(filter.getValue());
+            }
+            long[] nanos = new long[MEASURED_ROUNDS];
+            int matches = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                matches = index.find(filter.getValue()).length;
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-20s %,10d %10.3f %10.3f%n", filter.getKey(), matches,
+                    nanos[MEASURED_ROUNDS / 2] / 1e6, nanos[MEASURED_ROUNDS * 99 / 100] / 1e6);
+            assertThat(matches).isPositive();
+        }
+    }
+
+}
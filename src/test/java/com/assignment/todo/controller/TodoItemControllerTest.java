@@ -3,23 +3,34 @@ package com.assignment.todo.controller;
 import com.assignment.todo.BaseTestClass;
 import com.assignment.todo.constants.TodoItemStatus;
 import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
 import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.dto.TodoItemFilter;
 import com.assignment.todo.dto.CreateTodoItemRequest;
 import com.assignment.todo.dto.UpdateTodoItemRequest;
 import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.InvalidRequestException;
 import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.service.IdempotencyService;
+import com.assignment.todo.service.TodoItemExportService;
+import com.assignment.todo.service.TodoItemHistoryService;
+import com.assignment.todo.service.TodoItemImportService;
 import com.assignment.todo.service.impl.TodoItemServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class TodoItemControllerTest extends BaseTestClass {
@@ -27,70 +38,111 @@ public class TodoItemControllerTest extends BaseTestClass {
     @Mock
     private TodoItemServiceImpl todoItemService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private TodoItemExportService todoItemExportService;
+
+    @Mock
+    private TodoItemImportService todoItemImportService;
+
+    @Mock
+    private TodoItemHistoryService todoItemHistoryService;
+
     @InjectMocks
     private TodoItemController todoItemController;
 
     @Test
-    void whenGetAllTodoItems_thenSuccess() {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .description("Test Item")
-                .status("NOT_DONE")
-                .build();
-        when(todoItemService.getAllItems(true)).thenReturn(Collections.singletonList(mockItem));
+    void whenGetAllTodoItems_thenSuccess() throws InvalidRequestException {
+        TodoItemView mockItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemService.getAllItems(true, false)).thenReturn(Collections.singletonList(mockItem));
 
-        List<TodoItem> newItems = todoItemController.getAllNotDoneItems(true);
+        List<TodoItem> newItems = todoItemController.getAllNotDoneItems(true, false, null, null);
 
         assertThat(newItems.size()).isEqualTo(1);
         assertThat(newItems.get(0).getDescription()).isEqualTo("Test Item");
     }
 
     @Test
-    void whenGetNotDoneTodoItems_thenSuccess() {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .description("Test Item")
-                .status("NOT_DONE")
-                .build();
-        when(todoItemService.getAllItems(false)).thenReturn(Collections.singletonList(mockItem));
+    void whenGetNotDoneTodoItems_thenSuccess() throws InvalidRequestException {
+        TodoItemView mockItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemService.getAllItems(false, false)).thenReturn(Collections.singletonList(mockItem));
 
-        List<TodoItem> newItems = todoItemController.getAllNotDoneItems(false);
+        List<TodoItem> newItems = todoItemController.getAllNotDoneItems(false, false, null, null);
 
         assertThat(newItems.size()).isEqualTo(1);
         assertThat(newItems.get(0).getDescription()).isEqualTo("Test Item");
     }
 
+    @Test
+    void whenGetTodoItemsByTags_thenFilteredFromIndex() throws InvalidRequestException {
+        TodoItemView mockItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemService.getItems(any(TodoItemFilter.class))).thenReturn(Collections.singletonList(mockItem));
+        when(todoItemService.getTags(List.of(1))).thenReturn(Map.of(1, Set.of("work")));
+
+        List<TodoItem> newItems = todoItemController.getAllNotDoneItems(false, false, "work,-someday", "-done");
+
+        assertThat(newItems).singleElement().extracting(TodoItem::getTags).isEqualTo(Set.of("work"));
+        verify(todoItemService).getItems(TodoItemFilter.builder()
+                .tags(Set.of("work"))
+                .excludedTags(Set.of("someday"))
+                .statuses(EnumSet.of(TodoItemStatus.NOT_DONE, TodoItemStatus.PAST_DUE))
+                .build());
+        verify(todoItemService, never()).getAllItems(anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void whenGetTodoItemsByInvalidTag_thenInvalidRequestException() {
+        assertThatThrownBy(() -> todoItemController.getAllNotDoneItems(false, false, "Not A Tag", null))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(todoItemService);
+    }
+
     @Test
     void whenGetTodoItemId_thenSuccess() throws ItemNotFoundException {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1)
-                .description("Test Item")
-                .status("NOT_DONE")
-                .build();
-        when(todoItemService.getItemDetails(1)).thenReturn(mockItem);
+        TodoItemView mockItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemService.getItemDetails(1, false)).thenReturn(mockItem);
 
-        TodoItem newItem = todoItemController.getTodoItemDetails(1);
+        TodoItem newItem = todoItemController.getTodoItemDetails(1, false);
 
         assertThat(newItem.getId()).isEqualTo(1);
     }
 
     @Test
     void whenGetTodoItemId_thenItemNotFound() throws ItemNotFoundException {
-        when(todoItemService.getItemDetails(1)).thenThrow(ItemNotFoundException.class);
+        when(todoItemService.getItemDetails(1, false)).thenThrow(ItemNotFoundException.class);
 
-        assertThatThrownBy(() -> todoItemController.getTodoItemDetails(1))
+        assertThatThrownBy(() -> todoItemController.getTodoItemDetails(1, false))
                 .isInstanceOf(ItemNotFoundException.class);
     }
 
     @Test
-    void whenAddTodoItem_thenSuccess() {
+    void whenAddTodoItem_thenSuccess() throws ActionNotAllowedException {
         TodoItemEntity mockItem = TodoItemEntity.builder()
                 .description("Test Item")
                 .status("NOT_DONE")
                 .build();
         when(todoItemService.addItem(any(CreateTodoItemRequest.class))).thenReturn(mockItem);
 
-        TodoItem newItem = todoItemController.addTodoItem(CreateTodoItemRequest.builder().build());
+        TodoItem newItem = todoItemController.addTodoItem(CreateTodoItemRequest.builder().build(), null);
 
         assertThat(newItem.getDescription()).isEqualTo("Test Item");
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    void whenAddTodoItemWithIdempotencyKey_thenUseIdempotencyService() throws ActionNotAllowedException {
+        TodoItem storedItem = TodoItem.builder()
+                .id(1)
+                .description("Test Item")
+                .build();
+        when(idempotencyService.execute(eq("key-1"), any(CreateTodoItemRequest.class), any())).thenReturn(storedItem);
+
+        TodoItem newItem = todoItemController.addTodoItem(CreateTodoItemRequest.builder().build(), "key-1");
+
+        assertThat(newItem.getId()).isEqualTo(1);
+        verify(todoItemService, never()).addItem(any(CreateTodoItemRequest.class));
     }
 
     @Test
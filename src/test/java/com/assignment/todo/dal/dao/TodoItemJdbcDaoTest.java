@@ -0,0 +1,29 @@
+package com.assignment.todo.dal.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TodoItemJdbcDaoTest {
+
+    @Test
+    void whenPartitionIds_thenRangesFollowEachOther() {
+        for (int maxId : new int[]{0, 20, 5000, 100_000, Integer.MAX_VALUE}) {
+            long from = 0;
+            for (int partition = 0; partition < 4; partition++) {
+                long[] ids = TodoItemJdbcDao.partitionIds(maxId, partition, 4);
+                assertThat(ids[0]).isEqualTo(from);
+                assertThat(ids[1]).isGreaterThan(ids[0]);
+                from = ids[1];
+            }
+            assertThat(from).isEqualTo(Long.MAX_VALUE);
+        }
+    }
+
+    @Test
+    void whenIdsGrow_thenRangesStayUntilOutgrown() {
+        assertThat(TodoItemJdbcDao.partitionIds(4100, 1, 4)).containsExactly(2048, 4096);
+        assertThat(TodoItemJdbcDao.partitionIds(8192, 1, 4)).containsExactly(2048, 4096);
+    }
+
+}
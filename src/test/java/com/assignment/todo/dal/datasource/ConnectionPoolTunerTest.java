@@ -0,0 +1,90 @@
+package com.assignment.todo.dal.datasource;
+
+import com.assignment.todo.BaseTestClass;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionPoolTunerTest extends BaseTestClass {
+
+    @Mock
+    private HikariDataSource hikariDataSource;
+
+    @Mock
+    private HikariPoolMXBean poolMXBean;
+
+    @Mock
+    private HikariConfigMXBean configMXBean;
+
+    @Mock
+    private InstrumentedDataSource instrumentedDataSource;
+
+    private ConnectionPoolTuner connectionPoolTuner;
+
+    @BeforeEach
+    void setUp() {
+        when(hikariDataSource.getHikariPoolMXBean()).thenReturn(poolMXBean);
+        when(hikariDataSource.getHikariConfigMXBean()).thenReturn(configMXBean);
+        connectionPoolTuner = new ConnectionPoolTuner(hikariDataSource, instrumentedDataSource,
+                new SimpleMeterRegistry(), 2, 20, Duration.ofMillis(5), 4);
+    }
+
+    @Test
+    void whenThreadsAwaitConnection_thenGrowPool() {
+        when(configMXBean.getMaximumPoolSize()).thenReturn(10);
+        when(poolMXBean.getActiveConnections()).thenReturn(10);
+        when(poolMXBean.getThreadsAwaitingConnection()).thenReturn(3);
+
+        assertThat(connectionPoolTuner.tune()).isEqualTo(13);
+        verify(configMXBean).setMaximumPoolSize(13);
+    }
+
+    @Test
+    void whenAcquireTimeOverTarget_thenGrowPoolUpToMax() {
+        when(configMXBean.getMaximumPoolSize()).thenReturn(20);
+        when(poolMXBean.getActiveConnections()).thenReturn(20);
+        when(instrumentedDataSource.drainMeanAcquireNanos()).thenReturn(Duration.ofMillis(50).toNanos());
+
+        assertThat(connectionPoolTuner.tune()).isEqualTo(20);
+        verify(configMXBean, never()).setMaximumPoolSize(anyInt());
+    }
+
+    @Test
+    void whenWindowNotFull_thenKeepPoolSize() {
+        when(configMXBean.getMaximumPoolSize()).thenReturn(10);
+        when(poolMXBean.getActiveConnections()).thenReturn(1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(connectionPoolTuner.tune()).isEqualTo(10);
+        }
+        verify(configMXBean, never()).setMaximumPoolSize(anyInt());
+    }
+
+    @Test
+    void whenPoolUnderused_thenShrinkToActivePercentile() {
+        when(configMXBean.getMaximumPoolSize()).thenReturn(10);
+        when(configMXBean.getMinimumIdle()).thenReturn(8);
+        when(poolMXBean.getActiveConnections()).thenReturn(1, 2, 3, 4);
+
+        for (int i = 0; i < 3; i++) {
+            connectionPoolTuner.tune();
+        }
+
+        assertThat(connectionPoolTuner.tune()).isEqualTo(6);
+        verify(configMXBean).setMinimumIdle(6);
+        verify(configMXBean).setMaximumPoolSize(6);
+    }
+
+}
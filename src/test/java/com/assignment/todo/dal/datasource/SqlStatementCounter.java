@@ -0,0 +1,53 @@
+package com.assignment.todo.dal.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records the SQL statements executed on the current thread while an action runs
+ * <p>Each execution is one round trip to the database, a JDBC batch is recorded once.
+ * Statements run by background threads, like the history writer, are not recorded.</p>
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> statements = recording.get();
+        if (statements != null) {
+            statements.add(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+    }
+
+    /**
+     * Run an action and record the statements it executes
+     *
+     * @return the statements, in the order they were executed
+     */
+    public List<String> record(SqlAction action) throws Exception {
+        List<String> statements = new ArrayList<>();
+        recording.set(statements);
+        try {
+            action.run();
+        } finally {
+            recording.remove();
+        }
+        return statements;
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws Exception;
+    }
+
+}
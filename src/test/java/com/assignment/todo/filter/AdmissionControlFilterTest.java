@@ -0,0 +1,131 @@
+package com.assignment.todo.filter;
+
+import com.assignment.todo.util.AdaptiveConcurrencyLimiter;
+import com.assignment.todo.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    private AdmissionControlFilter newFilter(double burst, int limit) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                new TokenBucketRateLimiter(0.001, burst, 100, 2),
+                new AdaptiveConcurrencyLimiter(limit, 1, limit, 2.0, 0.9, 0.5),
+                new ObjectMapper());
+        filter.bindTo(registry);
+        return filter;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/todo" + uri);
+        request.setContextPath("/todo");
+        request.addHeader(AdmissionControlFilter.CLIENT_ID_HEADER, clientId);
+        return request;
+    }
+
+    @Test
+    void whenTokensAvailable_thenAdmitRequest() throws Exception {
+        AdmissionControlFilter filter = newFilter(1, 10);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-1"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void whenClientOutOfTokens_thenTooManyRequests() throws Exception {
+        AdmissionControlFilter filter = newFilter(1, 10);
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-1"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getContentAsString()).contains("/todo/api/v1/todos/1");
+        assertThat(registry.get("todo.admission.rejected").tag("reason", "rate-limited").tag("priority", "high").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenOtherClientOutOfTokens_thenAdmitRequest() throws Exception {
+        AdmissionControlFilter filter = newFilter(1, 10);
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-2"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void whenClientIdsRotated_thenShareBucketOfAddress() throws Exception {
+        AdmissionControlFilter filter = newFilter(1, 10);
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-2"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-3"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/v1/todos/1", "client-4"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void whenConcurrencyLimitReached_thenServiceUnavailable() throws Exception {
+        AdmissionControlFilter filter = newFilter(10, 1);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        FilterChain nested = (req, res) ->
+                filter.doFilter(request("PATCH", "/api/v1/todos/1/done", "client-2"), rejected, new MockFilterChain());
+
+        filter.doFilter(request("PATCH", "/api/v1/todos/1/done", "client-1"), new MockHttpServletResponse(), nested);
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(registry.get("todo.admission.rejected").tag("reason", "overloaded").tag("priority", "high").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenListScanOverLowPriorityShare_thenServiceUnavailable() throws Exception {
+        AdmissionControlFilter filter = newFilter(10, 2);
+        MockHttpServletResponse listResponse = new MockHttpServletResponse();
+        MockHttpServletResponse itemResponse = new MockHttpServletResponse();
+        FilterChain nested = (req, res) -> {
+            filter.doFilter(request("GET", "/api/v1/todos", "client-2"), listResponse, new MockFilterChain());
+            filter.doFilter(request("GET", "/api/v1/todos/1", "client-2"), itemResponse, new MockFilterChain());
+        };
+
+        filter.doFilter(request("PUT", "/api/v1/todos/1", "client-1"), new MockHttpServletResponse(), nested);
+
+        assertThat(listResponse.getStatus()).isEqualTo(503);
+        assertThat(itemResponse.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void whenNotApiRequest_thenSkipAdmissionControl() throws Exception {
+        AdmissionControlFilter filter = newFilter(0, 10);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/swagger-ui/index.html", "client-1"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+}
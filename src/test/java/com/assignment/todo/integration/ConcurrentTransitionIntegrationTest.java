@@ -0,0 +1,140 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemOutboxEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoItemOutboxEntity;
+import com.assignment.todo.dto.UpdateTodoItemRequest;
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.service.TodoItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress concurrent status transitions, none of them may be lost or applied twice
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transitiontest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+public class ConcurrentTransitionIntegrationTest {
+
+    private static final int ITEMS = 50;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private TodoItemOutboxEntityRepository todoItemOutboxEntityRepository;
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Integer save() {
+        return todoItemEntityRepository.save(TodoItemEntity.builder()
+                .description("Contended item")
+                .status(TodoItemStatus.NOT_DONE.name())
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    private void runTogether(List<Callable<?>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Callable<?> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private Map<Integer, Long> doneEventsByItem(List<Integer> ids) {
+        return todoItemOutboxEntityRepository.findAll().stream()
+                .filter(event -> ids.contains(event.getItemId()))
+                .filter(event -> TodoItemStatus.DONE.name().equals(event.getStatus()))
+                .collect(Collectors.groupingBy(TodoItemOutboxEntity::getItemId, Collectors.counting()));
+    }
+
+    @Test
+    void whenMarkedAsDoneWhileUpdated_thenNoStatusChangeIsLost() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        List<Callable<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Integer id = save();
+            ids.add(id);
+            tasks.add(() -> todoItemService.markAsDone(id));
+            tasks.add(() -> {
+                try {
+                    return todoItemService.updateItem(id, UpdateTodoItemRequest.builder()
+                            .description("Updated contended item").build());
+                } catch (ActionNotAllowedException e) {
+                    return null; // marked as done first
+                }
+            });
+        }
+
+        runTogether(tasks);
+
+        // a read, check and write back of the whole row would overwrite DONE with NOT_DONE
+        assertThat(todoItemEntityRepository.findAllById(ids))
+                .hasSize(ITEMS)
+                .allMatch(item -> TodoItemStatus.DONE.name().equals(item.getStatus()) && item.getDoneAt() != null);
+        assertThat(doneEventsByItem(ids)).hasSize(ITEMS).allSatisfy((id, count) -> assertThat(count).isEqualTo(1));
+    }
+
+    @Test
+    void whenMarkedAsDoneConcurrently_thenOneStatusChangeEvent() throws Exception {
+        Integer id = save();
+        List<Callable<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            tasks.add(() -> todoItemService.markAsDone(id));
+        }
+
+        runTogether(tasks);
+
+        assertThat(todoItemEntityRepository.findById(id))
+                .hasValueSatisfying(item -> assertThat(item.getStatus()).isEqualTo(TodoItemStatus.DONE.name()));
+        assertThat(doneEventsByItem(List.of(id))).containsExactly(Map.entry(id, 1L));
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.datasource.SqlStatementCounter;
+import com.assignment.todo.dal.datasource.SqlStatementCounterConfig;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.util.DescriptionCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:descriptiontest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounterConfig.class)
+public class LargeDescriptionIntegrationTest {
+
+    private static final String TODOS = "/api/v1/todos";
+    private static final String NOTES = "Notes pasted from the meeting\n" + "- an action item with some details\n".repeat(200);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Integer add() throws Exception {
+        String content = mockMvc.perform(post(TODOS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "description", NOTES, "dueDateTime", "2050-12-31T14:15:00"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(content).get("id").asInt();
+    }
+
+    @Test
+    void whenLargeDescription_thenStoredCompressedWithPreview() throws Exception {
+        Integer id = add();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT OCTET_LENGTH(description) AS stored, description_preview FROM todo_items WHERE id = ?", id);
+        assertThat(((Number) row.get("stored")).intValue()).isLessThan(NOTES.length() / 10);
+        assertThat(row.get("description_preview")).isEqualTo("Notes pasted from the meeting\u2026");
+    }
+
+    @Test
+    void whenListItems_thenPreviewOnlyAndFullTextOnDetails() throws Exception {
+        Integer id = add();
+
+        JsonNode items = objectMapper.readTree(mockMvc.perform(get(TODOS))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode listed = null;
+        for (JsonNode item : items) {
+            if (item.get("id").asInt() == id) {
+                listed = item;
+            }
+        }
+        assertThat(listed).isNotNull();
+        assertThat(listed.get("description").asText()).isEqualTo(DescriptionCodec.preview(NOTES));
+
+        JsonNode details = objectMapper.readTree(mockMvc.perform(get(TODOS + "/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(details.get("description").asText()).isEqualTo(NOTES);
+    }
+
+    @Test
+    void whenEntityLoaded_thenDescriptionLoadedOnlyWhenRead() throws Exception {
+        Integer id = add();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        entityManagerFactory.getCache().evict(TodoItemEntity.class, id);
+
+        List<String> statements = sqlStatementCounter.record(() -> transaction.executeWithoutResult(status -> {
+            TodoItemEntity item = todoItemEntityRepository.findById(id).orElseThrow();
+            assertThat(item.getDescriptionPreview()).isEqualTo("Notes pasted from the meeting\u2026");
+        }));
+        // the preview is read with the item, the description column isn't
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).doesNotContainPattern("\\.description[ ,]");
+
+        transaction.executeWithoutResult(status ->
+                assertThat(todoItemEntityRepository.findById(id).orElseThrow().getDescription()).isEqualTo(NOTES));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.constants.TodoItemPriority;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.service.TodoItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nextitemstest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+@AutoConfigureMockMvc
+public class NextItemsIntegrationTest {
+
+    private static final String TODOS = "/api/v1/todos";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer add(String priority, LocalDateTime dueDateTime) throws Exception {
+        String content = mockMvc.perform(post(TODOS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Next item\",\"dueDateTime\":\"" + dueDateTime + "\","
+                                + "\"priority\":\"" + priority + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.priority").value(priority))
+                .andReturn().getResponse().getContentAsString();
+        return Integer.valueOf(content.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    @Test
+    void whenItemsChange_thenNextItemsFollow() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Integer lowSoon = add("low", now.plusDays(1));
+        Integer highLater = add("high", now.plusDays(3));
+        Integer highSoon = add("high", now.plusDays(2));
+        Integer mediumSoon = add("medium", now.plusDays(1));
+        // goes past due once the sweep runs, and stays ranked by its priority and due date
+        Integer highOverdue = todoItemEntityRepository.save(TodoItemEntity.builder()
+                .description("Overdue item")
+                .status(TodoItemStatus.NOT_DONE.name())
+                .priority(TodoItemPriority.HIGH.rank())
+                .dueDateTime(now.minusHours(1))
+                .createdAt(now.minusDays(1))
+                .updatedAt(now.minusDays(1))
+                .build()).getId();
+        todoItemService.checkAndUpdateStatusForPastDueItems(0, 1);
+
+        mockMvc.perform(get(TODOS + "/next").param("limit", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(highOverdue, highSoon, highLater, mediumSoon)))
+                .andExpect(jsonPath("$[0].status").value("past due"));
+
+        mockMvc.perform(patch(TODOS + "/{id}/done", highOverdue))
+                .andExpect(status().isOk());
+        mockMvc.perform(put(TODOS + "/{id}", lowSoon)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priority\":\"high\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priority").value("high"));
+
+        mockMvc.perform(get(TODOS + "/next").param("limit", "3"))
+                .andExpect(jsonPath("$[*].id", contains(lowSoon, highSoon, highLater)));
+    }
+
+    @Test
+    void whenNextItemsOfStatusQueried_thenReadInIndexOrder() {
+        // each pending status of the next items query, no sort so the read stops at the limit
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM todo_items WHERE status = 'NOT_DONE' "
+                + "ORDER BY status, priority, due_date_time, id LIMIT 10", String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_todo_items_status_priority").contains("index sorted");
+    }
+
+    @Test
+    void whenUnknownPriority_thenBadRequest() throws Exception {
+        mockMvc.perform(post(TODOS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Next item\",\"dueDateTime\":\"2050-12-31T14:15:00\","
+                                + "\"priority\":\"someday\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
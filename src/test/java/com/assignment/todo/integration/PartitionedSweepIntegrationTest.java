@@ -0,0 +1,118 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.SimpleTodoListApplication;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.service.SchedulerLeaseService;
+import com.assignment.todo.service.TodoItemService;
+import com.assignment.todo.util.DescriptionCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs several application contexts against one shared H2 database,
+ * the way several instances of the service share one database server.
+ */
+public class PartitionedSweepIntegrationTest {
+
+    private static final int PARTITIONS = 4;
+
+    private static ConfigurableApplicationContext startInstance(String database, String instanceId, boolean initSchema) {
+        return new SpringApplicationBuilder(SimpleTodoListApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=" + (initSchema ? "always" : "never"),
+                        "todo.scheduler.past-due.enabled=false",
+                        "todo.scheduler.partitions=" + PARTITIONS,
+                        "todo.scheduler.instance-id=" + instanceId)
+                .run();
+    }
+
+    @Test
+    void whenSeveralInstances_thenPartitionsAreSplitWithoutOverlap() {
+        String database = "sweep-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext first = startInstance(database, "instance-1", true);
+             ConfigurableApplicationContext second = startInstance(database, "instance-2", false)) {
+            SchedulerLeaseService firstLeases = first.getBean(SchedulerLeaseService.class);
+            SchedulerLeaseService secondLeases = second.getBean(SchedulerLeaseService.class);
+
+            assertThat(firstLeases.acquirePartitions()).hasSize(PARTITIONS);
+            // The second instance finds every partition leased, and announces itself
+            assertThat(secondLeases.acquirePartitions()).isEmpty();
+            // The first instance hands back the partitions over its share ...
+            List<Integer> firstPartitions = firstLeases.acquirePartitions();
+            // ... and the second instance picks them up
+            List<Integer> secondPartitions = secondLeases.acquirePartitions();
+
+            assertThat(firstPartitions).hasSize(PARTITIONS / 2);
+            assertThat(secondPartitions).hasSize(PARTITIONS / 2);
+            Set<Integer> all = new HashSet<>(firstPartitions);
+            all.addAll(secondPartitions);
+            assertThat(all).containsExactlyInAnyOrder(0, 1, 2, 3);
+
+            // Leases are stable once split
+            assertThat(firstLeases.acquirePartitions()).containsExactlyElementsOf(firstPartitions);
+            assertThat(secondLeases.acquirePartitions()).containsExactlyElementsOf(secondPartitions);
+        }
+    }
+
+    @Test
+    void whenInstanceStops_thenOtherInstanceTakesOverItsPartitions() {
+        String database = "sweep-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext survivor = startInstance(database, "instance-1", true)) {
+            SchedulerLeaseService survivorLeases = survivor.getBean(SchedulerLeaseService.class);
+            try (ConfigurableApplicationContext stopped = startInstance(database, "instance-2", false)) {
+                SchedulerLeaseService stoppedLeases = stopped.getBean(SchedulerLeaseService.class);
+                survivorLeases.acquirePartitions();
+                stoppedLeases.acquirePartitions();
+                survivorLeases.acquirePartitions();
+                assertThat(stoppedLeases.acquirePartitions()).hasSize(PARTITIONS / 2);
+            }
+
+            assertThat(survivorLeases.acquirePartitions()).hasSize(PARTITIONS);
+        }
+    }
+
+    @Test
+    void whenInstancesSweepTheirPartitions_thenEveryPastDueItemIsUpdatedOnce() {
+        String database = "sweep-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext first = startInstance(database, "instance-1", true);
+             ConfigurableApplicationContext second = startInstance(database, "instance-2", false)) {
+            JdbcTemplate jdbcTemplate = first.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("DELETE FROM todo_items");
+            for (int i = 0; i < 20; i++) {
+                jdbcTemplate.update("INSERT INTO todo_items (description, description_preview, status, due_date_time) "
+                                + "VALUES (?, ?, 'NOT_DONE', ?)", DescriptionCodec.encode("Past due item " + i),
+                        "Past due item " + i, java.sql.Timestamp.valueOf(java.time.LocalDateTime.now().minusHours(1)));
+            }
+            List<ConfigurableApplicationContext> instances = List.of(first, second);
+            instances.forEach(instance -> instance.getBean(SchedulerLeaseService.class).acquirePartitions());
+
+            int updated = 0;
+            List<Integer> sweptPartitions = new ArrayList<>();
+            for (ConfigurableApplicationContext instance : instances) {
+                List<Integer> partitions = instance.getBean(SchedulerLeaseService.class).acquirePartitions();
+                sweptPartitions.addAll(partitions);
+                for (Integer partition : partitions) {
+                    updated += instance.getBean(TodoItemService.class).checkAndUpdateStatusForPastDueItems(partition, PARTITIONS);
+                }
+            }
+
+            assertThat(sweptPartitions).containsExactlyInAnyOrder(0, 1, 2, 3);
+            assertThat(updated).isEqualTo(20);
+            assertThat(first.getBean(TodoItemEntityRepository.class).findAllViewsByStatusNot("PAST_DUE")).isEmpty();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.assignment.todo.integration;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.service.OpenAPIService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The OpenAPI document generated by {@code ./gradlew openApiDocs} is on the class path of the tests tagged
+ * with {@code openapi}, as it is in the jars, run them with {@code ./gradlew openApiDocsTest}
+ */
+@Tag("openapi")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prodprofiletest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("prod")
+public class ProdProfileIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void whenProdProfile_thenStaticOpenApiDocumentServedAndCacheable() throws Exception {
+        mockMvc.perform(get("/openapi.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=86400")))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.servers[0].url").value("/todo"))
+                .andExpect(jsonPath("$.paths['/api/v1/todos/next'].get").exists());
+    }
+
+    @Test
+    void whenProdProfile_thenNoRuntimeScanning() throws Exception {
+        assertThat(applicationContext.getBeanNamesForType(OpenAPIService.class)).isEmpty();
+        mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/swagger-ui/index.html"))
+                .andExpect(status().isNotFound());
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.service.TodoItemService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cachetest",
+        "todo.scheduler.past-due.enabled=false"
+})
+public class SecondLevelCacheIntegrationTest {
+
+    private static final String REGION = TodoItemEntity.class.getName();
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private TodoItemEntity save(LocalDateTime dueDateTime) {
+        return todoItemEntityRepository.save(TodoItemEntity.builder()
+                .description("Cached item")
+                .status(TodoItemStatus.NOT_DONE.name())
+                .dueDateTime(dueDateTime)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void whenFindByIdRepeated_thenServedFromSecondLevelCache() {
+        Integer id = save(LocalDateTime.now().plusDays(1)).getId();
+
+        todoItemEntityRepository.findById(id);
+        todoItemEntityRepository.findById(id);
+
+        assertThat(statistics.getCacheRegionStatistics(REGION).getHitCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void whenPastDueSweepRuns_thenCachedItemIsEvicted() {
+        Integer id = save(LocalDateTime.now().minusMinutes(1)).getId();
+        todoItemEntityRepository.findById(id);
+        assertThat(entityManagerFactory.getCache().contains(TodoItemEntity.class, id)).isTrue();
+
+        todoItemService.checkAndUpdateStatusForPastDueItems(0, 1);
+
+        assertThat(entityManagerFactory.getCache().contains(TodoItemEntity.class, id)).isFalse();
+        assertThat(todoItemEntityRepository.findById(id))
+                .hasValueSatisfying(item -> assertThat(item.getStatus()).isEqualTo(TodoItemStatus.PAST_DUE.name()));
+    }
+
+    @Test
+    void whenNotDoneItemsQueriedTwice_thenServedFromQueryCache() {
+        save(LocalDateTime.now().plusDays(1));
+
+        todoItemService.getAllItems(false, false);
+        todoItemService.getAllItems(false, false);
+
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void whenItemAddedAfterQuery_thenQueryCacheIsInvalidated() {
+        save(LocalDateTime.now().plusDays(1));
+        int before = todoItemService.getAllItems(false, false).size();
+
+        save(LocalDateTime.now().plusDays(2));
+
+        assertThat(todoItemService.getAllItems(false, false)).hasSize(before + 1);
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.datasource.SqlStatementCounter;
+import com.assignment.todo.dal.datasource.SqlStatementCounter.SqlAction;
+import com.assignment.todo.dal.datasource.SqlStatementCounterConfig;
+import com.assignment.todo.dal.entity.TodoItemArchiveEntity;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.service.TodoItemService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budgets of SQL statements per endpoint and per service operation, so extra round trips
+ * and N+1 queries fail the build. The statements are reported in build/reports/sql-budget.
+ * <p>The second level cache is cleared before each measure, so the budgets hold with a cold cache.</p>
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlbudgettest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounterConfig.class)
+public class SqlStatementBudgetIntegrationTest {
+
+    private static final String TODOS = "/api/v1/todos";
+    private static final Path REPORT = Path.of("build", "reports", "sql-budget", "statements-per-endpoint.txt");
+    private static final Map<String, Budget> BUDGETS = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private TodoItemArchiveEntityRepository todoItemArchiveEntityRepository;
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private record Budget(int max, List<String> statements) {
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        StringBuilder report = new StringBuilder();
+        new TreeMap<>(BUDGETS).forEach((operation, budget) -> {
+            report.append(operation).append(" : ").append(budget.statements().size())
+                    .append(" of ").append(budget.max()).append(System.lineSeparator());
+            budget.statements().forEach(statement -> report.append("    ").append(statement).append(System.lineSeparator()));
+        });
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+    }
+
+    private void assertStatements(String operation, int max, SqlAction action) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        List<String> statements = sqlStatementCounter.record(action);
+        BUDGETS.put(operation, new Budget(max, statements));
+        assertThat(statements).as("SQL statements of %s", operation).hasSizeLessThanOrEqualTo(max);
+    }
+
+    private TodoItemEntity save(String status) {
+        return todoItemEntityRepository.save(TodoItemEntity.builder()
+                .description("Budget item")
+                .status(status)
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .doneAt(TodoItemStatus.DONE.name().equals(status) ? LocalDateTime.now() : null)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void whenGetItems_thenOneStatementWhateverTheNumberOfItems() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            save(TodoItemStatus.NOT_DONE.name());
+        }
+
+        assertStatements("GET " + TODOS, 1, () -> mockMvc.perform(get(TODOS))
+                .andExpect(status().isOk()));
+        assertStatements("GET " + TODOS + "?includeAll", 1, () -> mockMvc.perform(get(TODOS).param("includeAll", "true"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenGetItem_thenOneStatement() throws Exception {
+        Integer id = save(TodoItemStatus.NOT_DONE.name()).getId();
+
+        assertStatements("GET " + TODOS + "/{id}", 1, () -> mockMvc.perform(get(TODOS + "/{id}", id))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenGetItemsWithFields_thenOnlyRequestedColumnsSelected() throws Exception {
+        Integer id = save(TodoItemStatus.NOT_DONE.name()).getId();
+
+        assertStatements("GET " + TODOS + "?fields", 1, () -> mockMvc.perform(get(TODOS).param("fields", "status"))
+                .andExpect(status().isOk()));
+        assertStatements("GET " + TODOS + "/{id}?fields", 1, () -> mockMvc.perform(get(TODOS + "/{id}", id)
+                        .param("fields", "dueDateTime"))
+                .andExpect(status().isOk()));
+
+        assertThat(BUDGETS.get("GET " + TODOS + "?fields").statements())
+                .singleElement().asString().contains("status").doesNotContain("description", "due_date_time");
+        assertThat(BUDGETS.get("GET " + TODOS + "/{id}?fields").statements())
+                .singleElement().asString().contains("due_date_time").doesNotContain("description", "status");
+    }
+
+    @Test
+    void whenGetNextItems_thenOneStatementWhateverTheNumberOfItems() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            save(TodoItemStatus.NOT_DONE.name());
+        }
+
+        assertStatements("GET " + TODOS + "/next", 1, () -> mockMvc.perform(get(TODOS + "/next").param("limit", "3"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenGetItemHistory_thenAtMostTwoStatements() throws Exception {
+        Integer id = save(TodoItemStatus.NOT_DONE.name()).getId();
+
+        assertStatements("GET " + TODOS + "/{id}/history", 2, () -> mockMvc.perform(get(TODOS + "/{id}/history", id))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenAddItem_thenOneStatement() throws Exception {
+        assertStatements("POST " + TODOS, 1, () -> mockMvc.perform(post(TODOS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Budget item\",\"dueDateTime\":\"2050-12-31T14:15:00\"}"))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void whenUpdateItem_thenOneStatement() throws Exception {
+        Integer id = save(TodoItemStatus.NOT_DONE.name()).getId();
+
+        assertStatements("PUT " + TODOS + "/{id}", 1, () -> mockMvc.perform(put(TODOS + "/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Updated budget item\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenMarkAsDone_thenTwoStatements() throws Exception {
+        Integer id = save(TodoItemStatus.NOT_DONE.name()).getId();
+
+        // the conditional update and the outbox insert
+        assertStatements("PATCH " + TODOS + "/{id}/done", 2, () -> mockMvc.perform(patch(TODOS + "/{id}/done", id))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenMarkAsNotDone_thenOneStatement() throws Exception {
+        Integer id = save(TodoItemStatus.DONE.name()).getId();
+
+        assertStatements("PATCH " + TODOS + "/{id}/not-done", 1, () -> mockMvc.perform(patch(TODOS + "/{id}/not-done", id))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenDeleteItem_thenOneStatement() throws Exception {
+        Integer id = save(TodoItemStatus.NOT_DONE.name()).getId();
+
+        // the delete returns the deleted row for the history
+        assertStatements("DELETE " + TODOS + "/{id}", 1, () -> mockMvc.perform(delete(TODOS + "/{id}", id))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenDeleteArchivedItem_thenTwoStatements() throws Exception {
+        Integer id = save(TodoItemStatus.DONE.name()).getId();
+        todoItemEntityRepository.deleteById(id);
+        todoItemArchiveEntityRepository.save(TodoItemArchiveEntity.builder()
+                .id(id)
+                .description("Archived budget item")
+                .status(TodoItemStatus.DONE.name())
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .doneAt(LocalDateTime.now().minusDays(40))
+                .createdAt(LocalDateTime.now().minusDays(41))
+                .updatedAt(LocalDateTime.now().minusDays(40))
+                .archivedAt(LocalDateTime.now())
+                .build());
+
+        // the delete from todo_items and the delete from the archive
+        assertStatements("DELETE " + TODOS + "/{id} archived", 2, () -> mockMvc.perform(delete(TODOS + "/{id}", id))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void whenServiceCalledWithoutOpenSession_thenSameBudgets() throws Exception {
+        // without the request scoped session, entities aren't shared between repository calls
+        Integer doneId = save(TodoItemStatus.NOT_DONE.name()).getId();
+        Integer deletedId = save(TodoItemStatus.NOT_DONE.name()).getId();
+
+        assertStatements("TodoItemService.markAsDone", 2, () -> todoItemService.markAsDone(doneId));
+        assertStatements("TodoItemService.deleteItem", 1, () -> todoItemService.deleteItem(deletedId));
+    }
+
+}
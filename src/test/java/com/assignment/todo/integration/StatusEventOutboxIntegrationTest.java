@@ -0,0 +1,99 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.StatusEventStubServer;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemOutboxEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.service.StatusEventRelayService;
+import com.assignment.todo.service.TodoItemService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxtest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false",
+        "todo.outbox.sink=http",
+        "todo.outbox.retry-backoff=0s"
+})
+public class StatusEventOutboxIntegrationTest {
+
+    private static final StatusEventStubServer STUB = startStub();
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private TodoItemOutboxEntityRepository todoItemOutboxEntityRepository;
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    @Autowired
+    private StatusEventRelayService statusEventRelayService;
+
+    private static StatusEventStubServer startStub() {
+        try {
+            return new StatusEventStubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void sinkUrl(DynamicPropertyRegistry registry) {
+        registry.add("todo.outbox.http.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    private TodoItemEntity save(LocalDateTime dueDateTime) {
+        return todoItemEntityRepository.save(TodoItemEntity.builder()
+                .description("Item")
+                .status(TodoItemStatus.NOT_DONE.name())
+                .dueDateTime(dueDateTime)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .updatedAt(LocalDateTime.now().minusDays(1))
+                .build());
+    }
+
+    @Test
+    void whenStatusChanges_thenEventsRelayedOnceDownstreamIsBack() throws ItemNotFoundException {
+        Integer doneId = save(LocalDateTime.now().plusDays(1)).getId();
+        Integer pastDueId = save(LocalDateTime.now().minusMinutes(1)).getId();
+
+        todoItemService.markAsDone(doneId);
+        todoItemService.checkAndUpdateStatusForPastDueItems(0, 1);
+        assertThat(todoItemOutboxEntityRepository.count()).isEqualTo(2);
+
+        STUB.failNext(1);
+        assertThat(statusEventRelayService.relay()).isZero();
+        assertThat(STUB.received()).isEmpty();
+
+        assertThat(statusEventRelayService.relay()).isEqualTo(2);
+        assertThat(STUB.received()).extracting(StatusChangeEvent::getItemId, StatusChangeEvent::getStatus)
+                .containsExactly(
+                        tuple(doneId, "done"),
+                        tuple(pastDueId, "past due"));
+        assertThat(todoItemOutboxEntityRepository.count()).isZero();
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.service.TodoItemArchiveService;
+import com.assignment.todo.service.TodoItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivetest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.archive.age=7d",
+        "todo.archive.batch-size=2"
+})
+public class TodoItemArchiveIntegrationTest {
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private TodoItemArchiveEntityRepository todoItemArchiveEntityRepository;
+
+    @Autowired
+    private TodoItemArchiveService todoItemArchiveService;
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    private TodoItemEntity saveDone(LocalDateTime doneAt) {
+        return todoItemEntityRepository.save(TodoItemEntity.builder()
+                .description("Done item")
+                .status(TodoItemStatus.DONE.name())
+                .dueDateTime(LocalDateTime.now().plusDays(30))
+                .doneAt(doneAt)
+                .createdAt(doneAt.minusDays(1))
+                .updatedAt(doneAt)
+                .build());
+    }
+
+    @Test
+    void whenDoneItemsOlderThanAge_thenMovedToArchiveAndRestoredOnNotDone()
+            throws ItemNotFoundException, ActionNotAllowedException {
+        Integer oldId = saveDone(LocalDateTime.now().minusDays(10)).getId();
+        Integer olderId = saveDone(LocalDateTime.now().minusDays(20)).getId();
+        Integer otherOldId = saveDone(LocalDateTime.now().minusDays(8)).getId();
+        Integer recentId = saveDone(LocalDateTime.now().minusDays(1)).getId();
+
+        assertThat(todoItemArchiveService.archiveDoneItems()).isEqualTo(3);
+
+        assertThat(todoItemEntityRepository.findAllById(List.of(oldId, olderId, otherOldId))).isEmpty();
+        assertThat(todoItemEntityRepository.findById(recentId)).isPresent();
+        assertThat(todoItemArchiveEntityRepository.findAllById(List.of(oldId, olderId, otherOldId))).hasSize(3);
+        assertThat(todoItemService.getItemDetails(oldId, true).id()).isEqualTo(oldId);
+        assertThat(todoItemService.getAllItems(true, false)).noneMatch(item -> item.id().equals(oldId));
+        assertThat(todoItemService.getAllItems(true, true)).anyMatch(item -> item.id().equals(oldId));
+
+        TodoItemEntity restored = todoItemService.markAsNotDone(oldId);
+
+        assertThat(restored.getId()).isEqualTo(oldId);
+        assertThat(restored.getStatus()).isEqualTo(TodoItemStatus.NOT_DONE.name());
+        assertThat(restored.getDoneAt()).isNull();
+        assertThat(todoItemArchiveEntityRepository.existsById(oldId)).isFalse();
+        assertThat(todoItemService.getItemDetails(oldId, false).status()).isEqualTo(TodoItemStatus.NOT_DONE.name());
+    }
+
+}
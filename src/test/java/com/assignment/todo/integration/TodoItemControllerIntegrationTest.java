@@ -1,27 +1,52 @@
 package com.assignment.todo.integration;
 
+import com.assignment.todo.constants.ContentTypes;
+import com.assignment.todo.constants.TodoItemField;
 import com.assignment.todo.controller.TodoItemController;
 import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
 import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.ImportSummary;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.dto.TodoItemChange;
+import com.assignment.todo.dto.TodoItemFilter;
+import com.assignment.todo.dto.TodoItemHistory;
 import com.assignment.todo.dto.UpdateTodoItemRequest;
 import com.assignment.todo.exception.ActionNotAllowedException;
 import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.constants.ExportFormat;
+import com.assignment.todo.service.IdempotencyService;
+import com.assignment.todo.service.TodoItemExportService;
+import com.assignment.todo.service.TodoItemHistoryService;
+import com.assignment.todo.service.TodoItemImportService;
 import com.assignment.todo.service.TodoItemService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TodoItemController.class)
@@ -33,14 +58,22 @@ public class TodoItemControllerIntegrationTest {
     @MockBean
     private TodoItemService todoItemService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private TodoItemExportService todoItemExportService;
+
+    @MockBean
+    private TodoItemImportService todoItemImportService;
+
+    @MockBean
+    private TodoItemHistoryService todoItemHistoryService;
+
     @Test
     void whenGetAllTodoItems_thenGetAllTodoItems() throws Exception {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1)
-                .description("Updated Todo Item")
-                .status("DONE")
-                .build();
-        given(todoItemService.getAllItems(true)).willReturn(Collections.singletonList(mockItem));
+        TodoItemView mockItem = new TodoItemView(1, "Updated Todo Item", "DONE", null, null, null, 2);
+        given(todoItemService.getAllItems(true, false)).willReturn(Collections.singletonList(mockItem));
 
         mockMvc.perform(get("/api/v1/todos")
                         .param("includeAll", "true"))
@@ -51,12 +84,8 @@ public class TodoItemControllerIntegrationTest {
 
     @Test
     void whenGetNotDoneTodoItems_thenGetNotDoneTodoItems() throws Exception {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1)
-                .description("Updated Todo Item")
-                .status("NOT_DONE")
-                .build();
-        given(todoItemService.getAllItems(false)).willReturn(Collections.singletonList(mockItem));
+        TodoItemView mockItem = new TodoItemView(1, "Updated Todo Item", "NOT_DONE", null, null, null, 2);
+        given(todoItemService.getAllItems(false, false)).willReturn(Collections.singletonList(mockItem));
 
         mockMvc.perform(get("/api/v1/todos"))
                 .andExpect(status().isOk())
@@ -64,14 +93,177 @@ public class TodoItemControllerIntegrationTest {
                         "[{\"id\":1, \"description\":\"Updated Todo Item\"}]"));
     }
 
+    @Test
+    void whenGetNotDoneTodoItemsAsCbor_thenGetCborTodoItems() throws Exception {
+        TodoItemView mockItem = new TodoItemView(1, "Updated Todo Item", "NOT_DONE", null, null, null, 2);
+        given(todoItemService.getAllItems(false, false)).willReturn(Collections.singletonList(mockItem));
+
+        byte[] body = mockMvc.perform(get("/api/v1/todos")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode items = new CBORMapper().readTree(body);
+        assertThat(items.get(0).get("id").asInt()).isEqualTo(1);
+        assertThat(items.get(0).get("description").asText()).isEqualTo("Updated Todo Item");
+    }
+
+    @Test
+    void whenGetTodoItemsWithFields_thenGetOnlyRequestedFields() throws Exception {
+        given(todoItemService.getAllItems(false, false, EnumSet.of(TodoItemField.ID, TodoItemField.STATUS)))
+                .willReturn(List.of(Map.of("id", 1, "status", "not done")));
+
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":1, \"status\":\"not done\"}]", true));
+
+        verify(todoItemService, never()).getAllItems(anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void whenGetTodoItemsWithUnknownField_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("fields", "status,owner"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"path\":\"/api/v1/todos\"}"));
+
+        verifyNoInteractions(todoItemService);
+    }
+
+    @Test
+    void whenGetNextTodoItems_thenMostUrgentFirst() throws Exception {
+        TodoItemView pastDue = new TodoItemView(2, "Past due Todo Item", "PAST_DUE", null, null, null, 1);
+        TodoItemView notDone = new TodoItemView(1, "Todo Item", "NOT_DONE", null, null, null, 3);
+        given(todoItemService.getNextItems(2)).willReturn(List.of(pastDue, notDone));
+
+        mockMvc.perform(get("/api/v1/todos/next")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":2, \"priority\":\"high\", \"status\":\"past due\"}, "
+                        + "{\"id\":1, \"priority\":\"low\"}]"));
+
+        verify(todoItemService, never()).getAllItems(anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void whenGetNextTodoItemsOverLimit_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos/next")
+                        .param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(todoItemService);
+    }
+
+    @Test
+    void whenGetTodoItemsByTagAndStatus_thenGetTaggedTodoItems() throws Exception {
+        TodoItemView mockItem = new TodoItemView(1, "Tagged Todo Item", "NOT_DONE", null, null, null, 2);
+        given(todoItemService.getItems(any(TodoItemFilter.class))).willReturn(Collections.singletonList(mockItem));
+        given(todoItemService.getTags(List.of(1))).willReturn(Map.of(1, Set.of("work")));
+
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("tags", "work")
+                        .param("status", "not done,past due"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":1, \"tags\":[\"work\"]}]"));
+
+        verify(todoItemService, never()).getAllItems(anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void whenGetTodoItemsWithUnknownStatus_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("status", "maybe"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"path\":\"/api/v1/todos\"}"));
+
+        verifyNoInteractions(todoItemService);
+    }
+
+    @Test
+    void whenExportAsCsv_thenStreamCsv() throws Exception {
+        given(todoItemExportService.exportItems(eq(ExportFormat.CSV), eq(true), any())).willAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("id,description\r\n".getBytes());
+            return 0L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/todos/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,description\r\n"));
+    }
+
+    @Test
+    void whenImportNdjson_thenReturnSummary() throws Exception {
+        given(todoItemImportService.importItems(any())).willReturn(ImportSummary.builder()
+                .received(2).imported(1).failed(1)
+                .errors(List.of(ImportSummary.ImportError.builder().line(2).messages(List.of("description: 'must not be blank'")).build()))
+                .build());
+
+        mockMvc.perform(post("/api/v1/todos/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"description\":\"a\",\"dueDateTime\":\"2050-01-01T00:00:00\"}\n{\"description\":\"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"received\":2,\"imported\":1,\"failed\":1,\"errors\":[{\"line\":2}]}"));
+    }
+
+    @Test
+    void whenGetHistory_thenReturnChanges() throws Exception {
+        given(todoItemHistoryService.getHistory(1, 0, 20)).willReturn(TodoItemHistory.builder()
+                .id(1).page(0).size(20).totalChanges(1).totalPages(1)
+                .changes(List.of(TodoItemChange.builder()
+                        .type("updated").actor("client-1")
+                        .oldValues("{\"description\":\"Old\"}").newValues("{\"description\":\"New\"}")
+                        .build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/todos/1/history"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"totalChanges\":1,\"changes\":[{\"type\":\"updated\","
+                        + "\"actor\":\"client-1\",\"oldValues\":{\"description\":\"Old\"},"
+                        + "\"newValues\":{\"description\":\"New\"}}]}"));
+    }
+
+    @Test
+    void whenGetHistoryWithTooLargePage_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos/1/history").param("size", "1000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(todoItemHistoryService);
+    }
+
+    @Test
+    void whenExportAsUnknownFormat_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(todoItemExportService);
+    }
+
+    @Test
+    void whenGetTodoItemIdAsSmile_thenGetSmileTodoItem() throws Exception {
+        TodoItemView mockItem = new TodoItemView(1, "Updated Todo Item", "NOT_DONE", null, null, null, 2);
+        given(todoItemService.getItemDetails(1, false)).willReturn(mockItem);
+
+        byte[] body = mockMvc.perform(get("/api/v1/todos/1")
+                        .accept(ContentTypes.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ContentTypes.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode item = new SmileMapper().readTree(body);
+        assertThat(item.get("status").asText()).isEqualTo("not done");
+    }
+
     @Test
     void whenGetTodoItemId_thenGetTodoItemById() throws Exception {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1)
-                .description("Updated Todo Item")
-                .status("NOT_DONE")
-                .build();
-        given(todoItemService.getItemDetails(1)).willReturn(mockItem);
+        TodoItemView mockItem = new TodoItemView(1, "Updated Todo Item", "NOT_DONE", null, null, null, 2);
+        given(todoItemService.getItemDetails(1, false)).willReturn(mockItem);
 
         mockMvc.perform(get("/api/v1/todos/1"))
                 .andExpect(status().isOk())
@@ -79,9 +271,20 @@ public class TodoItemControllerIntegrationTest {
                         "{\"id\":1, \"description\":\"Updated Todo Item\"}"));
     }
 
+    @Test
+    void whenGetTodoItemIdWithFields_thenGetOnlyRequestedFields() throws Exception {
+        given(todoItemService.getItemDetails(1, false, EnumSet.of(TodoItemField.ID, TodoItemField.DUE_DATE_TIME)))
+                .willReturn(Collections.singletonMap("id", 1));
+
+        mockMvc.perform(get("/api/v1/todos/1")
+                        .param("fields", "id,dueDateTime"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1}", true));
+    }
+
     @Test
     void whenGetTodoItemId_thenItemNotFound() throws Exception {
-        given(todoItemService.getItemDetails(1)).willThrow(ItemNotFoundException.class);
+        given(todoItemService.getItemDetails(1, false)).willThrow(ItemNotFoundException.class);
 
         mockMvc.perform(get("/api/v1/todos/1"))
                 .andExpect(status().isNotFound())
@@ -104,6 +307,40 @@ public class TodoItemControllerIntegrationTest {
                 .andExpect(content().json(
                         "{\"description\":\"New Todo Item\"}"));
     }
+
+    @Test
+    void whenPostTodoItemWithIdempotencyKey_thenReturnStoredTodoItem() throws Exception {
+        TodoItem storedItem = TodoItem.builder()
+                .id(1)
+                .description("New Todo Item")
+                .status("not done")
+                .build();
+        given(idempotencyService.execute(eq("key-1"), any(CreateTodoItemRequest.class), any())).willReturn(storedItem);
+
+        mockMvc.perform(post("/api/v1/todos")
+                        .header(TodoItemController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"New Todo Item\",\"dueDateTime\":\"2050-03-05T21:11:02.021Z\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(content().json(
+                        "{\"id\":1, \"description\":\"New Todo Item\"}"));
+        verify(todoItemService, never()).addItem(any(CreateTodoItemRequest.class));
+    }
+
+    @Test
+    void whenPostTodoItemWithReusedIdempotencyKey_thenConflict() throws Exception {
+        given(idempotencyService.execute(eq("key-1"), any(CreateTodoItemRequest.class), any()))
+                .willThrow(ActionNotAllowedException.class);
+
+        mockMvc.perform(post("/api/v1/todos")
+                        .header(TodoItemController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"New Todo Item\",\"dueDateTime\":\"2050-03-05T21:11:02.021Z\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().json(
+                        "{\"path\":\"/api/v1/todos\"}"));
+    }
+
     @Test
     void whenPostTodoItemNoDescription_thenBadRequest() throws Exception {
         mockMvc.perform(post("/api/v1/todos")
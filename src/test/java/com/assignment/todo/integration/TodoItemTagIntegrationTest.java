@@ -0,0 +1,130 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.service.TodoItemArchiveService;
+import com.assignment.todo.service.TodoItemIndexService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tagtest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false",
+        "todo.index.enabled=false"
+})
+@AutoConfigureMockMvc
+public class TodoItemTagIntegrationTest {
+
+    private static final String TODOS = "/api/v1/todos";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoItemIndexService todoItemIndexService;
+
+    @Autowired
+    private TodoItemArchiveService todoItemArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer add(String tags) throws Exception {
+        String content = mockMvc.perform(post(TODOS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Tagged item\",\"dueDateTime\":\"2050-12-31T14:15:00\",\"tags\":" + tags + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.valueOf(content.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    @Test
+    void whenItemsChange_thenTagFilterFollows() throws Exception {
+        Integer first = add("[\"report\",\"urgent\"]");
+        Integer second = add("[\"report\"]");
+        Integer third = add("[\"garden\"]");
+
+        mockMvc.perform(get(TODOS).param("tags", "report"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(first, second)));
+        mockMvc.perform(get(TODOS).param("tags", "report,-urgent"))
+                .andExpect(jsonPath("$[*].id", contains(second)));
+        mockMvc.perform(get(TODOS + "/{id}", first))
+                .andExpect(jsonPath("$.tags", contains("report", "urgent")));
+
+        mockMvc.perform(patch(TODOS + "/{id}/done", first))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(TODOS).param("tags", "report"))
+                .andExpect(jsonPath("$[*].id", contains(second)));
+        mockMvc.perform(get(TODOS).param("tags", "report").param("status", "done"))
+                .andExpect(jsonPath("$[*].id", contains(first)));
+
+        mockMvc.perform(put(TODOS + "/{id}", second)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\":[\"garden\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags", contains("garden")));
+        mockMvc.perform(delete(TODOS + "/{id}", third))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(TODOS).param("tags", "garden").param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(second))
+                .andExpect(jsonPath("$[0].status").value("not done"));
+        mockMvc.perform(get(TODOS).param("tags", "report").param("includeAll", "true"))
+                .andExpect(jsonPath("$[*].id", contains(first)));
+
+        // the rebuild reads back what was maintained after each commit
+        todoItemIndexService.rebuild();
+        mockMvc.perform(get(TODOS).param("tags", "garden"))
+                .andExpect(jsonPath("$[*].id", contains(second)));
+        mockMvc.perform(get(TODOS).param("tags", "report,urgent").param("status", "-past due"))
+                .andExpect(jsonPath("$[*].id", contains(first)));
+        assertThat(todoItemIndexService.tagsOf(List.of(third))).isEmpty();
+    }
+
+    @Test
+    void whenItemArchived_thenTagsStillReturned() throws Exception {
+        Integer id = add("[\"archived\",\"report\"]");
+        mockMvc.perform(patch(TODOS + "/{id}/done", id))
+                .andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE todo_items SET done_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(60)), id);
+        assertThat(todoItemArchiveService.archiveDoneItems()).isPositive();
+
+        // archived items aren't indexed, their tags are read from todo_item_tags
+        assertThat(todoItemIndexService.tagsOf(List.of(id))).isEmpty();
+        mockMvc.perform(get(TODOS + "/{id}", id).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags", contains("archived", "report")));
+        mockMvc.perform(get(TODOS).param("includeAll", "true").param("includeArchived", "true"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].tags[*]", contains("archived", "report")));
+    }
+
+    @Test
+    void whenInvalidTag_thenBadRequest() throws Exception {
+        mockMvc.perform(post(TODOS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Tagged item\",\"tags\":[\"Not a tag\"]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(TODOS).param("tags", "Not a tag"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
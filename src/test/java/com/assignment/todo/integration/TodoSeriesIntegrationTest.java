@@ -0,0 +1,123 @@
+package com.assignment.todo.integration;
+
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemOutboxEntityRepository;
+import com.assignment.todo.dal.dao.TodoSeriesEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoSeriesEntity;
+import com.assignment.todo.service.TodoSeriesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seriestest",
+        "todo.scheduler.past-due.enabled=false",
+        "todo.archive.enabled=false",
+        "todo.outbox.enabled=false"
+})
+@AutoConfigureMockMvc
+public class TodoSeriesIntegrationTest {
+
+    private static final String SERIES = "/api/v1/series";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoSeriesEntityRepository todoSeriesEntityRepository;
+
+    @Autowired
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Autowired
+    private TodoItemOutboxEntityRepository todoItemOutboxEntityRepository;
+
+    @Autowired
+    private TodoSeriesService todoSeriesService;
+
+    private TodoSeriesEntity save(LocalDateTime firstDueDateTime, LocalDateTime sweptUntil) {
+        return todoSeriesEntityRepository.save(TodoSeriesEntity.builder()
+                .description("Daily item")
+                .frequency("DAILY")
+                .recurrenceInterval(1)
+                .firstDueDateTime(firstDueDateTime)
+                .sweptUntil(sweptUntil)
+                .createdAt(sweptUntil)
+                .build());
+    }
+
+    @Test
+    void whenMarkOccurrenceAsDone_thenOnlyThatOccurrenceIsStored() throws Exception {
+        LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        String content = mockMvc.perform(post(SERIES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Daily item\",\"frequency\":\"daily\",\"firstDueDateTime\":\"" + first + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer id = Integer.valueOf(content.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        mockMvc.perform(get(SERIES + "/occurrences")
+                        .param("from", first.toString()).param("to", first.plusDays(5).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+        mockMvc.perform(patch(SERIES + "/{id}/occurrences/{occurrenceAt}/done", id, first.plusDays(2).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("done"));
+        mockMvc.perform(patch(SERIES + "/{id}/occurrences/{occurrenceAt}/done", id, first.plusDays(2).toString()))
+                .andExpect(status().isOk());
+
+        assertThat(todoItemEntityRepository.findOccurrences(List.of(id), first, first.plusYears(1)))
+                .extracting(TodoItemEntity::getOccurrenceAt, TodoItemEntity::getStatus)
+                .containsExactly(tuple(first.plusDays(2), TodoItemStatus.DONE.name()));
+        mockMvc.perform(get(SERIES + "/occurrences")
+                        .param("from", first.toString()).param("to", first.plusDays(5).toString()))
+                .andExpect(jsonPath("$[2].status").value("done"))
+                .andExpect(jsonPath("$[3].status").value("not done"));
+    }
+
+    @Test
+    void whenOccurrenceNotOfSeries_thenNotFound() throws Exception {
+        LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Integer id = save(first, LocalDateTime.now()).getId();
+
+        mockMvc.perform(patch(SERIES + "/{id}/occurrences/{occurrenceAt}/done", id, first.plusMinutes(1).toString()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get(SERIES + "/occurrences")
+                        .param("from", first.toString()).param("to", first.plusYears(2).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenSweep_thenPastDueOccurrencesStoredOnce() {
+        LocalDateTime sweptUntil = LocalDateTime.now().minusDays(3).plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        Integer id = save(sweptUntil.minusDays(30), sweptUntil).getId();
+        long events = todoItemOutboxEntityRepository.count();
+
+        int stored = todoSeriesService.storePastDueOccurrences(0, 1);
+
+        // due every day at the time it was swept until, three of them since
+        assertThat(stored).isEqualTo(3);
+        assertThat(todoItemEntityRepository.findOccurrences(List.of(id), sweptUntil.minusDays(30), LocalDateTime.now()))
+                .hasSize(3)
+                .allMatch(item -> TodoItemStatus.PAST_DUE.name().equals(item.getStatus()));
+        assertThat(todoItemOutboxEntityRepository.count()).isEqualTo(events + 3);
+        assertThat(todoSeriesService.storePastDueOccurrences(0, 1)).isZero();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.assignment.todo.jfr;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.exception.ItemNotFoundException;
+import com.assignment.todo.filter.AdmissionControlFilter;
+import com.assignment.todo.filter.RequestEventFilter;
+import com.assignment.todo.service.TodoItemService;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+public class JfrEventsTest extends BaseTestClass {
+
+    @Mock
+    private TodoItemService todoItemService;
+
+    @TempDir
+    private Path tempDir;
+
+    private Recording recording;
+
+    @BeforeEach
+    void startRecording() {
+        recording = new Recording();
+        recording.enable(ServiceOperationEvent.class);
+        recording.enable(HttpRequestEvent.class);
+        recording.start();
+    }
+
+    @AfterEach
+    void closeRecording() {
+        recording.close();
+    }
+
+    private List<RecordedEvent> recordedEvents(String name) throws IOException {
+        recording.stop();
+        Path file = tempDir.resolve("events.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+    }
+
+    @Test
+    void whenServiceCalled_thenRecordOperationEvents() throws Exception {
+        AspectJProxyFactory factory = new AspectJProxyFactory(todoItemService);
+        factory.addAspect(new ServiceOperationEventAspect());
+        TodoItemService service = factory.getProxy();
+        when(todoItemService.markAsDone(5)).thenReturn(TodoItemEntity.builder().id(5).build());
+        when(todoItemService.getItemDetails(7, false)).thenThrow(new ItemNotFoundException(7));
+
+        service.markAsDone(5);
+        assertThatThrownBy(() -> service.getItemDetails(7, false)).isInstanceOf(ItemNotFoundException.class);
+
+        List<RecordedEvent> events = recordedEvents("com.assignment.todo.ServiceOperation");
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getString("operation")).isEqualTo("markAsDone");
+        assertThat(events.get(0).getInt("itemId")).isEqualTo(5);
+        assertThat(events.get(0).getString("outcome")).isEqualTo(EventOutcome.SUCCESS);
+        assertThat(events.get(1).getString("operation")).isEqualTo("getItemDetails");
+        assertThat(events.get(1).getInt("itemId")).isEqualTo(7);
+        assertThat(events.get(1).getString("outcome")).isEqualTo(EventOutcome.NOT_FOUND);
+    }
+
+    @Test
+    void whenRequestFiltered_thenRecordRequestEvent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/todos/3");
+        request.addHeader(AdmissionControlFilter.CLIENT_ID_HEADER, "client-1");
+
+        new RequestEventFilter().doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/todos/{id}");
+            ((HttpServletResponse) res).setStatus(404);
+        });
+
+        List<RecordedEvent> events = recordedEvents("com.assignment.todo.HttpRequest");
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("method")).isEqualTo("GET");
+        assertThat(events.get(0).getString("route")).isEqualTo("/api/v1/todos/{id}");
+        assertThat(events.get(0).getInt("status")).isEqualTo(404);
+        assertThat(events.get(0).getString("clientId")).isEqualTo("client-1");
+    }
+
+}
@@ -1,27 +1,58 @@
 package com.assignment.todo.scheduler;
 
 import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.service.SchedulerLeaseService;
 import com.assignment.todo.service.TodoItemService;
+import com.assignment.todo.service.TodoSeriesService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class TodoItemSchedulerTest extends BaseTestClass {
 
     @Mock
     private TodoItemService todoItemService;
 
+    @Mock
+    private TodoSeriesService todoSeriesService;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
     @InjectMocks
     private TodoItemScheduler todoItemScheduler;
 
     @Test
     void whenUpdatePastDueItemsStatus_thenSuccess() {
+        when(schedulerLeaseService.acquirePartitions()).thenReturn(List.of(0, 2));
+        when(schedulerLeaseService.getPartitionCount()).thenReturn(4);
+
+        todoItemScheduler.updatePastDueItemsStatus();
+
+        verify(todoItemService, times(1)).checkAndUpdateStatusForPastDueItems(0, 4);
+        verify(todoItemService, times(1)).checkAndUpdateStatusForPastDueItems(2, 4);
+        verify(todoItemService, times(2)).checkAndUpdateStatusForPastDueItems(anyInt(), anyInt());
+        verify(todoSeriesService, times(1)).storePastDueOccurrences(0, 4);
+        verify(todoSeriesService, times(1)).storePastDueOccurrences(2, 4);
+    }
+
+    @Test
+    void whenNoPartitionLeased_thenNothingToUpdate() {
+        when(schedulerLeaseService.acquirePartitions()).thenReturn(List.of());
+        when(schedulerLeaseService.getPartitionCount()).thenReturn(4);
+
         todoItemScheduler.updatePastDueItemsStatus();
 
-        verify(todoItemService, times(1)).checkAndUpdateStatusForPastDueItems();
+        verify(todoItemService, never()).checkAndUpdateStatusForPastDueItems(anyInt(), anyInt());
+        verify(todoSeriesService, never()).storePastDueOccurrences(anyInt(), anyInt());
     }
 
 }
@@ -0,0 +1,223 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.dal.dao.IdempotencyKeyEntityRepository;
+import com.assignment.todo.dal.entity.IdempotencyKeyEntity;
+import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.TodoItem;
+import com.assignment.todo.exception.ActionNotAllowedException;
+import com.assignment.todo.service.impl.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyServiceTest extends BaseTestClass {
+
+    private static final CreateTodoItemRequest REQUEST = CreateTodoItemRequest.builder()
+            .description("Test Item")
+            .dueDateTime(LocalDateTime.of(2050, 12, 31, 14, 15))
+            .build();
+
+    @Mock
+    private IdempotencyKeyEntityRepository idempotencyKeyEntityRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyService newService(int maxEntries, Duration ttl, boolean persist) {
+        return new IdempotencyServiceImpl(idempotencyKeyEntityRepository, objectMapper, maxEntries, ttl, persist);
+    }
+
+    @Test
+    void whenExecuteTwiceWithSameKey_thenActionRunsOnce() throws ActionNotAllowedException {
+        IdempotencyService service = newService(10, Duration.ofHours(1), false);
+        AtomicInteger calls = new AtomicInteger();
+
+        TodoItem first = service.execute("key-1", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+        TodoItem second = service.execute("key-1", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        verifyNoInteractions(idempotencyKeyEntityRepository);
+    }
+
+    @Test
+    void whenExecuteConcurrentlyWithSameKey_thenActionRunsOnce() throws Exception {
+        IdempotencyService service = newService(10, Duration.ofHours(1), false);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TodoItem>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.execute("key-1", REQUEST, () -> {
+                        sleep(50);
+                        return TodoItem.builder().id(calls.incrementAndGet()).build();
+                    });
+                }));
+            }
+            start.countDown();
+
+            for (Future<TodoItem> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1);
+            }
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenExecuteWithReusedKeyAndDifferentRequest_thenActionNotAllowed() throws ActionNotAllowedException {
+        IdempotencyService service = newService(10, Duration.ofHours(1), false);
+        service.execute("key-1", REQUEST, () -> TodoItem.builder().id(1).build());
+
+        CreateTodoItemRequest otherRequest = CreateTodoItemRequest.builder().description("Other Item").build();
+
+        assertThatThrownBy(() -> service.execute("key-1", otherRequest, () -> TodoItem.builder().id(2).build()))
+                .isInstanceOf(ActionNotAllowedException.class).hasMessageContaining("key-1");
+    }
+
+    @Test
+    void whenActionFails_thenKeyIsNotRemembered() throws ActionNotAllowedException {
+        IdempotencyService service = newService(10, Duration.ofHours(1), false);
+
+        assertThatThrownBy(() -> service.execute("key-1", REQUEST, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        TodoItem item = service.execute("key-1", REQUEST, () -> TodoItem.builder().id(2).build());
+
+        assertThat(item.getId()).isEqualTo(2);
+    }
+
+    @Test
+    void whenKeyExpired_thenActionRunsAgain() throws ActionNotAllowedException {
+        IdempotencyService service = newService(10, Duration.ofMillis(1), false);
+        AtomicInteger calls = new AtomicInteger();
+
+        service.execute("key-1", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+        sleep(5);
+        service.execute("key-1", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void whenStoreIsFull_thenEldestKeyIsEvicted() throws ActionNotAllowedException {
+        IdempotencyService service = newService(2, Duration.ofHours(1), false);
+        AtomicInteger calls = new AtomicInteger();
+
+        service.execute("key-1", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+        service.execute("key-2", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+        service.execute("key-3", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+        service.execute("key-1", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void whenPersistEnabled_thenSaveResponse() throws ActionNotAllowedException {
+        IdempotencyService service = newService(10, Duration.ofHours(1), true);
+        when(idempotencyKeyEntityRepository.findById("key-1")).thenReturn(Optional.empty());
+
+        service.execute("key-1", REQUEST, () -> TodoItem.builder().id(1).build());
+
+        verify(idempotencyKeyEntityRepository, times(1)).insert(eq("key-1"), eq(REQUEST.hashCode()), anyString(), any());
+        verify(idempotencyKeyEntityRepository, never()).save(any(IdempotencyKeyEntity.class));
+    }
+
+    @Test
+    void whenPersistedKeyReusedWithDifferentRequest_thenActionNotAllowed() throws Exception {
+        IdempotencyService service = newService(10, Duration.ofHours(1), true);
+        when(idempotencyKeyEntityRepository.findById("key-1")).thenReturn(Optional.of(IdempotencyKeyEntity.builder()
+                .idempotencyKey("key-1")
+                .requestHash(REQUEST.hashCode() + 1)
+                .response(objectMapper.writeValueAsString(TodoItem.builder().id(7).build()))
+                .createdAt(LocalDateTime.now())
+                .build()));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> service.execute("key-1", REQUEST,
+                () -> TodoItem.builder().id(calls.incrementAndGet()).build()))
+                .isInstanceOf(ActionNotAllowedException.class).hasMessageContaining("key-1");
+        assertThat(calls.get()).isZero();
+        verify(idempotencyKeyEntityRepository, never()).insert(anyString(), anyInt(), anyString(), any());
+    }
+
+    @Test
+    void whenPersistedKeyExpired_thenReplaceIt() throws Exception {
+        IdempotencyService service = newService(10, Duration.ofHours(1), true);
+        IdempotencyKeyEntity expired = IdempotencyKeyEntity.builder()
+                .idempotencyKey("key-1")
+                .requestHash(REQUEST.hashCode() + 1)
+                .response(objectMapper.writeValueAsString(TodoItem.builder().id(7).build()))
+                .createdAt(LocalDateTime.now().minusHours(2))
+                .build();
+        when(idempotencyKeyEntityRepository.findById("key-1")).thenReturn(Optional.of(expired));
+
+        TodoItem item = service.execute("key-1", REQUEST, () -> TodoItem.builder().id(1).build());
+
+        assertThat(item.getId()).isEqualTo(1);
+        verify(idempotencyKeyEntityRepository).delete(expired);
+        verify(idempotencyKeyEntityRepository).insert(eq("key-1"), eq(REQUEST.hashCode()), anyString(), any());
+    }
+
+    @Test
+    void whenKeyPersistedConcurrently_thenStoredRowKept() throws ActionNotAllowedException {
+        IdempotencyService service = newService(10, Duration.ofHours(1), true);
+        when(idempotencyKeyEntityRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(idempotencyKeyEntityRepository.insert(eq("key-1"), anyInt(), anyString(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        TodoItem item = service.execute("key-1", REQUEST, () -> TodoItem.builder().id(1).build());
+
+        assertThat(item.getId()).isEqualTo(1);
+        verify(idempotencyKeyEntityRepository, never()).save(any(IdempotencyKeyEntity.class));
+    }
+
+    @Test
+    void whenPersistEnabledAndKeyStored_thenReturnStoredResponse() throws Exception {
+        IdempotencyService service = newService(10, Duration.ofHours(1), true);
+        when(idempotencyKeyEntityRepository.findById("key-1")).thenReturn(Optional.of(IdempotencyKeyEntity.builder()
+                .idempotencyKey("key-1")
+                .requestHash(REQUEST.hashCode())
+                .response(objectMapper.writeValueAsString(TodoItem.builder().id(7).build()))
+                .createdAt(LocalDateTime.now())
+                .build()));
+        AtomicInteger calls = new AtomicInteger();
+
+        TodoItem item = service.execute("key-1", REQUEST, () -> TodoItem.builder().id(calls.incrementAndGet()).build());
+
+        assertThat(item.getId()).isEqualTo(7);
+        assertThat(calls.get()).isZero();
+        verify(idempotencyKeyEntityRepository, never()).insert(anyString(), anyInt(), anyString(), any());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemOutboxEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemOutboxEntity;
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.exception.EventDeliveryException;
+import com.assignment.todo.service.impl.StatusEventRelayServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatusEventRelayServiceTest extends BaseTestClass {
+
+    @Mock
+    private TodoItemOutboxEntityRepository todoItemOutboxRepository;
+
+    @Mock
+    private StatusEventSink statusEventSink;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StatusEventRelayServiceImpl statusEventRelayService;
+
+    @BeforeEach
+    void setUp() {
+        statusEventRelayService = new StatusEventRelayServiceImpl(todoItemOutboxRepository, statusEventSink,
+                transactionManager, Clock.systemDefaultZone(), 2, 10, Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(10));
+        meterRegistry = new SimpleMeterRegistry();
+        statusEventRelayService.bindTo(meterRegistry);
+    }
+
+    private static TodoItemOutboxEntity event(long id, TodoItemStatus status, int attempts) {
+        return TodoItemOutboxEntity.builder()
+                .id(id).itemId((int) id).status(status.name()).attempts(attempts)
+                .occurredAt(LocalDateTime.now().minusSeconds(5)).availableAt(LocalDateTime.now().minusSeconds(5))
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenEventsWaiting_thenDeliverAndDeleteBatches() throws EventDeliveryException {
+        when(todoItemOutboxRepository.findForDelivery(any(), eq(2))).thenReturn(
+                List.of(event(1, TodoItemStatus.DONE, 0), event(2, TodoItemStatus.PAST_DUE, 1)),
+                List.of(event(3, TodoItemStatus.DONE, 0)));
+
+        int relayed = statusEventRelayService.relay();
+
+        assertThat(relayed).isEqualTo(3);
+        ArgumentCaptor<List<StatusChangeEvent>> batches = ArgumentCaptor.forClass(List.class);
+        verify(statusEventSink, times(2)).deliver(batches.capture());
+        assertThat(batches.getAllValues().get(0)).extracting(StatusChangeEvent::getStatus)
+                .containsExactly("done", "past due");
+        verify(todoItemOutboxRepository).claim(eq(List.of(1L, 2L)), any());
+        verify(todoItemOutboxRepository).deleteAllByIds(List.of(1L, 2L));
+        verify(todoItemOutboxRepository).deleteAllByIds(List.of(3L));
+        assertThat(meterRegistry.get("todo.outbox.delivered").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("todo.outbox.redelivered").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("todo.outbox.lag").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void whenDeliveryFails_thenRescheduleAndStop() throws EventDeliveryException {
+        when(todoItemOutboxRepository.findForDelivery(any(), anyInt()))
+                .thenReturn(List.of(event(1, TodoItemStatus.DONE, 2), event(2, TodoItemStatus.DONE, 0)));
+        doThrow(new EventDeliveryException("unavailable", null)).when(statusEventSink).deliver(anyList());
+
+        LocalDateTime before = LocalDateTime.now();
+        int relayed = statusEventRelayService.relay();
+
+        assertThat(relayed).isZero();
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(todoItemOutboxRepository).reschedule(eq(List.of(1L, 2L)), retryAt.capture());
+        // third attempt of the oldest event, 1s doubled twice
+        assertThat(retryAt.getValue()).isAfterOrEqualTo(before.plusSeconds(4));
+        verify(todoItemOutboxRepository, never()).deleteAllByIds(anyList());
+        assertThat(meterRegistry.get("todo.outbox.failed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void whenOutboxEmpty_thenDeliverNothing() throws EventDeliveryException {
+        when(todoItemOutboxRepository.findForDelivery(any(), anyInt())).thenReturn(List.of());
+
+        assertThat(statusEventRelayService.relay()).isZero();
+
+        verify(statusEventSink, never()).deliver(anyList());
+        verify(todoItemOutboxRepository, never()).claim(anyList(), any());
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.StatusEventStubServer;
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.exception.EventDeliveryException;
+import com.assignment.todo.service.impl.HttpStatusEventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StatusEventSinkTest {
+
+    private static final StatusChangeEvent EVENT = StatusChangeEvent.builder()
+            .id(7L).itemId(1).status("done").occurredAt(LocalDateTime.of(2050, 1, 1, 10, 0))
+            .build();
+
+    private StatusEventStubServer stub;
+
+    private HttpStatusEventSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new StatusEventStubServer();
+        sink = new HttpStatusEventSink(new RestTemplateBuilder(), URI.create(stub.url()),
+                Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void whenDeliver_thenPostBatchAsJson() throws EventDeliveryException {
+        sink.deliver(List.of(EVENT));
+
+        assertThat(stub.received()).containsExactly(EVENT);
+    }
+
+    @Test
+    void whenDownstreamUnavailable_thenDeliveryFails() {
+        stub.failNext(1);
+
+        assertThatThrownBy(() -> sink.deliver(List.of(EVENT)))
+                .isInstanceOf(EventDeliveryException.class).hasMessageContaining("1 events");
+        assertThat(stub.received()).isEmpty();
+    }
+
+}
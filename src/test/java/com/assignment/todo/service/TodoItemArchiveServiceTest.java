@@ -0,0 +1,85 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.service.impl.TodoItemArchiveServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TodoItemArchiveServiceTest extends BaseTestClass {
+
+    @Mock
+    private TodoItemEntityRepository todoItemRepository;
+
+    @Mock
+    private TodoItemArchiveEntityRepository todoItemArchiveRepository;
+
+    @Mock
+    private TodoItemIndexService todoItemIndexService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoItemArchiveServiceImpl todoItemArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        todoItemArchiveService = new TodoItemArchiveServiceImpl(todoItemRepository, todoItemArchiveRepository, todoItemIndexService,
+                transactionManager, Clock.systemDefaultZone(), Duration.ofDays(30), 2, 1000, 10);
+    }
+
+    @Test
+    void whenDoneItemsOlderThanAge_thenArchiveInBatches() {
+        when(todoItemRepository.findIdsForArchival(eq(TodoItemStatus.DONE.name()), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1, 2), List.of(3));
+
+        int archived = todoItemArchiveService.archiveDoneItems();
+
+        assertThat(archived).isEqualTo(3);
+        verify(todoItemArchiveRepository).archive(eq(List.of(1, 2)), any(LocalDateTime.class));
+        verify(todoItemArchiveRepository).archive(eq(List.of(3)), any(LocalDateTime.class));
+        verify(todoItemRepository).deleteAllByIds(List.of(1, 2));
+        verify(todoItemRepository).deleteAllByIds(List.of(3));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void whenNothingToArchive_thenNoWrites() {
+        when(todoItemRepository.findIdsForArchival(any(), any(), anyInt())).thenReturn(List.of());
+
+        assertThat(todoItemArchiveService.archiveDoneItems()).isZero();
+        verify(todoItemArchiveRepository, never()).archive(anyList(), any());
+        verify(todoItemRepository, never()).deleteAllByIds(anyList());
+    }
+
+    @Test
+    void whenBatchAlreadyArchived_thenStopRun() {
+        when(todoItemRepository.findIdsForArchival(any(), any(), anyInt())).thenReturn(List.of(1, 2));
+        when(todoItemArchiveRepository.archive(anyList(), any())).thenThrow(DataIntegrityViolationException.class);
+
+        assertThat(todoItemArchiveService.archiveDoneItems()).isZero();
+        verify(todoItemArchiveRepository, times(1)).archive(anyList(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+}
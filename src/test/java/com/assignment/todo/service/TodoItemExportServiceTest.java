@@ -0,0 +1,119 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.constants.ExportFormat;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.projection.TodoItemView;
+import com.assignment.todo.service.impl.TodoItemExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TodoItemExportServiceTest extends BaseTestClass {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2050, 12, 31, 14, 15);
+
+    @Mock
+    private TodoItemEntityRepository todoItemRepository;
+
+    @Mock
+    private TodoItemArchiveEntityRepository todoItemArchiveRepository;
+
+    @Mock
+    private TodoItemJdbcDao todoItemJdbcDao;
+
+    private TodoItemExportServiceImpl todoItemExportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeEach
+    void setUp() {
+        todoItemExportService = new TodoItemExportServiceImpl(todoItemRepository, todoItemArchiveRepository,
+                todoItemJdbcDao, objectMapper);
+        when(todoItemRepository.streamAllViews()).thenReturn(Stream.of(
+                new TodoItemView(1, "Buy milk", "NOT_DONE", DUE, null, DUE.minusDays(1), 2),
+                new TodoItemView(2, "Call \"Sam\", then email", "DONE", DUE, DUE, DUE.minusDays(1), 2)));
+        when(todoItemArchiveRepository.streamAllViews()).thenReturn(Stream.of(
+                new TodoItemView(3, "Archived", "DONE", DUE, DUE, DUE.minusDays(1), 2)));
+    }
+
+    @Test
+    void whenExportAsNdjson_thenOneItemPerLine() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = todoItemExportService.exportItems(ExportFormat.NDJSON, true, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asInt()).isEqualTo(1);
+        assertThat(first.get("status").asText()).isEqualTo("not done");
+        assertThat(first.get("dueDateTime").asText()).isEqualTo("2050-12-31T14:15:00");
+        assertThat(objectMapper.readTree(lines[2]).get("id").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void whenExportAsCsv_thenEscapeValues() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = todoItemExportService.exportItems(ExportFormat.CSV, false, output);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\r\n")).containsExactly(
+                "id,description,status,dueDateTime,doneAt,createdAt,priority",
+                "1,Buy milk,not done,2050-12-31T14:15:00,,2050-12-30T14:15:00,medium",
+                "2,\"Call \"\"Sam\"\", then email\",done,2050-12-31T14:15:00,2050-12-31T14:15:00,2050-12-30T14:15:00,medium");
+        verify(todoItemArchiveRepository, never()).streamAllViews();
+    }
+
+    @Test
+    void whenExport_thenFirstRowFlushedBeforeCursorExhausted() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        List<String> writtenBeforeRow = new ArrayList<>();
+        when(todoItemRepository.streamAllViews()).thenReturn(Stream.of(1, 2, 3).map(id -> {
+            // what the client had received when the cursor was asked for this row
+            writtenBeforeRow.add(output.toString(StandardCharsets.UTF_8));
+            return new TodoItemView(id, "Item " + id, "NOT_DONE", DUE, null, DUE.minusDays(1), 2);
+        }));
+
+        todoItemExportService.exportItems(ExportFormat.CSV, false, output);
+
+        assertThat(writtenBeforeRow).hasSize(3);
+        assertThat(writtenBeforeRow.get(0)).isEmpty();
+        assertThat(writtenBeforeRow.get(1)).endsWith("\r\n1,Item 1,not done,2050-12-31T14:15:00,,2050-12-30T14:15:00,medium\r\n");
+    }
+
+    @Test
+    void whenExport_thenQueriesRunLazilyAndSettingRestored() throws IOException {
+        todoItemExportService.exportItems(ExportFormat.NDJSON, true, new ByteArrayOutputStream());
+
+        InOrder inOrder = inOrder(todoItemJdbcDao, todoItemRepository, todoItemArchiveRepository);
+        inOrder.verify(todoItemJdbcDao).setLazyQueryExecution(true);
+        inOrder.verify(todoItemRepository).streamAllViews();
+        inOrder.verify(todoItemArchiveRepository).streamAllViews();
+        inOrder.verify(todoItemJdbcDao).setLazyQueryExecution(false);
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.dal.dao.TodoItemEventEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.entity.TodoItemEventEntity;
+import com.assignment.todo.dto.TodoItemHistory;
+import com.assignment.todo.service.impl.TodoItemHistoryServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TodoItemHistoryServiceTest extends BaseTestClass {
+
+    @Mock
+    private TodoItemEventEntityRepository todoItemEventRepository;
+
+    @Mock
+    private TodoItemJdbcDao todoItemJdbcDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TodoItemHistoryServiceImpl todoItemHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        when(todoItemJdbcDao.insertEvents(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        todoItemHistoryService = new TodoItemHistoryServiceImpl(todoItemEventRepository, todoItemJdbcDao,
+                transactionManager, Clock.systemDefaultZone(), objectMapper, 3, 2);
+        meterRegistry = new SimpleMeterRegistry();
+        todoItemHistoryService.bindTo(meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenFlush_thenWriteRecordedChangesInBatches() {
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        oldValues.put("status", "not done");
+        oldValues.put("doneAt", null);
+        todoItemHistoryService.record(1, TodoItemEventType.DONE, oldValues,
+                Map.of("doneAt", LocalDateTime.of(2050, 1, 1, 10, 0)));
+        todoItemHistoryService.record(2, TodoItemEventType.CREATED, null, Map.of("description", "Test Item"));
+        todoItemHistoryService.record(2, TodoItemEventType.DELETED, Map.of("description", "Test Item"), null);
+        assertThat(meterRegistry.get("todo.history.queue.depth").gauge().value()).isEqualTo(3);
+
+        int written = todoItemHistoryService.flush();
+
+        ArgumentCaptor<List<TodoItemEventEntity>> batches = ArgumentCaptor.forClass(List.class);
+        verify(todoItemJdbcDao, times(2)).insertEvents(batches.capture());
+        assertThat(written).isEqualTo(3);
+        TodoItemEventEntity done = batches.getAllValues().get(0).get(0);
+        assertThat(done.getItemId()).isEqualTo(1);
+        assertThat(done.getEventType()).isEqualTo(TodoItemEventType.DONE.name());
+        assertThat(done.getActor()).isEqualTo(TodoItemHistoryServiceImpl.SYSTEM_ACTOR);
+        assertThat(done.getOldValues()).isEqualTo("{\"status\":\"not done\",\"doneAt\":null}");
+        assertThat(done.getNewValues()).isEqualTo("{\"doneAt\":\"2050-01-01T10:00:00\"}");
+        assertThat(batches.getAllValues().get(1).get(0).getNewValues()).isNull();
+        assertThat(meterRegistry.get("todo.history.queue.depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("todo.history.write.lag").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenRecordAll_thenWrittenRightAwayInBatches() {
+        for (int i = 1; i <= 5; i++) {
+            todoItemHistoryService.record(i, TodoItemEventType.CREATED, null, Map.of("description", "Item " + i));
+        }
+
+        int written = todoItemHistoryService.recordAll(List.of(1, 2, 3), TodoItemEventType.PAST_DUE,
+                Map.of("status", "not done"), Map.of("status", "past due"));
+
+        // the queue is full, the changes made in bulk don't go through it
+        ArgumentCaptor<List<TodoItemEventEntity>> batches = ArgumentCaptor.forClass(List.class);
+        verify(todoItemJdbcDao, times(2)).insertEvents(batches.capture());
+        assertThat(written).isEqualTo(3);
+        assertThat(batches.getAllValues().get(0)).extracting(TodoItemEventEntity::getItemId).containsExactly(1, 2);
+        assertThat(batches.getAllValues().get(1)).singleElement().satisfies(event -> {
+            assertThat(event.getItemId()).isEqualTo(3);
+            assertThat(event.getEventType()).isEqualTo(TodoItemEventType.PAST_DUE.name());
+            assertThat(event.getNewValues()).isEqualTo("{\"status\":\"past due\"}");
+        });
+    }
+
+    @Test
+    void whenQueueFull_thenDropChanges() {
+        for (int i = 1; i <= 5; i++) {
+            todoItemHistoryService.record(i, TodoItemEventType.CREATED, null, Map.of("description", "Item " + i));
+        }
+
+        assertThat(meterRegistry.get("todo.history.dropped").counter().count()).isEqualTo(2);
+        assertThat(todoItemHistoryService.flush()).isEqualTo(3);
+    }
+
+    @Test
+    void whenNothingRecorded_thenWriteNothing() {
+        assertThat(todoItemHistoryService.flush()).isZero();
+
+        verify(todoItemJdbcDao, never()).insertEvents(anyList());
+    }
+
+    @Test
+    void whenGetHistory_thenMapPageOfEvents() {
+        TodoItemEventEntity event = TodoItemEventEntity.builder()
+                .id(1L).itemId(1).eventType(TodoItemEventType.NOT_DONE.name()).actor("client-1")
+                .oldValues("{\"status\":\"done\"}").newValues("{\"status\":\"not done\"}")
+                .changedAt(LocalDateTime.now())
+                .build();
+        when(todoItemEventRepository.findAllByItemId(eq(1), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(event), PageRequest.of(1, 1), 2));
+
+        TodoItemHistory history = todoItemHistoryService.getHistory(1, 1, 1);
+
+        assertThat(history.getTotalChanges()).isEqualTo(2);
+        assertThat(history.getTotalPages()).isEqualTo(2);
+        assertThat(history.getChanges()).hasSize(1);
+        assertThat(history.getChanges().get(0).getType()).isEqualTo("not done");
+        assertThat(history.getChanges().get(0).getActor()).isEqualTo("client-1");
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.ImportSummary;
+import com.assignment.todo.service.impl.TodoItemImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TodoItemImportServiceTest extends BaseTestClass {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2030-01-01T10:00:00Z"), ZoneOffset.UTC);
+    private static final String FUTURE = LocalDateTime.now().plusDays(1).withNano(0).toString();
+
+    @Mock
+    private TodoItemJdbcDao todoItemJdbcDao;
+
+    @Mock
+    private TodoItemIndexService todoItemIndexService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    private TodoItemImportServiceImpl todoItemImportService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+        when(todoItemJdbcDao.insertAll(anyList(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+        todoItemImportService = new TodoItemImportServiceImpl(todoItemJdbcDao, todoItemIndexService, transactionManager,
+                entityManagerFactory, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), CLOCK, 2, 10, 200);
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String item(String description, String dueDateTime) {
+        return "{\"description\":\"" + description + "\",\"dueDateTime\":\"" + dueDateTime + "\"}";
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenValidLines_thenInsertInBatches() throws IOException {
+        ImportSummary summary = todoItemImportService.importItems(ndjson(
+                item("First", FUTURE), item("Second", FUTURE), "", item("Third", FUTURE)));
+
+        ArgumentCaptor<List<CreateTodoItemRequest>> batches = ArgumentCaptor.forClass(List.class);
+        verify(todoItemJdbcDao, times(2)).insertAll(batches.capture(), eq(LocalDateTime.of(2030, 1, 1, 10, 0)));
+        assertThat(summary.getReceived()).isEqualTo(3);
+        assertThat(summary.getImported()).isEqualTo(3);
+        assertThat(summary.getFailed()).isZero();
+        verify(hibernateCache, times(2)).evictDefaultQueryRegion();
+    }
+
+    @Test
+    void whenInvalidLines_thenSkipAndReportThem() throws IOException {
+        ImportSummary summary = todoItemImportService.importItems(ndjson(
+                item("First", FUTURE),
+                "{not json",
+                item("", FUTURE),
+                item("Past", "2020-01-01T00:00:00"),
+                item("Last", FUTURE)));
+
+        assertThat(summary.getReceived()).isEqualTo(5);
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getFailed()).isEqualTo(3);
+        assertThat(summary.getErrors()).extracting(ImportSummary.ImportError::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(summary.getErrors().get(0).getMessages().get(0)).startsWith("Invalid JSON");
+        assertThat(summary.getErrors().get(1).getMessages()).anyMatch(message -> message.startsWith("description"));
+        assertThat(summary.getErrors().get(2).getMessages()).anyMatch(message -> message.startsWith("dueDateTime"));
+    }
+
+    @Test
+    void whenBatchInsertFails_thenReportItsLines() throws IOException {
+        when(todoItemJdbcDao.insertAll(anyList(), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("too long"));
+
+        ImportSummary summary = todoItemImportService.importItems(ndjson(item("First", FUTURE), item("Second", FUTURE)));
+
+        assertThat(summary.getImported()).isZero();
+        assertThat(summary.getFailed()).isEqualTo(2);
+        assertThat(summary.getErrors()).extracting(ImportSummary.ImportError::getLine).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void whenLineTooLong_thenRejectItAndReadTheNextOnes() throws IOException {
+        ImportSummary summary = todoItemImportService.importItems(ndjson(
+                item("First", FUTURE), item("x".repeat(500), FUTURE), item("Last", FUTURE)));
+
+        assertThat(summary.getReceived()).isEqualTo(3);
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getErrors()).extracting(ImportSummary.ImportError::getLine).containsExactly(2L);
+        assertThat(summary.getErrors().get(0).getMessages()).containsExactly("Line longer than 200 characters");
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dto.TodoItemFilter;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.service.impl.TodoItemIndexServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TodoItemIndexServiceTest extends BaseTestClass {
+
+    @Mock
+    private TodoItemJdbcDao todoItemJdbcDao;
+
+    private TodoItemIndexServiceImpl todoItemIndexService;
+
+    @BeforeEach
+    void setUp() {
+        rows(List.of(new Row(1, "NOT_DONE"), new Row(2, "DONE"), new Row(3, "PAST_DUE"), new Row(4, "NOT_DONE")),
+                List.of(new Row(1, "work"), new Row(1, "urgent"), new Row(2, "work"), new Row(3, "work"),
+                        new Row(4, "home")));
+        todoItemIndexService = new TodoItemIndexServiceImpl(todoItemJdbcDao);
+        todoItemIndexService.rebuild();
+    }
+
+    private record Row(int id, String value) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rows(List<Row> statuses, List<Row> tags) {
+        doAnswer(invocation -> {
+            int afterId = invocation.getArgument(0);
+            statuses.stream().filter(row -> row.id() > afterId)
+                    .forEach(row -> ((BiConsumer<Integer, String>) invocation.getArgument(1)).accept(row.id(), row.value()));
+            return null;
+        }).when(todoItemJdbcDao).forEachStatus(anyInt(), any());
+        doAnswer(invocation -> {
+            int afterId = invocation.getArgument(0);
+            tags.stream().filter(row -> row.id() > afterId)
+                    .forEach(row -> ((BiConsumer<Integer, String>) invocation.getArgument(1)).accept(row.id(), row.value()));
+            return null;
+        }).when(todoItemJdbcDao).forEachTag(anyInt(), any());
+    }
+
+    @Test
+    void whenFindByTagAndStatus_thenMatchingIds() throws InvalidRequestException {
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("work", null, false))).containsExactly(1, 3);
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("work", null, true))).containsExactly(1, 2, 3);
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("work,urgent", "not done", false))).containsExactly(1);
+        assertThat(todoItemIndexService.find(TodoItemFilter.from(null, "past due", false))).containsExactly(3);
+    }
+
+    @Test
+    void whenFindWithExcludedTagOrStatus_thenLeftOut() throws InvalidRequestException {
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("-urgent", null, true))).containsExactly(2, 3, 4);
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("work", "-past due", false))).containsExactly(1, 2);
+    }
+
+    @Test
+    void whenFindByUnknownTag_thenNoIds() throws InvalidRequestException {
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("work,someday", null, true))).isEmpty();
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("-someday", null, true))).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void whenItemsChanged_thenIndexUpdated() throws InvalidRequestException {
+        todoItemIndexService.setStatus(List.of(1), TodoItemStatus.DONE);
+        todoItemIndexService.setTags(4, List.of("work"));
+        todoItemIndexService.add(5, TodoItemStatus.NOT_DONE, List.of("work"));
+        todoItemIndexService.remove(List.of(3));
+
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("work", null, false))).containsExactly(4, 5);
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("home", null, true))).isEmpty();
+        assertThat(todoItemIndexService.tagsOf(List.of(1, 3, 4)))
+                .containsOnly(entry(1, Set.of("urgent", "work")), entry(4, Set.of("work")));
+    }
+
+    @Test
+    void whenCatchUp_thenNewItemsIndexed() throws InvalidRequestException {
+        rows(List.of(new Row(5, "NOT_DONE"), new Row(6, "NOT_DONE")), List.of(new Row(6, "work")));
+
+        todoItemIndexService.catchUp();
+
+        verify(todoItemJdbcDao).forEachStatus(eq(4), any());
+        assertThat(todoItemIndexService.find(TodoItemFilter.from("work", null, false))).containsExactly(1, 3, 6);
+        assertThat(todoItemIndexService.find(TodoItemFilter.from(null, null, false))).containsExactly(1, 3, 4, 5, 6);
+    }
+
+    @Test
+    void whenRebuild_thenOrphanTagsPurgedAndItemsCounted() {
+        assertThat(todoItemIndexService.rebuild()).isEqualTo(4);
+        verify(todoItemJdbcDao, times(2)).deleteOrphanTags();
+        assertThat(todoItemIndexService.tagsOf(List.of(1)).get(1)).containsExactly("urgent", "work");
+        assertThat(todoItemIndexService.tagsOf(List.of(2, 5))).containsOnly(entry(2, Set.of("work")));
+    }
+
+}
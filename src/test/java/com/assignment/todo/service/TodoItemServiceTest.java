@@ -1,25 +1,50 @@
 package com.assignment.todo.service;
 
 import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.constants.TodoItemField;
+import com.assignment.todo.constants.TodoItemPriority;
 import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
 import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemFieldsDao;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.dao.TodoItemOutboxEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemArchiveEntity;
 import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoItemOutboxEntity;
+import com.assignment.todo.dal.projection.TodoItemView;
 import com.assignment.todo.dto.CreateTodoItemRequest;
+import com.assignment.todo.dto.TodoItemFilter;
 import com.assignment.todo.dto.UpdateTodoItemRequest;
 import com.assignment.todo.exception.ActionNotAllowedException;
 import com.assignment.todo.exception.ItemNotFoundException;
 import com.assignment.todo.service.impl.TodoItemServiceImpl;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class TodoItemServiceTest extends BaseTestClass {
@@ -27,53 +52,147 @@ public class TodoItemServiceTest extends BaseTestClass {
     @Mock
     private TodoItemEntityRepository todoItemRepository;
 
+    @Mock
+    private TodoItemArchiveEntityRepository todoItemArchiveRepository;
+
+    @Mock
+    private TodoItemOutboxEntityRepository todoItemOutboxRepository;
+
+    @Mock
+    private TodoItemJdbcDao todoItemJdbcDao;
+
+    @Mock
+    private TodoItemFieldsDao todoItemFieldsDao;
+
+    @Mock
+    private TodoItemHistoryService todoItemHistoryService;
+
+    @Mock
+    private TodoItemIndexService todoItemIndexService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    @Mock
+    private Clock clock;
+
     @InjectMocks
     private TodoItemServiceImpl todoItemService;
 
+    private static Map<String, Object> statusMap(String status, LocalDateTime doneAt) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("status", status);
+        values.put("doneAt", doneAt);
+        return values;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+        when(clock.instant()).thenAnswer(invocation -> Instant.now());
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+    }
+
     @Test
     void whenGetAllItems_thenSuccess() {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1).description("Test Item").build();
-        when(todoItemRepository.findAll()).thenReturn(List.of(mockItem));
+        TodoItemView mockItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemRepository.findAllViews()).thenReturn(List.of(mockItem));
 
-        List<TodoItemEntity> newItems = todoItemService.getAllItems(true);
+        List<TodoItemView> newItems = todoItemService.getAllItems(true, false);
 
         assertThat(newItems.size()).isEqualTo(1);
-        assertThat(newItems.get(0).getDescription()).isEqualTo("Test Item");
+        assertThat(newItems.get(0).description()).isEqualTo("Test Item");
     }
 
     @Test
     void whenGetNotDoneItems_thenSuccess() {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1).description("Test Item").build();
-        when(todoItemRepository.findAllByStatusNot(TodoItemStatus.DONE.name())).thenReturn(List.of(mockItem));
+        TodoItemView mockItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemRepository.findAllViewsByStatusNot(TodoItemStatus.DONE.name())).thenReturn(List.of(mockItem));
 
-        List<TodoItemEntity> newItems = todoItemService.getAllItems(false);
+        List<TodoItemView> newItems = todoItemService.getAllItems(false, false);
 
         assertThat(newItems.size()).isEqualTo(1);
-        assertThat(newItems.get(0).getDescription()).isEqualTo("Test Item");
+        assertThat(newItems.get(0).description()).isEqualTo("Test Item");
     }
 
     @Test
     void whenGetItemById_thenSuccess() throws ItemNotFoundException {
-        TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1).description("Test Item").build();
-        when(todoItemRepository.findById(1)).thenReturn(Optional.of(mockItem));
+        TodoItemView mockItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemRepository.findViewById(1)).thenReturn(Optional.of(mockItem));
 
-        TodoItemEntity newItem = todoItemService.getItemDetails(1);
+        TodoItemView newItem = todoItemService.getItemDetails(1, false);
 
-        assertThat(newItem.getId()).isEqualTo(1);
-        assertThat(newItem.getDescription()).isEqualTo("Test Item");
+        assertThat(newItem.id()).isEqualTo(1);
+        assertThat(newItem.description()).isEqualTo("Test Item");
     }
 
     @Test
     void whenGetItemByInvalidId_thenItemNotFound() {
-        when(todoItemRepository.findById(1)).thenReturn(Optional.empty());
+        when(todoItemRepository.findViewById(1)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> todoItemService.getItemDetails(1))
+        assertThatThrownBy(() -> todoItemService.getItemDetails(1, false))
                 .isInstanceOf(ItemNotFoundException.class).hasMessageContaining("Item id 1");
     }
 
+    @Test
+    void whenGetNotDoneItemsWithFields_thenOnlyRequestedFields() {
+        Set<TodoItemField> fields = EnumSet.of(TodoItemField.ID, TodoItemField.STATUS);
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id")).thenReturn(1);
+        when(tuple.get("status")).thenReturn("PAST_DUE");
+        when(todoItemFieldsDao.findAllByStatusNot(fields, TodoItemStatus.DONE.name())).thenReturn(List.of(tuple));
+
+        List<Map<String, Object>> items = todoItemService.getAllItems(false, false, fields);
+
+        assertThat(items).containsExactly(Map.of("id", 1, "status", "past due"));
+        verifyNoInteractions(todoItemRepository);
+    }
+
+    @Test
+    void whenGetArchivedItemWithFields_thenLookInArchive() throws ItemNotFoundException {
+        Set<TodoItemField> fields = EnumSet.of(TodoItemField.ID, TodoItemField.DONE_AT);
+        LocalDateTime doneAt = LocalDateTime.now().minusDays(40);
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id")).thenReturn(2);
+        when(tuple.get("doneAt")).thenReturn(doneAt);
+        when(todoItemFieldsDao.findById(fields, 2)).thenReturn(Optional.empty());
+        when(todoItemFieldsDao.findArchivedById(fields, 2)).thenReturn(Optional.of(tuple));
+
+        Map<String, Object> item = todoItemService.getItemDetails(2, true, fields);
+
+        assertThat(item).containsExactly(Map.entry("id", 2), Map.entry("doneAt", doneAt));
+    }
+
+    @Test
+    void whenGetAllItemsIncludingArchived_thenReturnBoth() {
+        TodoItemView hotItem = new TodoItemView(1, "Test Item", "NOT_DONE", null, null, null, 2);
+        TodoItemView archivedItem = new TodoItemView(2, "Archived Item", "DONE", null, null, null, 2);
+        when(todoItemRepository.findAllViews()).thenReturn(List.of(hotItem));
+        when(todoItemArchiveRepository.findAllViews()).thenReturn(List.of(archivedItem));
+
+        List<TodoItemView> newItems = todoItemService.getAllItems(true, true);
+
+        assertThat(newItems).containsExactly(hotItem, archivedItem);
+    }
+
+    @Test
+    void whenGetArchivedItemById_thenSuccess() throws ItemNotFoundException {
+        TodoItemView archivedItem = new TodoItemView(1, "Archived Item", "DONE", null, null, null, 2);
+        when(todoItemRepository.findViewById(1)).thenReturn(Optional.empty());
+        when(todoItemArchiveRepository.findViewById(1)).thenReturn(Optional.of(archivedItem));
+
+        assertThat(todoItemService.getItemDetails(1, true)).isEqualTo(archivedItem);
+        assertThatThrownBy(() -> todoItemService.getItemDetails(1, false))
+                .isInstanceOf(ItemNotFoundException.class);
+    }
+
     @Test
     void whenAddItem_thenSuccess() {
         TodoItemEntity mockItem = TodoItemEntity.builder()
@@ -85,6 +204,106 @@ public class TodoItemServiceTest extends BaseTestClass {
         assertThat(newItem.getDescription()).isEqualTo("Test Item");
     }
 
+    @Test
+    void whenAddItemWithTags_thenTagsStoredAndIndexed() {
+        TodoItemEntity mockItem = TodoItemEntity.builder()
+                .id(1).description("Test Item").build();
+        when(todoItemRepository.save(any(TodoItemEntity.class))).thenReturn(mockItem);
+
+        todoItemService.addItem(CreateTodoItemRequest.builder().tags(Set.of("work", "urgent")).build());
+
+        verify(todoItemJdbcDao).insertTags(1, Set.of("urgent", "work"));
+        verify(todoItemIndexService).add(1, TodoItemStatus.NOT_DONE, Set.of("urgent", "work"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenGetTags_thenArchivedItemsReadFromDatabase() {
+        when(todoItemIndexService.tagsOf(List.of(1, 2))).thenReturn(Map.of(1, Set.of("work")));
+        doAnswer(invocation -> {
+            ((BiConsumer<Integer, String>) invocation.getArgument(1)).accept(2, "home");
+            return null;
+        }).when(todoItemJdbcDao).forEachTag(eq(List.of(2)), any(BiConsumer.class));
+
+        assertThat(todoItemService.getTags(List.of(1, 2)))
+                .isEqualTo(Map.of(1, Set.of("work"), 2, Set.of("home")));
+    }
+
+    @Test
+    void whenGetTagsOfIndexedItems_thenNoDatabaseRead() {
+        when(todoItemIndexService.tagsOf(List.of(1))).thenReturn(Map.of(1, Set.of()));
+
+        assertThat(todoItemService.getTags(List.of(1))).isEqualTo(Map.of(1, Set.of()));
+        verifyNoInteractions(todoItemJdbcDao);
+    }
+
+    @Test
+    void whenAddItemWithPriority_thenStoredAsRank() {
+        when(todoItemRepository.save(any(TodoItemEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TodoItemEntity high = todoItemService.addItem(CreateTodoItemRequest.builder().priority("HIGH").build());
+        TodoItemEntity medium = todoItemService.addItem(CreateTodoItemRequest.builder().build());
+
+        assertThat(high.getPriority()).isEqualTo(TodoItemPriority.HIGH.rank());
+        assertThat(medium.getPriority()).isEqualTo(TodoItemPriority.MEDIUM.rank());
+    }
+
+    @Test
+    void whenUpdateItemPriority_thenSuccess() throws ItemNotFoundException, ActionNotAllowedException {
+        TodoItemEntity mockItem = TodoItemEntity.builder()
+                .id(1)
+                .description("Test Item")
+                .status(TodoItemStatus.NOT_DONE.name())
+                .priority(TodoItemPriority.MEDIUM.rank())
+                .dueDateTime(LocalDateTime.of(2030, 12, 31, 14, 15))
+                .build();
+        when(todoItemJdbcDao.update(eq(1), eq(null), eq(null), eq(TodoItemPriority.LOW), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(mockItem));
+
+        TodoItemEntity newItem = todoItemService.updateItem(1, UpdateTodoItemRequest.builder().priority("low").build());
+
+        assertThat(newItem.getPriority()).isEqualTo(TodoItemPriority.LOW.rank());
+        verify(todoItemHistoryService).record(1, TodoItemEventType.UPDATED,
+                Map.of("priority", "medium"), Map.of("priority", "low"));
+    }
+
+    @Test
+    void whenGetNextItems_thenReadFromOrderedIndex() {
+        TodoItemView urgentItem = new TodoItemView(4, "Urgent Item", "PAST_DUE", null, null, null, 1);
+        when(todoItemJdbcDao.findNext(10)).thenReturn(List.of(urgentItem));
+
+        assertThat(todoItemService.getNextItems(10)).containsExactly(urgentItem);
+        verify(todoItemRepository, never()).findAllViewsByStatusNot(any());
+    }
+
+    @Test
+    void whenGetItemsByFilter_thenReadMatchingIdsOnly() {
+        TodoItemFilter filter = TodoItemFilter.builder()
+                .tags(Set.of("work"))
+                .excludedTags(Set.of())
+                .statuses(EnumSet.of(TodoItemStatus.NOT_DONE))
+                .build();
+        TodoItemView taggedItem = new TodoItemView(3, "Tagged Item", "NOT_DONE", null, null, null, 2);
+        when(todoItemIndexService.find(filter)).thenReturn(new int[] {3});
+        when(todoItemRepository.findAllViewsByIdIn(List.of(3))).thenReturn(List.of(taggedItem));
+
+        assertThat(todoItemService.getItems(filter)).containsExactly(taggedItem);
+        verify(todoItemRepository, never()).findAllViews();
+    }
+
+    @Test
+    void whenGetItemsByFilterMatchingNothing_thenNoQuery() {
+        TodoItemFilter filter = TodoItemFilter.builder()
+                .tags(Set.of("someday"))
+                .excludedTags(Set.of())
+                .statuses(EnumSet.allOf(TodoItemStatus.class))
+                .build();
+        when(todoItemIndexService.find(filter)).thenReturn(new int[0]);
+
+        assertThat(todoItemService.getItems(filter)).isEmpty();
+        verifyNoInteractions(todoItemRepository);
+    }
+
     @Test
     void whenUpdateItemDescription_thenSuccess() throws ItemNotFoundException, ActionNotAllowedException {
         TodoItemEntity mockItem = TodoItemEntity.builder()
@@ -94,8 +313,8 @@ public class TodoItemServiceTest extends BaseTestClass {
                 .dueDateTime(LocalDateTime.of(2030, 12, 31, 14, 15))
                 .updatedAt(LocalDateTime.of(2023, 12, 31, 14, 15))
                 .build();
-        when(todoItemRepository.findById(1)).thenReturn(Optional.of(mockItem));
-        when(todoItemRepository.save(any(TodoItemEntity.class))).thenReturn(mockItem);
+        when(todoItemJdbcDao.update(eq(1), eq("Update Item"), eq(null), eq(null), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(mockItem));
 
         TodoItemEntity newItem = todoItemService.updateItem(1, UpdateTodoItemRequest.builder()
                 .description("Update Item").build());
@@ -103,6 +322,12 @@ public class TodoItemServiceTest extends BaseTestClass {
         assertThat(newItem.getDescription()).isEqualTo("Update Item");
         assertThat(newItem.getDueDateTime()).isEqualTo(LocalDateTime.of(2030, 12, 31, 14, 15));
         assertThat(newItem.getUpdatedAt()).isNotEqualTo(LocalDateTime.of(2023, 12, 31, 14, 15));
+        verify(todoItemHistoryService).record(1, TodoItemEventType.UPDATED,
+                Map.of("description", "Test Item"), Map.of("description", "Update Item"));
+        // a single conditional update, the item isn't read
+        verify(todoItemRepository, never()).findById(anyInt());
+        verify(todoItemRepository, never()).save(any());
+        verify(cache).evict(TodoItemEntity.class, 1);
     }
 
     @Test
@@ -114,8 +339,8 @@ public class TodoItemServiceTest extends BaseTestClass {
                 .dueDateTime(LocalDateTime.now().plusDays(1))
                 .updatedAt(LocalDateTime.of(2023, 12, 31, 14, 15))
                 .build();
-        when(todoItemRepository.findById(1)).thenReturn(Optional.of(mockItem));
-        when(todoItemRepository.save(any(TodoItemEntity.class))).thenReturn(mockItem);
+        when(todoItemJdbcDao.update(eq(1), eq(null), eq(LocalDateTime.of(2030, 12, 31, 14, 15)), eq(null), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(mockItem));
 
         TodoItemEntity newItem = todoItemService.updateItem(
                 1, UpdateTodoItemRequest.builder().dueDateTime(LocalDateTime.of(2030, 12, 31, 14, 15)).build());
@@ -143,6 +368,24 @@ public class TodoItemServiceTest extends BaseTestClass {
         assertThat(newItem.getDescription()).isEqualTo("Test Item");
         assertThat(newItem.getDueDateTime()).isEqualTo(mockItem.getDueDateTime());
         assertThat(newItem.getUpdatedAt()).isEqualTo(LocalDateTime.of(2023, 12, 31, 14, 15));
+        verify(todoItemJdbcDao, never()).update(any(), any(), any(), any());
+    }
+
+    @Test
+    void whenUpdateRejectedItemIsNowAllowed_thenActionNotAllowed() {
+        // done when the update ran, marked as not done since
+        TodoItemEntity mockItem = TodoItemEntity.builder()
+                .id(1)
+                .description("Test Item")
+                .status(TodoItemStatus.NOT_DONE.name())
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .build();
+        when(todoItemRepository.findById(1)).thenReturn(Optional.of(mockItem));
+
+        assertThatThrownBy(() -> todoItemService.updateItem(1, UpdateTodoItemRequest.builder()
+                .description("Update Item").build()))
+                .isInstanceOf(ActionNotAllowedException.class).hasMessageContaining("changed concurrently");
+        verify(todoItemHistoryService, never()).record(any(), any(), any(), any());
     }
 
     @Test
@@ -195,14 +438,22 @@ public class TodoItemServiceTest extends BaseTestClass {
     void whenMarkItemAsDone_thenSuccess() throws ItemNotFoundException {
         final TodoItemEntity mockItem = TodoItemEntity.builder()
                 .id(1).description("Test Item").status(TodoItemStatus.NOT_DONE.name()).build();
-        when(todoItemRepository.findById(1)).thenReturn(Optional.of(mockItem));
-        when(todoItemRepository.save(any(TodoItemEntity.class))).thenReturn(mockItem);
+        when(todoItemJdbcDao.markAsDone(eq(1), any(LocalDateTime.class))).thenReturn(Optional.of(mockItem));
 
         TodoItemEntity newItem = todoItemService.markAsDone(1);
 
         assertThat(newItem.getStatus()).isEqualTo(TodoItemStatus.DONE.name());
-        assertThat(newItem.getDoneAt()).isEqualTo(mockItem.getDoneAt());
-        assertThat(newItem.getUpdatedAt()).isEqualTo(mockItem.getUpdatedAt());
+        assertThat(newItem.getDescription()).isEqualTo("Test Item");
+        assertThat(newItem.getDoneAt()).isNotNull().isEqualTo(newItem.getUpdatedAt());
+        verify(todoItemOutboxRepository).save(argThat((TodoItemOutboxEntity event) -> event.getItemId() == 1
+                && TodoItemStatus.DONE.name().equals(event.getStatus())));
+        verify(todoItemHistoryService).record(1, TodoItemEventType.DONE,
+                statusMap("not done", null), statusMap("done", newItem.getDoneAt()));
+        // a single conditional update, the statement budget is checked in SqlStatementBudgetIntegrationTest
+        verify(todoItemRepository, never()).findById(anyInt());
+        verifyNoInteractions(todoItemArchiveRepository);
+        verify(cache).evict(TodoItemEntity.class, 1);
+        verify(hibernateCache).evictDefaultQueryRegion();
     }
 
     @Test
@@ -214,6 +465,8 @@ public class TodoItemServiceTest extends BaseTestClass {
         todoItemService.markAsDone(1);
 
         verify(todoItemRepository, never()).save(mockItem);
+        verify(todoItemOutboxRepository, never()).save(any());
+        verify(todoItemHistoryService, never()).record(any(), any(), any(), any());
     }
 
     @Test
@@ -233,14 +486,15 @@ public class TodoItemServiceTest extends BaseTestClass {
                 .doneAt(LocalDateTime.now())
                 .dueDateTime(LocalDateTime.of(2050, 12, 31, 14, 15))
                 .build();
-        when(todoItemRepository.findById(1)).thenReturn(Optional.of(mockItem));
-        when(todoItemRepository.save(any(TodoItemEntity.class))).thenReturn(mockItem);
+        when(todoItemJdbcDao.markAsNotDone(eq(1), any(LocalDateTime.class))).thenReturn(Optional.of(mockItem));
 
         TodoItemEntity newItem = todoItemService.markAsNotDone(1);
 
         assertThat(newItem.getStatus()).isEqualTo(TodoItemStatus.NOT_DONE.name());
         assertThat(newItem.getDoneAt()).isNull();
-        assertThat(newItem.getUpdatedAt()).isEqualTo(mockItem.getUpdatedAt());
+        assertThat(newItem.getUpdatedAt()).isNotNull();
+        verify(todoItemRepository, never()).findById(anyInt());
+        verify(todoItemHistoryService).record(eq(1), eq(TodoItemEventType.NOT_DONE), any(), any());
     }
 
     @Test
@@ -291,6 +545,43 @@ public class TodoItemServiceTest extends BaseTestClass {
                 .isInstanceOf(ActionNotAllowedException.class).hasMessageContaining("Todo item with id 1");
     }
 
+    @Test
+    void whenMarkArchivedItemAsNotDone_thenRestore() throws ItemNotFoundException, ActionNotAllowedException {
+        TodoItemArchiveEntity archivedItem = TodoItemArchiveEntity.builder()
+                .id(1)
+                .description("Archived Item")
+                .status(TodoItemStatus.DONE.name())
+                .doneAt(LocalDateTime.now().minusDays(40))
+                .dueDateTime(LocalDateTime.of(2050, 12, 31, 14, 15))
+                .build();
+        TodoItemEntity restoredItem = TodoItemEntity.builder()
+                .id(1).description("Archived Item").status(TodoItemStatus.NOT_DONE.name()).build();
+        when(todoItemRepository.findById(1)).thenReturn(Optional.empty(), Optional.of(restoredItem));
+        when(todoItemArchiveRepository.findById(1)).thenReturn(Optional.of(archivedItem));
+
+        TodoItemEntity newItem = todoItemService.markAsNotDone(1);
+
+        assertThat(newItem.getStatus()).isEqualTo(TodoItemStatus.NOT_DONE.name());
+        verify(todoItemRepository).restoreFromArchive(eq(1), eq(TodoItemStatus.NOT_DONE.name()), any(LocalDateTime.class));
+        verify(todoItemArchiveRepository).deleteById(1);
+    }
+
+    @Test
+    void whenMarkArchivedPastDueItemAsNotDone_thenActionNotAllowed() {
+        TodoItemArchiveEntity archivedItem = TodoItemArchiveEntity.builder()
+                .id(1)
+                .description("Archived Item")
+                .status(TodoItemStatus.DONE.name())
+                .dueDateTime(LocalDateTime.now().minusDays(40))
+                .build();
+        when(todoItemRepository.findById(1)).thenReturn(Optional.empty());
+        when(todoItemArchiveRepository.findById(1)).thenReturn(Optional.of(archivedItem));
+
+        assertThatThrownBy(() -> todoItemService.markAsNotDone(1))
+                .isInstanceOf(ActionNotAllowedException.class).hasMessageContaining("Todo item with id 1");
+        verify(todoItemRepository, never()).restoreFromArchive(anyInt(), any(), any());
+    }
+
     @Test
     void whenDeleteItem_thenSuccess() throws ItemNotFoundException {
         final TodoItemEntity mockItem = TodoItemEntity.builder()
@@ -300,16 +591,40 @@ public class TodoItemServiceTest extends BaseTestClass {
                 .doneAt(LocalDateTime.now())
                 .dueDateTime(LocalDateTime.of(2050, 12, 31, 14, 15))
                 .build();
-        when(todoItemRepository.findById(1)).thenReturn(Optional.of(mockItem));
+        when(todoItemJdbcDao.delete(1)).thenReturn(Optional.of(mockItem));
+
+        todoItemService.deleteItem(1);
+
+        // deleted in one statement returning the item, loading it would load its description on its own
+        verify(todoItemRepository, never()).findById(anyInt());
+        verify(todoItemRepository, never()).delete(any());
+        verify(todoItemHistoryService).record(eq(1), eq(TodoItemEventType.DELETED),
+                argThat(values -> "Test Item".equals(values.get("description"))), eq(null));
+    }
+
+    @Test
+    void whenDeleteArchivedItem_thenDeleteWithoutLoadingAndRecordValues() throws ItemNotFoundException {
+        when(todoItemJdbcDao.delete(1)).thenReturn(Optional.empty());
+        when(todoItemJdbcDao.deleteArchived(1)).thenReturn(Optional.of(TodoItemEntity.builder()
+                .id(1)
+                .description("Archived Item")
+                .status(TodoItemStatus.DONE.name())
+                .priority(TodoItemPriority.MEDIUM.rank())
+                .doneAt(LocalDateTime.of(2020, 1, 1, 10, 0))
+                .build()));
 
         todoItemService.deleteItem(1);
 
-        verify(todoItemRepository, times(1)).deleteById(1);
+        verify(todoItemArchiveRepository, never()).findById(anyInt());
+        verify(todoItemArchiveRepository, never()).existsById(anyInt());
+        verify(todoItemHistoryService).record(eq(1), eq(TodoItemEventType.DELETED),
+                argThat(values -> "Archived Item".equals(values.get("description"))
+                        && "done".equals(values.get("status"))), eq(null));
     }
 
     @Test
     void whenDeleteItem_thenItemNotFound() {
-        when(todoItemRepository.findById(1)).thenReturn(Optional.empty());
+        when(todoItemJdbcDao.delete(1)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> todoItemService.deleteItem(1))
                 .isInstanceOf(ItemNotFoundException.class).hasMessageContaining("Item id 1");
@@ -317,27 +632,29 @@ public class TodoItemServiceTest extends BaseTestClass {
 
     @Test
     void whenCheckAndUpdateStatusForPastDueItems_thenUpdateSuccess() {
-        final TodoItemEntity mockItem = TodoItemEntity.builder()
-                .id(1)
-                .description("Test Item")
-                .status(TodoItemStatus.NOT_DONE.name())
-                .doneAt(LocalDateTime.now())
-                .dueDateTime(LocalDateTime.of(2024, 3, 5, 14, 15))
-                .build();
-        when(todoItemRepository.findAllByStatusAndDueDateTimeLessThan(anyString(), any())).thenReturn(List.of(mockItem));
+        when(todoItemJdbcDao.markAsPastDue(any(), eq(1), eq(4))).thenReturn(List.of(1, 5, 9));
 
-        todoItemService.checkAndUpdateStatusForPastDueItems();
+        int updated = todoItemService.checkAndUpdateStatusForPastDueItems(1, 4);
 
-        verify(todoItemRepository, times(1)).saveAll(any());
+        assertThat(updated).isEqualTo(3);
+        verify(cache).evict(TodoItemEntity.class);
+        verify(todoItemJdbcDao).insertStatusChanges(eq(List.of(1, 5, 9)), eq(TodoItemStatus.PAST_DUE), any());
+        verify(todoItemIndexService).setStatus(List.of(1, 5, 9), TodoItemStatus.PAST_DUE);
+        verify(todoItemHistoryService).recordAll(eq(List.of(1, 5, 9)), eq(TodoItemEventType.PAST_DUE),
+                argThat(values -> "not done".equals(values.get("status"))),
+                argThat(values -> "past due".equals(values.get("status"))));
     }
 
     @Test
     void whenCheckAndUpdateStatusForPastDueItems_thenNothingToUpdate() {
-        when(todoItemRepository.findAllByStatusAndDueDateTimeLessThan(anyString(), any())).thenReturn(List.of());
+        when(todoItemJdbcDao.markAsPastDue(any(), anyInt(), anyInt())).thenReturn(List.of());
 
-        todoItemService.checkAndUpdateStatusForPastDueItems();
+        int updated = todoItemService.checkAndUpdateStatusForPastDueItems(0, 1);
 
+        assertThat(updated).isZero();
         verify(todoItemRepository, never()).saveAll(any());
+        verify(todoItemJdbcDao, never()).insertStatusChanges(any(), any(), any());
+        verify(todoItemHistoryService, never()).recordAll(any(), any(), any(), any());
     }
 
 }
@@ -0,0 +1,255 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.constants.TodoItemEventType;
+import com.assignment.todo.constants.TodoItemStatus;
+import com.assignment.todo.dal.dao.TodoItemArchiveEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemEntityRepository;
+import com.assignment.todo.dal.dao.TodoItemJdbcDao;
+import com.assignment.todo.dal.dao.TodoSeriesEntityRepository;
+import com.assignment.todo.dal.entity.TodoItemEntity;
+import com.assignment.todo.dal.entity.TodoSeriesEntity;
+import com.assignment.todo.dto.CreateTodoSeriesRequest;
+import com.assignment.todo.dto.TodoOccurrence;
+import com.assignment.todo.dto.TodoSeries;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.SeriesNotFoundException;
+import com.assignment.todo.service.impl.TodoSeriesServiceImpl;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TodoSeriesServiceTest extends BaseTestClass {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Mock
+    private TodoSeriesEntityRepository todoSeriesEntityRepository;
+
+    @Mock
+    private TodoItemEntityRepository todoItemEntityRepository;
+
+    @Mock
+    private TodoItemArchiveEntityRepository todoItemArchiveEntityRepository;
+
+    @Mock
+    private TodoItemIndexService todoItemIndexService;
+
+    @Mock
+    private TodoItemHistoryService todoItemHistoryService;
+
+    @Mock
+    private TodoItemJdbcDao todoItemJdbcDao;
+
+    @Mock
+    private TodoItemService todoItemService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoSeriesServiceImpl todoSeriesService;
+
+    @BeforeEach
+    void createService() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+        todoSeriesService = new TodoSeriesServiceImpl(todoSeriesEntityRepository, todoItemEntityRepository,
+                todoItemArchiveEntityRepository, todoItemJdbcDao, todoItemService,
+                todoItemIndexService, todoItemHistoryService, entityManagerFactory, transactionManager, Clock.systemDefaultZone(), Duration.ofDays(366));
+    }
+
+    private static TodoSeriesEntity daily(LocalDateTime sweptUntil) {
+        return TodoSeriesEntity.builder()
+                .id(1)
+                .description("Water the plants")
+                .frequency("DAILY")
+                .recurrenceInterval(1)
+                .firstDueDateTime(FIRST)
+                .sweptUntil(sweptUntil)
+                .createdAt(FIRST.minusDays(1))
+                .build();
+    }
+
+    @Test
+    void whenCreateWeeklySeries_thenStoreDayNames() throws InvalidRequestException {
+        when(todoSeriesEntityRepository.save(any(TodoSeriesEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        TodoSeries series = todoSeriesService.create(CreateTodoSeriesRequest.builder()
+                .description("Standup").frequency("Weekly").daysOfWeek(List.of("friday", "Monday"))
+                .firstDueDateTime(LocalDateTime.now().plusDays(1)).build());
+
+        verify(todoSeriesEntityRepository).save(argThat((TodoSeriesEntity entity) ->
+                "MONDAY,FRIDAY".equals(entity.getDaysOfWeek()) && "WEEKLY".equals(entity.getFrequency())));
+        assertThat(series.getDaysOfWeek()).containsExactly("monday", "friday");
+        assertThat(series.getFrequency()).isEqualTo("weekly");
+    }
+
+    @Test
+    void whenCreateSeries_thenSweptFromFirstDueDate() throws InvalidRequestException {
+        LocalDateTime first = LocalDateTime.now().plusSeconds(30).withNano(0);
+        when(todoSeriesEntityRepository.save(any(TodoSeriesEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        todoSeriesService.create(CreateTodoSeriesRequest.builder()
+                .description("Standup").frequency("daily").firstDueDateTime(first).build());
+
+        verify(todoSeriesEntityRepository).save(argThat((TodoSeriesEntity entity) ->
+                first.equals(entity.getSweptUntil()) && entity.getCreatedAt() != null));
+    }
+
+    @Test
+    void whenCreateDailySeriesWithDays_thenInvalidRequest() {
+        assertThatThrownBy(() -> todoSeriesService.create(CreateTodoSeriesRequest.builder()
+                .description("Standup").frequency("daily").daysOfWeek(List.of("monday"))
+                .firstDueDateTime(LocalDateTime.now().plusDays(1)).build()))
+                .isInstanceOf(InvalidRequestException.class);
+        verify(todoSeriesEntityRepository, never()).save(any());
+    }
+
+    @Test
+    void whenGetOccurrencesInTooLongWindow_thenInvalidRequest() {
+        assertThatThrownBy(() -> todoSeriesService.getOccurrences(FIRST, FIRST.plusDays(367)))
+                .isInstanceOf(InvalidRequestException.class);
+        verify(todoSeriesEntityRepository, never()).findAllOverlapping(any(), any());
+    }
+
+    @Test
+    void whenGetOccurrences_thenMergeStoredOnesWithExpandedOnes() throws InvalidRequestException {
+        LocalDateTime from = FIRST.plusDays(10);
+        when(todoSeriesEntityRepository.findAllOverlapping(from, from.plusDays(3))).thenReturn(List.of(daily(FIRST)));
+        when(todoItemEntityRepository.findOccurrences(List.of(1), from, from.plusDays(3))).thenReturn(List.of(
+                TodoItemEntity.builder().id(7).seriesId(1).occurrenceAt(from.plusDays(1)).description("Water the plants")
+                        .status(TodoItemStatus.DONE.name()).dueDateTime(from.plusDays(1)).build()));
+
+        List<TodoOccurrence> occurrences = todoSeriesService.getOccurrences(from, from.plusDays(3));
+
+        assertThat(occurrences).extracting(TodoOccurrence::getOccurrenceAt)
+                .containsExactly(from.plusHours(9), from.plusDays(1).plusHours(9), from.plusDays(2).plusHours(9));
+        assertThat(occurrences).extracting(TodoOccurrence::getId).containsExactly(null, 7, null);
+        assertThat(occurrences).extracting(TodoOccurrence::getStatus).containsExactly("past due", "done", "past due");
+    }
+
+    @Test
+    void whenMarkOccurrenceNotOfSeries_thenSeriesNotFound() {
+        when(todoSeriesEntityRepository.findById(1)).thenReturn(Optional.of(daily(FIRST)));
+
+        assertThatThrownBy(() -> todoSeriesService.markOccurrenceAsDone(1, FIRST.plusMinutes(30)))
+                .isInstanceOf(SeriesNotFoundException.class).hasMessageContaining("no occurrence");
+        verifyNoInteractions(todoItemService);
+    }
+
+    @Test
+    void whenMarkStoredOccurrenceAsDone_thenDelegateWithoutStoring() throws Exception {
+        when(todoSeriesEntityRepository.findById(1)).thenReturn(Optional.of(daily(FIRST)));
+        when(todoItemEntityRepository.findBySeriesIdAndOccurrenceAt(1, FIRST.plusDays(2)))
+                .thenReturn(Optional.of(TodoItemEntity.builder().id(7).build()));
+
+        todoSeriesService.markOccurrenceAsDone(1, FIRST.plusDays(2));
+
+        verify(todoItemService, times(1)).markAsDone(7);
+        verify(todoItemEntityRepository, never()).save(any());
+    }
+
+    @Test
+    void whenMarkNewOccurrenceAsDone_thenStoreItFirst() throws Exception {
+        when(todoSeriesEntityRepository.findById(1)).thenReturn(Optional.of(daily(FIRST)));
+        when(todoItemEntityRepository.save(any(TodoItemEntity.class)))
+                .thenAnswer(invocation -> ((TodoItemEntity) invocation.getArgument(0)).toBuilder().id(8).build());
+
+        todoSeriesService.markOccurrenceAsDone(1, FIRST.plusDays(2));
+
+        verify(todoItemEntityRepository).save(argThat((TodoItemEntity item) -> item.getSeriesId() == 1
+                && FIRST.plusDays(2).equals(item.getOccurrenceAt()) && FIRST.plusDays(2).equals(item.getDueDateTime())
+                && TodoItemStatus.NOT_DONE.name().equals(item.getStatus())));
+        verify(todoItemService, times(1)).markAsDone(8);
+    }
+
+    @Test
+    void whenMarkNewOccurrenceAsDone_thenRecordItsCreation() throws Exception {
+        when(todoSeriesEntityRepository.findById(1)).thenReturn(Optional.of(daily(FIRST)));
+        when(todoItemEntityRepository.save(any(TodoItemEntity.class)))
+                .thenAnswer(invocation -> ((TodoItemEntity) invocation.getArgument(0)).toBuilder().id(8).build());
+
+        todoSeriesService.markOccurrenceAsDone(1, FIRST.plusDays(2));
+
+        verify(todoItemHistoryService).record(eq(8), eq(TodoItemEventType.CREATED), isNull(),
+                argThat(values -> "Water the plants".equals(values.get("description"))
+                        && FIRST.plusDays(2).equals(values.get("dueDateTime"))
+                        && TodoItemStatus.NOT_DONE.value().equals(values.get("status"))));
+    }
+
+    @Test
+    void whenStorePastDueOccurrences_thenSkipStoredOnes() {
+        LocalDateTime sweptUntil = LocalDateTime.now().minusDays(3);
+        when(todoSeriesEntityRepository.findAllToSweep(any(), eq(1), eq(4))).thenReturn(List.of(daily(sweptUntil)));
+        LocalDateTime stored = sweptUntil.toLocalDate().plusDays(1).atTime(9, 0);
+        when(todoItemEntityRepository.findOccurrences(eq(List.of(1)), eq(sweptUntil), any())).thenReturn(List.of(
+                TodoItemEntity.builder().id(7).seriesId(1).occurrenceAt(stored).status(TodoItemStatus.DONE.name()).build()));
+        when(todoItemJdbcDao.insertOccurrences(eq(1), any(), eq(TodoItemStatus.PAST_DUE), anyList(), any()))
+                .thenAnswer(invocation -> IntStream.range(10, 10 + ((List<?>) invocation.getArgument(3)).size())
+                        .boxed().toList());
+
+        int added = todoSeriesService.storePastDueOccurrences(1, 4);
+
+        verify(todoItemJdbcDao).insertOccurrences(eq(1), eq("Water the plants"), eq(TodoItemStatus.PAST_DUE),
+                argThat((List<LocalDateTime> occurrences) -> !occurrences.contains(stored)
+                        && occurrences.size() == added), any());
+        assertThat(added).isBetween(1, 3);
+        verify(todoItemJdbcDao).insertStatusChanges(
+                argThat((List<Integer> ids) -> ids.size() == added && ids.get(0) == 10), eq(TodoItemStatus.PAST_DUE), any());
+        verify(todoSeriesEntityRepository).updateSweptUntil(eq(List.of(1)), any());
+    }
+
+    @Test
+    void whenStorePastDueOccurrences_thenRecordThemAsPastDue() {
+        when(todoSeriesEntityRepository.findAllToSweep(any(), eq(1), eq(4)))
+                .thenReturn(List.of(daily(LocalDateTime.now().minusDays(3))));
+        when(todoItemJdbcDao.insertOccurrences(eq(1), any(), eq(TodoItemStatus.PAST_DUE), anyList(), any()))
+                .thenAnswer(invocation -> IntStream.range(10, 10 + ((List<?>) invocation.getArgument(3)).size())
+                        .boxed().toList());
+
+        int added = todoSeriesService.storePastDueOccurrences(1, 4);
+
+        assertThat(added).isPositive();
+        verify(todoItemHistoryService).recordAll(
+                argThat(ids -> ids.size() == added && ids.contains(10)), eq(TodoItemEventType.PAST_DUE),
+                argThat(values -> TodoItemStatus.NOT_DONE.value().equals(values.get("status"))),
+                argThat(values -> TodoItemStatus.PAST_DUE.value().equals(values.get("status"))));
+    }
+
+    @Test
+    void whenNoPastDueOccurrences_thenRecordNothing() {
+        when(todoSeriesEntityRepository.findAllToSweep(any(), eq(1), eq(4)))
+                .thenReturn(List.of(daily(LocalDateTime.now().plusDays(1))));
+
+        todoSeriesService.storePastDueOccurrences(1, 4);
+
+        verify(todoItemHistoryService, never()).recordAll(any(), any(), any(), any());
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.StatusEventStubServer;
+import com.assignment.todo.dal.dao.WebhookDeadLetterEntityRepository;
+import com.assignment.todo.dal.dao.WebhookEndpointEntityRepository;
+import com.assignment.todo.dal.entity.WebhookDeadLetterEntity;
+import com.assignment.todo.dal.entity.WebhookEndpointEntity;
+import com.assignment.todo.dto.StatusChangeEvent;
+import com.assignment.todo.service.impl.WebhookDispatcherImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WebhookDispatcherTest extends BaseTestClass {
+
+    @Mock
+    private WebhookEndpointEntityRepository webhookEndpointRepository;
+
+    @Mock
+    private WebhookDeadLetterEntityRepository webhookDeadLetterRepository;
+
+    private StatusEventStubServer allStatuses;
+
+    private StatusEventStubServer pastDueOnly;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private WebhookDispatcherImpl dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        allStatuses = new StatusEventStubServer();
+        pastDueOnly = new StatusEventStubServer();
+        when(webhookEndpointRepository.findAll()).thenReturn(List.of(
+                WebhookEndpointEntity.builder().id(1).url(allStatuses.url()).statuses("DONE,PAST_DUE").build(),
+                WebhookEndpointEntity.builder().id(2).url(pastDueOnly.url()).statuses("PAST_DUE").build()));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        allStatuses.close();
+        pastDueOnly.close();
+    }
+
+    private WebhookDispatcherImpl dispatcher(int queueCapacity, int failureThreshold, Duration openDuration) {
+        dispatcher = new WebhookDispatcherImpl(webhookEndpointRepository, webhookDeadLetterRepository,
+                new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS),
+                queueCapacity, 2, 3, 10, Duration.ofSeconds(1), Duration.ofSeconds(2),
+                Duration.ofMillis(10), Duration.ofMillis(50), failureThreshold, openDuration);
+        dispatcher.bindTo(meterRegistry);
+        return dispatcher;
+    }
+
+    private static StatusChangeEvent event(long id, String status) {
+        return StatusChangeEvent.builder()
+                .id(id).itemId((int) id).status(status).occurredAt(LocalDateTime.of(2050, 1, 1, 10, 0))
+                .build();
+    }
+
+    @Test
+    void whenDispatch_thenSendMatchingEventsInBatchesPerWebhook() {
+        WebhookDispatcherImpl dispatcher = dispatcher(10, 5, Duration.ofSeconds(30));
+        assertThat(dispatcher.submit(List.of(event(1, "done"), event(2, "done"), event(3, "past due")))).isTrue();
+
+        assertThat(dispatcher.dispatch()).isEqualTo(3);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> allStatuses.received().size() == 3
+                && pastDueOnly.received().size() == 1);
+        assertThat(pastDueOnly.received()).extracting(StatusChangeEvent::getId).containsExactly(3L);
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("todo.webhooks.delivered").counter().count() == 4);
+    }
+
+    @Test
+    void whenWebhookFails_thenRetry() {
+        WebhookDispatcherImpl dispatcher = dispatcher(10, 5, Duration.ofSeconds(30));
+        allStatuses.failNext(2);
+        dispatcher.submit(List.of(event(1, "done")));
+
+        dispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> allStatuses.received().size() == 1);
+        assertThat(meterRegistry.get("todo.webhooks.failed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void whenWebhookKeepsFailing_thenOpenCircuit() {
+        WebhookDispatcherImpl dispatcher = dispatcher(10, 1, Duration.ofHours(1));
+        allStatuses.failNext(Integer.MAX_VALUE);
+        dispatcher.submit(List.of(event(1, "done")));
+
+        dispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("todo.webhooks.circuits.open").gauge().value() == 1);
+        assertThat(meterRegistry.get("todo.webhooks.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenQueueFull_thenRefuseEvents() {
+        WebhookDispatcherImpl dispatcher = dispatcher(2, 5, Duration.ofSeconds(30));
+
+        assertThat(dispatcher.submit(List.of(event(1, "done"), event(2, "done"), event(3, "done")))).isFalse();
+        assertThat(dispatcher.submit(List.of(event(1, "done")))).isTrue();
+
+        assertThat(meterRegistry.get("todo.webhooks.rejected").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("todo.webhooks.queue.depth").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenWebhookBacklogFull_thenRefuseEvents() {
+        WebhookDispatcherImpl dispatcher = dispatcher(100, 5, Duration.ofSeconds(30));
+        // 10 batches of 2, as many as a webhook may hold
+        List<StatusChangeEvent> events = LongStream.rangeClosed(1, 20).mapToObj(id -> event(id, "done")).toList();
+
+        assertThat(dispatcher.submit(events)).isTrue();
+        assertThat(dispatcher.submit(List.of(event(21, "done")))).isFalse();
+        // past due events go to the full webhook too
+        assertThat(dispatcher.submit(List.of(event(22, "past due")))).isFalse();
+
+        assertThat(dispatcher.dispatch()).isEqualTo(10);
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("todo.webhooks.delivered").counter().count() == 20);
+        assertThat(dispatcher.submit(List.of(event(21, "done")))).isTrue();
+        assertThat(meterRegistry.get("todo.webhooks.rejected").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void whenRetriesExhausted_thenDeadLetterBatch() {
+        WebhookDispatcherImpl dispatcher = dispatcher(10, 5, Duration.ofSeconds(30));
+        pastDueOnly.failNext(Integer.MAX_VALUE);
+        dispatcher.submit(List.of(event(1, "past due")));
+
+        dispatcher.dispatch();
+
+        verify(webhookDeadLetterRepository, timeout(5000)).save(argThat((WebhookDeadLetterEntity deadLetter) ->
+                deadLetter.getWebhookId() == 2 && "retries-exhausted".equals(deadLetter.getReason())
+                        && deadLetter.getAttempts() == 3 && deadLetter.getEventCount() == 1
+                        && deadLetter.getEvents().contains("\"itemId\":1")));
+        assertThat(allStatuses.received()).extracting(StatusChangeEvent::getId).containsExactly(1L);
+    }
+
+    @Test
+    void whenShutdown_thenDeadLetterQueuedEvents() {
+        WebhookDispatcherImpl dispatcher = dispatcher(10, 5, Duration.ofSeconds(30));
+        dispatcher.submit(List.of(event(1, "done"), event(2, "done"), event(3, "done")));
+
+        dispatcher.shutdown();
+
+        verify(webhookDeadLetterRepository).save(argThat((WebhookDeadLetterEntity deadLetter) ->
+                "shutdown".equals(deadLetter.getReason()) && deadLetter.getEventCount() == 2));
+        verify(webhookDeadLetterRepository).save(argThat((WebhookDeadLetterEntity deadLetter) ->
+                "shutdown".equals(deadLetter.getReason()) && deadLetter.getEventCount() == 1));
+        assertThat(dispatcher.dispatch()).isZero();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.assignment.todo.service;
+
+import com.assignment.todo.BaseTestClass;
+import com.assignment.todo.dal.dao.WebhookEndpointEntityRepository;
+import com.assignment.todo.dal.entity.WebhookEndpointEntity;
+import com.assignment.todo.dto.CreateWebhookEndpointRequest;
+import com.assignment.todo.dto.WebhookEndpoint;
+import com.assignment.todo.exception.InvalidRequestException;
+import com.assignment.todo.exception.WebhookNotFoundException;
+import com.assignment.todo.service.impl.WebhookServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class WebhookServiceTest extends BaseTestClass {
+
+    @Mock
+    private WebhookEndpointEntityRepository webhookEndpointRepository;
+
+    @InjectMocks
+    private WebhookServiceImpl webhookService;
+
+    @Test
+    void whenRegisterWebhook_thenStoreStatusNames() throws InvalidRequestException {
+        when(webhookEndpointRepository.save(any(WebhookEndpointEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        WebhookEndpoint webhook = webhookService.register(CreateWebhookEndpointRequest.builder()
+                .url("http://localhost/hook").statuses(List.of("Done", "past due")).build());
+
+        verify(webhookEndpointRepository).save(argThat((WebhookEndpointEntity entity) ->
+                "DONE,PAST_DUE".equals(entity.getStatuses())));
+        assertThat(webhook.getStatuses()).containsExactly("done", "past due");
+    }
+
+    @Test
+    void whenRegisterWebhookForNotDone_thenInvalidRequest() {
+        assertThatThrownBy(() -> webhookService.register(CreateWebhookEndpointRequest.builder()
+                .url("http://localhost/hook").statuses(List.of("not done")).build()))
+                .isInstanceOf(InvalidRequestException.class);
+        verify(webhookEndpointRepository, never()).save(any());
+    }
+
+    @Test
+    void whenDeleteUnknownWebhook_thenWebhookNotFound() {
+        when(webhookEndpointRepository.existsById(1)).thenReturn(false);
+
+        assertThatThrownBy(() -> webhookService.delete(1))
+                .isInstanceOf(WebhookNotFoundException.class).hasMessageContaining("Webhook id 1");
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.assignment.todo.util;
+
+import com.assignment.todo.constants.RequestPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void whenLimitReached_thenRejectRequests() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.5, 0.5);
+
+        assertThat(limiter.tryAcquire(RequestPriority.HIGH)).isTrue();
+        assertThat(limiter.tryAcquire(RequestPriority.HIGH)).isTrue();
+        assertThat(limiter.tryAcquire(RequestPriority.HIGH)).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void whenLowPriorityShareUsed_thenKeepHeadroomForHighPriority() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 2.0, 0.5, 0.5);
+
+        assertThat(limiter.tryAcquire(RequestPriority.LOW)).isTrue();
+        assertThat(limiter.tryAcquire(RequestPriority.LOW)).isTrue();
+        assertThat(limiter.tryAcquire(RequestPriority.LOW)).isFalse();
+        assertThat(limiter.tryAcquire(RequestPriority.HIGH)).isTrue();
+    }
+
+    private static void sample(AdaptiveConcurrencyLimiter limiter, String route, long millis, int inFlightAtStart) {
+        limiter.tryAcquire(RequestPriority.HIGH);
+        limiter.release(route, TimeUnit.MILLISECONDS.toNanos(millis), inFlightAtStart);
+    }
+
+    @Test
+    void whenLatencyStaysHigh_thenDecreaseLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 2.0, 0.5, 0.5);
+
+        sample(limiter, "GET /api/v1/todos/{id}", 10, 1);
+        for (int i = 0; i < 19; i++) {
+            sample(limiter, "GET /api/v1/todos/{id}", 100, 1);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void whenSingleSlowRequest_thenKeepLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 2.0, 0.5, 0.5);
+
+        sample(limiter, "GET /api/v1/todos/{id}", 10, 1);
+        sample(limiter, "GET /api/v1/todos/{id}", 200, 1);
+        for (int i = 0; i < 30; i++) {
+            sample(limiter, "GET /api/v1/todos/{id}", 10, 1);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void whenRoutesDifferInLatency_thenEachComparedWithItsOwnBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 2.0, 0.5, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            sample(limiter, "GET /api/v1/todos/{id}", 1, 1);
+            sample(limiter, "GET /api/v1/todos", 50, 1);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void whenReleasedWithoutSample_thenKeepLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 2.0, 0.5, 0.5);
+        sample(limiter, "GET /api/v1/todos/export", 1, 1);
+
+        limiter.tryAcquire(RequestPriority.LOW);
+        limiter.release();
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void whenLatencyStableAndLimitUsed_thenIncreaseLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 20, 2.0, 0.5, 0.5);
+
+        sample(limiter, "GET /api/v1/todos/{id}", 10, 3);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void whenLimitBacksOff_thenNeverBelowMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 3, 20, 2.0, 0.1, 0.5);
+
+        sample(limiter, "GET /api/v1/todos/{id}", 1, 1);
+        for (int i = 0; i < 19; i++) {
+            sample(limiter, "GET /api/v1/todos/{id}", 50, 1);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+}
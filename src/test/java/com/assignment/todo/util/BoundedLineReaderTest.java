@@ -0,0 +1,40 @@
+package com.assignment.todo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedLineReaderTest {
+
+    private static List<String> lines(String input, int maxLineLength) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader(input), maxLineLength);
+        List<String> lines = new ArrayList<>();
+        while (reader.next()) {
+            lines.add(reader.isTooLong() ? "<too long>" : reader.line());
+        }
+        return lines;
+    }
+
+    @Test
+    void whenLinesWithinLimit_thenReadWithoutLineBreaks() throws IOException {
+        assertThat(lines("one\r\ntwo\n\nthree", 5)).containsExactly("one", "two", "", "three");
+    }
+
+    @Test
+    void whenInputEndsWithLineBreak_thenNoEmptyLastLine() throws IOException {
+        assertThat(lines("one\n", 5)).containsExactly("one");
+        assertThat(lines("", 5)).isEmpty();
+    }
+
+    @Test
+    void whenLineTooLong_thenSkipToNextLine() throws IOException {
+        assertThat(lines("12345\r\n123456\n" + "x".repeat(20_000) + "\nlast", 5))
+                .containsExactly("12345", "<too long>", "<too long>", "last");
+    }
+
+}
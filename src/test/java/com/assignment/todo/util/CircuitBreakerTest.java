@@ -0,0 +1,66 @@
+package com.assignment.todo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofNanos(100), now::get);
+
+    @Test
+    void whenFailuresReachThreshold_thenRejectCalls() {
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void whenSuccessBetweenFailures_thenStayClosed() {
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.isOpen()).isFalse();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void whenOpenDurationElapsed_thenAllowSingleTrial() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now.addAndGet(100);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.isOpen()).isFalse();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void whenTrialFails_thenOpenAgain() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now.addAndGet(100);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.tryAcquire()).isFalse();
+        now.addAndGet(100);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.assignment.todo.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoarseClockTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T00:00:00Z");
+
+    private final SimulatedClock source = new SimulatedClock(START, ZoneOffset.UTC);
+
+    // refreshed by the test only
+    private final CoarseClock clock = new CoarseClock(source, Duration.ofDays(1));
+
+    @AfterEach
+    void tearDown() {
+        clock.close();
+    }
+
+    @Test
+    void whenSourceMoves_thenTimeMovesOnRefreshOnly() {
+        source.advance(Duration.ofMillis(5));
+
+        assertThat(clock.instant()).isEqualTo(START);
+
+        clock.refresh();
+
+        assertThat(clock.instant()).isEqualTo(START.plusMillis(5));
+        assertThat(clock.millis()).isEqualTo(START.plusMillis(5).toEpochMilli());
+    }
+
+    @Test
+    void whenSourceGoesBackwards_thenTimeStays() {
+        source.advance(Duration.ofSeconds(1));
+        clock.refresh();
+        source.set(START);
+
+        clock.refresh();
+
+        assertThat(clock.instant()).isEqualTo(START.plusSeconds(1));
+    }
+
+    @Test
+    void whenWithZone_thenShareTheCachedTime() {
+        Clock paris = clock.withZone(ZoneId.of("Europe/Paris"));
+        source.advance(Duration.ofMinutes(1));
+
+        clock.refresh();
+
+        assertThat(paris.getZone()).isEqualTo(ZoneId.of("Europe/Paris"));
+        assertThat(paris.instant()).isEqualTo(START.plusSeconds(60));
+    }
+
+    @Test
+    void whenSimulatedClockAdvanced_thenDerivedClocksFollow() {
+        Clock paris = source.withZone(ZoneId.of("Europe/Paris"));
+
+        source.advance(Duration.ofDays(7));
+
+        assertThat(paris.instant()).isEqualTo(START.plus(Duration.ofDays(7)));
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.assignment.todo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DescriptionCodecTest {
+
+    @Test
+    void whenSmallDescription_thenStoredAsUtf8() {
+        byte[] stored = DescriptionCodec.encode("Buy milk");
+
+        assertThat(stored).isEqualTo("Buy milk".getBytes(StandardCharsets.UTF_8));
+        assertThat(DescriptionCodec.decode(stored)).isEqualTo("Buy milk");
+    }
+
+    @Test
+    void whenLargeDescription_thenStoredCompressed() {
+        String description = "Meeting notes, action items and links pasted from the chat. ".repeat(100);
+
+        byte[] stored = DescriptionCodec.encode(description);
+
+        assertThat(DescriptionCodec.isCompressed(stored)).isTrue();
+        assertThat(stored.length).isLessThan(description.length() / 4);
+        assertThat(DescriptionCodec.decode(stored)).isEqualTo(description);
+    }
+
+    @Test
+    void whenTextStartsLikeGzip_thenNotMistakenForIt() {
+        // no UTF-8 text starts with the gzip magic bytes, 0x8b is never the second byte of a character
+        String description = "\u001f\u008b" + "x".repeat(DescriptionCodec.COMPRESSION_THRESHOLD);
+
+        assertThat(DescriptionCodec.isCompressed(description.getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(DescriptionCodec.decode(DescriptionCodec.encode(description))).isEqualTo(description);
+    }
+
+    @Test
+    void whenShortSingleLine_thenPreviewIsDescription() {
+        assertThat(DescriptionCodec.preview("Buy milk")).isEqualTo("Buy milk");
+    }
+
+    @Test
+    void whenSeveralLines_thenPreviewIsFirstLine() {
+        assertThat(DescriptionCodec.preview("Groceries\n- milk\n- bread")).isEqualTo("Groceries\u2026");
+        assertThat(DescriptionCodec.preview("Groceries \r\n- milk")).isEqualTo("Groceries\u2026");
+    }
+
+    @Test
+    void whenLongLine_thenPreviewIsCutToLength() {
+        String preview = DescriptionCodec.preview("a".repeat(1000));
+
+        assertThat(preview).hasSize(DescriptionCodec.PREVIEW_LENGTH).endsWith("\u2026");
+    }
+
+    @Test
+    void whenCutInSurrogatePair_thenCharacterNotSplit() {
+        String description = "a".repeat(DescriptionCodec.PREVIEW_LENGTH - 2) + "\uD83D\uDE00" + "b".repeat(10);
+
+        String preview = DescriptionCodec.preview(description);
+
+        assertThat(preview).isEqualTo("a".repeat(DescriptionCodec.PREVIEW_LENGTH - 2) + "\u2026");
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.assignment.todo.util;
+
+import com.assignment.todo.constants.RecurrenceFrequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RecurrenceRuleTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 1, 31, 9, 0);
+
+    @Test
+    void whenDaily_thenEveryIntervalDaysInWindow() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 2, Set.of(), FIRST, null);
+
+        assertThat(rule.occurrences(LocalDateTime.of(2024, 2, 3, 0, 0), LocalDateTime.of(2024, 2, 8, 0, 0)))
+                .containsExactly(LocalDateTime.of(2024, 2, 4, 9, 0), LocalDateTime.of(2024, 2, 6, 9, 0));
+    }
+
+    @Test
+    void whenWindowYearsAfterFirst_thenStartFromWindow() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 1, Set.of(), FIRST, null);
+
+        assertThat(rule.occurrences(LocalDateTime.of(2124, 1, 1, 0, 0), LocalDateTime.of(2124, 1, 2, 0, 0)))
+                .containsExactly(LocalDateTime.of(2124, 1, 1, 9, 0));
+    }
+
+    @Test
+    void whenWindowBeforeFirst_thenNoOccurrence() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 1, Set.of(), FIRST, null);
+
+        assertThat(rule.occurrences(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 9, 0))).isEmpty();
+    }
+
+    @Test
+    void whenWeeklyOnDays_thenDaysOfEveryIntervalWeeks() {
+        // 31 January 2024 is a wednesday
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.WEEKLY, 2,
+                EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), FIRST, null);
+
+        assertThat(rule.occurrences(LocalDateTime.of(2024, 1, 29, 0, 0), LocalDateTime.of(2024, 2, 17, 0, 0)))
+                .containsExactly(LocalDateTime.of(2024, 2, 2, 9, 0),
+                        LocalDateTime.of(2024, 2, 12, 9, 0), LocalDateTime.of(2024, 2, 16, 9, 0));
+    }
+
+    @Test
+    void whenMonthlyOnLastDay_thenStayOnLastDayOfShorterMonths() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.MONTHLY, 1, Set.of(), FIRST, null);
+
+        assertThat(rule.occurrences(FIRST, LocalDateTime.of(2024, 5, 1, 0, 0)))
+                .containsExactly(FIRST, LocalDateTime.of(2024, 2, 29, 9, 0),
+                        LocalDateTime.of(2024, 3, 31, 9, 0), LocalDateTime.of(2024, 4, 30, 9, 0));
+    }
+
+    @Test
+    void whenUntil_thenNoOccurrenceAfter() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 1, Set.of(), FIRST,
+                LocalDateTime.of(2024, 2, 2, 9, 0));
+
+        assertThat(rule.occurrences(FIRST, LocalDateTime.of(2024, 3, 1, 0, 0))).hasSize(3);
+    }
+
+    @Test
+    void whenCheckOccurrence_thenOnlyDueDatesOfRule() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.WEEKLY, 1, Set.of(), FIRST, null);
+
+        assertThat(rule.isOccurrence(LocalDateTime.of(2024, 2, 7, 9, 0))).isTrue();
+        assertThat(rule.isOccurrence(LocalDateTime.of(2024, 2, 7, 9, 1))).isFalse();
+        assertThat(rule.isOccurrence(LocalDateTime.of(2024, 2, 8, 9, 0))).isFalse();
+        assertThat(rule.isOccurrence(LocalDateTime.of(2024, 1, 24, 9, 0))).isFalse();
+    }
+
+    @Test
+    void whenIntervalBelowOne_thenThrowException() {
+        assertThatThrownBy(() -> new RecurrenceRule(RecurrenceFrequency.DAILY, 0, Set.of(), FIRST, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
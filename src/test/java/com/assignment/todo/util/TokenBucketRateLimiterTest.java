@@ -0,0 +1,44 @@
+package com.assignment.todo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    void whenClientIdsOverCap_thenShareBucketOfAddress() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.001, 1, 100, 1);
+
+        assertThat(limiter.tryAcquire("10.0.0.1", "client-1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1", "client-2")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1", "client-3")).isFalse();
+        assertThat(limiter.tryAcquire("10.0.0.1", null)).isFalse();
+        assertThat(limiter.tryAcquire("10.0.0.2", "client-3")).isTrue();
+    }
+
+    @Test
+    void whenMaxClientsReached_thenLeastRecentlyUsedDropped() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.001, 1, 2, 1);
+        limiter.tryAcquire("10.0.0.1", null);
+        limiter.tryAcquire("10.0.0.2", null);
+        limiter.tryAcquire("10.0.0.1", null);
+
+        assertThat(limiter.tryAcquire("10.0.0.3", null)).isTrue();
+
+        assertThat(limiter.trackedClients()).isEqualTo(2);
+        // 10.0.0.2 was dropped and starts over with a full bucket, 10.0.0.1 is still empty
+        assertThat(limiter.tryAcquire("10.0.0.1", null)).isFalse();
+        assertThat(limiter.tryAcquire("10.0.0.2", null)).isTrue();
+    }
+
+    @Test
+    void whenClientIdBucketDropped_thenItsSlotFreed() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.001, 1, 1, 1);
+        limiter.tryAcquire("10.0.0.1", "client-1");
+        limiter.tryAcquire("10.0.0.2", null);
+
+        assertThat(limiter.tryAcquire("10.0.0.1", "client-2")).isTrue();
+    }
+
+}